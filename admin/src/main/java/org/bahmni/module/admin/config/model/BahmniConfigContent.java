@@ -0,0 +1,43 @@
+package org.bahmni.module.admin.config.model;
+
+import java.util.Date;
+
+public class BahmniConfigContent {
+    private final String appName;
+
+    private final String configName;
+
+    private final String content;
+
+    private final String eTag;
+
+    private final Date lastModified;
+
+    public BahmniConfigContent(String appName, String configName, String content, String eTag, Date lastModified) {
+        this.appName = appName;
+        this.configName = configName;
+        this.content = content;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    public String getConfigName() {
+        return configName;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+}
@@ -1,12 +1,15 @@
 package org.bahmni.module.admin.config.service;
 
 import org.bahmni.module.admin.config.model.BahmniConfig;
+import org.bahmni.module.admin.config.model.BahmniConfigContent;
 
 import java.util.List;
 
 public interface BahmniConfigService {
     BahmniConfig get(String appName, String configName);
 
+    BahmniConfigContent getContent(String appName, String configName);
+
     List<BahmniConfig> getAllFor(String appName);
 
     BahmniConfig save(BahmniConfig bahmniConfig);
@@ -1,19 +1,27 @@
 package org.bahmni.module.admin.config.service.impl;
 
+import org.apache.commons.lang3.StringEscapeUtils;
 import org.bahmni.module.admin.config.dao.BahmniConfigDao;
 import org.bahmni.module.admin.config.model.BahmniConfig;
+import org.bahmni.module.admin.config.model.BahmniConfigContent;
 import org.bahmni.module.admin.config.service.BahmniConfigService;
 import org.openmrs.api.context.Context;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class BahmniConfigServiceImpl implements BahmniConfigService {
     private BahmniConfigDao bahmniConfigDao;
+    private final Map<String, BahmniConfigContent> contentCache = new ConcurrentHashMap<>();
+    private long contentCacheGeneration = 0;
 
     @Autowired
     public BahmniConfigServiceImpl(BahmniConfigDao bahmniConfigDao) {
@@ -25,6 +33,22 @@ public class BahmniConfigServiceImpl implements BahmniConfigService {
         return bahmniConfigDao.get(appName, configName);
     }
 
+    @Override
+    public BahmniConfigContent getContent(String appName, String configName) {
+        String key = cacheKey(appName, configName);
+        BahmniConfigContent content = contentCache.get(key);
+        if (content == null) {
+            long generation = currentGeneration();
+            BahmniConfig bahmniConfig = bahmniConfigDao.get(appName, configName);
+            if (bahmniConfig == null) {
+                return null;
+            }
+            content = createContent(bahmniConfig);
+            cache(key, content, generation);
+        }
+        return content;
+    }
+
     @Override
     public List<BahmniConfig> getAllFor(String appName) {
         return bahmniConfigDao.getAllFor(appName);
@@ -33,7 +57,9 @@ public class BahmniConfigServiceImpl implements BahmniConfigService {
     @Override
     public BahmniConfig save(BahmniConfig bahmniConfig) {
         createNewConfig(bahmniConfig);
-        return bahmniConfigDao.save(bahmniConfig);
+        BahmniConfig savedConfig = bahmniConfigDao.save(bahmniConfig);
+        evict(bahmniConfig);
+        return savedConfig;
     }
 
     @Override
@@ -41,6 +67,7 @@ public class BahmniConfigServiceImpl implements BahmniConfigService {
         BahmniConfig existingConfig = bahmniConfigDao.get(configUpdate.getUuid());
         updateExistingConfig(configUpdate, existingConfig);
         BahmniConfig updatedConfig = bahmniConfigDao.update(existingConfig);
+        evict(existingConfig);
         return bahmniConfigDao.get(updatedConfig.getUuid());
     }
 
@@ -61,4 +88,31 @@ public class BahmniConfigServiceImpl implements BahmniConfigService {
         existingConfig.setChangedBy(Context.getAuthenticatedUser());
         existingConfig.setDateChanged(new Date());
     }
+
+    private BahmniConfigContent createContent(BahmniConfig bahmniConfig) {
+        String content = StringEscapeUtils.unescapeJava(bahmniConfig.getConfig());
+        String eTag = content == null ? null : "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+        Date lastModified = bahmniConfig.getDateChanged() != null ? bahmniConfig.getDateChanged() : bahmniConfig.getDateCreated();
+        return new BahmniConfigContent(bahmniConfig.getAppName(), bahmniConfig.getConfigName(), content, eTag, lastModified);
+    }
+
+    private synchronized long currentGeneration() {
+        return contentCacheGeneration;
+    }
+
+    //A config saved while its content was being read must not be overwritten by the stale read
+    private synchronized void cache(String key, BahmniConfigContent content, long generation) {
+        if (generation == contentCacheGeneration) {
+            contentCache.put(key, content);
+        }
+    }
+
+    private synchronized void evict(BahmniConfig bahmniConfig) {
+        contentCacheGeneration++;
+        contentCache.remove(cacheKey(bahmniConfig.getAppName(), bahmniConfig.getConfigName()));
+    }
+
+    private String cacheKey(String appName, String configName) {
+        return appName + "/" + configName;
+    }
 }
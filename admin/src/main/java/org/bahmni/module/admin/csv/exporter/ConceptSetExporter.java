@@ -1,22 +1,56 @@
 package org.bahmni.module.admin.csv.exporter;
 
+import au.com.bytecode.opencsv.CSVWriter;
+import org.apache.log4j.Logger;
+import org.bahmni.module.admin.concepts.mapper.ConceptMapper;
 import org.bahmni.module.admin.concepts.mapper.ConceptSetMapper;
+import org.bahmni.module.admin.csv.models.ConceptRow;
 import org.bahmni.module.admin.csv.models.ConceptRows;
+import org.bahmni.module.admin.csv.models.ConceptSetRow;
 import org.bahmni.module.referencedata.labconcepts.contract.Concepts;
 import org.bahmni.module.referencedata.labconcepts.service.ReferenceDataConceptService;
+import org.openmrs.Concept;
+import org.openmrs.ConceptAnswer;
 import org.openmrs.api.APIException;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
 @Service
 public class ConceptSetExporter {
+    static final int BATCH_SIZE = 200;
+
+    private static Logger logger = Logger.getLogger(ConceptSetExporter.class);
 
     @Autowired
     private ReferenceDataConceptService conceptService;
+    @Autowired
+    private ConceptService openmrsConceptService;
     private final ConceptSetMapper conceptSetMapper;
+    private final ConceptMapper conceptMapper;
+    private final org.bahmni.module.referencedata.labconcepts.mapper.ConceptSetMapper referenceDataConceptSetMapper;
+    private final org.bahmni.module.referencedata.labconcepts.mapper.ConceptMapper referenceDataConceptMapper;
 
     public ConceptSetExporter() {
         conceptSetMapper = new ConceptSetMapper();
+        conceptMapper = new ConceptMapper();
+        referenceDataConceptSetMapper = new org.bahmni.module.referencedata.labconcepts.mapper.ConceptSetMapper();
+        referenceDataConceptMapper = new org.bahmni.module.referencedata.labconcepts.mapper.ConceptMapper();
     }
 
     public ConceptRows exportConcepts(String conceptName) {
@@ -28,4 +62,143 @@ public class ConceptSetExporter {
         conceptRows.makeCSVReady();
         return conceptRows;
     }
-}
\ No newline at end of file
+
+    /**
+     * Walks the concept set once, keeping only concept ids in write order and the column counts of the widest rows.
+     * The order is the dependency order of {@link #exportConcepts(String)}: answers before the concepts using them and
+     * members before their sets. Concepts reachable along several paths are planned once.
+     */
+    public ExportPlan planExport(String conceptName) {
+        Concept root = openmrsConceptService.getConceptByName(conceptName);
+        if (root == null) {
+            throw new APIException("Concept " + conceptName + " not found");
+        }
+        ExportPlan plan = new ExportPlan();
+        Set<Integer> visitedSets = new HashSet<>();
+        Set<Integer> visitedConcepts = new HashSet<>();
+        Deque<Node> path = new ArrayDeque<>();
+        visitedSets.add(root.getConceptId());
+        path.push(visit(root, true, plan));
+        int loaded = 1;
+        while (!path.isEmpty()) {
+            Node node = path.peek();
+            if (!node.children.hasNext()) {
+                path.pop();
+                (node.set ? plan.conceptSetIds : plan.conceptIds).add(node.conceptId);
+                continue;
+            }
+            Node child = node.children.next();
+            Set<Integer> visited = child.set ? visitedSets : visitedConcepts;
+            if (visited.add(child.conceptId)) {
+                path.push(visit(openmrsConceptService.getConcept(child.conceptId), child.set, plan));
+                if (++loaded % BATCH_SIZE == 0) {
+                    Context.clearSession();
+                    logger.info(String.format("Planned export of %s: %d concepts read", conceptName, loaded));
+                }
+            }
+        }
+        Context.clearSession();
+        return plan;
+    }
+
+    /**
+     * Writes concepts.csv and concept_sets.csv of the plan into a zip on the stream, {@link #BATCH_SIZE} rows at a time.
+     */
+    public void writeExport(ExportPlan plan, OutputStream outputStream) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8));
+
+        zipOutputStream.putNextEntry(new ZipEntry("concepts.csv"));
+        ConceptRow conceptHeaders = new ConceptRow();
+        conceptHeaders.adjust(plan.maxSynonyms, plan.maxAnswers, plan.maxReferenceTerms);
+        csvWriter.writeNext(conceptHeaders.getHeaders().getOriginalRow());
+        for (int start = 0; start < plan.conceptIds.size(); start += BATCH_SIZE) {
+            for (Integer conceptId : plan.conceptIds.subList(start, Math.min(start + BATCH_SIZE, plan.conceptIds.size()))) {
+                ConceptRow conceptRow = conceptMapper.map(referenceDataConceptMapper.map(openmrsConceptService.getConcept(conceptId)));
+                conceptRow.adjust(plan.maxSynonyms, plan.maxAnswers, plan.maxReferenceTerms);
+                csvWriter.writeNext(conceptRow.getOriginalRow());
+            }
+            endBatch(csvWriter, "concepts", start, plan.conceptIds.size());
+        }
+        csvWriter.flush();
+        zipOutputStream.closeEntry();
+
+        zipOutputStream.putNextEntry(new ZipEntry("concept_sets.csv"));
+        ConceptSetRow conceptSetHeaders = new ConceptSetRow();
+        conceptSetHeaders.adjust(plan.maxSetMembers, plan.maxSetReferenceTerms);
+        csvWriter.writeNext(conceptSetHeaders.getHeaders().getOriginalRow());
+        for (int start = 0; start < plan.conceptSetIds.size(); start += BATCH_SIZE) {
+            for (Integer conceptId : plan.conceptSetIds.subList(start, Math.min(start + BATCH_SIZE, plan.conceptSetIds.size()))) {
+                ConceptSetRow conceptSetRow = conceptSetMapper.map(referenceDataConceptSetMapper.map(openmrsConceptService.getConcept(conceptId)));
+                conceptSetRow.adjust(plan.maxSetMembers, plan.maxSetReferenceTerms);
+                csvWriter.writeNext(conceptSetRow.getOriginalRow());
+            }
+            endBatch(csvWriter, "concept sets", start, plan.conceptSetIds.size());
+        }
+        csvWriter.flush();
+        zipOutputStream.closeEntry();
+        zipOutputStream.finish();
+        zipOutputStream.flush();
+    }
+
+    private void endBatch(CSVWriter csvWriter, String rowType, int start, int total) throws IOException {
+        csvWriter.flush();
+        Context.clearSession();
+        logger.info(String.format("Exported %d of %d %s", Math.min(start + BATCH_SIZE, total), total, rowType));
+    }
+
+    private Node visit(Concept concept, boolean set, ExportPlan plan) {
+        List<Node> children = new ArrayList<>();
+        if (set) {
+            ConceptSetRow conceptSetRow = conceptSetMapper.map(referenceDataConceptSetMapper.map(concept));
+            plan.maxSetMembers = Math.max(plan.maxSetMembers, conceptSetRow.getChildren().size());
+            plan.maxSetReferenceTerms = Math.max(plan.maxSetReferenceTerms, conceptSetRow.referenceTerms.size());
+            for (Concept setMember : concept.getSetMembers()) {
+                children.add(new Node(setMember.getConceptId(), setMember.isSet()));
+            }
+        } else {
+            ConceptRow conceptRow = conceptMapper.map(referenceDataConceptMapper.map(concept));
+            plan.maxSynonyms = Math.max(plan.maxSynonyms, conceptRow.getSynonyms().size());
+            plan.maxAnswers = Math.max(plan.maxAnswers, conceptRow.getAnswers().size());
+            plan.maxReferenceTerms = Math.max(plan.maxReferenceTerms, conceptRow.getReferenceTerms().size());
+            for (ConceptAnswer answer : concept.getAnswers()) {
+                children.add(new Node(answer.getAnswerConcept().getConceptId(), false));
+            }
+        }
+        Node node = new Node(concept.getConceptId(), set);
+        node.children = children.iterator();
+        return node;
+    }
+
+    /**
+     * Ids of the concepts and concept sets to export in write order, and the widest row of each file.
+     */
+    public static class ExportPlan {
+        private final List<Integer> conceptIds = new ArrayList<>();
+        private final List<Integer> conceptSetIds = new ArrayList<>();
+        private int maxSynonyms;
+        private int maxAnswers;
+        private int maxReferenceTerms;
+        private int maxSetMembers;
+        private int maxSetReferenceTerms;
+
+        public List<Integer> getConceptIds() {
+            return conceptIds;
+        }
+
+        public List<Integer> getConceptSetIds() {
+            return conceptSetIds;
+        }
+    }
+
+    private static class Node {
+        private final Integer conceptId;
+        private final boolean set;
+        private Iterator<Node> children;
+
+        Node(Integer conceptId, boolean set) {
+            this.conceptId = conceptId;
+            this.set = set;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.bahmni.module.admin.csv.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConceptRowDiff {
+    public static final String NEW = "new";
+    public static final String CHANGED = "changed";
+    public static final String UNCHANGED = "unchanged";
+    public static final String INVALID = "invalid";
+
+    private String name;
+    private String status;
+    private List<String> changedFields = new ArrayList<>();
+
+    public ConceptRowDiff(String name, String status) {
+        this.name = name;
+        this.status = status;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<String> getChangedFields() {
+        return changedFields;
+    }
+
+    public void addChangedField(String field) {
+        changedFields.add(field);
+        status = CHANGED;
+    }
+}
@@ -0,0 +1,215 @@
+package org.bahmni.module.admin.csv.persister;
+
+import au.com.bytecode.opencsv.CSVReader;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.bahmni.csv.CSVEntity;
+import org.bahmni.csv.EntityPersister;
+import org.bahmni.csv.KeyValue;
+import org.bahmni.csv.Messages;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Lets a dictionary file be imported with several threads. A row naming answers or set members that are defined on
+ * earlier rows of the same file waits until those rows are persisted, and a row repeating an earlier name waits for
+ * that earlier row, so rows that do not depend on each other run in parallel while the dependencies still land first,
+ * as they do in a single threaded import. A dependency defined on a later row is not waited for, which is what a
+ * single threaded import would have seen as well. A row whose dependency failed is reported without being persisted.
+ */
+public class DependencyOrderedPersister<T extends CSVEntity> implements EntityPersister<T> {
+    static final long MAX_WAIT_MINUTES = 10;
+
+    private static final Logger logger = Logger.getLogger(DependencyOrderedPersister.class);
+
+    private final EntityPersister<T> persister;
+    private final Function<T, String> nameOf;
+    private final Function<T, List<KeyValue>> dependenciesOf;
+    private final Rows rows;
+    private final Map<List<String>, Deque<Integer>> unclaimedRowIndexesByContent = new HashMap<>();
+    private final RowState[] rowStates;
+
+    public DependencyOrderedPersister(EntityPersister<T> persister, Rows rows,
+                                      Function<T, String> nameOf, Function<T, List<KeyValue>> dependenciesOf) {
+        this.persister = persister;
+        this.nameOf = nameOf;
+        this.dependenciesOf = dependenciesOf;
+        this.rows = rows;
+        for (Map.Entry<List<String>, List<Integer>> entry : rows.rowIndexesByContent.entrySet()) {
+            unclaimedRowIndexesByContent.put(entry.getKey(), new ArrayDeque<>(entry.getValue()));
+        }
+        rowStates = new RowState[rows.size];
+        for (int rowIndex = 0; rowIndex < rows.size; rowIndex++) {
+            rowStates[rowIndex] = new RowState();
+        }
+    }
+
+    /**
+     * Rows of a dictionary file, indexed by the lower cased name they define and by their content, so that the
+     * persister can tell which row an entity was read from.
+     */
+    public static class Rows {
+        private final Map<String, List<Integer>> rowIndexesByName = new HashMap<>();
+        private final Map<List<String>, List<Integer>> rowIndexesByContent = new HashMap<>();
+        private int size;
+
+        /**
+         * @return indexes of the rows defining the name, in file order
+         */
+        public List<Integer> definedAt(String name) {
+            List<Integer> rowIndexes = rowIndexesByName.get(key(name));
+            return rowIndexes == null ? new ArrayList<Integer>() : rowIndexes;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void add(String[] row, String name) {
+            if (StringUtils.isNotBlank(name)) {
+                rowIndexesByName.computeIfAbsent(key(name), n -> new ArrayList<>()).add(size);
+            }
+            rowIndexesByContent.computeIfAbsent(Arrays.asList(row), content -> new ArrayList<>()).add(size);
+            size++;
+        }
+    }
+
+    public static Rows indexRows(InputStream csv, String nameHeader) throws IOException {
+        Rows rows = new Rows();
+        CSVReader csvReader = new CSVReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        try {
+            String[] headers = csvReader.readNext();
+            int nameColumn = headers == null ? -1 : indexOf(headers, nameHeader);
+            if (nameColumn < 0) {
+                return rows;
+            }
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                rows.add(row, nameColumn < row.length ? row[nameColumn] : null);
+            }
+        } finally {
+            csvReader.close();
+        }
+        return rows;
+    }
+
+    @Override
+    public Messages persist(T csvEntity) {
+        Integer rowIndex = claimRow(csvEntity.getOriginalRow());
+        boolean persisted = false;
+        try {
+            Messages messages = awaitDependencies(rowIndex, nameOf.apply(csvEntity), dependenciesOf.apply(csvEntity));
+            if (!messages.isEmpty()) {
+                return messages;
+            }
+            messages = persister.persist(csvEntity);
+            persisted = messages.isEmpty();
+            return messages;
+        } finally {
+            if (rowIndex != null) {
+                rowStates[rowIndex].done(persisted);
+            }
+        }
+    }
+
+    @Override
+    public Messages validate(T csvEntity) {
+        Messages messages = persister.validate(csvEntity);
+        if (!messages.isEmpty()) {
+            //The row will not be persisted, release the rows waiting on it
+            Integer rowIndex = claimRow(csvEntity.getOriginalRow());
+            if (rowIndex != null) {
+                rowStates[rowIndex].done(false);
+            }
+        }
+        return messages;
+    }
+
+    private synchronized Integer claimRow(String[] originalRow) {
+        Deque<Integer> rowIndexes = originalRow == null ? null : unclaimedRowIndexesByContent.get(Arrays.asList(originalRow));
+        return rowIndexes == null ? null : rowIndexes.poll();
+    }
+
+    private Messages awaitDependencies(Integer rowIndex, String name, List<KeyValue> dependencies) {
+        Messages messages = new Messages();
+        if (rowIndex == null) {
+            return messages;
+        }
+        List<String> dependencyNames = new ArrayList<>();
+        dependencyNames.add(name);
+        for (KeyValue dependency : dependencies) {
+            dependencyNames.add(dependency.getValue());
+        }
+        for (String dependencyName : dependencyNames) {
+            Integer dependencyRowIndex = lastRowBefore(rowIndex, rows.definedAt(dependencyName));
+            if (dependencyRowIndex == null) {
+                continue;
+            }
+            try {
+                RowState dependencyState = rowStates[dependencyRowIndex];
+                if (!dependencyState.await()) {
+                    logger.warn(String.format("Gave up waiting for %s to be imported before row %d", dependencyName, rowIndex + 1));
+                } else if (dependencyState.failed) {
+                    messages.add(String.format("%s defined on row %d could not be imported\n", dependencyName, dependencyRowIndex + 1));
+                    return messages;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                messages.add("Import interrupted\n");
+                return messages;
+            }
+        }
+        return messages;
+    }
+
+    private static Integer lastRowBefore(int rowIndex, List<Integer> rowIndexes) {
+        Integer lastRowIndex = null;
+        for (Integer candidate : rowIndexes) {
+            if (candidate >= rowIndex) {
+                break;
+            }
+            lastRowIndex = candidate;
+        }
+        return lastRowIndex;
+    }
+
+    private static String key(String name) {
+        return name == null ? null : name.trim().toLowerCase();
+    }
+
+    private static int indexOf(String[] headers, String header) {
+        for (int column = 0; column < headers.length; column++) {
+            if (header.equalsIgnoreCase(StringUtils.trim(headers[column]))) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    private static class RowState {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean failed;
+
+        void done(boolean persisted) {
+            failed = !persisted;
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return done.await(MAX_WAIT_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -30,7 +30,6 @@ import java.util.Set;
 
 @Component
 public class EncounterPersister implements EntityPersister<MultipleEncounterRow> {
-    public static final String IMPORT_ID = "IMPORT_ID_";
     @Autowired
     private PatientMatchService patientMatchService;
     @Autowired
@@ -42,6 +41,7 @@ public class EncounterPersister implements EntityPersister<MultipleEncounterRow>
     @Autowired
     private AuditLogService auditLogService;
 
+    private final RowLocks patientIdentifierLocks = new RowLocks();
     private UserContext userContext;
     private String patientMatchingAlgorithmClassName;
     private boolean shouldMatchExactPatientId;
@@ -67,7 +67,7 @@ public class EncounterPersister implements EntityPersister<MultipleEncounterRow>
         if (StringUtils.isEmpty(multipleEncounterRow.patientIdentifier)) {
             return noMatchingPatients(multipleEncounterRow);
         }
-        synchronized ((IMPORT_ID + multipleEncounterRow.patientIdentifier).intern()) {
+        return patientIdentifierLocks.withLock(multipleEncounterRow.patientIdentifier, () -> {
             try {
                 Context.openSession();
                 Context.setUserContext(userContext);
@@ -111,7 +111,7 @@ public class EncounterPersister implements EntityPersister<MultipleEncounterRow>
                 Context.flushSession();
                 Context.closeSession();
             }
-        }
+        });
     }
 
     private Set<EncounterTransaction.Provider> getProviders(String providerName) {
@@ -2,6 +2,7 @@ package org.bahmni.module.admin.csv.persister;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -15,14 +16,17 @@ import org.openmrs.Concept;
 import org.openmrs.ConceptNumeric;
 import org.openmrs.Encounter;
 import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
 import org.openmrs.Obs;
 import org.openmrs.Order;
+import org.openmrs.OrderType;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
 import org.openmrs.Visit;
 import org.openmrs.api.APIException;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
+import org.openmrs.api.ObsService;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.ProviderService;
 import org.openmrs.api.context.Context;
@@ -59,6 +63,8 @@ public class LabResultPersister implements EntityPersister<LabResultsRow> {
     @Autowired
     private EncounterService encounterService;
     @Autowired
+    private ObsService obsService;
+    @Autowired
     private VisitIdentificationHelper visitIdentificationHelper;
     @Autowired
     private LabOrderResultMapper labOrderResultMapper;
@@ -69,11 +75,31 @@ public class LabResultPersister implements EntityPersister<LabResultsRow> {
     private UserContext userContext;
     private String loginLocationUuid;
 
+    //Metadata ids resolved once per import run in init. Rows run in their own sessions, so entities are reloaded by id
+    private Integer encounterTypeId;
+    private Integer encounterRoleId;
+    private Integer orderTypeId;
+    private Integer careSettingId;
+    private Integer providerId;
+    private boolean isAuditLogEnabled;
+    private final Map<String, Integer> conceptIdsByName = new ConcurrentHashMap<>();
+
     public void init(UserContext userContext, String patientMatchingAlgorithmClassName, boolean shouldMatchExactPatientId, String loginLocationUuid) {
         this.userContext = userContext;
         this.patientMatchingAlgorithmClassName = patientMatchingAlgorithmClassName;
         this.shouldMatchExactPatientId = shouldMatchExactPatientId;
         this.loginLocationUuid = loginLocationUuid;
+        this.conceptIdsByName.clear();
+        this.encounterTypeId = required(encounterService.getEncounterType(LAB_RESULT_ENCOUNTER_TYPE),
+                "Encounter type " + LAB_RESULT_ENCOUNTER_TYPE).getEncounterTypeId();
+        this.encounterRoleId = required(encounterService.getEncounterRoleByUuid(EncounterRole.UNKNOWN_ENCOUNTER_ROLE_UUID),
+                "Encounter role " + EncounterRole.UNKNOWN_ENCOUNTER_ROLE_UUID).getEncounterRoleId();
+        this.orderTypeId = required(orderService.getOrderTypeByName(LAB_ORDER_TYPE), "Order type " + LAB_ORDER_TYPE).getOrderTypeId();
+        this.careSettingId = required(orderService.getCareSettingByName(CareSetting.CareSettingType.OUTPATIENT.toString()),
+                "Care setting " + CareSetting.CareSettingType.OUTPATIENT).getCareSettingId();
+        Collection<Provider> providers = providerService.getProvidersByPerson(userContext.getAuthenticatedUser().getPerson());
+        this.providerId = providers.isEmpty() ? null : providers.iterator().next().getProviderId();
+        this.isAuditLogEnabled = Boolean.valueOf(Context.getAdministrationService().getGlobalProperty("bahmni.enableAuditLog"));
     }
 
     @Override
@@ -84,56 +110,62 @@ public class LabResultPersister implements EntityPersister<LabResultsRow> {
             Encounter encounter = new Encounter();
             encounter.setPatient(patient);
             encounter.setEncounterDatetime(labResultsRow.getTestDate());
-            encounter.setEncounterType(encounterService.getEncounterType(LAB_RESULT_ENCOUNTER_TYPE));
-            encounter.addProvider(encounterService.getEncounterRoleByUuid(EncounterRole.UNKNOWN_ENCOUNTER_ROLE_UUID), getProvider());
+            encounter.setEncounterType(getEncounterType());
+            Provider provider = getProvider();
+            encounter.addProvider(getEncounterRole(), provider);
+            OrderType orderType = getOrderType();
+            CareSetting careSetting = getCareSetting();
             HashSet<Obs> resultObservations = new HashSet<>();
             for (LabResultRow labResultRow : labResultsRow.getTestResults()) {
-                org.openmrs.Concept concept = conceptService.getConceptByName(labResultRow.getTest());
+                Concept concept = getConceptByName(labResultRow.getTest());
+                if (concept == null) {
+                    throw new APIException("Concept is not available in OpenMRS for test: " + labResultRow.getTest());
+                }
                 if (concept.isNumeric()) {
                     ConceptNumeric cn = (ConceptNumeric) concept;
                     if (!cn.isAllowDecimal() && labResultRow.getResult().contains(".")) {
                         throw new APIException("Decimal is not allowed for " + cn.getName() + " concept");
                     }
                 }
-                Order testOrder = getTestOrder(patient, labResultRow, labResultsRow.getTestDate());
+                Order testOrder = getTestOrder(patient, concept, labResultsRow.getTestDate(), orderType, careSetting, provider);
                 encounter.addOrder(testOrder);
                 resultObservations.add(getResultObs(labResultRow.getResult(), testOrder, concept));
             }
             visit.addEncounter(encounter);
             Encounter savedEncounter = encounterService.saveEncounter(encounter);
             bahmniVisitAttributeSaveCommand.save(savedEncounter);
-            Boolean isAuditLogEnabled = Boolean.valueOf(Context.getAdministrationService().getGlobalProperty("bahmni.enableAuditLog"));
             if (isAuditLogEnabled) {
                 Map<String, String> params = new HashMap<>();
                 params.put("encounterUuid", savedEncounter.getUuid());
                 params.put("encounterType", savedEncounter.getEncounterType().getName());
                 auditLogService.createAuditLog(patient.getUuid(), "EDIT_ENCOUNTER", "EDIT_ENCOUNTER_MESSAGE", params, "MODULE_LABEL_ADMIN_KEY");
             }
-            saveResults(encounter, resultObservations);
+            saveResults(savedEncounter, resultObservations);
             return new Messages();
         } catch (Exception e) {
             throw new APIException(e.getMessage(), e);
         }
     }
 
-    // Hack: OpenMRS doesn't allow saving order and its associated observations in single call
-    // throws error object references an unsaved transient instance - save the transient instance before flushing
+    // OpenMRS doesn't allow saving an order and the observations that reference it in a single saveEncounter call,
+    // the flush fails with "object references an unsaved transient instance". The results are saved once the orders
+    // have ids, obs by obs, so the encounter and its orders are not written a second time.
     private void saveResults(Encounter encounter, HashSet<Obs> resultObservations) {
         for (Obs obs : resultObservations) {
             encounter.addObs(obs);
+            obsService.saveObs(obs, null);
         }
-        encounterService.saveEncounter(encounter);
     }
 
-    private Order getTestOrder(Patient patient, LabResultRow labResultRow, Date testDate) throws ParseException {
+    private Order getTestOrder(Patient patient, Concept concept, Date testDate, OrderType orderType, CareSetting careSetting, Provider provider) throws ParseException {
         Order order = new Order();
-        order.setConcept(conceptService.getConceptByName(labResultRow.getTest()));
+        order.setConcept(concept);
         order.setDateActivated(testDate);
         order.setAutoExpireDate(testDate);
         order.setPatient(patient);
-        order.setOrderType(orderService.getOrderTypeByName(LAB_ORDER_TYPE));
-        order.setCareSetting(orderService.getCareSettingByName(CareSetting.CareSettingType.OUTPATIENT.toString()));
-        order.setOrderer(getProvider());
+        order.setOrderType(orderType);
+        order.setCareSetting(careSetting);
+        order.setOrderer(provider);
         return order;
     }
 
@@ -142,7 +174,7 @@ public class LabResultPersister implements EntityPersister<LabResultsRow> {
         labOrderResult.setResult(labResult);
         labOrderResult.setResultDateTime(testOrder.getDateActivated());
         if (concept.getDatatype().getHl7Abbreviation().equals(org.openmrs.ConceptDatatype.CODED)) {
-            Concept resultConcept = conceptService.getConceptByName(labResult);
+            Concept resultConcept = getConceptByName(labResult);
             if (resultConcept != null)
                 labOrderResult.setResultUuid(resultConcept.getUuid());
             else
@@ -151,9 +183,43 @@ public class LabResultPersister implements EntityPersister<LabResultsRow> {
         return labOrderResultMapper.map(labOrderResult, testOrder, testOrder.getConcept());
     }
 
+    private Concept getConceptByName(String name) {
+        Integer conceptId = conceptIdsByName.get(name);
+        if (conceptId != null) {
+            return conceptService.getConcept(conceptId);
+        }
+        Concept concept = conceptService.getConceptByName(name);
+        if (concept != null) {
+            conceptIdsByName.put(name, concept.getConceptId());
+        }
+        return concept;
+    }
+
+    private EncounterType getEncounterType() {
+        return encounterService.getEncounterType(encounterTypeId);
+    }
+
+    private EncounterRole getEncounterRole() {
+        return encounterService.getEncounterRole(encounterRoleId);
+    }
+
+    private OrderType getOrderType() {
+        return orderService.getOrderType(orderTypeId);
+    }
+
+    private CareSetting getCareSetting() {
+        return orderService.getCareSetting(careSettingId);
+    }
+
     private Provider getProvider() {
-        Collection<Provider> providers = providerService.getProvidersByPerson(userContext.getAuthenticatedUser().getPerson());
-        return providers.size() > 0 ? providers.iterator().next() : null;
+        return providerId == null ? null : providerService.getProvider(providerId);
+    }
+
+    private <T> T required(T metadata, String description) {
+        if (metadata == null) {
+            throw new APIException(description + " is not available in OpenMRS, lab results cannot be imported");
+        }
+        return metadata;
     }
 
     @Override
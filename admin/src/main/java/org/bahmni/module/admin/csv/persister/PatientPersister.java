@@ -34,39 +34,45 @@ public class PatientPersister implements EntityPersister<PatientRow> {
     @Qualifier("adminService")
     private AdministrationService administrationService;
 
-    private CSVAddressService csvAddressService;
+    private CSVPatientService csvPatientService;
+    private final RowLocks registrationNumberLocks = new RowLocks();
 
     private static final Logger log = Logger.getLogger(PatientPersister.class);
 
     public void init(UserContext userContext) {
         this.userContext = userContext;
+        this.csvPatientService = null;
     }
 
     @Override
     public Messages persist(PatientRow patientRow) {
-        try {
-            Context.openSession();
-            Context.setUserContext(userContext);
+        // Rows are imported in parallel, a registration number repeated in the file must not be saved twice
+        return registrationNumberLocks.withLock(String.valueOf(patientRow.registrationNumber), () -> {
+            try {
+                Context.openSession();
+                Context.setUserContext(userContext);
 
-            new CSVPatientService(patientService, personService, conceptService, administrationService, getAddressHierarchyService()).save(patientRow);
+                getCsvPatientService().save(patientRow);
 
-            return new Messages();
-        } catch (Throwable e) {
-            log.error(e.getMessage(), e);
-            Context.clearSession();
-            return new Messages(e);
-        } finally {
-            Context.flushSession();
-            Context.closeSession();
-        }
+                return new Messages();
+            } catch (Throwable e) {
+                log.error(e.getMessage(), e);
+                Context.clearSession();
+                return new Messages(e);
+            } finally {
+                Context.flushSession();
+                Context.closeSession();
+            }
+        });
     }
 
-    private CSVAddressService getAddressHierarchyService() {
-        if (csvAddressService == null) {
+    private synchronized CSVPatientService getCsvPatientService() {
+        if (csvPatientService == null) {
             AddressHierarchyService addressHierarchyService = Context.getService(AddressHierarchyService.class);
-            this.csvAddressService = new CSVAddressService(addressHierarchyService);
+            csvPatientService = new CSVPatientService(patientService, personService, conceptService, administrationService,
+                    new CSVAddressService(addressHierarchyService));
         }
-        return csvAddressService;
+        return csvPatientService;
     }
 
     @Override
@@ -0,0 +1,37 @@
+package org.bahmni.module.admin.csv.persister;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the import of rows sharing a key, such as a patient identifier, while rows with other keys run in
+ * parallel. A key's lock is dropped as soon as no row holds or waits for it.
+ */
+class RowLocks {
+    private final ConcurrentMap<String, RowLock> locks = new ConcurrentHashMap<>();
+
+    <T> T withLock(String key, Supplier<T> work) {
+        RowLock lock = locks.compute(key, (k, existing) -> {
+            RowLock rowLock = existing == null ? new RowLock() : existing;
+            rowLock.users++;
+            return rowLock;
+        });
+        try {
+            synchronized (lock) {
+                return work.get();
+            }
+        } finally {
+            locks.computeIfPresent(key, (k, rowLock) -> --rowLock.users == 0 ? null : rowLock);
+        }
+    }
+
+    int size() {
+        return locks.size();
+    }
+
+    private static class RowLock {
+        //Only changed inside compute on the map, which is atomic per key
+        private int users;
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Map;
 public class CSVAddressService {
 
     private AddressHierarchyService addressHierarchyService;
-    private List<AddressHierarchyLevel> addressHierarchyLevels;
+    private volatile List<AddressHierarchyLevel> addressHierarchyLevels;
 
     public CSVAddressService() {
     }
@@ -20,7 +20,10 @@ import org.openmrs.api.PersonService;
 import java.text.ParseException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.bahmni.module.admin.csv.utils.CSVUtils.getDateFromString;
 
@@ -34,6 +37,12 @@ public class CSVPatientService {
     private AdministrationService administrationService;
     private CSVAddressService csvAddressService;
 
+    //Metadata is looked up once per import file and shared by the import threads as ids, every row runs in its own
+    //session and loads the entities by id there
+    private volatile Map<String, Integer> attributeTypeIdsByName;
+    private volatile Integer patientIdentifierTypeId;
+    private final Map<String, Integer> codedAnswerIdsByName = new ConcurrentHashMap<>();
+
     public CSVPatientService(PatientService patientService, PersonService personService, ConceptService conceptService, AdministrationService administrationService, CSVAddressService csvAddressService) {
         this.patientService = patientService;
         this.personService = personService;
@@ -77,24 +86,37 @@ public class CSVPatientService {
     		   continue;
     		PersonAttributeType personAttributeType = findAttributeType(attribute.getKey());
     		if (personAttributeType.getFormat().equalsIgnoreCase("org.openmrs.Concept")) {
-    		    Concept concept = getConceptByName(attribute.getValue());
-    		    if (concept != null) {
-    		    	patient.addAttribute(new PersonAttribute(personAttributeType, concept.getId().toString()));
+    		    Integer conceptId = getConceptIdByName(attribute.getValue());
+    		    if (conceptId != null) {
+    		    	patient.addAttribute(new PersonAttribute(personAttributeType, conceptId.toString()));
     		    } else {
     		    	throw new RuntimeException("Invalid value for Attribute." + attribute.getKey());
     		    }
     		} else if (personAttributeType.getFormat().startsWith("java.lang.")) {
-    		    patient.addAttribute(new PersonAttribute(findAttributeType(attribute.getKey()), attribute.getValue()));
+    		    patient.addAttribute(new PersonAttribute(personAttributeType, attribute.getValue()));
     		} else if (personAttributeType.getFormat().startsWith("org.openmrs.util.AttributableDate")) {
     		    //Validating the Date format
     		    String dateString = attribute.getValue();
     		    getDateFromString(dateString);
-    		    patient.addAttribute(new PersonAttribute(findAttributeType(attribute.getKey()),dateString));
+    		    patient.addAttribute(new PersonAttribute(personAttributeType, dateString));
     		}
     	}
     }
 
-    private Concept getConceptByName(String name) {
+    private Integer getConceptIdByName(String name) {
+        String key = name.toLowerCase();
+        Integer conceptId = codedAnswerIdsByName.get(key);
+        if (conceptId == null) {
+            Concept concept = findConceptByName(name);
+            if (concept != null) {
+                conceptId = concept.getConceptId();
+                codedAnswerIdsByName.put(key, conceptId);
+            }
+        }
+        return conceptId;
+    }
+
+    private Concept findConceptByName(String name) {
         List<Concept> concepts = conceptService.getConceptsByName(name);
         if (concepts != null) {
             for (Concept concept : concepts) {
@@ -110,18 +132,39 @@ public class CSVPatientService {
     }
 
     private PersonAttributeType findAttributeType(String key) {
-        for (PersonAttributeType personAttributeType : personService.getAllPersonAttributeTypes(false)) {
-            if (key.equalsIgnoreCase(personAttributeType.getName())) {
-                return personAttributeType;
-            }
+        Integer personAttributeTypeId = getAttributeTypeIdsByName().get(key.toLowerCase());
+        if (personAttributeTypeId != null) {
+            return personService.getPersonAttributeType(personAttributeTypeId);
         }
 
         throw new RuntimeException(String.format("Person Attribute %s not found", key));
     }
 
+    private Map<String, Integer> getAttributeTypeIdsByName() {
+        if (attributeTypeIdsByName == null) {
+            Map<String, Integer> attributeTypeIds = new HashMap<>();
+            for (PersonAttributeType personAttributeType : personService.getAllPersonAttributeTypes(false)) {
+                String name = personAttributeType.getName().toLowerCase();
+                if (!attributeTypeIds.containsKey(name)) {
+                    attributeTypeIds.put(name, personAttributeType.getPersonAttributeTypeId());
+                }
+            }
+            attributeTypeIdsByName = attributeTypeIds;
+        }
+        return attributeTypeIdsByName;
+    }
+
     private PatientIdentifierType getPatientIdentifierType() {
-        String globalProperty = administrationService.getGlobalProperty(BAHMNI_PRIMARY_IDENTIFIER_TYPE);
-        return patientService.getPatientIdentifierTypeByUuid(globalProperty);
+        if (patientIdentifierTypeId == null) {
+            String globalProperty = administrationService.getGlobalProperty(BAHMNI_PRIMARY_IDENTIFIER_TYPE);
+            PatientIdentifierType patientIdentifierType = patientService.getPatientIdentifierTypeByUuid(globalProperty);
+            if (patientIdentifierType == null) {
+                throw new RuntimeException(String.format("Patient identifier type '%s' set in %s not found", globalProperty, BAHMNI_PRIMARY_IDENTIFIER_TYPE));
+            }
+            patientIdentifierTypeId = patientIdentifierType.getPatientIdentifierTypeId();
+            return patientIdentifierType;
+        }
+        return patientService.getPatientIdentifierType(patientIdentifierTypeId);
     }
 
 }
@@ -0,0 +1,136 @@
+package org.bahmni.module.admin.csv.service;
+
+import au.com.bytecode.opencsv.CSVReader;
+import org.apache.commons.lang3.StringUtils;
+import org.bahmni.module.admin.csv.models.ConceptRowDiff;
+import org.bahmni.module.referencedata.labconcepts.contract.Concept;
+import org.bahmni.module.referencedata.labconcepts.contract.ConceptCommon;
+import org.bahmni.module.referencedata.labconcepts.mapper.ConceptMapper;
+import org.bahmni.module.referencedata.labconcepts.model.ConceptMetaData;
+import org.bahmni.module.referencedata.labconcepts.service.ConceptMetaDataService;
+import org.openmrs.api.context.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dry run of a concept CSV import: reports for every row whether it would create a concept, change an existing one
+ * (and which columns differ) or leave it as it is, without saving anything.
+ */
+@Service
+public class ConceptImportDiffService {
+    private static final int ROWS_PER_SESSION = 200;
+
+    private final ConceptMetaDataService conceptMetaDataService;
+    private final ConceptMapper conceptMapper = new ConceptMapper();
+
+    @Autowired
+    public ConceptImportDiffService(ConceptMetaDataService conceptMetaDataService) {
+        this.conceptMetaDataService = conceptMetaDataService;
+    }
+
+    public List<ConceptRowDiff> diff(InputStream csv) throws IOException {
+        List<ConceptRowDiff> diffs = new ArrayList<>();
+        CSVReader csvReader = new CSVReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        try {
+            String[] headers = csvReader.readNext();
+            if (headers == null) {
+                return diffs;
+            }
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                diffs.add(diff(new CsvRow(headers, row)));
+                if (diffs.size() % ROWS_PER_SESSION == 0) {
+                    Context.clearSession();
+                }
+            }
+        } finally {
+            csvReader.close();
+        }
+        return diffs;
+    }
+
+    private ConceptRowDiff diff(CsvRow row) {
+        ConceptCommon conceptCommon = new ConceptCommon();
+        conceptCommon.setUuid(StringUtils.trimToNull(row.get("uuid")));
+        conceptCommon.setUniqueName(row.get("name"));
+        conceptCommon.setLocale(row.get("locale"));
+        ConceptMetaData conceptMetaData;
+        try {
+            conceptMetaData = conceptMetaDataService.getConceptMetaData(conceptCommon);
+        } catch (IllegalArgumentException e) {
+            return new ConceptRowDiff(row.get("name"), ConceptRowDiff.INVALID);
+        }
+        if (conceptMetaData.getExistingConcept() == null) {
+            return new ConceptRowDiff(row.get("name"), ConceptRowDiff.NEW);
+        }
+        Concept existing = conceptMapper.map(conceptMetaData.getExistingConcept());
+        ConceptRowDiff diff = new ConceptRowDiff(row.get("name"), ConceptRowDiff.UNCHANGED);
+        compare(diff, "name", existing.getUniqueName(), row.get("name"));
+        compare(diff, "description", existing.getDescription(), row.get("description"));
+        compare(diff, "class", existing.getClassName(), row.get("class"));
+        compare(diff, "shortname", existing.getDisplayName(), row.get("shortname"));
+        compare(diff, "datatype", existing.getDataType(), row.get("datatype"));
+        compare(diff, "synonyms", existing.getSynonyms(), row.getAll("synonym."));
+        compare(diff, "answers", existing.getAnswers(), row.getAll("answer."));
+        return diff;
+    }
+
+    private void compare(ConceptRowDiff diff, String field, String existing, String imported) {
+        if (!StringUtils.equalsIgnoreCase(StringUtils.trimToEmpty(existing), StringUtils.trimToEmpty(imported))) {
+            diff.addChangedField(field);
+        }
+    }
+
+    private void compare(ConceptRowDiff diff, String field, List<String> existing, List<String> imported) {
+        if (!lowerCased(existing).equals(lowerCased(imported))) {
+            diff.addChangedField(field);
+        }
+    }
+
+    private Set<String> lowerCased(List<String> values) {
+        Set<String> lowerCased = new HashSet<>();
+        for (String value : values) {
+            lowerCased.add(value.trim().toLowerCase());
+        }
+        return lowerCased;
+    }
+
+    private static class CsvRow {
+        private final String[] headers;
+        private final String[] values;
+
+        CsvRow(String[] headers, String[] values) {
+            this.headers = headers;
+            this.values = values;
+        }
+
+        String get(String header) {
+            for (int column = 0; column < headers.length && column < values.length; column++) {
+                if (header.equalsIgnoreCase(StringUtils.trim(headers[column]))) {
+                    return values[column];
+                }
+            }
+            return null;
+        }
+
+        List<String> getAll(String headerPrefix) {
+            List<String> all = new ArrayList<>();
+            for (int column = 0; column < headers.length && column < values.length; column++) {
+                if (StringUtils.startsWithIgnoreCase(StringUtils.trim(headers[column]), headerPrefix)
+                        && StringUtils.isNotBlank(values[column])) {
+                    all.add(values[column]);
+                }
+            }
+            return all;
+        }
+    }
+}
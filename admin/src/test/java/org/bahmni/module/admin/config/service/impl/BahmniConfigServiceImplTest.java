@@ -2,6 +2,7 @@ package org.bahmni.module.admin.config.service.impl;
 
 import org.bahmni.module.admin.config.dao.impl.BahmniConfigDaoImpl;
 import org.bahmni.module.admin.config.model.BahmniConfig;
+import org.bahmni.module.admin.config.model.BahmniConfigContent;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,9 +16,12 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -41,9 +45,13 @@ public class BahmniConfigServiceImplTest {
 
         existingConfig = new BahmniConfig();
         existingConfig.setUuid("existing");
+        existingConfig.setAppName("clinical");
+        existingConfig.setConfigName("app.json");
+        existingConfig.setConfig("{\\\"key\\\": \\\"value\\\"}");
         newConfig = new BahmniConfig();
         when(bahmniConfigDao.get("existing")).thenReturn(existingConfig);
         when(bahmniConfigDao.get("new")).thenReturn(null);
+        when(bahmniConfigDao.get("clinical", "app.json")).thenReturn(existingConfig);
         when(bahmniConfigDao.save(any(BahmniConfig.class))).then(new Answer<BahmniConfig>() {
             @Override
             public BahmniConfig answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -84,4 +92,35 @@ public class BahmniConfigServiceImplTest {
         assertEquals(creator, savedConfig.getCreator());
         assertEquals("Yo Config", savedConfig.getConfig());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReadConfigContentFromDatabaseOnlyOnce() throws Exception {
+        BahmniConfigContent content = bahmniConfigService.getContent("clinical", "app.json");
+        BahmniConfigContent cachedContent = bahmniConfigService.getContent("clinical", "app.json");
+
+        assertEquals("{\"key\": \"value\"}", content.getContent());
+        assertNotNull(content.getETag());
+        assertEquals(content, cachedContent);
+        verify(bahmniConfigDao, times(1)).get("clinical", "app.json");
+    }
+
+    @Test
+    public void shouldRefreshConfigContentAfterUpdate() throws Exception {
+        BahmniConfigContent content = bahmniConfigService.getContent("clinical", "app.json");
+        BahmniConfig configUpdate = new BahmniConfig();
+        configUpdate.setUuid("existing");
+        configUpdate.setConfig("Modified Config");
+
+        bahmniConfigService.update(configUpdate);
+        BahmniConfigContent updatedContent = bahmniConfigService.getContent("clinical", "app.json");
+
+        assertEquals("Modified Config", updatedContent.getContent());
+        assertNotEquals(content.getETag(), updatedContent.getETag());
+        assertEquals(existingConfig.getDateChanged(), updatedContent.getLastModified());
+    }
+
+    @Test
+    public void shouldReturnNullContentForUnknownConfig() throws Exception {
+        assertNull(bahmniConfigService.getContent("clinical", "unknown.json"));
+    }
+}
@@ -12,10 +12,18 @@ import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Scanner;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ConceptSetExporterIT extends BaseIntegrationTest {
 
@@ -37,6 +45,41 @@ public class ConceptSetExporterIT extends BaseIntegrationTest {
         conceptSetExporter.exportConcepts("Does not exist");
     }
 
+    @Test
+    public void throwExceptionWhenPlanningExportOfMissingConcept() throws Exception {
+        exception.expect(APIException.class);
+        exception.expectMessage("Concept Does not exist not found");
+        conceptSetExporter.planExport("Does not exist");
+    }
+
+    @Test
+    public void streamConceptAndConceptSetCsvsIntoZip() throws Exception {
+        ConceptSetExporter.ExportPlan exportPlan = conceptSetExporter.planExport("Big Concept");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        conceptSetExporter.writeExport(exportPlan, outputStream);
+
+        List<String> entryNames = new ArrayList<>();
+        List<String> entryContents = new ArrayList<>();
+        ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            entryNames.add(entry.getName());
+            Scanner scanner = new Scanner(zipInputStream, StandardCharsets.UTF_8.name()).useDelimiter("\\A");
+            entryContents.add(scanner.hasNext() ? scanner.next() : "");
+        }
+        assertEquals(2, entryNames.size());
+        assertEquals("concepts.csv", entryNames.get(0));
+        assertEquals("concept_sets.csv", entryNames.get(1));
+        String[] conceptLines = entryContents.get(0).split("\n");
+        String[] conceptSetLines = entryContents.get(1).split("\n");
+        assertEquals(exportPlan.getConceptIds().size() + 1, conceptLines.length);
+        assertEquals(exportPlan.getConceptSetIds().size() + 1, conceptSetLines.length);
+        assertTrue(conceptLines[0].startsWith("\"uuid\",\"name\""));
+        assertTrue(conceptSetLines[conceptSetLines.length - 1].contains("\"Big Concept\""));
+        assertTrue(entryContents.get(0).contains("\"Child1\""));
+    }
+
     @Test
     @Ignore
     public void getListOfConceptRows() throws Exception {
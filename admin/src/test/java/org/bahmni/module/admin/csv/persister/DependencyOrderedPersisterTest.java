@@ -0,0 +1,166 @@
+package org.bahmni.module.admin.csv.persister;
+
+import org.bahmni.csv.EntityPersister;
+import org.bahmni.csv.KeyValue;
+import org.bahmni.csv.Messages;
+import org.bahmni.module.admin.csv.models.ConceptRow;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyOrderedPersisterTest {
+
+    @Test
+    public void shouldIndexRowsDefiningEachName() throws Exception {
+        DependencyOrderedPersister.Rows rows = rows("uuid,name,class\n,Yes,Misc\n,No,Misc\n,YES,Misc\n");
+
+        assertEquals(asList(0, 2), rows.definedAt("yes"));
+        assertEquals(asList(1), rows.definedAt("No"));
+        assertTrue(rows.definedAt("maybe").isEmpty());
+        assertEquals(3, rows.size());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldPersistAnswerDefinedOnEarlierRowBeforeQuestion() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        final DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nYes,\nSmoker,Yes\n");
+
+        Thread questionThread = new Thread(() -> persister.persist(conceptRow("Smoker", "Yes")));
+        questionThread.start();
+        Thread.sleep(100);
+        assertEquals(0, recordingPersister.persisted.size());
+
+        persister.persist(conceptRow("Yes", ""));
+        questionThread.join();
+
+        assertEquals(asList("Yes", "Smoker"), recordingPersister.persisted);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldNotWaitForAnswerDefinedOnLaterRow() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nSmoker,Yes\nYes,\n");
+
+        persister.persist(conceptRow("Smoker", "Yes"));
+
+        assertEquals(asList("Smoker"), recordingPersister.persisted);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldPersistRepeatedNameAfterItsEarlierRow() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        final DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nYes,\nYES,\n");
+
+        Thread laterRowThread = new Thread(() -> persister.persist(conceptRow("YES", "")));
+        laterRowThread.start();
+        Thread.sleep(100);
+        assertEquals(0, recordingPersister.persisted.size());
+
+        persister.persist(conceptRow("Yes", ""));
+        laterRowThread.join();
+
+        assertEquals(asList("Yes", "YES"), recordingPersister.persisted);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldReportFailedDependencyWithoutPersistingTheRow() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        recordingPersister.failing = "Yes";
+        final DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nYes,\nSmoker,Yes\n");
+        final AtomicReference<Messages> questionMessages = new AtomicReference<>();
+
+        Thread questionThread = new Thread(() -> questionMessages.set(persister.persist(conceptRow("Smoker", "Yes"))));
+        questionThread.start();
+        Thread.sleep(100);
+        assertFalse(persister.persist(conceptRow("Yes", "")).isEmpty());
+        questionThread.join();
+
+        assertEquals(1, questionMessages.get().size());
+        assertEquals("Yes defined on row 1 could not be imported\n", questionMessages.get().get(0));
+        assertTrue(recordingPersister.persisted.isEmpty());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldReleaseRowsWaitingOnARowThatThrew() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        recordingPersister.throwing = "Yes";
+        DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nYes,\nSmoker,Yes\n");
+
+        try {
+            persister.persist(conceptRow("Yes", ""));
+        } catch (RuntimeException ignored) {
+        }
+
+        assertFalse(persister.persist(conceptRow("Smoker", "Yes")).isEmpty());
+        assertTrue(recordingPersister.persisted.isEmpty());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldReleaseRowsWaitingOnARowThatFailedValidation() throws Exception {
+        RecordingPersister recordingPersister = new RecordingPersister();
+        recordingPersister.failing = "Yes";
+        DependencyOrderedPersister<ConceptRow> persister = persister(recordingPersister, "name,answer.1\nYes,\nSmoker,Yes\n");
+
+        assertFalse(persister.validate(conceptRow("Yes", "")).isEmpty());
+
+        assertFalse(persister.persist(conceptRow("Smoker", "Yes")).isEmpty());
+        assertTrue(recordingPersister.persisted.isEmpty());
+    }
+
+    private DependencyOrderedPersister<ConceptRow> persister(RecordingPersister recordingPersister, String csv) throws IOException {
+        return new DependencyOrderedPersister<>(recordingPersister, rows(csv), row -> row.name, ConceptRow::getAnswers);
+    }
+
+    private DependencyOrderedPersister.Rows rows(String csv) throws IOException {
+        return DependencyOrderedPersister.indexRows(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "name");
+    }
+
+    private ConceptRow conceptRow(String name, String answer) {
+        ConceptRow conceptRow = new ConceptRow();
+        conceptRow.name = name;
+        conceptRow.answers = new ArrayList<>();
+        if (!answer.isEmpty()) {
+            conceptRow.answers.add(new KeyValue("answer", answer));
+        }
+        conceptRow.originalRow(new String[]{name, answer});
+        return conceptRow;
+    }
+
+    private static class RecordingPersister implements EntityPersister<ConceptRow> {
+        private final List<String> persisted = Collections.synchronizedList(new ArrayList<String>());
+        private String failing;
+        private String throwing;
+
+        @Override
+        public Messages persist(ConceptRow conceptRow) {
+            if (conceptRow.name.equals(throwing)) {
+                throw new RuntimeException("Could not save " + conceptRow.name);
+            }
+            Messages messages = validate(conceptRow);
+            if (messages.isEmpty()) {
+                persisted.add(conceptRow.name);
+            }
+            return messages;
+        }
+
+        @Override
+        public Messages validate(ConceptRow conceptRow) {
+            Messages messages = new Messages();
+            if (conceptRow.name.equals(failing)) {
+                messages.add("Could not save " + conceptRow.name + "\n");
+            }
+            return messages;
+        }
+    }
+}
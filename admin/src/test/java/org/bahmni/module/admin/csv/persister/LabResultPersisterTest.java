@@ -0,0 +1,186 @@
+package org.bahmni.module.admin.csv.persister;
+
+import org.bahmni.module.admin.csv.models.LabResultRow;
+import org.bahmni.module.admin.csv.models.LabResultsRow;
+import org.bahmni.module.admin.csv.service.PatientMatchService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.CareSetting;
+import org.openmrs.Concept;
+import org.openmrs.ConceptDatatype;
+import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
+import org.openmrs.Obs;
+import org.openmrs.Order;
+import org.openmrs.OrderType;
+import org.openmrs.Patient;
+import org.openmrs.Person;
+import org.openmrs.User;
+import org.openmrs.Visit;
+import org.openmrs.api.APIException;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.ObsService;
+import org.openmrs.api.OrderService;
+import org.openmrs.api.ProviderService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.auditlog.service.AuditLogService;
+import org.openmrs.module.bahmniemrapi.encountertransaction.command.impl.BahmniVisitAttributeService;
+import org.openmrs.module.bahmniemrapi.encountertransaction.service.VisitIdentificationHelper;
+import org.openmrs.module.bahmniemrapi.laborder.contract.LabOrderResult;
+import org.openmrs.module.bahmniemrapi.laborder.mapper.LabOrderResultMapper;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class LabResultPersisterTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private PatientMatchService patientMatchService;
+    @Mock
+    private ConceptService conceptService;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private ProviderService providerService;
+    @Mock
+    private EncounterService encounterService;
+    @Mock
+    private ObsService obsService;
+    @Mock
+    private VisitIdentificationHelper visitIdentificationHelper;
+    @Mock
+    private LabOrderResultMapper labOrderResultMapper;
+    @Mock
+    private BahmniVisitAttributeService bahmniVisitAttributeService;
+    @Mock
+    private AuditLogService auditLogService;
+    @Mock
+    private AdministrationService administrationService;
+    @Mock
+    private UserContext userContext;
+
+    @InjectMocks
+    private LabResultPersister labResultPersister;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        mockStatic(Context.class);
+        when(Context.getAdministrationService()).thenReturn(administrationService);
+        User user = new User(new Person());
+        when(userContext.getAuthenticatedUser()).thenReturn(user);
+        when(providerService.getProvidersByPerson(user.getPerson())).thenReturn(Collections.emptyList());
+        when(encounterService.getEncounterType(LabResultPersister.LAB_RESULT_ENCOUNTER_TYPE)).thenReturn(new EncounterType(1));
+        when(encounterService.getEncounterRoleByUuid(EncounterRole.UNKNOWN_ENCOUNTER_ROLE_UUID)).thenReturn(new EncounterRole(2));
+        when(orderService.getOrderTypeByName(LabResultPersister.LAB_ORDER_TYPE)).thenReturn(new OrderType(3));
+        CareSetting careSetting = new CareSetting();
+        careSetting.setCareSettingId(4);
+        when(orderService.getCareSettingByName("OUTPATIENT")).thenReturn(careSetting);
+    }
+
+    @Test
+    public void shouldResolveTheImportMetadataWhenInitialised() {
+        labResultPersister.init(userContext, null, true, "login-location-uuid");
+
+        verify(encounterService).getEncounterType(LabResultPersister.LAB_RESULT_ENCOUNTER_TYPE);
+        verify(encounterService).getEncounterRoleByUuid(EncounterRole.UNKNOWN_ENCOUNTER_ROLE_UUID);
+        verify(orderService).getOrderTypeByName(LabResultPersister.LAB_ORDER_TYPE);
+        verify(orderService).getCareSettingByName("OUTPATIENT");
+        verify(administrationService).getGlobalProperty("bahmni.enableAuditLog");
+    }
+
+    @Test
+    public void shouldFailToInitialiseWhenTheLabResultEncounterTypeIsMissing() {
+        when(encounterService.getEncounterType(LabResultPersister.LAB_RESULT_ENCOUNTER_TYPE)).thenReturn(null);
+
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("Encounter type LAB_RESULT is not available in OpenMRS, lab results cannot be imported");
+
+        labResultPersister.init(userContext, null, true, "login-location-uuid");
+    }
+
+    @Test
+    public void shouldFailToInitialiseWhenTheLabOrderTypeIsMissing() {
+        when(orderService.getOrderTypeByName(LabResultPersister.LAB_ORDER_TYPE)).thenReturn(null);
+
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("Order type Lab Order is not available in OpenMRS, lab results cannot be imported");
+
+        labResultPersister.init(userContext, null, true, "login-location-uuid");
+    }
+
+    @Test
+    public void shouldFailTheRowWithTheTestNameWhenTheTestConceptIsMissing() throws Exception {
+        labResultPersister.init(userContext, null, true, "login-location-uuid");
+        LabResultsRow labResultsRow = new LabResultsRow();
+        labResultsRow.setPatientIdentifier("GAN200001").setTestDateString("2014-10-11").setVisitType("LAB RESULT IMPORT VISIT");
+        labResultsRow.setTestResults(asList(new LabResultRow().setTest("Unknown Test").setResult("10")));
+
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("Concept is not available in OpenMRS for test: Unknown Test");
+
+        labResultPersister.persist(labResultsRow);
+    }
+
+    @Test
+    public void shouldSaveTheEncounterOnceAndItsResultsWithoutSavingTheEncounterAgain() throws Exception {
+        labResultPersister.init(userContext, null, true, "login-location-uuid");
+        when(encounterService.getEncounterType(1)).thenReturn(new EncounterType(1));
+        when(encounterService.getEncounterRole(2)).thenReturn(new EncounterRole(2));
+        when(patientMatchService.getPatient(any(String.class), any(List.class), anyString(), anyBoolean())).thenReturn(new Patient());
+        when(visitIdentificationHelper.getVisitFor(any(Patient.class), anyString(), any(Date.class), any(Date.class), any(Date.class), anyString()))
+                .thenReturn(new Visit());
+        when(conceptService.getConceptByName("Urea Nitrogen")).thenReturn(textConcept(10));
+        when(conceptService.getConceptByName("Proteins")).thenReturn(textConcept(11));
+        Obs ureaResult = new Obs();
+        Obs proteinsResult = new Obs();
+        when(labOrderResultMapper.map(any(LabOrderResult.class), any(Order.class), any(Concept.class))).thenReturn(ureaResult, proteinsResult);
+        when(encounterService.saveEncounter(any(Encounter.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        LabResultsRow labResultsRow = new LabResultsRow();
+        labResultsRow.setPatientIdentifier("GAN200001").setTestDateString("2014-10-11").setVisitType("LAB RESULT IMPORT VISIT");
+        labResultsRow.setTestResults(asList(new LabResultRow().setTest("Urea Nitrogen").setResult("10"),
+                new LabResultRow().setTest("Proteins").setResult("+")));
+
+        labResultPersister.persist(labResultsRow);
+
+        verify(encounterService, times(1)).saveEncounter(any(Encounter.class));
+        verify(obsService).saveObs(ureaResult, null);
+        verify(obsService).saveObs(proteinsResult, null);
+        assertEquals(ureaResult.getEncounter(), proteinsResult.getEncounter());
+    }
+
+    private Concept textConcept(int conceptId) {
+        ConceptDatatype text = new ConceptDatatype();
+        text.setHl7Abbreviation(ConceptDatatype.TEXT);
+        Concept concept = new Concept(conceptId);
+        concept.setDatatype(text);
+        return concept;
+    }
+}
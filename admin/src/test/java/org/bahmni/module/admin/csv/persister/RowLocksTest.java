@@ -0,0 +1,62 @@
+package org.bahmni.module.admin.csv.persister;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RowLocksTest {
+
+    @Test
+    public void shouldRunRowsWithTheSameKeyOneAtATime() throws Exception {
+        final RowLocks rowLocks = new RowLocks();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executorService.submit(() -> {
+                    start.await();
+                    return rowLocks.withLock("GAN200000", () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        return running.decrementAndGet();
+                    });
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void shouldDropTheLockOnceNoRowUsesIt() {
+        RowLocks rowLocks = new RowLocks();
+
+        rowLocks.withLock("GAN200000", () -> null);
+        try {
+            rowLocks.withLock("GAN200001", () -> {
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertEquals(0, rowLocks.size());
+        assertFalse(rowLocks.withLock("GAN200000", () -> rowLocks.size() == 0));
+    }
+}
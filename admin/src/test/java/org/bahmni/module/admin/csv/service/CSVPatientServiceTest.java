@@ -9,9 +9,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdentifierType;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttributeType;
 import org.openmrs.api.AdministrationService;
@@ -28,12 +31,17 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -55,9 +63,22 @@ public class CSVPatientServiceTest {
     @Mock
     private CSVAddressService csvAddressService;
 
+    private PatientIdentifierType patientIdentifierType;
+    private final Map<Integer, PersonAttributeType> personAttributeTypes = new HashMap<>();
+
     @Before
     public void setUp() throws Exception {
         initMocks(this);
+        patientIdentifierType = new PatientIdentifierType(1);
+        when(mockAdminService.getGlobalProperty("bahmni.primaryIdentifierType")).thenReturn("identifier-type-uuid");
+        when(mockPatientService.getPatientIdentifierTypeByUuid("identifier-type-uuid")).thenReturn(patientIdentifierType);
+        when(mockPatientService.getPatientIdentifierType(1)).thenReturn(patientIdentifierType);
+        when(mockPersonService.getPersonAttributeType(anyInt())).thenAnswer(new Answer<PersonAttributeType>() {
+            @Override
+            public PersonAttributeType answer(InvocationOnMock invocation) {
+                return personAttributeTypes.get(invocation.getArguments()[0]);
+            }
+        });
     }
 
     @Test
@@ -279,6 +300,51 @@ public class CSVPatientServiceTest {
         assertThat(patient.getAttribute("confirmedByChw").getValue(), is("123"));
     }
 
+    @Test
+    public void shouldResolveAttributeTypesIdentifierTypeAndCodedAnswersOncePerFile() throws ParseException {
+        when(mockPersonService.getAllPersonAttributeTypes(false)).thenReturn(Arrays.asList(
+                createPersonAttributeType("confirmedByChw", "org.openmrs.Concept"),
+                createPersonAttributeType("familyNameLocal", "java.lang.String")
+        ));
+        Concept concept = new Concept();
+        ConceptName conceptName = new ConceptName();
+        conceptName.setConceptNameType(ConceptNameType.FULLY_SPECIFIED);
+        conceptName.setName("Yes");
+        concept.setId(123);
+        concept.setNames(Collections.singletonList(conceptName));
+        when(conceptService.getConceptsByName("Yes")).thenReturn(Collections.singletonList(concept));
+
+        CSVPatientService csvPatientService = new CSVPatientService(mockPatientService, mockPersonService, conceptService, mockAdminService, csvAddressService);
+        for (int i = 0; i < 3; i++) {
+            PatientRow patientRow = new PatientRow();
+            patientRow.registrationNumber = "GAN20000" + i;
+            patientRow.attributes = new ArrayList<KeyValue>() {{
+                add(new KeyValue("confirmedByChw", "Yes"));
+                add(new KeyValue("familyNameLocal", "gond"));
+            }};
+            csvPatientService.save(patientRow);
+        }
+
+        verify(mockPatientService, times(3)).savePatient(any(Patient.class));
+        verify(mockPersonService, times(1)).getAllPersonAttributeTypes(false);
+        verify(conceptService, times(1)).getConceptsByName("Yes");
+        verify(mockAdminService, times(1)).getGlobalProperty("bahmni.primaryIdentifierType");
+        verify(mockPatientService, times(1)).getPatientIdentifierTypeByUuid("identifier-type-uuid");
+        verify(mockPatientService, times(2)).getPatientIdentifierType(1);
+    }
+
+    @Test
+    public void shouldFailWithAClearMessageWhenThePrimaryIdentifierTypeIsNotFound() throws ParseException {
+        when(mockAdminService.getGlobalProperty("bahmni.primaryIdentifierType")).thenReturn(null);
+        PatientRow patientRow = new PatientRow();
+        patientRow.registrationNumber = "GAN200000";
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Patient identifier type 'null' set in bahmni.primaryIdentifierType not found");
+
+        new CSVPatientService(mockPatientService, mockPersonService, conceptService, mockAdminService, csvAddressService).save(patientRow);
+    }
+
     @Test(expected = RuntimeException.class)
     public void shouldThrowExceptionIfTheCodedAttributeValueGivenIsInvalid() throws ParseException {
         when(mockPersonService.getAllPersonAttributeTypes(false)).thenReturn(Collections.singletonList(
@@ -347,6 +413,8 @@ public class CSVPatientServiceTest {
         PersonAttributeType personAttributeType = new PersonAttributeType();
         personAttributeType.setName(name);
         personAttributeType.setFormat(format);
+        personAttributeType.setPersonAttributeTypeId(personAttributeTypes.size() + 1);
+        personAttributeTypes.put(personAttributeType.getPersonAttributeTypeId(), personAttributeType);
         return personAttributeType;
     }
 }
@@ -0,0 +1,113 @@
+package org.bahmni.module.admin.csv.service;
+
+import org.bahmni.module.admin.csv.models.ConceptRowDiff;
+import org.bahmni.module.referencedata.labconcepts.contract.ConceptCommon;
+import org.bahmni.module.referencedata.labconcepts.model.ConceptMetaData;
+import org.bahmni.module.referencedata.labconcepts.service.ConceptMetaDataService;
+import org.bahmni.test.builder.ConceptBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.Concept;
+import org.openmrs.ConceptName;
+import org.openmrs.api.context.Context;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class ConceptImportDiffServiceTest {
+    private static final String HEADERS = "uuid,name,description,class,shortname,datatype,synonym.1,answer.1,answer.2\n";
+
+    @Mock
+    private ConceptMetaDataService conceptMetaDataService;
+
+    private Map<String, Concept> existingConcepts = new HashMap<>();
+    private ConceptImportDiffService conceptImportDiffService;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        mockStatic(Context.class);
+        when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+        when(conceptMetaDataService.getConceptMetaData(any(ConceptCommon.class))).thenAnswer(invocation -> {
+            ConceptCommon conceptCommon = (ConceptCommon) invocation.getArguments()[0];
+            if ("Invalid".equals(conceptCommon.getUniqueName())) {
+                throw new IllegalArgumentException("Invalid locale");
+            }
+            return new ConceptMetaData(existingConcepts.get(conceptCommon.getUniqueName()), null, null, Locale.ENGLISH);
+        });
+        conceptImportDiffService = new ConceptImportDiffService(conceptMetaDataService);
+    }
+
+    @Test
+    public void shouldReportConceptsThatDoNotExistAsNew() throws Exception {
+        List<ConceptRowDiff> diffs = diff(HEADERS + ",Smoker,Smokes,Misc,,Coded,,Yes,No\n");
+
+        assertEquals(1, diffs.size());
+        assertEquals("Smoker", diffs.get(0).getName());
+        assertEquals(ConceptRowDiff.NEW, diffs.get(0).getStatus());
+    }
+
+    @Test
+    public void shouldReportConceptsMatchingTheRowAsUnchanged() throws Exception {
+        existingConcepts.put("Smoker", smoker("Smokes"));
+
+        List<ConceptRowDiff> diffs = diff(HEADERS + ",Smoker, smokes ,misc,Smk,Coded,Tobacco user,No,Yes\n");
+
+        assertEquals(ConceptRowDiff.UNCHANGED, diffs.get(0).getStatus());
+        assertTrue(diffs.get(0).getChangedFields().isEmpty());
+    }
+
+    @Test
+    public void shouldListTheColumnsThatDifferFromTheExistingConcept() throws Exception {
+        existingConcepts.put("Smoker", smoker("Smokes"));
+
+        List<ConceptRowDiff> diffs = diff(HEADERS + ",Smoker,Smokes tobacco,Misc,Smk,Coded,Tobacco user,Yes,\n");
+
+        assertEquals(ConceptRowDiff.CHANGED, diffs.get(0).getStatus());
+        assertEquals(asList("description", "answers"), diffs.get(0).getChangedFields());
+    }
+
+    @Test
+    public void shouldReportRowsTheMetadataCannotBeResolvedForAsInvalid() throws Exception {
+        existingConcepts.put("Smoker", smoker("Smokes"));
+
+        List<ConceptRowDiff> diffs = diff(HEADERS + ",Invalid,,Misc,,Text,,,\n,Smoker,Smokes,Misc,Smk,Coded,Tobacco user,Yes,No\n");
+
+        assertEquals(2, diffs.size());
+        assertEquals(ConceptRowDiff.INVALID, diffs.get(0).getStatus());
+        assertEquals(ConceptRowDiff.UNCHANGED, diffs.get(1).getStatus());
+    }
+
+    private List<ConceptRowDiff> diff(String csv) throws IOException {
+        return conceptImportDiffService.diff(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Concept smoker(String description) {
+        Concept smoker = new ConceptBuilder().withName("Smoker", Locale.ENGLISH).withDescription(description)
+                .withClass("Misc").withShortName("Smk").withDataType("Coded")
+                .withAnswer(new ConceptBuilder().withName("Yes", Locale.ENGLISH).build())
+                .withAnswer(new ConceptBuilder().withName("No", Locale.ENGLISH).build()).build();
+        smoker.addName(new ConceptName("Tobacco user", Locale.ENGLISH));
+        return smoker;
+    }
+
+}
@@ -1,7 +1,8 @@
 package org.openmrs.module.bahmniemrapi.document.service.impl;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.bahmni.module.obsrelationship.api.ObsRelationService;
-import org.bahmni.module.obsrelationship.model.ObsRelationship;
 import org.openmrs.Concept;
 import org.openmrs.Encounter;
 import org.openmrs.EncounterRole;
@@ -26,14 +27,17 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 //comment
 @Service
 public class VisitDocumentServiceImpl implements VisitDocumentService {
 
     public static final String DOCUMENT_OBS_GROUP_CONCEPT_NAME = "Document";
+    private static final Log log = LogFactory.getLog(VisitDocumentServiceImpl.class);
 
     private VisitService visitService;
     private ConceptService conceptService;
@@ -59,40 +63,44 @@ public class VisitDocumentServiceImpl implements VisitDocumentService {
                 patient, visitDocumentRequest.getProviderUuid(), visitDocumentRequest.getLocationUuid());
         visit.addEncounter(encounter);
 
-        updateEncounter(encounter, encounterDate, visitDocumentRequest.getDocuments());
+        Map<String, Obs> existingObsByUuid = indexByUuid(encounter.getAllObs());
+        updateEncounter(encounter, encounterDate, visitDocumentRequest.getDocuments(), existingObsByUuid);
 
         Context.getEncounterService().saveEncounter(encounter);
         Context.getVisitService().saveVisit(visit);
-        linkDocumentAndImpressionObs(visitDocumentRequest);
+        linkDocumentAndImpressionObs(visitDocumentRequest, existingObsByUuid);
 
         return encounter;
     }
 
-    private void linkDocumentAndImpressionObs(VisitDocumentRequest visitDocumentRequest) {
+    private void linkDocumentAndImpressionObs(VisitDocumentRequest visitDocumentRequest, Map<String, Obs> existingObsByUuid) {
+        Map<Obs, Obs> documentObsByPreviousVersion = new HashMap<>();
         for (Document document : visitDocumentRequest.getDocuments()) {
             if (document.getObsUuid() != null) {
-                Obs parentObs = Context.getObsService().getObsByUuid(document.getObsUuid());
+                Obs parentObs = existingObsByUuid.get(document.getObsUuid());
+                if (parentObs == null) {
+                    parentObs = Context.getObsService().getObsByUuid(document.getObsUuid());
+                }
                 Set<Obs> groupMembers = parentObs.getGroupMembers();
                 if (groupMembers.size() > 0) {
                     Obs documentObs = groupMembers.iterator().next();
                     if (documentObs.getPreviousVersion() != null) {
-                        List<ObsRelationship> obsRelations = obsRelationService.getRelationsBy(null, documentObs.getPreviousVersion());
-                        for (ObsRelationship obsRelationship : obsRelations) {
-                            obsRelationship.setTargetObs(documentObs);
-                            obsRelationService.saveOrUpdate(obsRelationship);
-                        }
+                        documentObsByPreviousVersion.put(documentObs.getPreviousVersion(), documentObs);
                     }
                 }
             }
         }
+        obsRelationService.retargetRelations(documentObsByPreviousVersion);
     }
 
-    private void updateEncounter(Encounter encounter, Date encounterDateTime, List<Document> documents) {
+    private void updateEncounter(Encounter encounter, Date encounterDateTime, List<Document> documents, Map<String, Obs> existingObsByUuid) {
         Concept imageConcept = conceptService.getConceptByName(DOCUMENT_OBS_GROUP_CONCEPT_NAME);
+        Map<String, Concept> testConceptsByUuid = new HashMap<>();
 
+        int documentNumber = 0;
         for (Document document : documents) {
-            Concept testConcept = conceptService.getConceptByUuid(document.getTestUuid());
-            Obs parentObservation = findOrCreateParentObs(encounter, encounterDateTime, testConcept, document.getObsUuid());
+            Concept testConcept = testConceptsByUuid.computeIfAbsent(document.getTestUuid(), conceptService::getConceptByUuid);
+            Obs parentObservation = findOrCreateParentObs(existingObsByUuid, encounter, encounterDateTime, testConcept, document.getObsUuid());
             String url = document.getImage();
 
             if (document.isNew()) {
@@ -111,6 +119,7 @@ public class VisitDocumentServiceImpl implements VisitDocumentService {
                 setComment(parentObservation.getGroupMembers().iterator().next(), document);
             }
             encounter.addObs(parentObservation);
+            log.debug(String.format("Attached document %d of %d to encounter %s", ++documentNumber, documents.size(), encounter.getUuid()));
         }
 
     }
@@ -130,9 +139,10 @@ public class VisitDocumentServiceImpl implements VisitDocumentService {
         observation.setComment(document.getComment());
     }
 
-    private Obs findOrCreateParentObs(Encounter encounter, Date observationDateTime, Concept testConcept, String obsUuid) {
-        Obs observation = findObservation(encounter.getAllObs(), obsUuid);
-        return observation != null ? observation : newObs(observationDateTime, testConcept, null, null, encounter);
+    private Obs findOrCreateParentObs(Map<String, Obs> existingObsByUuid, Encounter encounter, Date observationDateTime, Concept testConcept, String obsUuid) {
+        Obs observation = obsUuid == null ? null : existingObsByUuid.get(obsUuid);
+        //Obs voided by an earlier document of this upload are no longer part of the encounter's obs
+        return observation != null && !observation.getVoided() ? observation : newObs(observationDateTime, testConcept, null, null, encounter);
     }
 
     private void voidDocumentObservationTree(Obs obs) {
@@ -145,13 +155,12 @@ public class VisitDocumentServiceImpl implements VisitDocumentService {
         }
     }
 
-    private Obs findObservation(Set<Obs> allObs, String obsUuid) {
+    private Map<String, Obs> indexByUuid(Set<Obs> allObs) {
+        Map<String, Obs> obsByUuid = new HashMap<>();
         for (Obs obs : allObs) {
-            if (obs.getUuid().equals(obsUuid)) {
-                return obs;
-            }
+            obsByUuid.put(obs.getUuid(), obs);
         }
-        return null;
+        return obsByUuid;
     }
 
     private Obs newObs(Date obsDate, Concept concept, String value, Location location, Encounter encounter) {
@@ -23,8 +23,8 @@ import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniEncou
 import org.openmrs.module.bahmniemrapi.encountertransaction.mapper.BahmniEncounterTransactionMapper;
 import org.openmrs.module.bahmniemrapi.encountertransaction.mapper.EncounterTypeIdentifier;
 import org.openmrs.module.bahmniemrapi.encountertransaction.service.BahmniEncounterTransactionService;
+import org.openmrs.module.bahmniemrapi.encountertransaction.service.EncounterSavePipeline;
 import org.openmrs.module.bahmniemrapi.encountertransaction.service.RetrospectiveEncounterTransactionService;
-import org.openmrs.module.bahmniemrapi.encountertransaction.service.VisitIdentificationHelper;
 import org.openmrs.module.bahmniemrapi.encountertransaction.service.VisitMatcher;
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
 import org.openmrs.module.emrapi.encounter.EmrEncounterService;
@@ -39,7 +39,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
 @Transactional
 public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService implements BahmniEncounterTransactionService {
@@ -57,7 +56,7 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
     private ProviderService providerService;
     private BaseEncounterMatcher encounterSessionMatcher;
     private BahmniVisitLocationService bahmniVisitLocationService;
-    private Map<String, VisitMatcher> visitMatchersMap = new HashMap<>();
+    private EncounterSavePipeline encounterSavePipeline;
 
     public BahmniEncounterTransactionServiceImpl(EncounterService encounterService,
                                                  EmrEncounterService emrEncounterService,
@@ -71,7 +70,8 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
                                                  ProviderService providerService,
                                                  BaseEncounterMatcher encounterSessionMatcher,
                                                  BahmniVisitLocationService bahmniVisitLocationService,
-                                                 BahmniVisitAttributeService bahmniVisitAttributeService) {
+                                                 BahmniVisitAttributeService bahmniVisitAttributeService,
+                                                 EncounterSavePipeline encounterSavePipeline) {
 
         this.encounterService = encounterService;
         this.emrEncounterService = emrEncounterService;
@@ -86,20 +86,23 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
         this.encounterSessionMatcher = encounterSessionMatcher;
         this.bahmniVisitLocationService = bahmniVisitLocationService;
         this.bahmniVisitAttributeService = bahmniVisitAttributeService;
+        this.encounterSavePipeline = encounterSavePipeline;
     }
 
     @Override
     public void onStartup() {
         super.onStartup();
-        List<VisitMatcher> visitMatchers = Context.getRegisteredComponents(VisitMatcher.class);
-        for (VisitMatcher visitMatcher : visitMatchers) {
-            visitMatchersMap.put(visitMatcher.getClass().getCanonicalName(), visitMatcher);
-        }
+        encounterSavePipeline.refresh();
     }
 
     @Override
     public BahmniEncounterTransaction save(BahmniEncounterTransaction bahmniEncounterTransaction, Patient patient,
                                            Date visitStartDate, Date visitEndDate) {
+        return save(bahmniEncounterTransaction, patient, visitStartDate, visitEndDate, false);
+    }
+
+    private BahmniEncounterTransaction save(BahmniEncounterTransaction bahmniEncounterTransaction, Patient patient,
+                                            Date visitStartDate, Date visitEndDate, boolean acknowledgeOnly) {
 
         if (bahmniEncounterTransaction.getEncounterDateTime() == null) {
             bahmniEncounterTransaction.setEncounterDateTime(new Date());
@@ -111,17 +114,16 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
         setVisitType(bahmniEncounterTransaction);
         setEncounterType(bahmniEncounterTransaction);
 
-        List<EncounterDataPreSaveCommand> encounterDataPreSaveCommands = Context.getRegisteredComponents(EncounterDataPreSaveCommand.class);
-        for (EncounterDataPreSaveCommand saveCommand : encounterDataPreSaveCommands) {
+        for (EncounterDataPreSaveCommand saveCommand : encounterSavePipeline.getPreSaveCommands()) {
             saveCommand.update(bahmniEncounterTransaction);
         }
-        VisitMatcher visitMatcher = getVisitMatcher();
+        VisitMatcher visitMatcher = encounterSavePipeline.getVisitMatcher();
         if (BahmniEncounterTransaction.isRetrospectiveEntry(bahmniEncounterTransaction.getEncounterDateTime())) {
             bahmniEncounterTransaction = new RetrospectiveEncounterTransactionService(visitMatcher)
                     .updatePastEncounters(bahmniEncounterTransaction, patient, visitStartDate, visitEndDate);
         }
 
-        setVisitTypeUuid(visitMatcher, bahmniEncounterTransaction);
+        setVisitTypeUuid(bahmniEncounterTransaction);
         setVisitLocationToEncounterTransaction(bahmniEncounterTransaction);
 
         EncounterTransaction encounterTransaction = emrEncounterService.save(bahmniEncounterTransaction.toEncounterTransaction());
@@ -130,14 +132,34 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
         Encounter currentEncounter = encounterService.getEncounterByUuid(encounterUuid);
 
         boolean includeAll = false;
-        EncounterTransaction updatedEncounterTransaction = encounterTransactionMapper.map(currentEncounter, includeAll);
+        EncounterTransaction updatedEncounterTransaction = acknowledgeOnly ? encounterTransaction
+                : encounterTransactionMapper.map(currentEncounter, includeAll);
         for (EncounterDataPostSaveCommand saveCommand : encounterDataPostSaveCommands) {
             updatedEncounterTransaction = saveCommand.save(bahmniEncounterTransaction, currentEncounter, updatedEncounterTransaction);
         }
         bahmniVisitAttributeService.save(currentEncounter);
+        if (acknowledgeOnly) {
+            return acknowledge(currentEncounter);
+        }
         return bahmniEncounterTransactionMapper.map(updatedEncounterTransaction, includeAll);
     }
 
+    private BahmniEncounterTransaction acknowledge(Encounter encounter) {
+        BahmniEncounterTransaction acknowledgement = new BahmniEncounterTransaction();
+        acknowledgement.setEncounterUuid(encounter.getUuid());
+        acknowledgement.setEncounterDateTime(encounter.getEncounterDatetime());
+        acknowledgement.setEncounterTypeUuid(encounter.getEncounterType().getUuid());
+        acknowledgement.setPatientUuid(encounter.getPatient().getUuid());
+        if (encounter.getLocation() != null) {
+            acknowledgement.setLocationUuid(encounter.getLocation().getUuid());
+        }
+        if (encounter.getVisit() != null) {
+            acknowledgement.setVisitUuid(encounter.getVisit().getUuid());
+            acknowledgement.setVisitTypeUuid(encounter.getVisit().getVisitType().getUuid());
+        }
+        return acknowledgement;
+    }
+
     private void setEncounterTypeUuid(BahmniEncounterTransaction bahmniEncounterTransaction) {
         String encounterUuid = bahmniEncounterTransaction.getEncounterUuid();
         if (!StringUtils.isBlank(encounterUuid)) {
@@ -156,14 +178,6 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
         }
     }
 
-    private VisitMatcher getVisitMatcher() {
-        String globalProperty = Context.getAdministrationService().getGlobalProperty("bahmni.visitMatcher");
-        if (visitMatchersMap.get(globalProperty) != null) {
-            return visitMatchersMap.get(globalProperty);
-        }
-        return new VisitIdentificationHelper(visitService, bahmniVisitLocationService);
-    }
-
     private void handleDrugOrders(BahmniEncounterTransaction bahmniEncounterTransaction, Patient patient) {
         bahmniEncounterTransaction.updateDrugOrderIfScheduledDateNotSet(new Date());
 
@@ -184,20 +198,25 @@ public class BahmniEncounterTransactionServiceImpl extends BaseOpenmrsService im
         }
     }
 
-    private void setVisitTypeUuid(VisitMatcher visitMatcher, BahmniEncounterTransaction bahmniEncounterTransaction) {
+    private void setVisitTypeUuid(BahmniEncounterTransaction bahmniEncounterTransaction) {
         if(StringUtils.isBlank(bahmniEncounterTransaction.getVisitType())){
             return;
         }
-        VisitType visitType = visitMatcher.getVisitTypeByName(bahmniEncounterTransaction.getVisitType());
-        if (visitType != null) {
-            bahmniEncounterTransaction.setVisitTypeUuid(visitType.getUuid());
+        String visitTypeUuid = encounterSavePipeline.getVisitTypeUuid(bahmniEncounterTransaction.getVisitType());
+        if (visitTypeUuid != null) {
+            bahmniEncounterTransaction.setVisitTypeUuid(visitTypeUuid);
         }
     }
 
     @Override
     public BahmniEncounterTransaction save(BahmniEncounterTransaction bahmniEncounterTransaction) {
+        return save(bahmniEncounterTransaction, false);
+    }
+
+    @Override
+    public BahmniEncounterTransaction save(BahmniEncounterTransaction bahmniEncounterTransaction, boolean acknowledgeOnly) {
         Patient patientByUuid = patientService.getPatientByUuid(bahmniEncounterTransaction.getPatientUuid());
-        return save(bahmniEncounterTransaction, patientByUuid, null, null);
+        return save(bahmniEncounterTransaction, patientByUuid, null, null, acknowledgeOnly);
     }
 
     @Override
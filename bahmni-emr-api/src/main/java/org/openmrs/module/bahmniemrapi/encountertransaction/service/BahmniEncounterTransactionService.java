@@ -9,6 +9,10 @@ import java.util.Date;
 
 public interface BahmniEncounterTransactionService {
     BahmniEncounterTransaction save(BahmniEncounterTransaction encounterTransaction);
+    /**
+     * @param acknowledgeOnly when true, returns only the identifiers of the saved encounter instead of mapping it back
+     */
+    BahmniEncounterTransaction save(BahmniEncounterTransaction encounterTransaction, boolean acknowledgeOnly);
     BahmniEncounterTransaction save(BahmniEncounterTransaction encounterTransaction, Patient patient, Date visitStartDate, Date visitEndDate);
     EncounterTransaction find(BahmniEncounterSearchParameters encounterSearchParameters);
     void delete(BahmniEncounterTransaction bahmniEncounterTransaction);
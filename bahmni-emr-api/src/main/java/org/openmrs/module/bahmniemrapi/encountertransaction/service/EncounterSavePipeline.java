@@ -0,0 +1,127 @@
+package org.openmrs.module.bahmniemrapi.encountertransaction.service;
+
+import org.apache.log4j.Logger;
+import org.openmrs.GlobalProperty;
+import org.openmrs.VisitType;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.bahmniemrapi.encountertransaction.command.EncounterDataPreSaveCommand;
+import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The parts of the encounter save path that do not change from one save to the next: the registered pre-save
+ * commands and the visit matcher named by the bahmni.visitMatcher global property. Built on first use and rebuilt after
+ * a context refresh or a change to the global property.
+ */
+@Component
+public class EncounterSavePipeline implements GlobalPropertyListener {
+    public static final String VISIT_MATCHER_GLOBAL_PROPERTY = "bahmni.visitMatcher";
+
+    private static Logger logger = Logger.getLogger(EncounterSavePipeline.class);
+
+    private VisitService visitService;
+    private BahmniVisitLocationService bahmniVisitLocationService;
+    private AdministrationService administrationService;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public EncounterSavePipeline(VisitService visitService, BahmniVisitLocationService bahmniVisitLocationService,
+                                 @Qualifier("adminService") AdministrationService administrationService) {
+        this.visitService = visitService;
+        this.bahmniVisitLocationService = bahmniVisitLocationService;
+        this.administrationService = administrationService;
+    }
+
+    public List<EncounterDataPreSaveCommand> getPreSaveCommands() {
+        return getSnapshot().preSaveCommands;
+    }
+
+    public VisitMatcher getVisitMatcher() {
+        return getSnapshot().visitMatcher;
+    }
+
+    /**
+     * @return uuid of the visit type the configured visit matcher finds for the name, or null when there is none
+     */
+    public String getVisitTypeUuid(String visitTypeName) {
+        //Not cached, visit types can be renamed or retired without a context refresh
+        VisitType visitType = getVisitMatcher().getVisitTypeByName(visitTypeName);
+        return visitType == null ? null : visitType.getUuid();
+    }
+
+    public synchronized void refresh() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long generationBeforeBuild = generation.get();
+        current = build();
+        //A refresh while building may have changed the global property just read
+        synchronized (this) {
+            if (generation.get() == generationBeforeBuild) {
+                snapshot = current;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build() {
+        List<EncounterDataPreSaveCommand> preSaveCommands = Context.getRegisteredComponents(EncounterDataPreSaveCommand.class);
+        String visitMatcherName = administrationService.getGlobalProperty(VISIT_MATCHER_GLOBAL_PROPERTY);
+        VisitMatcher visitMatcher = null;
+        if (visitMatcherName != null) {
+            for (VisitMatcher registeredMatcher : Context.getRegisteredComponents(VisitMatcher.class)) {
+                if (registeredMatcher.getClass().getCanonicalName().equals(visitMatcherName)) {
+                    visitMatcher = registeredMatcher;
+                }
+            }
+        }
+        if (visitMatcher == null) {
+            visitMatcher = new VisitIdentificationHelper(visitService, bahmniVisitLocationService);
+        }
+        logger.info(String.format("Encounter save pipeline built with %d pre-save commands and visit matcher %s",
+                preSaveCommands.size(), visitMatcher.getClass().getName()));
+        return new Snapshot(Collections.unmodifiableList(preSaveCommands), visitMatcher);
+    }
+
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return VISIT_MATCHER_GLOBAL_PROPERTY.equals(propertyName);
+    }
+
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        refresh();
+    }
+
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        refresh();
+    }
+
+    private static class Snapshot {
+        private final List<EncounterDataPreSaveCommand> preSaveCommands;
+        private final VisitMatcher visitMatcher;
+
+        Snapshot(List<EncounterDataPreSaveCommand> preSaveCommands, VisitMatcher visitMatcher) {
+            this.preSaveCommands = preSaveCommands;
+            this.visitMatcher = visitMatcher;
+        }
+    }
+}
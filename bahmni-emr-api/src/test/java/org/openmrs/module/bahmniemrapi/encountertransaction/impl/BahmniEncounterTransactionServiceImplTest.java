@@ -5,23 +5,34 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.openmrs.Encounter;
+import org.openmrs.EncounterType;
 import org.openmrs.Location;
 import org.openmrs.Patient;
 import org.openmrs.Visit;
+import org.openmrs.VisitType;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.LocationService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.VisitService;
+import org.openmrs.module.bahmniemrapi.encountertransaction.command.EncounterDataPostSaveCommand;
+import org.openmrs.module.bahmniemrapi.encountertransaction.command.EncounterDataPreSaveCommand;
 import org.openmrs.module.bahmniemrapi.encountertransaction.command.impl.BahmniVisitAttributeService;
 import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniEncounterSearchParameters;
+import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniEncounterTransaction;
+import org.openmrs.module.bahmniemrapi.encountertransaction.mapper.BahmniEncounterTransactionMapper;
 import org.openmrs.module.bahmniemrapi.encountertransaction.service.BahmniEncounterTransactionService;
+import org.openmrs.module.bahmniemrapi.encountertransaction.service.EncounterSavePipeline;
+import org.openmrs.module.bahmniemrapi.encountertransaction.service.VisitMatcher;
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
+import org.openmrs.module.emrapi.encounter.EmrEncounterService;
 import org.openmrs.module.emrapi.encounter.EncounterParameters;
 import org.openmrs.module.emrapi.encounter.EncounterTransactionMapper;
 import org.openmrs.module.emrapi.encounter.domain.EncounterTransaction;
 import org.openmrs.module.emrapi.encounter.matcher.BaseEncounterMatcher;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 
@@ -29,6 +40,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -59,13 +72,22 @@ public class BahmniEncounterTransactionServiceImplTest {
     @Mock
     private BahmniVisitAttributeService bahmniVisitAttributeService;
 
+    @Mock
+    private EncounterSavePipeline encounterSavePipeline;
+
+    @Mock
+    private EmrEncounterService emrEncounterService;
+
+    @Mock
+    private BahmniEncounterTransactionMapper bahmniEncounterTransactionMapper;
+
     private BahmniEncounterTransactionService bahmniEncounterTransactionService;
 
     @Before
     public void setUp() throws Exception {
         initMocks(this);
         bahmniEncounterTransactionService = new BahmniEncounterTransactionServiceImpl(encounterService,null,encounterTransactionMapper,null,null, null,visitService,patientService
-                ,locationService,null,baseEncounterMatcher,bahmniVisitLocationService, bahmniVisitAttributeService);
+                ,locationService,null,baseEncounterMatcher,bahmniVisitLocationService, bahmniVisitAttributeService, encounterSavePipeline);
 
     }
 
@@ -157,4 +179,60 @@ public class BahmniEncounterTransactionServiceImplTest {
         assertEquals(argumentCaptor.getValue().getUuid(), "visit-uuid-two");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldAcknowledgeTheSavedEncounterWithoutMappingItBack() throws Exception {
+        BahmniEncounterTransactionService service = new BahmniEncounterTransactionServiceImpl(encounterService, emrEncounterService,
+                encounterTransactionMapper, null, Collections.<EncounterDataPostSaveCommand>emptyList(), bahmniEncounterTransactionMapper,
+                visitService, patientService, locationService, null, baseEncounterMatcher, bahmniVisitLocationService,
+                bahmniVisitAttributeService, encounterSavePipeline);
+        BahmniEncounterTransaction bahmniEncounterTransaction = new BahmniEncounterTransaction();
+        bahmniEncounterTransaction.setPatientUuid("patient-uuid");
+        bahmniEncounterTransaction.setEncounterTypeUuid("encounter-type-uuid");
+        bahmniEncounterTransaction.setEncounterDateTime(new Date());
+
+        EncounterTransaction savedEncounterTransaction = new EncounterTransaction();
+        savedEncounterTransaction.setEncounterUuid("encounter-uuid");
+        Encounter encounter = savedEncounter();
+        when(encounterSavePipeline.getPreSaveCommands()).thenReturn(Collections.<EncounterDataPreSaveCommand>emptyList());
+        when(encounterSavePipeline.getVisitMatcher()).thenReturn(mock(VisitMatcher.class));
+        when(emrEncounterService.save(any(EncounterTransaction.class))).thenReturn(savedEncounterTransaction);
+        when(encounterService.getEncounterByUuid("encounter-uuid")).thenReturn(encounter);
+
+        BahmniEncounterTransaction acknowledgement = service.save(bahmniEncounterTransaction, true);
+
+        assertEquals("encounter-uuid", acknowledgement.getEncounterUuid());
+        assertEquals(encounter.getEncounterDatetime(), acknowledgement.getEncounterDateTime());
+        assertEquals("encounter-type-uuid", acknowledgement.getEncounterTypeUuid());
+        assertEquals("patient-uuid", acknowledgement.getPatientUuid());
+        assertEquals("location-uuid", acknowledgement.getLocationUuid());
+        assertEquals("visit-uuid", acknowledgement.getVisitUuid());
+        assertEquals("visit-type-uuid", acknowledgement.getVisitTypeUuid());
+        verify(bahmniVisitAttributeService).save(encounter);
+        verify(encounterTransactionMapper, never()).map(any(Encounter.class), anyBoolean());
+        verify(bahmniEncounterTransactionMapper, never()).map(any(EncounterTransaction.class), anyBoolean());
+    }
+
+    private Encounter savedEncounter() {
+        EncounterType encounterType = new EncounterType();
+        encounterType.setUuid("encounter-type-uuid");
+        Patient patient = new Patient();
+        patient.setUuid("patient-uuid");
+        Location location = new Location();
+        location.setUuid("location-uuid");
+        VisitType visitType = new VisitType();
+        visitType.setUuid("visit-type-uuid");
+        Visit visit = new Visit();
+        visit.setUuid("visit-uuid");
+        visit.setVisitType(visitType);
+
+        Encounter encounter = new Encounter();
+        encounter.setUuid("encounter-uuid");
+        encounter.setEncounterDatetime(new Date());
+        encounter.setEncounterType(encounterType);
+        encounter.setPatient(patient);
+        encounter.setLocation(location);
+        encounter.setVisit(visit);
+        return encounter;
+    }
+
+}
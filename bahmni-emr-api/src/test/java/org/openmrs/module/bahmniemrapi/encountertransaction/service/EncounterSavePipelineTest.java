@@ -0,0 +1,113 @@
+package org.openmrs.module.bahmniemrapi.encountertransaction.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.GlobalProperty;
+import org.openmrs.VisitType;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.bahmniemrapi.encountertransaction.command.EncounterDataPreSaveCommand;
+import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@PrepareForTest(Context.class)
+@RunWith(PowerMockRunner.class)
+public class EncounterSavePipelineTest {
+    @Mock
+    private VisitService visitService;
+
+    @Mock
+    private BahmniVisitLocationService bahmniVisitLocationService;
+
+    @Mock
+    private AdministrationService administrationService;
+
+    @Mock
+    private EncounterDataPreSaveCommand preSaveCommand;
+
+    @Mock
+    private VisitMatcher configuredVisitMatcher;
+
+    private EncounterSavePipeline encounterSavePipeline;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        PowerMockito.mockStatic(Context.class);
+        when(Context.getRegisteredComponents(EncounterDataPreSaveCommand.class)).thenReturn(asList(preSaveCommand));
+        when(Context.getRegisteredComponents(VisitMatcher.class)).thenReturn(asList(configuredVisitMatcher));
+        encounterSavePipeline = new EncounterSavePipeline(visitService, bahmniVisitLocationService, administrationService);
+    }
+
+    @Test
+    public void shouldUseVisitMatcherNamedByGlobalProperty() {
+        when(administrationService.getGlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY))
+                .thenReturn(configuredVisitMatcher.getClass().getCanonicalName());
+
+        assertSame(configuredVisitMatcher, encounterSavePipeline.getVisitMatcher());
+        assertEquals(asList(preSaveCommand), encounterSavePipeline.getPreSaveCommands());
+    }
+
+    @Test
+    public void shouldFallBackToVisitIdentificationHelperWhenGlobalPropertyIsNotSet() {
+        assertTrue(encounterSavePipeline.getVisitMatcher() instanceof VisitIdentificationHelper);
+    }
+
+    @Test
+    public void shouldBuildPipelineOnceUntilGlobalPropertyChanges() {
+        encounterSavePipeline.getVisitMatcher();
+        encounterSavePipeline.getPreSaveCommands();
+        verify(administrationService, times(1)).getGlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY);
+
+        when(administrationService.getGlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY))
+                .thenReturn(configuredVisitMatcher.getClass().getCanonicalName());
+        encounterSavePipeline.globalPropertyChanged(new GlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY));
+
+        assertSame(configuredVisitMatcher, encounterSavePipeline.getVisitMatcher());
+        verify(administrationService, times(2)).getGlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY);
+    }
+
+    @Test
+    public void shouldResolveVisitTypeByNameOnEveryCall() {
+        when(administrationService.getGlobalProperty(EncounterSavePipeline.VISIT_MATCHER_GLOBAL_PROPERTY))
+                .thenReturn(configuredVisitMatcher.getClass().getCanonicalName());
+        VisitType opd = new VisitType("OPD", "Out patient");
+        opd.setUuid("opd-uuid");
+        when(configuredVisitMatcher.getVisitTypeByName("OPD")).thenReturn(opd);
+
+        assertEquals("opd-uuid", encounterSavePipeline.getVisitTypeUuid("OPD"));
+        assertEquals("opd-uuid", encounterSavePipeline.getVisitTypeUuid("OPD"));
+        assertNull(encounterSavePipeline.getVisitTypeUuid("IPD"));
+
+        verify(configuredVisitMatcher, times(2)).getVisitTypeByName("OPD");
+    }
+
+    @Test
+    public void shouldPickUpNewlyRegisteredCommandsOnRefresh() {
+        when(Context.getRegisteredComponents(EncounterDataPreSaveCommand.class))
+                .thenReturn(Collections.<EncounterDataPreSaveCommand>emptyList());
+        assertEquals(0, encounterSavePipeline.getPreSaveCommands().size());
+
+        when(Context.getRegisteredComponents(EncounterDataPreSaveCommand.class)).thenReturn(asList(preSaveCommand));
+        encounterSavePipeline.refresh();
+
+        assertEquals(asList(preSaveCommand), encounterSavePipeline.getPreSaveCommands());
+    }
+}
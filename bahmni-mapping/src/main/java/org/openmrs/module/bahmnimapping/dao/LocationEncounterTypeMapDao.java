@@ -20,4 +20,12 @@ import java.util.List;
 
 public interface LocationEncounterTypeMapDao {
     List<EncounterType> getEncounterTypes(String locationUuid);
+
+    /**
+     * @return (location uuid, encounter type id) of every non voided mapping between a location and an encounter
+     * type that are not retired
+     */
+    List<Object[]> getAllMappings();
+
+    EncounterType getEncounterType(Integer encounterTypeId);
 }
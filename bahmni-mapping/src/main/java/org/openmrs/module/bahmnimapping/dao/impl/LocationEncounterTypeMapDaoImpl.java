@@ -39,4 +39,19 @@ public class LocationEncounterTypeMapDaoImpl implements LocationEncounterTypeMap
         query.setParameter("locationUuid", locationUuid);
         return (List<EncounterType>) query.list();
     }
+
+    @Override
+    public List<Object[]> getAllMappings() {
+        Session currentSession = sessionFactory.getCurrentSession();
+        Query query = currentSession.createQuery(
+                "select l.uuid, et.encounterTypeId from EncounterType et, Location l, LocationEncounterTypeMap map " +
+                "where map.encounterType = et.encounterTypeId and map.location = l.locationId " +
+                "and map.voided = false and et.retired = false and l.retired = false order by map.id");
+        return (List<Object[]>) query.list();
+    }
+
+    @Override
+    public EncounterType getEncounterType(Integer encounterTypeId) {
+        return (EncounterType) sessionFactory.getCurrentSession().get(EncounterType.class, encounterTypeId);
+    }
 }
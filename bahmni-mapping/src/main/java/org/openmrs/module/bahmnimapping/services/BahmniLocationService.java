@@ -15,9 +15,12 @@ package org.openmrs.module.bahmnimapping.services;
 
 import org.openmrs.EncounterType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BahmniLocationService {
     List<EncounterType> getEncounterTypes(String locationUuid);
     EncounterType getEncounterType(String locationUuid);
+    Map<String, List<EncounterType>> getEncounterTypesByLocation(Collection<String> locationUuids);
 }
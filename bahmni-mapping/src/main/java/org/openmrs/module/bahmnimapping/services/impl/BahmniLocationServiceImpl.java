@@ -22,21 +22,43 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class BahmniLocationServiceImpl implements BahmniLocationService {
     private LocationEncounterTypeMapDao locationEncounterTypeMapDao;
+    private LocationEncounterTypeMapCache locationEncounterTypeMapCache;
 
     @Autowired
-    public BahmniLocationServiceImpl(LocationEncounterTypeMapDao locationEncounterTypeMapDao) {
+    public BahmniLocationServiceImpl(LocationEncounterTypeMapDao locationEncounterTypeMapDao,
+                                     LocationEncounterTypeMapCache locationEncounterTypeMapCache) {
         this.locationEncounterTypeMapDao = locationEncounterTypeMapDao;
+        this.locationEncounterTypeMapCache = locationEncounterTypeMapCache;
     }
 
     @Override
     public List<EncounterType> getEncounterTypes(String locationUuid) {
         if(StringUtils.isBlank(locationUuid)) return new ArrayList<>();
-        return locationEncounterTypeMapDao.getEncounterTypes(locationUuid);
+        List<EncounterType> encounterTypes = new ArrayList<>();
+        for (Integer encounterTypeId : locationEncounterTypeMapCache.getEncounterTypeIds(locationUuid)) {
+            EncounterType encounterType = locationEncounterTypeMapDao.getEncounterType(encounterTypeId);
+            if (encounterType != null) {
+                encounterTypes.add(encounterType);
+            }
+        }
+        return encounterTypes;
+    }
+
+    @Override
+    public Map<String, List<EncounterType>> getEncounterTypesByLocation(Collection<String> locationUuids) {
+        Map<String, List<EncounterType>> encounterTypesByLocation = new LinkedHashMap<>();
+        for (String locationUuid : locationUuids) {
+            encounterTypesByLocation.put(locationUuid, getEncounterTypes(locationUuid));
+        }
+        return encounterTypesByLocation;
     }
 
     @Override
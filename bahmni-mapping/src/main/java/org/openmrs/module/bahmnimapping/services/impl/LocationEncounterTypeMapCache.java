@@ -0,0 +1,95 @@
+/**
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.bahmnimapping.services.impl;
+
+import org.openmrs.module.bahmnimapping.dao.LocationEncounterTypeMapDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encounter type ids mapped to every location, loaded with one query for the whole table. Dropped on location and
+ * encounter type changes by an advisor registered in bahmnicore, and reloaded after {@link #MAX_AGE_MILLIS} to pick
+ * up mappings edited directly in the database, which has no service API to advise.
+ */
+@Component
+public class LocationEncounterTypeMapCache {
+    static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private LocationEncounterTypeMapDao locationEncounterTypeMapDao;
+
+    private volatile Map<String, List<Integer>> encounterTypeIdsByLocation;
+    private volatile long loadedAt;
+    private long invalidationCount;
+
+    @Autowired
+    public LocationEncounterTypeMapCache(LocationEncounterTypeMapDao locationEncounterTypeMapDao) {
+        this.locationEncounterTypeMapDao = locationEncounterTypeMapDao;
+    }
+
+    public List<Integer> getEncounterTypeIds(String locationUuid) {
+        List<Integer> encounterTypeIds = getMappings().get(locationUuid);
+        return encounterTypeIds == null ? Collections.<Integer>emptyList() : encounterTypeIds;
+    }
+
+    public synchronized void invalidate() {
+        invalidationCount++;
+        encounterTypeIdsByLocation = null;
+    }
+
+    public void refresh() {
+        load();
+    }
+
+    private Map<String, List<Integer>> getMappings() {
+        Map<String, List<Integer>> mappings = encounterTypeIdsByLocation;
+        if (mappings != null && System.currentTimeMillis() - loadedAt <= MAX_AGE_MILLIS) {
+            return mappings;
+        }
+        return load();
+    }
+
+    private Map<String, List<Integer>> load() {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            invalidationsBeforeLoad = invalidationCount;
+        }
+        Map<String, List<Integer>> mappings = new HashMap<>();
+        for (Object[] mapping : locationEncounterTypeMapDao.getAllMappings()) {
+            List<Integer> encounterTypeIds = mappings.get(mapping[0]);
+            if (encounterTypeIds == null) {
+                encounterTypeIds = new ArrayList<>(1);
+                mappings.put((String) mapping[0], encounterTypeIds);
+            }
+            encounterTypeIds.add((Integer) mapping[1]);
+        }
+        for (Map.Entry<String, List<Integer>> entry : mappings.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        synchronized (this) {
+            //A location or encounter type changed while loading may not be reflected in the rows just read
+            if (invalidationsBeforeLoad == invalidationCount) {
+                encounterTypeIdsByLocation = mappings;
+                loadedAt = System.currentTimeMillis();
+            }
+        }
+        return mappings;
+    }
+}
@@ -42,4 +42,28 @@ public class LocationEncounterTypeMapDaoImplIT extends BaseModuleContextSensitiv
 
         assertEquals(0, encounterTypes.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldGetAllMappingsOfLocationsToEncounterTypes() throws Exception {
+        executeDataSet("locationEncounterTypeMapData.xml");
+
+        List<Object[]> mappings = locationEncounterTypeMapDao.getAllMappings();
+
+        for (Object[] mapping : mappings) {
+            assertEquals(locationEncounterTypeMapDao.getEncounterTypes((String) mapping[0]).size(),
+                    countMappings(mappings, (String) mapping[0]));
+        }
+        assertEquals(1, countMappings(mappings, "c36006e5-9fbb-4f20-866b-0ece245615a1"));
+        assertEquals(0, countMappings(mappings, "e36006e5-9fbb-4f20-866b-0ece245615a1"));
+    }
+
+    private int countMappings(List<Object[]> mappings, String locationUuid) {
+        int count = 0;
+        for (Object[] mapping : mappings) {
+            if (locationUuid.equals(mapping[0])) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -10,14 +10,25 @@ import org.openmrs.api.APIException;
 import org.openmrs.module.bahmnimapping.dao.LocationEncounterTypeMapDao;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class BahmniLocationServiceImplTest {
     @Mock
     private LocationEncounterTypeMapDao locationEncounterTypeMapDao;
+    @Mock
+    private LocationEncounterTypeMapCache locationEncounterTypeMapCache;
     private BahmniLocationServiceImpl bahmniLocationService;
 
     @Rule
@@ -26,16 +37,48 @@ public class BahmniLocationServiceImplTest {
     @Before
     public void setUp() {
         initMocks(this);
-        bahmniLocationService = new BahmniLocationServiceImpl(locationEncounterTypeMapDao);
+        bahmniLocationService = new BahmniLocationServiceImpl(locationEncounterTypeMapDao, locationEncounterTypeMapCache);
     }
 
     @Test
     public void getEncounterTypeShouldRaiseErrorWhenLocationIsMappedToMultipleEncounterTypes() throws Exception {
         String locationUuid = UUID.randomUUID().toString();
-        when(locationEncounterTypeMapDao.getEncounterTypes(locationUuid)).thenReturn(Arrays.asList(new EncounterType(), new EncounterType()));
+        when(locationEncounterTypeMapCache.getEncounterTypeIds(locationUuid)).thenReturn(Arrays.asList(1, 2));
+        when(locationEncounterTypeMapDao.getEncounterType(1)).thenReturn(new EncounterType(1));
+        when(locationEncounterTypeMapDao.getEncounterType(2)).thenReturn(new EncounterType(2));
 
         expectedException.expect(APIException.class);
         expectedException.expectMessage("The location is mapped to multiple encounter types. Please specify a encounter type for encounter");
         bahmniLocationService.getEncounterType(locationUuid);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getEncounterTypeShouldReturnTheOnlyEncounterTypeMappedToLocation() throws Exception {
+        String locationUuid = UUID.randomUUID().toString();
+        EncounterType consultation = new EncounterType(1);
+        when(locationEncounterTypeMapCache.getEncounterTypeIds(locationUuid)).thenReturn(Collections.singletonList(1));
+        when(locationEncounterTypeMapDao.getEncounterType(1)).thenReturn(consultation);
+
+        assertEquals(consultation, bahmniLocationService.getEncounterType(locationUuid));
+    }
+
+    @Test
+    public void getEncounterTypeShouldReturnNullForBlankLocation() throws Exception {
+        assertNull(bahmniLocationService.getEncounterType(" "));
+        verify(locationEncounterTypeMapDao, never()).getEncounterType(anyInt());
+    }
+
+    @Test
+    public void shouldGetEncounterTypesOfSeveralLocations() throws Exception {
+        EncounterType consultation = new EncounterType(1);
+        when(locationEncounterTypeMapCache.getEncounterTypeIds("opd-uuid")).thenReturn(Collections.singletonList(1));
+        when(locationEncounterTypeMapCache.getEncounterTypeIds("ward-uuid")).thenReturn(Collections.<Integer>emptyList());
+        when(locationEncounterTypeMapDao.getEncounterType(1)).thenReturn(consultation);
+
+        Map<String, List<EncounterType>> encounterTypesByLocation = bahmniLocationService
+                .getEncounterTypesByLocation(Arrays.asList("opd-uuid", "ward-uuid"));
+
+        assertEquals(Collections.singletonList(consultation), encounterTypesByLocation.get("opd-uuid"));
+        assertTrue(encounterTypesByLocation.get("ward-uuid").isEmpty());
+    }
+}
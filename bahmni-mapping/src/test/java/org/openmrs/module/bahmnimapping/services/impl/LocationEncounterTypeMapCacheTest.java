@@ -0,0 +1,58 @@
+package org.openmrs.module.bahmnimapping.services.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.module.bahmnimapping.dao.LocationEncounterTypeMapDao;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class LocationEncounterTypeMapCacheTest {
+    @Mock
+    private LocationEncounterTypeMapDao locationEncounterTypeMapDao;
+    private LocationEncounterTypeMapCache locationEncounterTypeMapCache;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(locationEncounterTypeMapDao.getAllMappings()).thenReturn(Arrays.asList(
+                new Object[]{"opd-uuid", 1},
+                new Object[]{"opd-uuid", 2},
+                new Object[]{"lab-uuid", 3}));
+        locationEncounterTypeMapCache = new LocationEncounterTypeMapCache(locationEncounterTypeMapDao);
+    }
+
+    @Test
+    public void shouldGroupEncounterTypesByLocation() {
+        assertEquals(Arrays.asList(1, 2), locationEncounterTypeMapCache.getEncounterTypeIds("opd-uuid"));
+        assertEquals(Collections.singletonList(3), locationEncounterTypeMapCache.getEncounterTypeIds("lab-uuid"));
+        assertTrue(locationEncounterTypeMapCache.getEncounterTypeIds("ward-uuid").isEmpty());
+    }
+
+    @Test
+    public void shouldLoadAllMappingsOnceUntilInvalidated() {
+        locationEncounterTypeMapCache.getEncounterTypeIds("opd-uuid");
+        locationEncounterTypeMapCache.getEncounterTypeIds("lab-uuid");
+        verify(locationEncounterTypeMapDao, times(1)).getAllMappings();
+
+        locationEncounterTypeMapCache.invalidate();
+        locationEncounterTypeMapCache.getEncounterTypeIds("opd-uuid");
+        verify(locationEncounterTypeMapDao, times(2)).getAllMappings();
+    }
+
+    @Test
+    public void shouldServeMappingsLoadedOnRefresh() {
+        locationEncounterTypeMapCache.refresh();
+        locationEncounterTypeMapCache.getEncounterTypeIds("opd-uuid");
+
+        verify(locationEncounterTypeMapDao, times(1)).getAllMappings();
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.commons.logging.LogFactory;
 import org.bahmni.module.bahmnicore.properties.BahmniCoreProperties;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.BaseModuleActivator;
+import org.openmrs.module.bahmnimapping.services.impl.LocationEncounterTypeMapCache;
 
 public class Activator extends BaseModuleActivator {
 
@@ -14,8 +15,20 @@ public class Activator extends BaseModuleActivator {
 	public void started() {
 		log.info("Started the Bahmni Core module");
 		BahmniCoreProperties.load();
+		warmUpLocationEncounterTypeMapCache();
     }
 
+	//Only a warm up, the cache loads itself on first use, so a failure here must not stop the module from starting
+	private void warmUpLocationEncounterTypeMapCache() {
+		try {
+			for (LocationEncounterTypeMapCache cache : Context.getRegisteredComponents(LocationEncounterTypeMapCache.class)) {
+				cache.refresh();
+			}
+		} catch (Exception e) {
+			log.warn("Could not load the location encounter type mappings at startup, they will be loaded on first use", e);
+		}
+	}
+
 	@Override
 	public void stopped() {
 		log.info("Stopped the Bahmni Core module");
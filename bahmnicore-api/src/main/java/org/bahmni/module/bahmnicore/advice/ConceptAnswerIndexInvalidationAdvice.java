@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.concept.ConceptAnswerIndex;
+
+public class ConceptAnswerIndexInvalidationAdvice extends InvalidationAdvice<ConceptAnswerIndex> {
+
+    public ConceptAnswerIndexInvalidationAdvice() {
+        this(null);
+    }
+
+    public ConceptAnswerIndexInvalidationAdvice(ConceptAnswerIndex conceptAnswerIndex) {
+        super(ConceptAnswerIndex.class, conceptAnswerIndex);
+    }
+
+    @Override
+    protected Runnable invalidation(ConceptAnswerIndex conceptAnswerIndex, Object returnValue, Object[] args) {
+        return conceptAnswerIndex::invalidate;
+    }
+}
@@ -0,0 +1,15 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class ConceptAnswerIndexInvalidationAdvisor extends MethodNameAdvisor {
+
+    public ConceptAnswerIndexInvalidationAdvisor() {
+        super("saveConcept", "retireConcept", "unretireConcept", "purgeConcept");
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new ConceptAnswerIndexInvalidationAdvice();
+    }
+}
@@ -0,0 +1,26 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
+import org.openmrs.Person;
+
+import java.lang.reflect.Method;
+
+public class DemographicAutocompleteIndexUpdateAdvice extends RegisteredComponentAdvice<DemographicAutocompleteIndex> {
+
+    public DemographicAutocompleteIndexUpdateAdvice() {
+        this(null);
+    }
+
+    public DemographicAutocompleteIndexUpdateAdvice(DemographicAutocompleteIndex demographicAutocompleteIndex) {
+        super(DemographicAutocompleteIndex.class, demographicAutocompleteIndex);
+    }
+
+    @Override
+    public void afterReturning(Object returnValue, Method method, Object[] args, Object target) throws Throwable {
+        DemographicAutocompleteIndex index = getComponent();
+        //Recorded while the session is open, the names and attributes of a detached person may not be loadable later
+        if (index != null && returnValue instanceof Person) {
+            index.record((Person) returnValue);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class DemographicAutocompleteIndexUpdateAdvisor extends MethodNameAdvisor {
+
+    public DemographicAutocompleteIndexUpdateAdvisor() {
+        super("savePerson", "savePatient");
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new DemographicAutocompleteIndexUpdateAdvice();
+    }
+}
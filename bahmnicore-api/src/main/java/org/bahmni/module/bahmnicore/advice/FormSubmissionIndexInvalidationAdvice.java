@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmissionIndex;
+
+public class FormSubmissionIndexInvalidationAdvice extends PatientInvalidationAdvice<FormSubmissionIndex> {
+
+    public FormSubmissionIndexInvalidationAdvice() {
+        this(null);
+    }
+
+    public FormSubmissionIndexInvalidationAdvice(FormSubmissionIndex formSubmissionIndex) {
+        super(FormSubmissionIndex.class, formSubmissionIndex);
+    }
+
+    @Override
+    protected void invalidate(FormSubmissionIndex formSubmissionIndex, String patientUuid) {
+        formSubmissionIndex.invalidate(patientUuid);
+    }
+}
@@ -0,0 +1,44 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invalidates a cached view of the data written by the advised method, once when the method returns and again when
+ * the surrounding transaction completes. A read between the write and its commit still sees the old rows and could
+ * otherwise put them back in the cache.
+ */
+public abstract class InvalidationAdvice<T> extends RegisteredComponentAdvice<T> {
+
+    protected InvalidationAdvice(Class<T> componentType, T component) {
+        super(componentType, component);
+    }
+
+    @Override
+    public void afterReturning(Object returnValue, Method method, Object[] args, Object target) throws Throwable {
+        T component = getComponent();
+        if (component == null) {
+            return;
+        }
+        final Runnable invalidation = invalidation(component, returnValue, args);
+        if (invalidation == null) {
+            return;
+        }
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return what to invalidate for this call, resolved while the session is open, or null when nothing is cached
+     */
+    protected abstract Runnable invalidation(T component, Object returnValue, Object[] args);
+}
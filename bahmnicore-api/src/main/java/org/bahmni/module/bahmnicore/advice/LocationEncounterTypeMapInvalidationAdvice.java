@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.openmrs.module.bahmnimapping.services.impl.LocationEncounterTypeMapCache;
+
+public class LocationEncounterTypeMapInvalidationAdvice extends InvalidationAdvice<LocationEncounterTypeMapCache> {
+
+    public LocationEncounterTypeMapInvalidationAdvice() {
+        this(null);
+    }
+
+    public LocationEncounterTypeMapInvalidationAdvice(LocationEncounterTypeMapCache locationEncounterTypeMapCache) {
+        super(LocationEncounterTypeMapCache.class, locationEncounterTypeMapCache);
+    }
+
+    @Override
+    protected Runnable invalidation(LocationEncounterTypeMapCache locationEncounterTypeMapCache, Object returnValue, Object[] args) {
+        return locationEncounterTypeMapCache::invalidate;
+    }
+}
@@ -0,0 +1,18 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class LocationEncounterTypeMapInvalidationAdvisor extends MethodNameAdvisor {
+
+    public LocationEncounterTypeMapInvalidationAdvisor() {
+        super(
+                "saveLocation", "retireLocation", "unretireLocation", "purgeLocation",
+                "saveEncounterType", "retireEncounterType", "unretireEncounterType", "purgeEncounterType"
+        );
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new LocationEncounterTypeMapInvalidationAdvice();
+    }
+}
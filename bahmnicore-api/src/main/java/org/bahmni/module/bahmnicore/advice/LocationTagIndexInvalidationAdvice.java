@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.location.LocationTagIndex;
+
+public class LocationTagIndexInvalidationAdvice extends InvalidationAdvice<LocationTagIndex> {
+
+    public LocationTagIndexInvalidationAdvice() {
+        this(null);
+    }
+
+    public LocationTagIndexInvalidationAdvice(LocationTagIndex locationTagIndex) {
+        super(LocationTagIndex.class, locationTagIndex);
+    }
+
+    @Override
+    protected Runnable invalidation(LocationTagIndex locationTagIndex, Object returnValue, Object[] args) {
+        return locationTagIndex::invalidate;
+    }
+}
@@ -0,0 +1,18 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class LocationTagIndexInvalidationAdvisor extends MethodNameAdvisor {
+
+    public LocationTagIndexInvalidationAdvisor() {
+        super(
+                "saveLocation", "retireLocation", "unretireLocation", "purgeLocation",
+                "saveLocationTag", "retireLocationTag", "unretireLocationTag", "purgeLocationTag"
+        );
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new LocationTagIndexInvalidationAdvice();
+    }
+}
@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.service.MetadataSnapshotService;
+
+public class MetadataSnapshotInvalidationAdvice extends InvalidationAdvice<MetadataSnapshotService> {
+
+    public MetadataSnapshotInvalidationAdvice() {
+        this(null);
+    }
+
+    public MetadataSnapshotInvalidationAdvice(MetadataSnapshotService metadataSnapshotService) {
+        super(MetadataSnapshotService.class, metadataSnapshotService);
+    }
+
+    @Override
+    protected Runnable invalidation(MetadataSnapshotService metadataSnapshotService, Object returnValue, Object[] args) {
+        return metadataSnapshotService::invalidate;
+    }
+}
@@ -0,0 +1,22 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class MetadataSnapshotInvalidationAdvisor extends MethodNameAdvisor {
+
+    public MetadataSnapshotInvalidationAdvisor() {
+        super(
+                "saveVisitType", "retireVisitType", "unretireVisitType", "purgeVisitType",
+                "saveEncounterType", "retireEncounterType", "unretireEncounterType", "purgeEncounterType",
+                "saveOrderType", "retireOrderType", "unretireOrderType", "purgeOrderType",
+                "saveOrderFrequency", "retireOrderFrequency", "unretireOrderFrequency", "purgeOrderFrequency",
+                "saveConcept", "retireConcept", "unretireConcept", "purgeConcept",
+                "saveGlobalProperty", "saveGlobalProperties", "purgeGlobalProperty", "setGlobalProperty"
+        );
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new MetadataSnapshotInvalidationAdvice();
+    }
+}
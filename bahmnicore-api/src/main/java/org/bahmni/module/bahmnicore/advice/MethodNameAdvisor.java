@@ -0,0 +1,26 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Advises the methods of a service with the given names, in every overload.
+ */
+public abstract class MethodNameAdvisor extends StaticMethodMatcherPointcutAdvisor implements Advisor {
+    private final Set<String> methodNames;
+
+    protected MethodNameAdvisor(String... methodNames) {
+        this.methodNames = new HashSet<>(asList(methodNames));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> aClass) {
+        return methodNames.contains(method.getName());
+    }
+}
@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeriesStore;
+
+public class NumericObsSeriesInvalidationAdvice extends PatientInvalidationAdvice<NumericObsSeriesStore> {
+
+    public NumericObsSeriesInvalidationAdvice() {
+        this(null);
+    }
+
+    public NumericObsSeriesInvalidationAdvice(NumericObsSeriesStore numericObsSeriesStore) {
+        super(NumericObsSeriesStore.class, numericObsSeriesStore);
+    }
+
+    @Override
+    protected void invalidate(NumericObsSeriesStore numericObsSeriesStore, String patientUuid) {
+        numericObsSeriesStore.invalidate(patientUuid);
+    }
+}
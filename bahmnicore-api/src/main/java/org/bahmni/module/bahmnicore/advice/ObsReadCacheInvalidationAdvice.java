@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCache;
+
+public class ObsReadCacheInvalidationAdvice extends PatientInvalidationAdvice<ObsReadCache> {
+
+    public ObsReadCacheInvalidationAdvice() {
+        this(null);
+    }
+
+    public ObsReadCacheInvalidationAdvice(ObsReadCache obsReadCache) {
+        super(ObsReadCache.class, obsReadCache);
+    }
+
+    @Override
+    protected void invalidate(ObsReadCache obsReadCache, String patientUuid) {
+        obsReadCache.invalidate(patientUuid);
+    }
+}
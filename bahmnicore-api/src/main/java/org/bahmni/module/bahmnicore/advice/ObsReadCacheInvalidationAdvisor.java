@@ -0,0 +1,18 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class ObsReadCacheInvalidationAdvisor extends MethodNameAdvisor {
+
+    public ObsReadCacheInvalidationAdvisor() {
+        super(
+                "saveObs", "voidObs", "unvoidObs", "purgeObs",
+                "saveEncounter", "voidEncounter", "unvoidEncounter", "purgeEncounter"
+        );
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new ObsReadCacheInvalidationAdvice();
+    }
+}
@@ -0,0 +1,19 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.orderset.OrderSetSearchIndex;
+
+public class OrderSetSearchIndexInvalidationAdvice extends InvalidationAdvice<OrderSetSearchIndex> {
+
+    public OrderSetSearchIndexInvalidationAdvice() {
+        this(null);
+    }
+
+    public OrderSetSearchIndexInvalidationAdvice(OrderSetSearchIndex orderSetSearchIndex) {
+        super(OrderSetSearchIndex.class, orderSetSearchIndex);
+    }
+
+    @Override
+    protected Runnable invalidation(OrderSetSearchIndex orderSetSearchIndex, Object returnValue, Object[] args) {
+        return orderSetSearchIndex::invalidate;
+    }
+}
@@ -0,0 +1,15 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class OrderSetSearchIndexInvalidationAdvisor extends MethodNameAdvisor {
+
+    public OrderSetSearchIndexInvalidationAdvisor() {
+        super("saveOrderSet", "retireOrderSet", "unretireOrderSet", "purgeOrderSet");
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new OrderSetSearchIndexInvalidationAdvice();
+    }
+}
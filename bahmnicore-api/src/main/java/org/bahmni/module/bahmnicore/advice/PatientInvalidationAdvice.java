@@ -0,0 +1,45 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Invalidates the entries of the patients whose observations or encounters are passed to or returned by the
+ * advised method.
+ */
+public abstract class PatientInvalidationAdvice<T> extends InvalidationAdvice<T> {
+
+    protected PatientInvalidationAdvice(Class<T> componentType, T component) {
+        super(componentType, component);
+    }
+
+    @Override
+    protected Runnable invalidation(final T component, Object returnValue, Object[] args) {
+        final Set<String> patientUuids = new HashSet<>();
+        addPatientUuid(patientUuids, returnValue);
+        for (Object argument : args) {
+            addPatientUuid(patientUuids, argument);
+        }
+        if (patientUuids.isEmpty()) {
+            return null;
+        }
+        return () -> {
+            for (String patientUuid : patientUuids) {
+                invalidate(component, patientUuid);
+            }
+        };
+    }
+
+    protected abstract void invalidate(T component, String patientUuid);
+
+    private void addPatientUuid(Set<String> patientUuids, Object argument) {
+        if (argument instanceof Obs && ((Obs) argument).getPerson() != null) {
+            patientUuids.add(((Obs) argument).getPerson().getUuid());
+        } else if (argument instanceof Encounter && ((Encounter) argument).getPatient() != null) {
+            patientUuids.add(((Encounter) argument).getPatient().getUuid());
+        }
+    }
+}
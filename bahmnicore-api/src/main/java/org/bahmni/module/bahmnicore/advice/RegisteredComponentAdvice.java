@@ -0,0 +1,30 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.openmrs.api.context.Context;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.util.List;
+
+import static org.apache.commons.collections.CollectionUtils.isEmpty;
+
+/**
+ * Advice acting on a Spring component of the module. Advisors are created by OpenMRS outside the application
+ * context, so the component is looked up on first use unless it is given to the constructor.
+ */
+public abstract class RegisteredComponentAdvice<T> implements AfterReturningAdvice {
+    private final Class<T> componentType;
+    private T component;
+
+    protected RegisteredComponentAdvice(Class<T> componentType, T component) {
+        this.componentType = componentType;
+        this.component = component;
+    }
+
+    protected T getComponent() {
+        if (component == null) {
+            List<T> components = Context.getRegisteredComponents(componentType);
+            component = isEmpty(components) ? null : components.get(0);
+        }
+        return component;
+    }
+}
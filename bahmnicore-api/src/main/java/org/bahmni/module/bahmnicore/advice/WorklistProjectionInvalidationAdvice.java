@@ -0,0 +1,116 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.worklist.WorklistProjections;
+import org.openmrs.Encounter;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.Order;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.Visit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marks stale the worklist queues reading the tables written by the advised method. Visits and encounters cascade to
+ * the rows below them, a patient passed on its own is a bed assignment. The patients and locations of the write are
+ * resolved while the session is open, so that only the affected wards of the census are rebuilt.
+ */
+public class WorklistProjectionInvalidationAdvice extends InvalidationAdvice<WorklistProjections> {
+    static final List<String> VISIT_TABLES = Arrays.asList("visit", "encounter", "obs", "orders");
+    static final List<String> ENCOUNTER_TABLES = Arrays.asList("encounter", "obs", "orders");
+    static final List<String> OBS_TABLES = Collections.singletonList("obs");
+    static final List<String> ORDER_TABLES = Collections.singletonList("orders");
+    static final List<String> BED_TABLES = Arrays.asList("bed_patient_assignment_map", "bed");
+
+    public WorklistProjectionInvalidationAdvice() {
+        this(null);
+    }
+
+    public WorklistProjectionInvalidationAdvice(WorklistProjections worklistProjections) {
+        super(WorklistProjections.class, worklistProjections);
+    }
+
+    @Override
+    protected Runnable invalidation(WorklistProjections worklistProjections, Object returnValue, Object[] args) {
+        final Set<String> tables = new HashSet<>();
+        Set<String> patientKeys = new HashSet<>();
+        final Set<String> locationKeys = new HashSet<>();
+        boolean patientsKnown = true;
+        for (Object argument : args) {
+            addTables(tables, argument);
+            patientsKnown &= addPatientKeys(patientKeys, argument);
+            addLocationKeys(locationKeys, argument);
+        }
+        if (tables.isEmpty()) {
+            addTables(tables, returnValue);
+            patientsKnown &= addPatientKeys(patientKeys, returnValue);
+        }
+        if (tables.isEmpty()) {
+            tables.addAll(VISIT_TABLES);
+            tables.addAll(BED_TABLES);
+        }
+        final Set<String> knownPatientKeys = patientsKnown && !patientKeys.isEmpty() ? patientKeys : null;
+        return () -> worklistProjections.markChanged(tables, knownPatientKeys, locationKeys);
+    }
+
+    /**
+     * @return false when the argument is written data whose patient cannot be told
+     */
+    private boolean addPatientKeys(Set<String> patientKeys, Object argument) {
+        Patient patient;
+        if (argument instanceof Visit) {
+            patient = ((Visit) argument).getPatient();
+        } else if (argument instanceof Encounter) {
+            patient = ((Encounter) argument).getPatient();
+        } else if (argument instanceof Obs) {
+            patient = patientOf((Obs) argument);
+        } else if (argument instanceof Order) {
+            patient = ((Order) argument).getPatient();
+        } else if (argument instanceof Patient) {
+            patient = (Patient) argument;
+        } else {
+            return true;
+        }
+        if (patient == null) {
+            return false;
+        }
+        patientKeys.add(patient.getUuid());
+        for (PatientIdentifier identifier : patient.getActiveIdentifiers()) {
+            patientKeys.add(identifier.getIdentifier());
+        }
+        return true;
+    }
+
+    private Patient patientOf(Obs obs) {
+        if (obs.getPerson() instanceof Patient) {
+            return (Patient) obs.getPerson();
+        }
+        return obs.getEncounter() == null ? null : obs.getEncounter().getPatient();
+    }
+
+    private void addLocationKeys(Set<String> locationKeys, Object argument) {
+        if (argument instanceof Location) {
+            locationKeys.add(((Location) argument).getName());
+            locationKeys.add(((Location) argument).getUuid());
+        }
+    }
+
+    private void addTables(Set<String> tables, Object argument) {
+        if (argument instanceof Visit) {
+            tables.addAll(VISIT_TABLES);
+        } else if (argument instanceof Encounter) {
+            tables.addAll(ENCOUNTER_TABLES);
+        } else if (argument instanceof Obs) {
+            tables.addAll(OBS_TABLES);
+        } else if (argument instanceof Order) {
+            tables.addAll(ORDER_TABLES);
+        } else if (argument instanceof Patient) {
+            tables.addAll(BED_TABLES);
+        }
+    }
+}
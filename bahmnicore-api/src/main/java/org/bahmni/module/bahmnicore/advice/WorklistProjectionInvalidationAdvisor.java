@@ -0,0 +1,22 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.aopalliance.aop.Advice;
+
+public class WorklistProjectionInvalidationAdvisor extends MethodNameAdvisor {
+
+    public WorklistProjectionInvalidationAdvisor() {
+        super(
+                "saveVisit", "endVisit", "voidVisit", "unvoidVisit", "purgeVisit",
+                "saveEncounter", "voidEncounter", "unvoidEncounter", "purgeEncounter",
+                "saveObs", "voidObs", "unvoidObs", "purgeObs",
+                "saveOrder", "saveRetrospectiveOrder", "discontinueOrder", "voidOrder", "unvoidOrder", "purgeOrder",
+                "updateOrderFulfillerStatus",
+                "assignPatientToBed", "unAssignPatientFromBed"
+        );
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return new WorklistProjectionInvalidationAdvice();
+    }
+}
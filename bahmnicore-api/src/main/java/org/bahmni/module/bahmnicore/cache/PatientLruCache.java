@@ -0,0 +1,98 @@
+package org.bahmni.module.bahmnicore.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size bounded LRU map of a value per recently viewed patient. Values are loaded outside the lock, and a value whose
+ * load overlapped an invalidation is handed out but not kept, as it may miss the write that caused the invalidation.
+ */
+public class PatientLruCache<V> {
+    public static final int MAX_PATIENTS = 200;
+
+    private final Map<String, V> valuesByPatient = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxPatients;
+    private long invalidationCount;
+    private long evictions;
+
+    public PatientLruCache() {
+        this(MAX_PATIENTS);
+    }
+
+    public PatientLruCache(int maxPatients) {
+        this.maxPatients = maxPatients;
+    }
+
+    public V get(String patientUuid, Function<String, V> loader) {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            V cached = valuesByPatient.get(patientUuid);
+            if (cached != null) {
+                return cached;
+            }
+            invalidationsBeforeLoad = invalidationCount;
+        }
+        V loaded = loader.apply(patientUuid);
+        put(patientUuid, loaded, invalidationsBeforeLoad);
+        return loaded;
+    }
+
+    public synchronized V getIfPresent(String patientUuid) {
+        return valuesByPatient.get(patientUuid);
+    }
+
+    /**
+     * @param invalidationsBeforeLoad the {@link #getInvalidationCount()} read before the value started loading
+     * @return whether the value was kept
+     */
+    public synchronized boolean put(String patientUuid, V value, long invalidationsBeforeLoad) {
+        if (value == null || invalidationsBeforeLoad != invalidationCount) {
+            return false;
+        }
+        valuesByPatient.put(patientUuid, value);
+        evictLeastRecentlyUsed();
+        return true;
+    }
+
+    public synchronized void invalidate(String patientUuid) {
+        invalidationCount++;
+        valuesByPatient.remove(patientUuid);
+    }
+
+    public synchronized void clear() {
+        invalidationCount++;
+        valuesByPatient.clear();
+    }
+
+    public synchronized void setMaxPatients(int maxPatients) {
+        this.maxPatients = maxPatients;
+        evictLeastRecentlyUsed();
+    }
+
+    public synchronized int getMaxPatients() {
+        return maxPatients;
+    }
+
+    public synchronized int size() {
+        return valuesByPatient.size();
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<String> iterator = valuesByPatient.keySet().iterator();
+        while (valuesByPatient.size() > maxPatients && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
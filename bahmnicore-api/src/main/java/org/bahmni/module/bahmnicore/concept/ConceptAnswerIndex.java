@@ -0,0 +1,208 @@
+package org.bahmni.module.bahmnicore.concept;
+
+import org.bahmni.module.bahmnicore.dao.BahmniConceptDao;
+import org.openmrs.Concept;
+import org.openmrs.ConceptAnswer;
+import org.openmrs.ConceptName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index over the answer ids and names of coded question concepts, built lazily per question and dropped
+ * by {@link org.bahmni.module.bahmnicore.advice.ConceptAnswerIndexInvalidationAdvice} whenever a concept is saved.
+ * Matches every whitespace separated token against the non-voided answer names, like the HQL search it replaces,
+ * ranking word prefix matches and names in the requested locale first. Only the answers of the requested page are
+ * loaded from the database.
+ */
+@Component
+public class ConceptAnswerIndex {
+    private static final String WHITE_SPACE = "\\s+";
+
+    private final Map<Integer, List<IndexedAnswer>> answersByQuestion = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final BahmniConceptDao bahmniConceptDao;
+
+    @Autowired
+    public ConceptAnswerIndex(BahmniConceptDao bahmniConceptDao) {
+        this.bahmniConceptDao = bahmniConceptDao;
+    }
+
+    public List<ConceptAnswer> search(Concept questionConcept, String query, Locale locale) {
+        return search(questionConcept, query, locale, 0, Integer.MAX_VALUE);
+    }
+
+    public List<ConceptAnswer> search(Concept questionConcept, String query, Locale locale, int startIndex, int limit) {
+        List<String> tokens = tokenize(query);
+        String language = locale == null ? null : locale.getLanguage();
+        List<RankedAnswer> matches = new ArrayList<>();
+        for (IndexedAnswer indexedAnswer : getIndexedAnswers(questionConcept)) {
+            int rank = indexedAnswer.rank(tokens, language);
+            if (rank >= 0) {
+                matches.add(new RankedAnswer(indexedAnswer.conceptAnswerId, rank));
+            }
+        }
+        matches.sort(Comparator.comparingInt(match -> match.rank));
+
+        int fromIndex = Math.min(Math.max(startIndex, 0), matches.size());
+        int toIndex = (int) Math.min((long) fromIndex + Math.max(limit, 0), matches.size());
+        List<Integer> pageIds = new ArrayList<>(toIndex - fromIndex);
+        for (RankedAnswer match : matches.subList(fromIndex, toIndex)) {
+            pageIds.add(match.conceptAnswerId);
+        }
+        if (pageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, ConceptAnswer> answersById = new HashMap<>();
+        for (ConceptAnswer conceptAnswer : bahmniConceptDao.getConceptAnswers(pageIds)) {
+            answersById.put(conceptAnswer.getConceptAnswerId(), conceptAnswer);
+        }
+        List<ConceptAnswer> result = new ArrayList<>(pageIds.size());
+        for (Integer conceptAnswerId : pageIds) {
+            ConceptAnswer conceptAnswer = answersById.get(conceptAnswerId);
+            if (conceptAnswer != null) {
+                result.add(conceptAnswer);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        answersByQuestion.clear();
+    }
+
+    private List<IndexedAnswer> getIndexedAnswers(Concept questionConcept) {
+        Integer questionId = questionConcept.getConceptId();
+        List<IndexedAnswer> indexedAnswers = questionId == null ? null : answersByQuestion.get(questionId);
+        if (indexedAnswers != null) {
+            return indexedAnswers;
+        }
+        long generationBeforeBuild = generation.get();
+        indexedAnswers = build(questionConcept.getAnswers(true));
+        //A concept saved while building may not be reflected in the answers just read
+        if (questionId != null && generation.get() == generationBeforeBuild) {
+            answersByQuestion.put(questionId, indexedAnswers);
+        }
+        return indexedAnswers;
+    }
+
+    private List<IndexedAnswer> build(Collection<ConceptAnswer> conceptAnswers) {
+        if (conceptAnswers == null) {
+            return Collections.emptyList();
+        }
+        List<IndexedAnswer> indexedAnswers = new ArrayList<>(conceptAnswers.size());
+        for (ConceptAnswer conceptAnswer : conceptAnswers) {
+            Concept answerConcept = conceptAnswer.getAnswerConcept();
+            if (answerConcept == null || conceptAnswer.getConceptAnswerId() == null) {
+                continue;
+            }
+            List<IndexedName> names = new ArrayList<>();
+            for (ConceptName conceptName : answerConcept.getNames(false)) {
+                if (conceptName.getName() != null) {
+                    String language = conceptName.getLocale() == null ? null : conceptName.getLocale().getLanguage();
+                    names.add(new IndexedName(conceptName.getName().toLowerCase(), language));
+                }
+            }
+            if (!names.isEmpty()) {
+                indexedAnswers.add(new IndexedAnswer(conceptAnswer.getConceptAnswerId(), names));
+            }
+        }
+        return Collections.unmodifiableList(indexedAnswers);
+    }
+
+    private List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String token : query.toLowerCase().split(WHITE_SPACE)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class IndexedAnswer {
+        private final Integer conceptAnswerId;
+        private final List<IndexedName> names;
+
+        IndexedAnswer(Integer conceptAnswerId, List<IndexedName> names) {
+            this.conceptAnswerId = conceptAnswerId;
+            this.names = names;
+        }
+
+        int rank(List<String> tokens, String language) {
+            int best = -1;
+            for (IndexedName name : names) {
+                int rank = name.rank(tokens, language);
+                if (rank >= 0 && (best < 0 || rank < best)) {
+                    best = rank;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static class IndexedName {
+        private final String name;
+        private final String[] words;
+        private final String language;
+
+        IndexedName(String name, String language) {
+            this.name = name;
+            this.words = name.split("[^\\p{L}\\p{N}]+");
+            this.language = language;
+        }
+
+        /**
+         * @return -1 when a token is missing from the name, otherwise 0 for word prefix matches in the requested
+         * language, 1 for word prefix matches in other languages, 2 and 3 for the same with plain substring matches
+         */
+        int rank(List<String> tokens, String requestedLanguage) {
+            boolean allWordPrefixes = true;
+            for (String token : tokens) {
+                if (!name.contains(token)) {
+                    return -1;
+                }
+                allWordPrefixes = allWordPrefixes && startsAnyWord(token);
+            }
+            int localeRank = language != null && language.equals(requestedLanguage) ? 0 : 1;
+            return (allWordPrefixes ? 0 : 2) + localeRank;
+        }
+
+        private boolean startsAnyWord(String token) {
+            if (name.startsWith(token)) {
+                return true;
+            }
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class RankedAnswer {
+        private final Integer conceptAnswerId;
+        private final int rank;
+
+        RankedAnswer(Integer conceptAnswerId, int rank) {
+            this.conceptAnswerId = conceptAnswerId;
+            this.rank = rank;
+        }
+    }
+}
@@ -72,6 +72,18 @@ public class DrugOrderConfigResponse {
         this.dosingRules = dosingRules;
     }
 
+    public DrugOrderConfigResponse withDosingRules(String[] dosingRules) {
+        DrugOrderConfigResponse response = new DrugOrderConfigResponse();
+        response.setFrequencies(frequencies);
+        response.setDoseUnits(doseUnits);
+        response.setRoutes(routes);
+        response.setDurationUnits(durationUnits);
+        response.setDispensingUnits(dispensingUnits);
+        response.setDosingInstructions(dosingInstructions);
+        response.setOrderAttributes(orderAttributes);
+        response.setDosingRules(dosingRules);
+        return response;
+    }
 
     public List<EncounterTransaction.Concept> getOrderAttributes() {
         return orderAttributes;
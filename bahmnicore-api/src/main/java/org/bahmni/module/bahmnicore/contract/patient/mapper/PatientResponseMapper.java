@@ -1,6 +1,5 @@
 package org.bahmni.module.bahmnicore.contract.patient.mapper;
 
-import java.util.Objects;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
@@ -19,18 +18,27 @@ import org.openmrs.module.bahmniemrapi.encountertransaction.command.impl.BahmniV
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationServiceImpl;
 import org.openmrs.util.LocaleUtility;
 
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Maps the patients of one search. Visit locations, concept names of attribute values and address accessors are
+ * resolved once per mapper rather than once per patient, so create a mapper for each search.
+ */
 public class PatientResponseMapper {
     private PatientResponse patientResponse;
     private VisitService visitService;
     private BahmniVisitLocationServiceImpl bahmniVisitLocationService;
 
+    private final Map<String, Integer> visitLocationIds = new HashMap<>();
+    private final Map<String, String> conceptNames = new HashMap<>();
+    private final Map<String, Method> addressAccessors = new HashMap<>();
+    private final StringBuilder keyPairs = new StringBuilder();
 
     public PatientResponseMapper(VisitService visitService, BahmniVisitLocationServiceImpl bahmniVisitLocationService) {
         this.visitService = visitService;
@@ -38,10 +46,10 @@ public class PatientResponseMapper {
     }
 
     public PatientResponse map(Patient patient, String loginLocationUuid, String[] searchResultFields, String[] addressResultFields, Object programAttributeValue) {
-        List<String> patientSearchResultFields = searchResultFields != null ? Arrays.asList(searchResultFields) : new ArrayList<>();
-        List<String> addressSearchResultFields = addressResultFields != null ? Arrays.asList(addressResultFields) : new ArrayList<>();
+        String[] patientSearchResultFields = searchResultFields != null ? searchResultFields : new String[0];
+        String[] addressSearchResultFields = addressResultFields != null ? addressResultFields : new String[0];
 
-        Integer visitLocationId = bahmniVisitLocationService.getVisitLocation(loginLocationUuid).getLocationId();
+        Integer visitLocationId = getVisitLocationId(loginLocationUuid);
         List<Visit> activeVisitsByPatient = visitService.getActiveVisitsByPatient(patient);
 
         patientResponse = new PatientResponse();
@@ -68,48 +76,68 @@ public class PatientResponseMapper {
         return patientResponse;
     }
 
+    private Integer getVisitLocationId(String loginLocationUuid) {
+        Integer visitLocationId = visitLocationIds.get(loginLocationUuid);
+        if (visitLocationId == null) {
+            visitLocationId = bahmniVisitLocationService.getVisitLocation(loginLocationUuid).getLocationId();
+            visitLocationIds.put(loginLocationUuid, visitLocationId);
+        }
+        return visitLocationId;
+    }
+
     private void mapExtraIdentifiers(Patient patient, PatientIdentifier primaryIdentifier) {
-        String extraIdentifiers = patient.getActiveIdentifiers().stream()
-                .filter(patientIdentifier -> (patientIdentifier != primaryIdentifier))
-                .map(patientIdentifier -> {
-                    String identifier = patientIdentifier.getIdentifier();
-                    return identifier == null ? ""
-                                              : formKeyPair(patientIdentifier.getIdentifierType().getName(), identifier);
-                })
-                .collect(Collectors.joining(","));
-        patientResponse.setExtraIdentifiers(formJsonString(extraIdentifiers));
+        keyPairs.setLength(0);
+        int entries = 0;
+        for (PatientIdentifier patientIdentifier : patient.getActiveIdentifiers()) {
+            if (patientIdentifier == primaryIdentifier) {
+                continue;
+            }
+            //An identifier without a value still takes its place in the list, as an empty entry
+            if (entries++ > 0) {
+                keyPairs.append(',');
+            }
+            if (patientIdentifier.getIdentifier() != null) {
+                appendEscapedKeyPair(patientIdentifier.getIdentifierType().getName(), patientIdentifier.getIdentifier());
+            }
+        }
+        patientResponse.setExtraIdentifiers(formJsonString());
     }
 
-    private void mapPersonAttributes(Patient patient, List<String> patientSearchResultFields) {
-        String queriedPersonAttributes = patientSearchResultFields.stream()
-                .map(attributeName -> {
-                    PersonAttribute attribute = patient.getAttribute(attributeName);
-                    if(attribute != null) {
-                        if("org.openmrs.Concept".equals(attribute.getAttributeType().getFormat())) {
-                            Concept concept = Context.getConceptService().getConcept(attribute.getValue());
-                            ConceptName fullySpecifiedName = concept.getFullySpecifiedName(Context.getLocale());
-                            ConceptName conceptFullySpecifiedName = (fullySpecifiedName == null) ? concept.getFullySpecifiedName(LocaleUtility.getDefaultLocale()) : fullySpecifiedName;
-                            return formKeyPair(attributeName, conceptFullySpecifiedName != null ? conceptFullySpecifiedName.getName() : null);
-                        }
-                        else {
-                            return formKeyPair(attributeName, attribute.getValue());
-                        }
-                    }
-                    return null;
-                }).filter(Objects::nonNull)
-                .collect(Collectors.joining(","));
-        patientResponse.setCustomAttribute(formJsonString(queriedPersonAttributes));
+    private void mapPersonAttributes(Patient patient, String[] patientSearchResultFields) {
+        keyPairs.setLength(0);
+        for (String attributeName : patientSearchResultFields) {
+            PersonAttribute attribute = patient.getAttribute(attributeName);
+            if (attribute == null) {
+                continue;
+            }
+            if ("org.openmrs.Concept".equals(attribute.getAttributeType().getFormat())) {
+                appendKeyPair(attributeName, getConceptName(attribute.getValue()));
+            } else {
+                appendKeyPair(attributeName, attribute.getValue());
+            }
+        }
+        patientResponse.setCustomAttribute(formJsonString());
     }
 
-    private void mapPersonAddress(Patient patient, List<String> addressSearchResultFields) {
-        String queriedAddressFields = addressSearchResultFields.stream()
-                .map(addressField -> {
-                    String address = getPersonAddressFieldValue(addressField, patient.getPersonAddress());
-                    return address == null ? null : formKeyPair(addressField, address);
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining(","));
-        patientResponse.setAddressFieldValue(formJsonString(queriedAddressFields));
+    private String getConceptName(String conceptId) {
+        if (conceptNames.containsKey(conceptId)) {
+            return conceptNames.get(conceptId);
+        }
+        Concept concept = Context.getConceptService().getConcept(conceptId);
+        ConceptName fullySpecifiedName = concept.getFullySpecifiedName(Context.getLocale());
+        ConceptName conceptFullySpecifiedName = (fullySpecifiedName == null) ? concept.getFullySpecifiedName(LocaleUtility.getDefaultLocale()) : fullySpecifiedName;
+        String conceptName = conceptFullySpecifiedName != null ? conceptFullySpecifiedName.getName() : null;
+        conceptNames.put(conceptId, conceptName);
+        return conceptName;
+    }
+
+    private void mapPersonAddress(Patient patient, String[] addressSearchResultFields) {
+        keyPairs.setLength(0);
+        PersonAddress personAddress = patient.getPersonAddress();
+        for (String addressField : addressSearchResultFields) {
+            appendKeyPair(addressField, getPersonAddressFieldValue(addressField, personAddress));
+        }
+        patientResponse.setAddressFieldValue(formJsonString());
     }
 
     private void mapVisitSummary(Integer visitLocationId, List<Visit> activeVisitsByPatient) {
@@ -129,25 +157,54 @@ public class PatientResponseMapper {
         }
     }
 
-    private String formJsonString(String keyPairs) {
-        return "".equals(keyPairs) ? null :"{" + keyPairs + "}";
+    private String formJsonString() {
+        return keyPairs.length() == 0 ? null : "{" + keyPairs + "}";
     }
 
-    private String formKeyPair(String Key, String value) {
-        return (value== null) ? value : "\"" + Key + "\" : \"" + value.replace("\\","\\\\").replace("\"","\\\"") + "\"";
+    private void appendKeyPair(String key, String value) {
+        if (value == null) {
+            return;
+        }
+        if (keyPairs.length() > 0) {
+            keyPairs.append(',');
+        }
+        appendEscapedKeyPair(key, value);
+    }
+
+    private void appendEscapedKeyPair(String key, String value) {
+        keyPairs.append('"').append(key).append("\" : \"");
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == '\\' || character == '"') {
+                keyPairs.append('\\');
+            }
+            keyPairs.append(character);
+        }
+        keyPairs.append('"');
     }
 
     private String getPersonAddressFieldValue(String addressField, PersonAddress personAddress) {
-        String address = "";
         try {
-            String[] split = addressField.split("_");
-            String propertyName = split.length > 1 ? split[0] + StringUtils.capitalize(split[1]) : addressField;
-            address = (String) PropertyUtils.getProperty(personAddress, propertyName);
+            return (String) getAddressAccessor(addressField).invoke(personAddress);
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             e.printStackTrace();
             throw new APIException("cannot toString value for address field" + addressField, e);
         }
-        return address;
+    }
+
+    private Method getAddressAccessor(String addressField) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        Method accessor = addressAccessors.get(addressField);
+        if (accessor == null) {
+            String[] split = addressField.split("_");
+            String propertyName = split.length > 1 ? split[0] + StringUtils.capitalize(split[1]) : addressField;
+            PropertyDescriptor propertyDescriptor = PropertyUtils.getPropertyDescriptor(new PersonAddress(), propertyName);
+            if (propertyDescriptor == null || propertyDescriptor.getReadMethod() == null) {
+                throw new NoSuchMethodException("Unknown property '" + propertyName + "' on class '" + PersonAddress.class + "'");
+            }
+            accessor = propertyDescriptor.getReadMethod();
+            addressAccessors.put(addressField, accessor);
+        }
+        return accessor;
     }
 
 }
@@ -33,6 +33,10 @@ public class PatientResponse {
     private Boolean hasBeenAdmitted;
 
     public String getAge() {
+        return getAge(birthDate, getDeathDate());
+    }
+
+    public static String getAge(Date birthDate, Date deathDate) {
         if (birthDate == null)
             return null;
 
@@ -40,8 +44,8 @@ public class PatientResponse {
         Calendar today = Calendar.getInstance();
 
         // If date given is after date of death then use date of death as end date
-        if (getDeathDate() != null && today.getTime().after(getDeathDate())) {
-            today.setTime(getDeathDate());
+        if (deathDate != null && today.getTime().after(deathDate)) {
+            today.setTime(deathDate);
         }
 
         Calendar bday = Calendar.getInstance();
@@ -0,0 +1,172 @@
+package org.bahmni.module.bahmnicore.contract.patient.response;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SerializedString;
+
+import java.io.IOException;
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes a page of patient search results straight to a Jackson generator, in the same JSON the bean serialized
+ * {@link PatientResponse}s wrapped in an AlreadyPaged used to produce: {@code {"pageOfResults": [...]}}.
+ * Rows of the search query are written column by column through a {@link Columns} layout computed once per query,
+ * so no {@link PatientResponse} or intermediate string is created per patient. One writer serves one response.
+ */
+public class PatientResponseWriter {
+    private static final SerializedString PAGE_OF_RESULTS = new SerializedString("pageOfResults");
+    private static final SerializedString AGE = new SerializedString("age");
+
+    private static final int UUID = 0;
+    private static final int BIRTH_DATE = 1;
+    private static final int EXTRA_IDENTIFIERS = 2;
+    private static final int PERSON_ID = 3;
+    private static final int DEATH_DATE = 4;
+    private static final int IDENTIFIER = 5;
+    private static final int ADDRESS_FIELD_VALUE = 6;
+    private static final int GIVEN_NAME = 7;
+    private static final int MIDDLE_NAME = 8;
+    private static final int FAMILY_NAME = 9;
+    private static final int GENDER = 10;
+    private static final int DATE_CREATED = 11;
+    private static final int ACTIVE_VISIT_UUID = 12;
+    private static final int CUSTOM_ATTRIBUTE = 13;
+    private static final int PATIENT_PROGRAM_ATTRIBUTE_VALUE = 14;
+    private static final int HAS_BEEN_ADMITTED = 15;
+
+    private static final String[] PROPERTIES = {"uuid", "birthDate", "extraIdentifiers", "personId", "deathDate",
+            "identifier", "addressFieldValue", "givenName", "middleName", "familyName", "gender", "dateCreated",
+            "activeVisitUuid", "customAttribute", "patientProgramAttributeValue", "hasBeenAdmitted"};
+    private static final SerializedString[] PROPERTY_NAMES = new SerializedString[PROPERTIES.length];
+
+    static {
+        for (int property = 0; property < PROPERTIES.length; property++) {
+            PROPERTY_NAMES[property] = new SerializedString(PROPERTIES[property]);
+        }
+    }
+
+    private final JsonGenerator generator;
+    private final SimpleDateFormat birthDateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private final StringBuffer birthDateBuffer = new StringBuffer(10);
+    private final FieldPosition fieldPosition = new FieldPosition(0);
+    private char[] characters = new char[16];
+    private final Object[] values = new Object[PROPERTIES.length];
+
+    public PatientResponseWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    public void writeStart() throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(PAGE_OF_RESULTS);
+        generator.writeStartArray();
+    }
+
+    public void writeEnd() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * @param columnAliases aliases of the selected columns, in the order of the values of each row
+     */
+    public Columns columns(List<String> columnAliases) {
+        int[] columnByProperty = new int[PROPERTIES.length];
+        for (int property = 0; property < PROPERTIES.length; property++) {
+            columnByProperty[property] = columnAliases.indexOf(PROPERTIES[property]);
+        }
+        return new Columns(columnByProperty);
+    }
+
+    public void writeRow(Columns columns, Object[] row) throws IOException {
+        for (int property = 0; property < PROPERTIES.length; property++) {
+            int column = columns.columnByProperty[property];
+            values[property] = column < 0 ? null : row[column];
+        }
+        writeValues();
+    }
+
+    public void write(PatientResponse patientResponse) throws IOException {
+        values[UUID] = patientResponse.getUuid();
+        values[BIRTH_DATE] = patientResponse.getBirthDate();
+        values[EXTRA_IDENTIFIERS] = patientResponse.getExtraIdentifiers();
+        values[PERSON_ID] = patientResponse.getPersonId();
+        values[DEATH_DATE] = patientResponse.getDeathDate();
+        values[IDENTIFIER] = patientResponse.getIdentifier();
+        values[ADDRESS_FIELD_VALUE] = patientResponse.getAddressFieldValue();
+        values[GIVEN_NAME] = patientResponse.getGivenName();
+        values[MIDDLE_NAME] = patientResponse.getMiddleName();
+        values[FAMILY_NAME] = patientResponse.getFamilyName();
+        values[GENDER] = patientResponse.getGender();
+        values[DATE_CREATED] = patientResponse.getDateCreated();
+        values[ACTIVE_VISIT_UUID] = patientResponse.getActiveVisitUuid();
+        values[CUSTOM_ATTRIBUTE] = patientResponse.getCustomAttribute();
+        values[PATIENT_PROGRAM_ATTRIBUTE_VALUE] = patientResponse.getPatientProgramAttributeValue();
+        values[HAS_BEEN_ADMITTED] = patientResponse.getHasBeenAdmitted();
+        writeValues();
+    }
+
+    private void writeValues() throws IOException {
+        generator.writeStartObject();
+        for (int property = 0; property < PROPERTIES.length; property++) {
+            generator.writeFieldName(PROPERTY_NAMES[property]);
+            Object value = values[property];
+            if (value == null) {
+                generator.writeNull();
+            } else if (property == BIRTH_DATE) {
+                writeBirthDate((Date) value);
+            } else if (property == PERSON_ID) {
+                generator.writeNumber(((Number) value).intValue());
+            } else {
+                writeValue(value);
+            }
+        }
+        generator.writeFieldName(AGE);
+        String age = PatientResponse.getAge((Date) values[BIRTH_DATE], (Date) values[DEATH_DATE]);
+        if (age == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(age);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Date) {
+            generator.writeNumber(((Date) value).getTime());
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    private void writeBirthDate(Date birthDate) throws IOException {
+        birthDateBuffer.setLength(0);
+        birthDateFormat.format(birthDate, birthDateBuffer, fieldPosition);
+        int length = birthDateBuffer.length();
+        if (characters.length < length) {
+            characters = new char[length];
+        }
+        birthDateBuffer.getChars(0, length, characters, 0);
+        generator.writeString(characters, 0, length);
+    }
+
+    /**
+     * Position of every {@link PatientResponse} property among the columns of a search query, -1 when not selected.
+     */
+    public static class Columns {
+        private final int[] columnByProperty;
+
+        private Columns(int[] columnByProperty) {
+            this.columnByProperty = columnByProperty;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.hibernate.transform.Transformers;
 import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.type.Type;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -65,6 +66,7 @@ public class PatientSearchBuilder {
 	private String orderBy;
 	private SessionFactory sessionFactory;
 	private Map<String,Type> types;
+	private List<String> columnAliases;
 
 	public PatientSearchBuilder(SessionFactory sessionFactory){
 		select = SELECT_STATEMENT;
@@ -138,38 +140,56 @@ public class PatientSearchBuilder {
 	}
 
 	public SQLQuery buildSqlQuery(Integer limit, Integer offset){
+		SQLQuery sqlQuery = buildScalarSqlQuery(limit, offset);
+		sqlQuery.setResultTransformer(Transformers.aliasToBean(PatientResponse.class));
+		return sqlQuery;
+	}
+
+	/**
+	 * @return the search query returning each patient as an array of column values, in the order of
+	 * {@link #getColumnAliases()}
+	 */
+	public SQLQuery buildScalarSqlQuery(Integer limit, Integer offset){
 		String joinWithVisit = join.replace(VISIT_JOIN, visitJoin);
 		String query = select + from + joinWithVisit + where + GROUP_BY_KEYWORD + groupBy  + orderBy;
 
-		SQLQuery sqlQuery = sessionFactory.getCurrentSession()
-				.createSQLQuery(query)
-				.addScalar("uuid", StandardBasicTypes.STRING)
-				.addScalar("identifier", StandardBasicTypes.STRING)
-				.addScalar("givenName", StandardBasicTypes.STRING)
-				.addScalar("personId", StandardBasicTypes.INTEGER)
-				.addScalar("middleName", StandardBasicTypes.STRING)
-				.addScalar("familyName", StandardBasicTypes.STRING)
-				.addScalar("gender", StandardBasicTypes.STRING)
-				.addScalar("birthDate", StandardBasicTypes.DATE)
-				.addScalar("deathDate", StandardBasicTypes.DATE)
-				.addScalar("dateCreated", StandardBasicTypes.TIMESTAMP)
-				.addScalar("activeVisitUuid", StandardBasicTypes.STRING)
-				.addScalar("hasBeenAdmitted", StandardBasicTypes.BOOLEAN)
-				.addScalar("extraIdentifiers", StandardBasicTypes.STRING);
+		SQLQuery sqlQuery = sessionFactory.getCurrentSession().createSQLQuery(query);
+		columnAliases = new ArrayList<>();
+		addScalar(sqlQuery, "uuid", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "identifier", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "givenName", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "personId", StandardBasicTypes.INTEGER);
+		addScalar(sqlQuery, "middleName", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "familyName", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "gender", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "birthDate", StandardBasicTypes.DATE);
+		addScalar(sqlQuery, "deathDate", StandardBasicTypes.DATE);
+		addScalar(sqlQuery, "dateCreated", StandardBasicTypes.TIMESTAMP);
+		addScalar(sqlQuery, "activeVisitUuid", StandardBasicTypes.STRING);
+		addScalar(sqlQuery, "hasBeenAdmitted", StandardBasicTypes.BOOLEAN);
+		addScalar(sqlQuery, "extraIdentifiers", StandardBasicTypes.STRING);
 
 		Iterator<Map.Entry<String,Type>> iterator = types.entrySet().iterator();
 
 		while(iterator.hasNext()){
 			Map.Entry<String,Type> entry = iterator.next();
-			sqlQuery.addScalar(entry.getKey(),entry.getValue());
+			addScalar(sqlQuery, entry.getKey(), entry.getValue());
 		}
 
 		sqlQuery.setParameter(LIMIT_PARAM, limit);
 		sqlQuery.setParameter(OFFSET_PARAM, offset);
-		sqlQuery.setResultTransformer(Transformers.aliasToBean(PatientResponse.class));
 		return sqlQuery;
 	}
 
+	public List<String> getColumnAliases() {
+		return columnAliases;
+	}
+
+	private void addScalar(SQLQuery sqlQuery, String columnAlias, Type type) {
+		sqlQuery.addScalar(columnAlias, type);
+		columnAliases.add(columnAlias);
+	}
+
 	public PatientSearchBuilder withLocation(String loginLocationUuid, Boolean filterPatientsByLocation) {
 		PatientVisitLocationQueryHelper patientVisitLocationQueryHelper = new PatientVisitLocationQueryHelper(loginLocationUuid);
 		visitJoin = patientVisitLocationQueryHelper.appendVisitJoinClause(visitJoin);
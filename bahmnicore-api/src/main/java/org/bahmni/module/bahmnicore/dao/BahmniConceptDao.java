@@ -10,6 +10,7 @@ import java.util.List;
 
 public interface BahmniConceptDao {
     Collection<ConceptAnswer> searchByQuestion(Concept questionConcept, String searchQuery);
+    List<ConceptAnswer> getConceptAnswers(Collection<Integer> conceptAnswerIds);
     Concept getConceptByFullySpecifiedName(String fullySpecifiedConceptName);
     Collection<Drug> getDrugByListOfConcepts(Collection<Concept> conceptSet);
     List searchDrugsByDrugName(Integer conceptSetId, String searchTerm);
@@ -7,4 +7,8 @@ import java.util.List;
 
 public interface BahmniOrderSetDao {
    List<OrderSet> getOrderSetByQuery(String searchTerm);
+
+   List<Object[]> getOrderSetSearchEntries();
+
+   List<OrderSet> getOrderSetsByIds(List<Integer> orderSetIds);
 }
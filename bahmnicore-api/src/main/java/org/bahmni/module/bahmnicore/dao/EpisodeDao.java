@@ -0,0 +1,32 @@
+package org.bahmni.module.bahmnicore.dao;
+
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface EpisodeDao {
+    List<Encounter> getEncountersInAnyEpisode(Collection<Encounter> encounters);
+
+    List<Encounter> getEncountersInPatientProgram(String patientProgramUuid, Collection<Encounter> encounters);
+
+    /**
+     * Ids of every encounter in the program's episode, without loading the episode or the encounters.
+     */
+    List<Integer> getEncounterIdsInPatientProgram(String patientProgramUuid);
+
+    List<String> getEncounterUuidsInPatientProgram(String patientProgramUuid);
+
+    /**
+     * Newest first. Pages continue after the encounter with afterEncounterUuid, limit may be null for all of them.
+     */
+    List<Encounter> getEncountersInPatientProgram(String patientProgramUuid, Date startDate, Date endDate, String afterEncounterUuid, Integer limit);
+
+    /**
+     * Non voided obs of the given concepts in the program's encounters, newest first. Paged like the encounters.
+     */
+    List<Obs> getObsInPatientProgram(String patientProgramUuid, Collection<Concept> concepts, Date startDate, Date endDate, String afterObsUuid, Integer limit);
+}
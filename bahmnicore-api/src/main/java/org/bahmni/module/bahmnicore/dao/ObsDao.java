@@ -17,9 +17,13 @@ public interface ObsDao {
 
     List<Concept> getNumericConceptsForPerson(String personUUID);
 
-    List<Obs> getObsFor(String patientUuid, Concept rootConcept, Concept childConcept, List<Integer> visitIdsFor, Collection<Encounter> encounters, Date startDate, Date endDate);
+    List<Object[]> getNumericObsSeriesPoints(String personUUID);
 
-    List<Obs> getObsForFormBuilderForms(String patientUuid, List<String> formNames, List<Integer> visitIdsFor, Collection<Encounter> encounters, Date startDate, Date endDate);
+    List<Object[]> getFormSubmissions(String patientUuid);
+
+    List<Obs> getObsFor(String patientUuid, Concept rootConcept, Concept childConcept, List<Integer> visitIdsFor, Collection<Integer> encounterIds, Date startDate, Date endDate);
+
+    List<Obs> getObsForFormBuilderForms(String patientUuid, List<String> formNames, List<Integer> visitIdsFor, Collection<Integer> encounterIds, Date startDate, Date endDate);
 
     List<Obs> getLatestObsFor(String patientUuid, String conceptName, Integer limit);
 
@@ -31,6 +35,10 @@ public interface ObsDao {
 
     List<Obs> getObsByPatientAndVisit(String patientUuid, List<String> conceptNames, List<Integer> listOfVisitIds, Integer limit, ObsDaoImpl.OrderBy sortOrder, List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order, Date startDate, Date endDate);
 
+    List<Obs> getObsByPatientAndOrders(String patientUuid, List<String> conceptNames, List<String> obsIgnoreList, Collection<Order> orders);
+
+    List<Obs> getObsForVisitAndOrders(List<Person> persons, List<Encounter> encounters, List<Concept> conceptsForNames, Collection<Concept> obsIgnoreList, Collection<Order> orders);
+
     List<Obs> getObsForConceptsByEncounter(String encounterUuid, List<String> conceptNames);
 
     Obs getChildObsFromParent(String parentObsUuid, Concept childConcept);
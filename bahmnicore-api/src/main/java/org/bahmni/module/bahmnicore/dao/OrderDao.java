@@ -3,7 +3,6 @@ package org.bahmni.module.bahmnicore.dao;
 import org.openmrs.CareSetting;
 import org.openmrs.Concept;
 import org.openmrs.DrugOrder;
-import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.OrderType;
 import org.openmrs.Patient;
@@ -42,15 +41,15 @@ public interface OrderDao {
 
     List<Order> getOrdersForVisitUuid(String visitUuid, String orderTypeUuid);
 
-    List<Order> getAllOrders(Patient patientByUuid, OrderType drugOrderTypeUuid, Set<Concept> conceptsForDrugs, Set<Concept> drugConceptsToBeExcluded, Collection<Encounter> encounters);
+    List<Order> getAllOrders(Patient patientByUuid, OrderType drugOrderTypeUuid, Set<Concept> conceptsForDrugs, Set<Concept> drugConceptsToBeExcluded, Collection<Integer> encounterIds);
 
     Map<String,DrugOrder> getDiscontinuedDrugOrders(List<DrugOrder> drugOrders);
 
     List<Order> getActiveOrders(Patient patient, OrderType orderType, CareSetting careSetting, Date asOfDate, Set<Concept> conceptsToFilter,
-                                Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Encounter> encounters);
+                                Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Integer> encounterIds);
 
     List<Order> getInactiveOrders(Patient patient, OrderType orderTypeByName, CareSetting careSettingByName, Date asOfDate,
-                                  Set<Concept> concepts, Set<Concept> drugConceptsToBeExcluded, Collection<Encounter> encounters);
+                                  Set<Concept> concepts, Set<Concept> drugConceptsToBeExcluded, Collection<Integer> encounterIds);
 
     Order getChildOrder(Order order);
 
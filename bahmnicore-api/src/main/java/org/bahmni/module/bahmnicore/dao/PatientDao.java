@@ -1,9 +1,11 @@
 package org.bahmni.module.bahmnicore.dao;
 
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.openmrs.Patient;
 import org.openmrs.RelationshipType;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface PatientDao {
@@ -13,6 +15,17 @@ public interface PatientDao {
                                              String[] patientAttributes, String programAttribute, String programAttributeField,
                                              String[] addressSearchResultFields, String[] patientSearchResultFields, String loginLocationUuid, Boolean filterPatientsByLocation, Boolean filterOnAllIdentifiers);
 
+    /**
+     * Same search as {@link #getPatients(String, String, String, String, String, Integer, Integer, String[], String,
+     * String, String[], String[], String, Boolean, Boolean)}, writing every row to the writer as it is read.
+     */
+    void writePatients(String identifier, String name, String customAttribute,
+                       String addressFieldName, String addressFieldValue, Integer length, Integer offset,
+                       String[] patientAttributes, String programAttribute, String programAttributeField,
+                       String[] addressSearchResultFields, String[] patientSearchResultFields, String loginLocationUuid,
+                       Boolean filterPatientsByLocation, Boolean filterOnAllIdentifiers,
+                       PatientResponseWriter patientResponseWriter) throws IOException;
+
     List<PatientResponse> getPatientsUsingLuceneSearch(String identifier, String name, String customAttribute,
                                                        String addressFieldName, String addressFieldValue, Integer length,
                                                        Integer offset, String[] customAttributeFields, String programAttributeFieldValue,
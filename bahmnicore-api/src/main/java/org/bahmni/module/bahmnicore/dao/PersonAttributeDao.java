@@ -2,7 +2,14 @@ package org.bahmni.module.bahmnicore.dao;
 
 import org.bahmni.module.bahmnicore.model.ResultList;
 
+import java.util.List;
+
 public interface PersonAttributeDao {
 	
 	public ResultList getUnique(String personAttribute, String query);
+
+	/**
+	 * @return (value, number of non voided attributes) for every distinct value of the named person attribute type
+	 */
+	public List<Object[]> getValueFrequencies(String personAttribute);
 }
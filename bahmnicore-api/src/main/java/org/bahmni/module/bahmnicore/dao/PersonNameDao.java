@@ -2,7 +2,14 @@ package org.bahmni.module.bahmnicore.dao;
 
 import org.bahmni.module.bahmnicore.model.ResultList;
 
+import java.util.List;
+
 public interface PersonNameDao {
 	
 	public ResultList getUnique(String key, String query);
+
+	/**
+	 * @return (value, number of non voided names) for every distinct value of the given person name property
+	 */
+	public List<Object[]> getValueFrequencies(String key);
 }
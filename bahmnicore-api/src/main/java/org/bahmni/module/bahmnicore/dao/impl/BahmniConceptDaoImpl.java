@@ -50,6 +50,17 @@ public class BahmniConceptDaoImpl implements BahmniConceptDao {
         return new HashSet<>(query.list());
     }
 
+    @Override
+    public List<ConceptAnswer> getConceptAnswers(Collection<Integer> conceptAnswerIds) {
+        if (conceptAnswerIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return sessionFactory.getCurrentSession()
+                .createQuery("from ConceptAnswer as answer where answer.conceptAnswerId in (:conceptAnswerIds)")
+                .setParameterList("conceptAnswerIds", conceptAnswerIds)
+                .list();
+    }
+
     @Override
     public Concept getConceptByFullySpecifiedName(String fullySpecifiedConceptName) {
         List<Concept> concepts = sessionFactory.getCurrentSession()
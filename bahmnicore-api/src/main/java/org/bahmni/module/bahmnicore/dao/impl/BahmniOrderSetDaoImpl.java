@@ -9,6 +9,7 @@ import org.openmrs.OrderSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -25,4 +26,23 @@ public class BahmniOrderSetDaoImpl implements BahmniOrderSetDao {
         criteria.add(Restrictions.eq("retired", Boolean.FALSE));
         return criteria.list();
     }
+
+    @Override
+    public List<Object[]> getOrderSetSearchEntries() {
+        return sessionFactory.getCurrentSession()
+                .createQuery("select orderSet.orderSetId, orderSet.name, orderSet.description from OrderSet orderSet " +
+                        "where orderSet.retired = false")
+                .list();
+    }
+
+    @Override
+    public List<OrderSet> getOrderSetsByIds(List<Integer> orderSetIds) {
+        if (orderSetIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Criteria criteria = sessionFactory.getCurrentSession().createCriteria(OrderSet.class);
+        criteria.add(Restrictions.in("orderSetId", orderSetIds));
+        criteria.add(Restrictions.eq("retired", Boolean.FALSE));
+        return criteria.list();
+    }
 }
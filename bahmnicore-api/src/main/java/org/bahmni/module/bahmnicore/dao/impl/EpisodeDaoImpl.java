@@ -0,0 +1,152 @@
+package org.bahmni.module.bahmnicore.dao.impl;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
+import org.hibernate.Query;
+import org.hibernate.SessionFactory;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public class EpisodeDaoImpl implements EpisodeDao {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public List<Encounter> getEncountersInAnyEpisode(Collection<Encounter> encounters) {
+        if (CollectionUtils.isEmpty(encounters)) {
+            return new ArrayList<>();
+        }
+        Query query = sessionFactory.getCurrentSession().createQuery("select distinct encounter\n" +
+                "from Episode as episode\n" +
+                "    join episode.encounters as encounter\n" +
+                "where encounter in (:encounters)");
+        query.setParameterList("encounters", encounters);
+        return query.list();
+    }
+
+    @Override
+    public List<Encounter> getEncountersInPatientProgram(String patientProgramUuid, Collection<Encounter> encounters) {
+        if (CollectionUtils.isEmpty(encounters)) {
+            return new ArrayList<>();
+        }
+        Query query = sessionFactory.getCurrentSession().createQuery("select distinct encounter\n" +
+                "from Episode as episode\n" +
+                "    join episode.encounters as encounter\n" +
+                "    join episode.patientPrograms as patientProgram\n" +
+                "where patientProgram.uuid = :patientProgramUuid and encounter in (:encounters)");
+        query.setParameter("patientProgramUuid", patientProgramUuid);
+        query.setParameterList("encounters", encounters);
+        return query.list();
+    }
+
+    @Override
+    public List<Integer> getEncounterIdsInPatientProgram(String patientProgramUuid) {
+        return getEncounterPropertyInPatientProgram("encounterId", patientProgramUuid);
+    }
+
+    @Override
+    public List<String> getEncounterUuidsInPatientProgram(String patientProgramUuid) {
+        return getEncounterPropertyInPatientProgram("uuid", patientProgramUuid);
+    }
+
+    private <T> List<T> getEncounterPropertyInPatientProgram(String property, String patientProgramUuid) {
+        Query query = sessionFactory.getCurrentSession().createQuery("select distinct encounter." + property + "\n" +
+                "from Episode as episode\n" +
+                "    join episode.encounters as encounter\n" +
+                "    join episode.patientPrograms as patientProgram\n" +
+                "where patientProgram.uuid = :patientProgramUuid");
+        query.setParameter("patientProgramUuid", patientProgramUuid);
+        return query.list();
+    }
+
+    @Override
+    public List<Encounter> getEncountersInPatientProgram(String patientProgramUuid, Date startDate, Date endDate, String afterEncounterUuid, Integer limit) {
+        StringBuilder queryString = new StringBuilder("select encounter\n" +
+                "from Episode as episode\n" +
+                "    join episode.encounters as encounter\n" +
+                "    join episode.patientPrograms as patientProgram\n" +
+                "where patientProgram.uuid = :patientProgramUuid and encounter.voided = false");
+        appendDateRange(queryString, "encounter.encounterDatetime", startDate, endDate);
+        Encounter after = afterEncounterUuid == null ? null : (Encounter) sessionFactory.getCurrentSession()
+                .createQuery("from Encounter where uuid = :uuid").setString("uuid", afterEncounterUuid).uniqueResult();
+        if (after != null) {
+            queryString.append(" and (encounter.encounterDatetime < :afterDatetime" +
+                    " or (encounter.encounterDatetime = :afterDatetime and encounter.encounterId < :afterId))");
+        }
+        queryString.append(" order by encounter.encounterDatetime desc, encounter.encounterId desc");
+
+        Query query = sessionFactory.getCurrentSession().createQuery(queryString.toString());
+        query.setParameter("patientProgramUuid", patientProgramUuid);
+        setDateRange(query, startDate, endDate);
+        if (after != null) {
+            query.setParameter("afterDatetime", after.getEncounterDatetime());
+            query.setParameter("afterId", after.getEncounterId());
+        }
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.list();
+    }
+
+    @Override
+    public List<Obs> getObsInPatientProgram(String patientProgramUuid, Collection<Concept> concepts, Date startDate, Date endDate, String afterObsUuid, Integer limit) {
+        if (CollectionUtils.isEmpty(concepts)) {
+            return new ArrayList<>();
+        }
+        StringBuilder queryString = new StringBuilder("select obs\n" +
+                "from Obs as obs, Episode as episode\n" +
+                "    join episode.encounters as encounter\n" +
+                "    join episode.patientPrograms as patientProgram\n" +
+                "where patientProgram.uuid = :patientProgramUuid and obs.encounter = encounter\n" +
+                "    and obs.concept in (:concepts) and obs.voided = false");
+        appendDateRange(queryString, "obs.obsDatetime", startDate, endDate);
+        Obs after = afterObsUuid == null ? null : (Obs) sessionFactory.getCurrentSession()
+                .createQuery("from Obs where uuid = :uuid").setString("uuid", afterObsUuid).uniqueResult();
+        if (after != null) {
+            queryString.append(" and (obs.obsDatetime < :afterDatetime" +
+                    " or (obs.obsDatetime = :afterDatetime and obs.obsId < :afterId))");
+        }
+        queryString.append(" order by obs.obsDatetime desc, obs.obsId desc");
+
+        Query query = sessionFactory.getCurrentSession().createQuery(queryString.toString());
+        query.setParameter("patientProgramUuid", patientProgramUuid);
+        query.setParameterList("concepts", concepts);
+        setDateRange(query, startDate, endDate);
+        if (after != null) {
+            query.setParameter("afterDatetime", after.getObsDatetime());
+            query.setParameter("afterId", after.getObsId());
+        }
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.list();
+    }
+
+    private void appendDateRange(StringBuilder queryString, String dateProperty, Date startDate, Date endDate) {
+        if (startDate != null) {
+            queryString.append(" and ").append(dateProperty).append(" >= :startDate");
+        }
+        if (endDate != null) {
+            queryString.append(" and ").append(dateProperty).append(" <= :endDate");
+        }
+    }
+
+    private void setDateRange(Query query, Date startDate, Date endDate) {
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
+        }
+    }
+}
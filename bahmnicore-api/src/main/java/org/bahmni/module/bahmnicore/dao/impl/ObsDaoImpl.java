@@ -70,6 +70,56 @@ public class ObsDaoImpl implements ObsDao {
 
     }
 
+    /**
+     * @return concept id, date created and numeric value of every non-voided numeric obs of the person, ordered by
+     * concept and time
+     */
+    @Override
+    public List<Object[]> getNumericObsSeriesPoints(String personUUID) {
+        Query query = sessionFactory.getCurrentSession().createQuery(
+                "select concept.conceptId, obs.dateCreated, obs.valueNumeric " +
+                        "from Obs as obs " +
+                        "inner join obs.concept as concept " +
+                        "inner join concept.datatype as datatype " +
+                        "inner join obs.person as person " +
+                        "where datatype.hl7Abbreviation = :hl7abrv " +
+                        "and person.uuid = :personUUID " +
+                        "and obs.voided = false " +
+                        "and obs.valueNumeric is not null " +
+                        "order by concept.conceptId, obs.dateCreated, obs.obsId");
+        query.setString("hl7abrv", ConceptDatatype.NUMERIC);
+        query.setString("personUUID", personUUID);
+        return query.list();
+    }
+
+    /**
+     * @return distinct (encounter uuid, encounter datetime, visit uuid, visit start datetime, "form name.version",
+     * creator uuid, creator's preferred {@link org.openmrs.PersonName}) of the non voided form builder obs of the
+     * patient. The form is read from the namespace and path "namespace^name.version/field-path".
+     */
+    @Override
+    public List<Object[]> getFormSubmissions(String patientUuid) {
+        Query query = sessionFactory.getCurrentSession().createQuery(
+                "select distinct encounter.uuid, encounter.encounterDatetime, visit.uuid, visit.startDatetime, " +
+                        "substring(obs.formNamespaceAndPath, locate('^', obs.formNamespaceAndPath) + 1, " +
+                        "locate('/', concat(obs.formNamespaceAndPath, '/')) - locate('^', obs.formNamespaceAndPath) - 1), " +
+                        "creator.uuid, creatorName " +
+                        "from Obs as obs " +
+                        "inner join obs.encounter as encounter " +
+                        "left join encounter.visit as visit " +
+                        "inner join obs.creator as creator " +
+                        "left join creator.person as creatorPerson " +
+                        "left join creatorPerson.names as creatorName " +
+                        "with creatorName.preferred = true and creatorName.voided = false " +
+                        "where obs.person.uuid = :patientUuid " +
+                        "and obs.voided = false " +
+                        "and encounter.voided = false " +
+                        "and obs.formNamespaceAndPath is not null " +
+                        "and obs.formNamespaceAndPath <> ''");
+        query.setString("patientUuid", patientUuid);
+        return query.list();
+    }
+
     public List<Obs> getObsByPatientAndVisit(String patientUuid, List<String> conceptNames, List<Integer> listOfVisitIds,
                                              Integer limit, OrderBy sortOrder, List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order, Date startDate, Date endDate) {
 
@@ -131,6 +181,36 @@ public class ObsDaoImpl implements ObsDao {
         return queryToGetObservations.list();
     }
 
+    @Override
+    public List<Obs> getObsByPatientAndOrders(String patientUuid, List<String> conceptNames, List<String> obsIgnoreList, Collection<Order> orders) {
+        if (CollectionUtils.isEmpty(conceptNames) || CollectionUtils.isEmpty(orders)) {
+            return new ArrayList<>();
+        }
+        StringBuilder query = new StringBuilder("select obs from Obs as obs, ConceptName as cn " +
+                " where obs.person.uuid = :patientUuid " +
+                " and cn.concept = obs.concept.conceptId " +
+                " and cn.name in (:conceptNames) " +
+                " and cn.locale = :locale " +
+                " and cn.conceptNameType = :conceptNameType " +
+                " and cn.voided = false and obs.voided = false " +
+                " and obs.order in (:orders) ");
+        if (CollectionUtils.isNotEmpty(obsIgnoreList)) {
+            query.append(" and cn.name not in (:obsIgnoreList) ");
+        }
+        query.append(" order by obs.obsDatetime desc ");
+
+        Query queryToGetObservations = sessionFactory.getCurrentSession().createQuery(query.toString());
+        queryToGetObservations.setString("patientUuid", patientUuid);
+        queryToGetObservations.setParameterList("conceptNames", conceptNames);
+        queryToGetObservations.setParameter("conceptNameType", ConceptNameType.FULLY_SPECIFIED);
+        queryToGetObservations.setString("locale", Context.getLocale().getLanguage());
+        queryToGetObservations.setParameterList("orders", orders);
+        if (CollectionUtils.isNotEmpty(obsIgnoreList)) {
+            queryToGetObservations.setParameterList("obsIgnoreList", obsIgnoreList);
+        }
+        return queryToGetObservations.list();
+    }
+
     @Override
     public List<Obs> getLatestObsFor(String patientUuid, String conceptName, Integer limit) {
         Query queryToGetObservations = sessionFactory.getCurrentSession().createQuery(
@@ -236,13 +316,37 @@ public class ObsDaoImpl implements ObsDao {
     }
 
     @Override
-    public List<Obs> getObsFor(String patientUuid, Concept rootConcept, Concept childConcept, List<Integer> listOfVisitIds, Collection<Encounter> encounters, Date startDate, Date endDate) {
+    public List<Obs> getObsForVisitAndOrders(List<Person> persons, List<Encounter> encounters, List<Concept> conceptsForNames, Collection<Concept> obsIgnoreList, Collection<Order> orders) {
+        if (CollectionUtils.isEmpty(encounters) || CollectionUtils.isEmpty(orders)) {
+            return new ArrayList<>();
+        }
+        Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Obs.class, "obs");
+        criteria.add(Restrictions.in("encounter", encounters));
+        criteria.add(Restrictions.in("order", orders));
+        if (CollectionUtils.isNotEmpty(persons)) {
+            criteria.add(Restrictions.in("person", persons));
+        }
+        if (CollectionUtils.isNotEmpty(conceptsForNames)) {
+            criteria.add(Restrictions.in("concept", conceptsForNames));
+        }
+        if (CollectionUtils.isNotEmpty(obsIgnoreList)) {
+            criteria.add(Restrictions.not(Restrictions.in("concept", obsIgnoreList)));
+        }
+        criteria.add(Restrictions.eq("voided", Boolean.FALSE));
+
+        criteria.addOrder(org.hibernate.criterion.Order.desc("obsDatetime"));
+
+        return criteria.list();
+    }
+
+    @Override
+    public List<Obs> getObsFor(String patientUuid, Concept rootConcept, Concept childConcept, List<Integer> listOfVisitIds, Collection<Integer> encounterIds, Date startDate, Date endDate) {
         if (listOfVisitIds == null || listOfVisitIds.isEmpty())
             return new ArrayList<>();
 
         String encounterFilter = "";
-        if (encounters != null && encounters.size() > 0) {
-            encounterFilter = "AND encounter.encounter_id in (" + commaSeparatedEncounterIds(encounters) + ")";
+        if (encounterIds != null && encounterIds.size() > 0) {
+            encounterFilter = "AND encounter.encounter_id in (:encounterIds) ";
         }
         StringBuilder queryString = new StringBuilder("SELECT rootObs.* " +
                 "FROM obs rootObs " +
@@ -269,6 +373,8 @@ public class ObsDaoImpl implements ObsDao {
         queryToGetObs.setParameter("patientUuid", patientUuid);
         queryToGetObs.setParameterList("visitIds", listOfVisitIds);
         queryToGetObs.setParameter("childConceptName", childConcept.getName().getName());
+        if (encounterIds != null && encounterIds.size() > 0)
+            queryToGetObs.setParameterList("encounterIds", encounterIds);
         if (startDate != null)
             queryToGetObs.setParameter("startDate", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(startDate));
         if (endDate != null)
@@ -280,12 +386,12 @@ public class ObsDaoImpl implements ObsDao {
 
     @Override
     public List<Obs> getObsForFormBuilderForms(String patientUuid, List<String> formNames, List<Integer> listOfVisitIds,
-                                               Collection<Encounter> encounters, Date startDate, Date endDate) {
+                                               Collection<Integer> encounterIds, Date startDate, Date endDate) {
         if (listOfVisitIds == null || listOfVisitIds.isEmpty())
             return new ArrayList<>();
         String encounterFilter = "";
-        if (encounters != null && encounters.size() > 0) {
-            encounterFilter = "AND encounter.encounter_id in (" + commaSeparatedEncounterIds(encounters) + ")";
+        if (encounterIds != null && encounterIds.size() > 0) {
+            encounterFilter = "AND encounter.encounter_id in (:encounterIds) ";
         }
         StringBuilder queryString = new StringBuilder("SELECT obs.* " +
                 "FROM obs " +
@@ -302,6 +408,8 @@ public class ObsDaoImpl implements ObsDao {
                 .createSQLQuery(queryString.toString()).addEntity(Obs.class);
         queryToGetObs.setParameter("patientUuid", patientUuid);
         queryToGetObs.setParameterList("visitIds", listOfVisitIds);
+        if (encounterIds != null && encounterIds.size() > 0)
+            queryToGetObs.setParameterList("encounterIds", encounterIds);
         if (nonNull(startDate))
             queryToGetObs.setParameter("startDate", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(startDate));
         if (nonNull(endDate))
@@ -316,14 +424,6 @@ public class ObsDaoImpl implements ObsDao {
         return StringUtils.join(formPatterns, OR);
     }
 
-    private String commaSeparatedEncounterIds(Collection<Encounter> encounters) {
-        ArrayList<String> encounterIds = new ArrayList<>();
-        for (Encounter encounter : encounters) {
-            encounterIds.add(encounter.getEncounterId().toString());
-        }
-        return StringUtils.join(encounterIds, COMMA);
-    }
-
     @Override
     public Obs getChildObsFromParent(String parentObsUuid, Concept childConcept) {
         String queryString = "from Obs obs where obs.obsGroup.uuid = :parentObsUuid and obs.concept = :concept  and obs.voided = false order by obs.obsDatetime desc";
@@ -309,7 +309,7 @@ public class OrderDaoImpl implements OrderDao {
     }
 
     @Override
-    public List<Order> getAllOrders(Patient patientByUuid, OrderType orderType, Set<Concept> conceptsForOrders, Set<Concept> orderConceptsToBeExcluded, Collection<Encounter> encounters) {
+    public List<Order> getAllOrders(Patient patientByUuid, OrderType orderType, Set<Concept> conceptsForOrders, Set<Concept> orderConceptsToBeExcluded, Collection<Integer> encounterIds) {
         Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Order.class);
         criteria.add(Restrictions.eq("patient", patientByUuid));
         if (CollectionUtils.isNotEmpty(conceptsForOrders)) {
@@ -318,8 +318,8 @@ public class OrderDaoImpl implements OrderDao {
         if (CollectionUtils.isNotEmpty(orderConceptsToBeExcluded)) {
             criteria.add(Restrictions.not(Restrictions.in("concept", orderConceptsToBeExcluded)));
         }
-        if (CollectionUtils.isNotEmpty(encounters)) {
-            criteria.add(Restrictions.in("encounter", encounters));
+        if (CollectionUtils.isNotEmpty(encounterIds)) {
+            criteria.add(Restrictions.in("encounter.encounterId", encounterIds));
         }
         criteria.add(Restrictions.eq("orderType", orderType));
         criteria.add(Restrictions.eq("voided", false));
@@ -357,12 +357,13 @@ public class OrderDaoImpl implements OrderDao {
             criteria.createAlias("encounter.location", "location");
             criteria.add(Restrictions.in("location.uuid", locationUuids));
             criteria.add(Restrictions.eq("encounter.patient", patientByUuid));
-            List<Encounter> encounters = criteria.list();
-            if (CollectionUtils.isEmpty(encounters)) {
+            criteria.setProjection(Projections.property("encounter.encounterId"));
+            List<Integer> encounterIds = criteria.list();
+            if (CollectionUtils.isEmpty(encounterIds)) {
                 return new ArrayList<>();
             }
 
-            return getAllOrders(patientByUuid, drugOrderTypeUuid, null, null, encounters);
+            return getAllOrders(patientByUuid, drugOrderTypeUuid, null, null, encounterIds);
         }
         return getAllOrders(patientByUuid, Arrays.asList(drugOrderTypeUuid), offset, limit);
     }
@@ -390,7 +391,7 @@ public class OrderDaoImpl implements OrderDao {
 
     @Override
     public List<Order> getActiveOrders(Patient patient, OrderType orderType, CareSetting careSetting, Date asOfDate,
-                                       Set<Concept> conceptsToFilter, Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Encounter> encounters) {
+                                       Set<Concept> conceptsToFilter, Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Integer> encounterIds) {
         if (patient == null) {
             throw new IllegalArgumentException("Patient is required when fetching active orders");
         }
@@ -399,8 +400,8 @@ public class OrderDaoImpl implements OrderDao {
         }
         Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Order.class);
         criteria.add(Restrictions.eq("patient", patient));
-        if (CollectionUtils.isNotEmpty(encounters)) {
-            criteria.add(Restrictions.in("encounter", encounters));
+        if (CollectionUtils.isNotEmpty(encounterIds)) {
+            criteria.add(Restrictions.in("encounter.encounterId", encounterIds));
         }
         if (careSetting != null) {
             criteria.add(Restrictions.eq("careSetting", careSetting));
@@ -441,7 +442,7 @@ public class OrderDaoImpl implements OrderDao {
 
     @Override
     public List<Order> getInactiveOrders(Patient patient, OrderType orderType, CareSetting careSetting, Date asOfDate,
-                                         Set<Concept> concepts, Set<Concept> conceptsToExclude, Collection<Encounter> encounters) {
+                                         Set<Concept> concepts, Set<Concept> conceptsToExclude, Collection<Integer> encounterIds) {
         if (patient == null) {
             throw new IllegalArgumentException("Patient is required when fetching active orders");
         }
@@ -450,8 +451,8 @@ public class OrderDaoImpl implements OrderDao {
         }
         Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Order.class);
         criteria.add(Restrictions.eq("patient", patient));
-        if (CollectionUtils.isNotEmpty(encounters)) {
-            criteria.add(Restrictions.in("encounter", encounters));
+        if (CollectionUtils.isNotEmpty(encounterIds)) {
+            criteria.add(Restrictions.in("encounter.encounterId", encounterIds));
         }
 
         if (careSetting != null) {
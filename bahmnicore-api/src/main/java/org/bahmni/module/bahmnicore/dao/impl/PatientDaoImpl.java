@@ -5,12 +5,15 @@ import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.bahmni.module.bahmnicore.contract.patient.mapper.PatientResponseMapper;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.bahmni.module.bahmnicore.contract.patient.search.PatientSearchBuilder;
 import org.bahmni.module.bahmnicore.dao.PatientDao;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.ProgramAttributeType;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.hibernate.Query;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Restrictions;
@@ -28,6 +31,7 @@ import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationServiceI
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -56,19 +60,55 @@ public class PatientDaoImpl implements PatientDao {
                                              String programAttributeFieldName, String[] addressSearchResultFields,
                                              String[] patientSearchResultFields, String loginLocationUuid, Boolean filterPatientsByLocation, Boolean filterOnAllIdentifiers) {
 
+        return createSearchBuilder(identifier, name, customAttribute, addressFieldName, addressFieldValue,
+                customAttributeFields, programAttributeFieldValue, programAttributeFieldName, addressSearchResultFields,
+                patientSearchResultFields, loginLocationUuid, filterPatientsByLocation, filterOnAllIdentifiers)
+                .buildSqlQuery(length, offset)
+                .list();
+    }
+
+    @Override
+    public void writePatients(String identifier, String name, String customAttribute,
+                              String addressFieldName, String addressFieldValue, Integer length,
+                              Integer offset, String[] customAttributeFields, String programAttributeFieldValue,
+                              String programAttributeFieldName, String[] addressSearchResultFields,
+                              String[] patientSearchResultFields, String loginLocationUuid, Boolean filterPatientsByLocation,
+                              Boolean filterOnAllIdentifiers, PatientResponseWriter patientResponseWriter) throws IOException {
+        PatientSearchBuilder patientSearchBuilder = createSearchBuilder(identifier, name, customAttribute, addressFieldName,
+                addressFieldValue, customAttributeFields, programAttributeFieldValue, programAttributeFieldName,
+                addressSearchResultFields, patientSearchResultFields, loginLocationUuid, filterPatientsByLocation,
+                filterOnAllIdentifiers);
+        SQLQuery sqlQuery = patientSearchBuilder.buildScalarSqlQuery(length, offset);
+        PatientResponseWriter.Columns columns = patientResponseWriter.columns(patientSearchBuilder.getColumnAliases());
+        ScrollableResults rows = sqlQuery.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            patientResponseWriter.writeStart();
+            while (rows.next()) {
+                patientResponseWriter.writeRow(columns, rows.get());
+            }
+            patientResponseWriter.writeEnd();
+        } finally {
+            rows.close();
+        }
+    }
+
+    private PatientSearchBuilder createSearchBuilder(String identifier, String name, String customAttribute,
+                                                     String addressFieldName, String addressFieldValue,
+                                                     String[] customAttributeFields, String programAttributeFieldValue,
+                                                     String programAttributeFieldName, String[] addressSearchResultFields,
+                                                     String[] patientSearchResultFields, String loginLocationUuid,
+                                                     Boolean filterPatientsByLocation, Boolean filterOnAllIdentifiers) {
         validateSearchParams(customAttributeFields, programAttributeFieldName, addressFieldName);
 
         ProgramAttributeType programAttributeType = getProgramAttributeType(programAttributeFieldName);
 
-        SQLQuery sqlQuery = new PatientSearchBuilder(sessionFactory)
+        return new PatientSearchBuilder(sessionFactory)
                 .withPatientName(name)
                 .withPatientAddress(addressFieldName, addressFieldValue, addressSearchResultFields)
                 .withPatientIdentifier(identifier, filterOnAllIdentifiers)
                 .withPatientAttributes(customAttribute, getPersonAttributeIds(customAttributeFields), getPersonAttributeIds(patientSearchResultFields))
                 .withProgramAttributes(programAttributeFieldValue, programAttributeType)
-                .withLocation(loginLocationUuid, filterPatientsByLocation)
-                .buildSqlQuery(length, offset);
-        return sqlQuery.list();
+                .withLocation(loginLocationUuid, filterPatientsByLocation);
     }
 
     @Override
@@ -7,6 +7,8 @@ import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class PersonAttributeDaoImpl implements PersonAttributeDao {
 	
@@ -26,4 +28,18 @@ public class PersonAttributeDaoImpl implements PersonAttributeDao {
 		sqlQuery.setMaxResults(20);
 		return new ResultList(sqlQuery.list());
 	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Object[]> getValueFrequencies(String personAttribute) {
+		SQLQuery sqlQuery = sessionFactory
+		        .getCurrentSession()
+		        .createSQLQuery(
+		            "select person_attribute.value, count(*) from person_attribute, person_attribute_type "
+		                    + "where person_attribute.person_attribute_type_id = person_attribute_type.person_attribute_type_id "
+		                    + "and person_attribute_type.name = :name and person_attribute.voided = 0 "
+		                    + "and person_attribute.value is not null group by person_attribute.value");
+		sqlQuery.setParameter("name", personAttribute);
+		return sqlQuery.list();
+	}
 }
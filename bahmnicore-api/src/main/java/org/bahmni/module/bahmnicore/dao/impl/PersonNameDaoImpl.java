@@ -10,6 +10,8 @@ import org.openmrs.PersonName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class PersonNameDaoImpl implements PersonNameDao {
 	
@@ -25,4 +27,16 @@ public class PersonNameDaoImpl implements PersonNameDao {
 		criteria.setMaxResults(20);
 		return new ResultList(criteria.list());
 	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Object[]> getValueFrequencies(String key) {
+		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(PersonName.class);
+		criteria.add(Restrictions.eq("voided", false));
+		criteria.add(Restrictions.isNotNull(key));
+		criteria.setProjection(Projections.projectionList()
+		        .add(Projections.groupProperty(key))
+		        .add(Projections.rowCount()));
+		return criteria.list();
+	}
 }
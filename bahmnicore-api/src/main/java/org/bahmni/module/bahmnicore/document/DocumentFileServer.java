@@ -0,0 +1,178 @@
+package org.bahmni.module.bahmnicore.document;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams stored patient images and documents straight from disk to the response with {@link FileChannel#transferTo},
+ * answering conditional requests from the file's length and modification time and serving a single byte range so
+ * that video documents can be scrubbed without downloading them in full.
+ */
+@Component
+public class DocumentFileServer {
+    static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String BYTES_UNIT = "bytes=";
+
+    private static final Log log = LogFactory.getLog(DocumentFileServer.class);
+
+    public void serve(File file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file == null || !file.isFile() || !file.canRead()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = file.length();
+        //HTTP dates have second precision
+        long lastModified = file.lastModified() / 1000 * 1000;
+        String eTag = String.format("\"%s-%s\"", Long.toHexString(length), Long.toHexString(lastModified));
+
+        //Patient documents must not be kept by shared caches, and browsers revalidate before reusing them
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader("Range");
+        if (range != null && isRangeApplicable(request, eTag, lastModified)) {
+            long[] byteRange = parseRange(range, length);
+            if (byteRange == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (byteRange.length == 2) {
+                start = byteRange[0];
+                end = byteRange[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", String.format("bytes %d-%d/%d", start, end, length));
+            }
+        }
+        long count = end - start + 1;
+        response.setContentType(contentType(file));
+        response.setHeader("Content-Length", String.valueOf(count));
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+        transfer(file, start, count, response);
+    }
+
+    private void transfer(File file, long start, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    //The file was truncated while being served
+                    log.warn(String.format("Stopped serving %s at byte %d of %d", file, position, start + count));
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesETag(ifNoneMatch, eTag);
+        }
+        long ifModifiedSince = dateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    private boolean isRangeApplicable(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(eTag);
+        }
+        return dateHeader(request, "If-Range") == lastModified;
+    }
+
+    private boolean matchesETag(String header, String eTag) {
+        for (String candidate : header.split(",")) {
+            String tag = StringUtils.removeStart(candidate.trim(), "W/");
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the first and last byte of a single satisfiable range, an empty array when the header should be ignored
+     * and the whole file served, or null when the range cannot be satisfied
+     */
+    long[] parseRange(String header, long length) {
+        if (!header.startsWith(BYTES_UNIT) || header.contains(",")) {
+            return new long[0];
+        }
+        String range = header.substring(BYTES_UNIT.length()).trim();
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = range.substring(0, dash).trim();
+            String last = range.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, length - suffixLength), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (end < start) {
+                return new long[0];
+            }
+            if (start >= length) {
+                return null;
+            }
+            return new long[]{start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private String contentType(File file) throws IOException {
+        String contentType = Files.probeContentType(file.toPath());
+        if (contentType == null) {
+            contentType = URLConnection.guessContentTypeFromName(file.getName());
+        }
+        return contentType == null ? DEFAULT_CONTENT_TYPE : contentType;
+    }
+}
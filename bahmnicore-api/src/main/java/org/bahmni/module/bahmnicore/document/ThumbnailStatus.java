@@ -0,0 +1,5 @@
+package org.bahmni.module.bahmnicore.document;
+
+public enum ThumbnailStatus {
+    PENDING, READY, FAILED, NOT_AVAILABLE
+}
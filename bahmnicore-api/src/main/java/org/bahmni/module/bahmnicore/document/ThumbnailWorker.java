@@ -0,0 +1,276 @@
+package org.bahmni.module.bahmnicore.document;
+
+import liquibase.util.file.FilenameUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bahmni.module.bahmnicore.service.ThumbnailGenerator;
+import org.imgscalr.Scalr;
+import org.openmrs.util.OpenmrsUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates document thumbnails off the request thread. Every job is first written as a small properties file to
+ * a queue directory in the application data directory, outside the served documents, so jobs survive restarts; a
+ * bounded pool works them off and a periodic scan picks up jobs that were rejected, left over from a previous run or
+ * are due for a retry.
+ */
+@Component
+public class ThumbnailWorker {
+    public static final String VIDEO_FILE_TYPE = "video";
+    static final String QUEUE_DIRECTORY = "bahmnicore-thumbnail-queue";
+    static final String JOB_EXTENSION = ".job";
+    static final String FAILED_EXTENSION = ".failed";
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final int IMAGE_THUMBNAIL_SIZE = 100;
+    private static final int VIDEO_THUMBNAIL_SIZE = 300;
+    private static final String VIDEO_THUMBNAIL_TYPE = "jpg";
+    private static final int WORKER_THREADS = 2;
+    private static final int MAX_QUEUED_JOBS = 100;
+    private static final long SCAN_INTERVAL_SECONDS = 30;
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Log log = LogFactory.getLog(ThumbnailWorker.class);
+
+    private List<ThumbnailGenerator> thumbnailGenerators;
+    private final Set<String> jobsInFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public ThumbnailWorker(List<ThumbnailGenerator> thumbnailGenerators) {
+        this.thumbnailGenerators = thumbnailGenerators;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_QUEUED_JOBS), daemonThreads("bahmni-thumbnail-worker"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("bahmni-thumbnail-queue-scan"));
+        scheduler.scheduleWithFixedDelay(this::submitPendingJobs, SCAN_INTERVAL_SECONDS, SCAN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues thumbnail generation for a stored document. Videos without a supporting {@link ThumbnailGenerator} are
+     * skipped, as before.
+     */
+    public void enqueue(File document, String fileType, String format) throws IOException {
+        boolean isVideo = VIDEO_FILE_TYPE.equals(fileType);
+        if (isVideo && getSupportedThumbnailGenerator(format) == null) {
+            return;
+        }
+        Properties job = new Properties();
+        job.setProperty("document", document.getAbsolutePath());
+        job.setProperty("format", format);
+        job.setProperty("video", String.valueOf(isVideo));
+        job.setProperty("attempts", "0");
+        job.setProperty("nextAttemptAt", "0");
+        File jobFile = jobFile(document);
+        FileUtils.deleteQuietly(failedJobFile(document));
+        write(job, jobFile);
+        submit(jobFile);
+    }
+
+    public ThumbnailStatus getStatus(File document) {
+        if (jobFile(document).exists()) {
+            return ThumbnailStatus.PENDING;
+        }
+        if (failedJobFile(document).exists()) {
+            return ThumbnailStatus.FAILED;
+        }
+        String extension = FilenameUtils.getExtension(document.getName());
+        if (thumbnailFile(document, extension).exists() || thumbnailFile(document, VIDEO_THUMBNAIL_TYPE).exists()) {
+            return ThumbnailStatus.READY;
+        }
+        return ThumbnailStatus.NOT_AVAILABLE;
+    }
+
+    void submitPendingJobs() {
+        File[] jobFiles = queueDirectory().listFiles((dir, name) -> name.endsWith(JOB_EXTENSION));
+        if (jobFiles == null) {
+            return;
+        }
+        for (File jobFile : jobFiles) {
+            try {
+                if (Long.parseLong(read(jobFile).getProperty("nextAttemptAt", "0")) <= System.currentTimeMillis()) {
+                    submit(jobFile);
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.warn(String.format("Skipping unreadable thumbnail job %s", jobFile), e);
+            }
+        }
+    }
+
+    private void submit(File jobFile) {
+        String jobName = jobFile.getName();
+        if (executor == null || !jobsInFlight.add(jobName)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobFile);
+                } finally {
+                    jobsInFlight.remove(jobName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //The job stays on disk and is picked up by the next scan
+            jobsInFlight.remove(jobName);
+        }
+    }
+
+    void process(File jobFile) {
+        Properties job;
+        try {
+            job = read(jobFile);
+        } catch (IOException e) {
+            log.warn(String.format("Could not read thumbnail job %s", jobFile), e);
+            return;
+        }
+        File document = new File(job.getProperty("document"));
+        try {
+            if (Boolean.parseBoolean(job.getProperty("video"))) {
+                createThumbnail(generateVideoFrame(document, job.getProperty("format")), document, VIDEO_THUMBNAIL_TYPE, VIDEO_THUMBNAIL_SIZE);
+            } else {
+                BufferedImage image = ImageIO.read(document);
+                if (image == null) {
+                    throw new IOException(String.format("%s is not a readable image", document));
+                }
+                createThumbnail(image, document, FilenameUtils.getExtension(document.getName()), IMAGE_THUMBNAIL_SIZE);
+            }
+            FileUtils.deleteQuietly(jobFile);
+            log.info(String.format("Created thumbnail for %s", document));
+        } catch (Exception e) {
+            retryLater(jobFile, job, document, e);
+        }
+    }
+
+    private void retryLater(File jobFile, Properties job, File document, Exception cause) {
+        int attempts = Integer.parseInt(job.getProperty("attempts", "0")) + 1;
+        try {
+            if (attempts >= MAX_ATTEMPTS) {
+                log.error(String.format("Giving up creating thumbnail for %s after %d attempts", document, attempts), cause);
+                Files.move(jobFile.toPath(), failedJobFile(document).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                return;
+            }
+            log.warn(String.format("Could not create thumbnail for %s, attempt %d of %d", document, attempts, MAX_ATTEMPTS), cause);
+            job.setProperty("attempts", String.valueOf(attempts));
+            job.setProperty("nextAttemptAt", String.valueOf(System.currentTimeMillis() + RETRY_DELAY_MILLIS * attempts));
+            write(job, jobFile);
+        } catch (IOException e) {
+            log.error(String.format("Could not update thumbnail job %s", jobFile), e);
+        }
+    }
+
+    private BufferedImage generateVideoFrame(File video, String format) throws IOException {
+        ThumbnailGenerator thumbnailGenerator = getSupportedThumbnailGenerator(format);
+        if (thumbnailGenerator == null) {
+            throw new IOException(String.format("No thumbnail generator supports the video format '%s'", format));
+        }
+        return thumbnailGenerator.generateThumbnail(video);
+    }
+
+    private ThumbnailGenerator getSupportedThumbnailGenerator(String format) {
+        for (ThumbnailGenerator thumbnailGenerator : thumbnailGenerators) {
+            if (thumbnailGenerator.isFormatSupported(format)) {
+                return thumbnailGenerator;
+            }
+        }
+        return null;
+    }
+
+    private void createThumbnail(BufferedImage image, File document, String imageFileType, int imageSize) throws IOException {
+        File thumbnailFile = thumbnailFile(document, imageFileType);
+        File partialFile = new File(thumbnailFile.getParentFile(), thumbnailFile.getName() + ".part");
+        BufferedImage reSizedImage = Scalr.resize(image, imageSize);
+        try {
+            if (!ImageIO.write(reSizedImage, imageFileType, partialFile)) {
+                throw new IOException(String.format("No image writer for thumbnail type '%s'", imageFileType));
+            }
+            Files.move(partialFile.toPath(), thumbnailFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            FileUtils.deleteQuietly(partialFile);
+            image.flush();
+            reSizedImage.flush();
+        }
+    }
+
+    private File thumbnailFile(File document, String imageFileType) {
+        String nameWithoutExtension = FilenameUtils.removeExtension(document.getAbsolutePath());
+        return new File(String.format("%s_thumbnail.%s", nameWithoutExtension, imageFileType));
+    }
+
+    private File jobFile(File document) {
+        return new File(queueDirectory(), document.getName() + JOB_EXTENSION);
+    }
+
+    private File failedJobFile(File document) {
+        return new File(queueDirectory(), document.getName() + FAILED_EXTENSION);
+    }
+
+    protected File queueDirectory() {
+        return new File(OpenmrsUtil.getApplicationDataDirectory(), QUEUE_DIRECTORY);
+    }
+
+    private Properties read(File jobFile) throws IOException {
+        Properties job = new Properties();
+        try (InputStream in = new FileInputStream(jobFile)) {
+            job.load(in);
+        }
+        return job;
+    }
+
+    private void write(Properties job, File jobFile) throws IOException {
+        jobFile.getParentFile().mkdirs();
+        File partialFile = new File(jobFile.getParentFile(), jobFile.getName() + ".part");
+        try (OutputStream out = new FileOutputStream(partialFile)) {
+            job.store(out, null);
+        }
+        Files.move(partialFile.toPath(), jobFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package org.bahmni.module.bahmnicore.forms2.index;
+
+import java.util.Date;
+
+/**
+ * One form filled by one provider in one encounter of a patient.
+ */
+public class FormSubmission {
+    private final String formName;
+    private final int formVersion;
+    private final String encounterUuid;
+    private final Date encounterDateTime;
+    private final String visitUuid;
+    private final Date visitStartDateTime;
+    private final String providerName;
+    private final String providerUuid;
+
+    public FormSubmission(String formName, int formVersion, String encounterUuid, Date encounterDateTime,
+                          String visitUuid, Date visitStartDateTime, String providerName, String providerUuid) {
+        this.formName = formName;
+        this.formVersion = formVersion;
+        this.encounterUuid = encounterUuid;
+        this.encounterDateTime = encounterDateTime;
+        this.visitUuid = visitUuid;
+        this.visitStartDateTime = visitStartDateTime;
+        this.providerName = providerName;
+        this.providerUuid = providerUuid;
+    }
+
+    public String getFormName() {
+        return formName;
+    }
+
+    public int getFormVersion() {
+        return formVersion;
+    }
+
+    public String getEncounterUuid() {
+        return encounterUuid;
+    }
+
+    public Date getEncounterDateTime() {
+        return encounterDateTime;
+    }
+
+    public String getVisitUuid() {
+        return visitUuid;
+    }
+
+    public Date getVisitStartDateTime() {
+        return visitStartDateTime;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public String getProviderUuid() {
+        return providerUuid;
+    }
+}
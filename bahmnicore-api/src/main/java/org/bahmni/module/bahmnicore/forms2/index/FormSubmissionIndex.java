@@ -0,0 +1,56 @@
+package org.bahmni.module.bahmnicore.forms2.index;
+
+import org.apache.log4j.Logger;
+import org.bahmni.module.bahmnicore.cache.PatientLruCache;
+import org.bahmni.module.bahmnicore.dao.ObsDao;
+import org.bahmni.module.bahmnicore.forms2.util.FormUtil;
+import org.openmrs.PersonName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Size bounded LRU index of the form builder submissions of recently viewed patients, loaded with one distinct
+ * projection query per patient instead of reading every obs. A patient's submissions are dropped by
+ * {@link org.bahmni.module.bahmnicore.advice.FormSubmissionIndexInvalidationAdvice} whenever an obs or encounter of
+ * that patient is saved, voided or purged, and reloaded on the next read.
+ */
+@Component
+public class FormSubmissionIndex {
+    private static Logger logger = Logger.getLogger(FormSubmissionIndex.class);
+
+    private ObsDao obsDao;
+
+    private final PatientLruCache<List<FormSubmission>> submissionsByPatient = new PatientLruCache<>();
+
+    @Autowired
+    public FormSubmissionIndex(ObsDao obsDao) {
+        this.obsDao = obsDao;
+    }
+
+    public List<FormSubmission> getSubmissions(String patientUuid) {
+        return submissionsByPatient.get(patientUuid, this::load);
+    }
+
+    public void invalidate(String patientUuid) {
+        submissionsByPatient.invalidate(patientUuid);
+    }
+
+    private List<FormSubmission> load(String patientUuid) {
+        List<Object[]> rows = obsDao.getFormSubmissions(patientUuid);
+        logger.debug(String.format("Loaded %d form submissions for patient %s", rows.size(), patientUuid));
+        List<FormSubmission> submissions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String formNameAndVersion = (String) row[4] + "/";
+            PersonName creatorName = (PersonName) row[6];
+            submissions.add(new FormSubmission(FormUtil.getFormNameFromFieldPath(formNameAndVersion),
+                    FormUtil.getFormVersionFromFieldPath(formNameAndVersion), (String) row[0], (Date) row[1],
+                    (String) row[2], (Date) row[3], creatorName == null ? null : creatorName.getFullName(), (String) row[5]));
+        }
+        return Collections.unmodifiableList(submissions);
+    }
+}
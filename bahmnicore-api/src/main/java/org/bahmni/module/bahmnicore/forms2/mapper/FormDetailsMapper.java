@@ -2,6 +2,7 @@ package org.bahmni.module.bahmnicore.forms2.mapper;
 
 import org.bahmni.module.bahmnicore.forms2.contract.FormType;
 import org.bahmni.module.bahmnicore.forms2.contract.FormDetails;
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmission;
 import org.bahmni.module.bahmnicore.forms2.util.FormUtil;
 import org.openmrs.Encounter;
 import org.openmrs.Obs;
@@ -23,6 +24,28 @@ public class FormDetailsMapper {
         return formDetailsMap.keySet();
     }
 
+    public static Collection<FormDetails> createFormDetails(Collection<FormSubmission> formSubmissions) {
+        HashMap<FormDetails, FormDetails> formDetailsMap = new HashMap<>();
+        formSubmissions.forEach(formSubmission -> {
+            FormDetails formDetails = FormDetailsMapper.map(formSubmission);
+            addMultipleProvidersOfAForm(formDetailsMap, formDetails);
+        });
+        return formDetailsMap.keySet();
+    }
+
+    private static FormDetails map(FormSubmission formSubmission) {
+        FormDetails formDetails = new FormDetails();
+        formDetails.setFormType(FormType.FORMS2.getType());
+        formDetails.setFormName(formSubmission.getFormName());
+        formDetails.setFormVersion(formSubmission.getFormVersion());
+        formDetails.setEncounterUuid(formSubmission.getEncounterUuid());
+        formDetails.setEncounterDateTime(formSubmission.getEncounterDateTime());
+        formDetails.setVisitUuid(formSubmission.getVisitUuid());
+        formDetails.setVisitStartDateTime(formSubmission.getVisitStartDateTime());
+        formDetails.addProvider(formSubmission.getProviderName(), formSubmission.getProviderUuid());
+        return formDetails;
+    }
+
     private static FormDetails map(Obs obs, FormType formType) {
 
         Encounter encounter = obs.getEncounter();
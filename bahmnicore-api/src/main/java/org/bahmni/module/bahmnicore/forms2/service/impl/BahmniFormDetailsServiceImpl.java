@@ -2,31 +2,27 @@ package org.bahmni.module.bahmnicore.forms2.service.impl;
 
 import org.bahmni.module.bahmnicore.forms2.contract.FormType;
 import org.bahmni.module.bahmnicore.forms2.contract.FormDetails;
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmission;
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmissionIndex;
 import org.bahmni.module.bahmnicore.forms2.service.BahmniFormDetailsService;
-import org.bahmni.module.bahmnicore.forms2.util.FormUtil;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.bahmni.module.bahmnicore.service.BahmniVisitService;
-import org.openmrs.Encounter;
-import org.openmrs.Obs;
 import org.openmrs.Patient;
 import org.openmrs.Visit;
-import org.openmrs.api.EncounterService;
-import org.openmrs.api.ObsService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.VisitService;
-import org.openmrs.parameter.EncounterSearchCriteria;
-import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static java.util.Collections.singletonList;
 import static org.apache.commons.collections.CollectionUtils.isNotEmpty;
 import static org.bahmni.module.bahmnicore.forms2.mapper.FormDetailsMapper.createFormDetails;
 
@@ -35,22 +31,20 @@ public class BahmniFormDetailsServiceImpl implements BahmniFormDetailsService {
 
     private final VisitService visitService;
     private final PatientService patientService;
-    private final EncounterService encounterService;
-    private final ObsService obsService;
     private BahmniVisitService bahmniVisitService;
     private BahmniProgramWorkflowService bahmniProgramWorkflowService;
+    private FormSubmissionIndex formSubmissionIndex;
 
     @Autowired
     public BahmniFormDetailsServiceImpl(PatientService patientService, VisitService visitService,
-                                        EncounterService encounterService, ObsService obsService,
                                         BahmniVisitService bahmniVisitService,
-                                        BahmniProgramWorkflowService bahmniProgramWorkflowService) {
+                                        BahmniProgramWorkflowService bahmniProgramWorkflowService,
+                                        FormSubmissionIndex formSubmissionIndex) {
         this.visitService = visitService;
         this.patientService = patientService;
-        this.encounterService = encounterService;
-        this.obsService = obsService;
         this.bahmniVisitService = bahmniVisitService;
         this.bahmniProgramWorkflowService = bahmniProgramWorkflowService;
+        this.formSubmissionIndex = formSubmissionIndex;
     }
 
     @Override
@@ -59,10 +53,10 @@ public class BahmniFormDetailsServiceImpl implements BahmniFormDetailsService {
         List<Visit> visits = visitService.getVisitsByPatient(patient);
         List<Visit> limitedVisits = limitVisits(visits, numberOfVisits);
 
-        List<Encounter> encounters = getEncounters(limitedVisits);
-
-        if (isNotEmpty(encounters) && isNotEmpty(limitedVisits)) {
-            return getFormDetails(patient, encounters, formType);
+        if (isNotEmpty(limitedVisits)) {
+            Set<String> visitUuids = limitedVisits.stream().map(Visit::getUuid).collect(Collectors.toSet());
+            return getFormDetails(patient, formType,
+                    formSubmission -> visitUuids.contains(formSubmission.getVisitUuid()));
         }
         return Collections.emptyList();
     }
@@ -75,20 +69,14 @@ public class BahmniFormDetailsServiceImpl implements BahmniFormDetailsService {
         return patient;
     }
 
-    private List<Encounter> getEncounters(List<Visit> visits) {
-        EncounterSearchCriteria encounterSearchCriteria = new EncounterSearchCriteriaBuilder()
-                .setVisits(visits).createEncounterSearchCriteria();
-        return encounterService.getEncounters(encounterSearchCriteria);
-    }
-
-    private Collection<FormDetails> getFormDetails(Patient patient, List<Encounter> encounters, FormType formType) {
-        Collection<FormDetails> formDetails = new ArrayList<>();
-        List<Obs> observations = obsService.getObservations(singletonList(patient.getPerson()), encounters,
-                null, null, null, null, null, null, null, null, null, false);
-        if (FormType.FORMS2.equals(formType) || (formType == null)) {
-            formDetails = createFormDetails(FormUtil.filterFormBuilderObs(observations), FormType.FORMS2);
+    private Collection<FormDetails> getFormDetails(Patient patient, FormType formType,
+                                                   Predicate<FormSubmission> filter) {
+        if (!FormType.FORMS2.equals(formType) && formType != null) {
+            return Collections.emptyList();
         }
-        return formDetails;
+        List<FormSubmission> formSubmissions = formSubmissionIndex.getSubmissions(patient.getUuid()).stream()
+                .filter(filter).collect(Collectors.toList());
+        return createFormDetails(formSubmissions);
     }
 
     @Override
@@ -96,19 +84,21 @@ public class BahmniFormDetailsServiceImpl implements BahmniFormDetailsService {
                                                   String patientProgramUuid) {
         Patient patient = getPatient(patientUuid);
         Visit visit = bahmniVisitService.getVisitSummary(visitUuid);
-        List<Encounter> encountersByVisitUuid = getEncounters(singletonList(visit));
-
-        Collection<Encounter> encountersByPatientProgramUuid = bahmniProgramWorkflowService
-                .getEncountersByPatientProgramUuid(patientProgramUuid);
-
-        if (isNotEmpty(encountersByVisitUuid) && isNotEmpty(encountersByPatientProgramUuid)) {
-            List<Encounter> encountersByPatientProgramUuidAndVisitUuid = encountersByPatientProgramUuid.stream()
-                    .filter(encounter -> encounter.getVisit().equals(visit)).collect(Collectors.toList());
-            return getFormDetails(patient, encountersByPatientProgramUuidAndVisitUuid, formType);
-        } else if (isNotEmpty(encountersByVisitUuid)) {
-            return getFormDetails(patient, encountersByVisitUuid, formType);
-        } else if (isNotEmpty(encountersByPatientProgramUuid)) {
-            return getFormDetails(patient, new ArrayList<>(encountersByPatientProgramUuid), formType);
+        boolean visitHasEncounters = visit != null && isNotEmpty(visit.getNonVoidedEncounters());
+
+        Set<String> programEncounterUuids = patientProgramUuid == null ? Collections.emptySet() :
+                new HashSet<>(bahmniProgramWorkflowService.getEncounterUuidsByPatientProgramUuid(patientProgramUuid));
+
+        if (visitHasEncounters && isNotEmpty(programEncounterUuids)) {
+            return getFormDetails(patient, formType,
+                    formSubmission -> visit.getUuid().equals(formSubmission.getVisitUuid())
+                            && programEncounterUuids.contains(formSubmission.getEncounterUuid()));
+        } else if (visitHasEncounters) {
+            return getFormDetails(patient, formType,
+                    formSubmission -> visit.getUuid().equals(formSubmission.getVisitUuid()));
+        } else if (isNotEmpty(programEncounterUuids)) {
+            return getFormDetails(patient, formType,
+                    formSubmission -> programEncounterUuids.contains(formSubmission.getEncounterUuid()));
         }
         return Collections.emptyList();
     }
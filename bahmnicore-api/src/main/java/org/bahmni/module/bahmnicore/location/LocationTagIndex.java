@@ -0,0 +1,169 @@
+package org.bahmni.module.bahmnicore.location;
+
+import org.apache.log4j.Logger;
+import org.openmrs.Location;
+import org.openmrs.LocationTag;
+import org.openmrs.api.LocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps location tag names to the non-retired locations carrying them, resolving ALL and ANY tag sets in memory.
+ * The index is rebuilt on first use after {@link org.bahmni.module.bahmnicore.advice.LocationTagIndexInvalidationAdvice}
+ * reports a saved location or tag, and every rebuild gets a new version that callers can use as an ETag.
+ */
+@Component
+public class LocationTagIndex {
+    private static Logger logger = Logger.getLogger(LocationTagIndex.class);
+
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+    private LocationService locationService;
+
+    private Snapshot snapshot;
+    private long version;
+
+    @Autowired
+    public LocationTagIndex(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    public TaggedLocations getLocationsHavingAllTags(Collection<String> tagNames) {
+        return find(tagNames, true);
+    }
+
+    public TaggedLocations getLocationsHavingAnyTag(Collection<String> tagNames) {
+        return find(tagNames, false);
+    }
+
+    public synchronized void invalidate() {
+        version++;
+        snapshot = null;
+    }
+
+    private TaggedLocations find(Collection<String> tagNames, boolean matchAll) {
+        Snapshot current = getSnapshot();
+        Set<String> tags = new TreeSet<>();
+        for (String tagName : tagNames) {
+            if (tagName != null) {
+                tags.add(tagName.trim().toLowerCase());
+            }
+        }
+        String key = (matchAll ? "ALL:" : "ANY:") + tags;
+        List<Integer> locationIds = current.locationIdsByTagSet.computeIfAbsent(key, k -> current.resolve(tags, matchAll));
+        List<Location> locations = new ArrayList<>(locationIds.size());
+        for (Integer locationId : locationIds) {
+            Location location = locationService.getLocation(locationId);
+            if (location != null) {
+                locations.add(location);
+            }
+        }
+        return new TaggedLocations(locations, current.version);
+    }
+
+    private synchronized Snapshot getSnapshot() {
+        if (snapshot == null) {
+            logger.debug(String.format("Building location tag index at version %d", version));
+            List<Integer> locationIds = new ArrayList<>();
+            Map<String, Set<Integer>> locationIdsByTag = new HashMap<>();
+            for (LocationTag tag : locationService.getAllLocationTags(true)) {
+                if (tag.getName() != null) {
+                    locationIdsByTag.put(tag.getName().toLowerCase(), new HashSet<>());
+                }
+            }
+            for (Location location : locationService.getAllLocations(false)) {
+                locationIds.add(location.getLocationId());
+                if (location.getTags() == null) {
+                    continue;
+                }
+                for (LocationTag tag : location.getTags()) {
+                    if (tag.getName() != null) {
+                        locationIdsByTag.computeIfAbsent(tag.getName().toLowerCase(), name -> new HashSet<>()).add(location.getLocationId());
+                    }
+                }
+            }
+            snapshot = new Snapshot(Collections.unmodifiableList(locationIds), locationIdsByTag, instanceId + "-" + version);
+        }
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        private final List<Integer> locationIds;
+        private final Map<String, Set<Integer>> locationIdsByTag;
+        private final Map<String, List<Integer>> locationIdsByTagSet = new ConcurrentHashMap<>();
+        private final String version;
+
+        Snapshot(List<Integer> locationIds, Map<String, Set<Integer>> locationIdsByTag, String version) {
+            this.locationIds = locationIds;
+            this.locationIdsByTag = locationIdsByTag;
+            this.version = version;
+        }
+
+        /**
+         * Unknown tag names are ignored like LocationService does for tags it cannot resolve, so an ALL search without
+         * any known tag returns every location and an ANY search returns none.
+         */
+        List<Integer> resolve(Set<String> tags, boolean matchAll) {
+            List<Set<Integer>> taggedLocationIds = new ArrayList<>();
+            for (String tag : tags) {
+                Set<Integer> ids = locationIdsByTag.get(tag);
+                if (ids != null) {
+                    taggedLocationIds.add(ids);
+                }
+            }
+            List<Integer> result = new ArrayList<>();
+            for (Integer locationId : locationIds) {
+                if (matchAll ? containedInAll(taggedLocationIds, locationId) : containedInAny(taggedLocationIds, locationId)) {
+                    result.add(locationId);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        private boolean containedInAll(List<Set<Integer>> taggedLocationIds, Integer locationId) {
+            for (Set<Integer> ids : taggedLocationIds) {
+                if (!ids.contains(locationId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean containedInAny(List<Set<Integer>> taggedLocationIds, Integer locationId) {
+            for (Set<Integer> ids : taggedLocationIds) {
+                if (ids.contains(locationId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static class TaggedLocations {
+        private final List<Location> locations;
+        private final String version;
+
+        TaggedLocations(List<Location> locations, String version) {
+            this.locations = locations;
+            this.version = version;
+        }
+
+        public List<Location> getLocations() {
+            return locations;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+    }
+}
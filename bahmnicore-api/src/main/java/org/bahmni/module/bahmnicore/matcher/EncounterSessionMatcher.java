@@ -3,20 +3,21 @@ package org.bahmni.module.bahmnicore.matcher;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
-import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
 import org.openmrs.Encounter;
 import org.openmrs.EncounterType;
 import org.openmrs.Form;
+import org.openmrs.GlobalProperty;
 import org.openmrs.Location;
 import org.openmrs.Visit;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.EncounterService;
+import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.bahmniemrapi.encountertransaction.mapper.EncounterTypeIdentifier;
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
 import org.openmrs.module.emrapi.encounter.EncounterParameters;
 import org.openmrs.module.emrapi.encounter.matcher.BaseEncounterMatcher;
-import org.openmrs.module.episodes.service.EpisodeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -26,32 +27,33 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Component
-public class EncounterSessionMatcher implements BaseEncounterMatcher {
+public class EncounterSessionMatcher implements BaseEncounterMatcher, GlobalPropertyListener {
 
     public static final int DEFAULT_SESSION_DURATION_IN_MINUTES = 60;
     public static final String PATIENT_PROGAM_UUID = "patientProgramUuid";
+    public static final String SESSION_DURATION_GLOBAL_PROPERTY = "bahmni.encountersession.duration";
 
     private AdministrationService adminService;
     private EncounterTypeIdentifier encounterTypeIdentifier;
     private EncounterService encounterService;
-    private BahmniProgramWorkflowService bahmniProgramWorkflowService;
-    private EpisodeService episodeService;
+    private EpisodeDao episodeDao;
     private BahmniVisitLocationService bahmniVisitLocationService;
+    private volatile Integer sessionDurationInMinutes;
 
     @Autowired
     public EncounterSessionMatcher(@Qualifier("adminService") AdministrationService administrationService,
                                    EncounterTypeIdentifier encounterTypeIdentifier,
                                    EncounterService encounterService,
-                                   BahmniProgramWorkflowService bahmniProgramWorkflowService, EpisodeService episodeService, BahmniVisitLocationService bahmniVisitLocationService) {
+                                   EpisodeDao episodeDao, BahmniVisitLocationService bahmniVisitLocationService) {
         this.adminService = administrationService;
         this.encounterTypeIdentifier = encounterTypeIdentifier;
         this.encounterService = encounterService;
-        this.bahmniProgramWorkflowService = bahmniProgramWorkflowService;
-        this.episodeService = episodeService;
+        this.episodeDao = episodeDao;
         this.bahmniVisitLocationService = bahmniVisitLocationService;
     }
 
@@ -122,12 +124,11 @@ public class EncounterSessionMatcher implements BaseEncounterMatcher {
 
     private List<Encounter> checkEncounterIsInCurrentVisitLocation(List<Encounter> encounters, Location loginLocation) {
         List<Encounter> matchingEncounters = new ArrayList<>();
-        Location encountersVisitLocation;
-        Location visitLocation = bahmniVisitLocationService.getVisitLocation(loginLocation.getUuid());
+        Map<String, Location> visitLocations = new HashMap<>();
+        Location visitLocation = getVisitLocation(loginLocation, visitLocations);
         for (Encounter encounter : encounters) {
             if (encounter.getLocation() != null) {
-                encountersVisitLocation = bahmniVisitLocationService.getVisitLocation(encounter.getLocation().getUuid());
-                if (visitLocation.equals(encountersVisitLocation)) {
+                if (visitLocation.equals(getVisitLocation(encounter.getLocation(), visitLocations))) {
                     matchingEncounters.add(encounter);
                 }
             }
@@ -135,19 +136,26 @@ public class EncounterSessionMatcher implements BaseEncounterMatcher {
         return matchingEncounters;
     }
 
+    private Location getVisitLocation(Location location, Map<String, Location> visitLocations) {
+        if (!visitLocations.containsKey(location.getUuid())) {
+            visitLocations.put(location.getUuid(), bahmniVisitLocationService.getVisitLocation(location.getUuid()));
+        }
+        return visitLocations.get(location.getUuid());
+    }
+
     private Collection<Encounter> filterByPatientProgram(Collection<Encounter> encounters, String patientProgramUuid) {
         if (StringUtils.isBlank(patientProgramUuid)) {
-            Collection<Encounter> episodeEncounters = new ArrayList<>();
-            for (Encounter encounter : encounters) {
-                if (episodeService.getEpisodeForEncounter(encounter) != null) {
-                    episodeEncounters.add(encounter);
-                }
-            }
-            encounters.removeAll(episodeEncounters);
+            encounters.removeAll(episodeDao.getEncountersInAnyEpisode(encounters));
             return encounters;
         }
-        return CollectionUtils.intersection(encounters,
-                bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid));
+        List<Encounter> programEncounters = episodeDao.getEncountersInPatientProgram(patientProgramUuid, encounters);
+        Collection<Encounter> matchingEncounters = new ArrayList<>();
+        for (Encounter encounter : encounters) {
+            if (programEncounters.contains(encounter)) {
+                matchingEncounters.add(encounter);
+            }
+        }
+        return matchingEncounters;
     }
 
     private Date getSearchStartDate(Date endDate) {
@@ -171,11 +179,30 @@ public class EncounterSessionMatcher implements BaseEncounterMatcher {
     }
 
     private int getSessionDuration() {
-        String configuredSessionDuration = adminService.getGlobalProperty("bahmni.encountersession.duration");
-        int sessionDurationInMinutes = DEFAULT_SESSION_DURATION_IN_MINUTES;
-        if (configuredSessionDuration != null) {
-            sessionDurationInMinutes = Integer.parseInt(configuredSessionDuration);
+        Integer sessionDuration = sessionDurationInMinutes;
+        if (sessionDuration == null) {
+            String configuredSessionDuration = adminService.getGlobalProperty(SESSION_DURATION_GLOBAL_PROPERTY);
+            sessionDuration = DEFAULT_SESSION_DURATION_IN_MINUTES;
+            if (configuredSessionDuration != null) {
+                sessionDuration = Integer.parseInt(configuredSessionDuration);
+            }
+            sessionDurationInMinutes = sessionDuration;
         }
-        return sessionDurationInMinutes;
+        return sessionDuration;
+    }
+
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return SESSION_DURATION_GLOBAL_PROPERTY.equals(propertyName);
+    }
+
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        sessionDurationInMinutes = null;
+    }
+
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        sessionDurationInMinutes = null;
     }
-}
\ No newline at end of file
+}
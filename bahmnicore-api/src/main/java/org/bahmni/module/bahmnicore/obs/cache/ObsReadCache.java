@@ -0,0 +1,158 @@
+package org.bahmni.module.bahmnicore.obs.cache;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+import org.bahmni.module.bahmnicore.cache.PatientLruCache;
+import org.openmrs.Concept;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Order;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniObservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in, size bounded LRU cache for BahmniObsService read results of recently viewed patients, keyed within a patient
+ * by locale and the normalized query arguments. Every caller gets its own copy of the cached observations, so they are free to change them. Entries of a patient are dropped by {@link org.bahmni.module.bahmnicore.advice.ObsReadCacheInvalidationAdvice}
+ * whenever an obs or encounter of that patient is saved, voided or purged.
+ * Enabled through the bahmni.obsReadCache.enabled global property, sized by bahmni.obsReadCache.maxPatients.
+ */
+@Component
+public class ObsReadCache implements GlobalPropertyListener {
+    public static final String ENABLED_GLOBAL_PROPERTY = "bahmni.obsReadCache.enabled";
+    public static final String MAX_PATIENTS_GLOBAL_PROPERTY = "bahmni.obsReadCache.maxPatients";
+    static final int MAX_QUERIES_PER_PATIENT = 50;
+
+    private static Logger logger = Logger.getLogger(ObsReadCache.class);
+
+    private AdministrationService administrationService;
+
+    private final PatientLruCache<Map<String, Collection<BahmniObservation>>> entriesByPatient = new PatientLruCache<>();
+    private Boolean enabled;
+    private long hits;
+    private long misses;
+
+    @Autowired
+    public ObsReadCache(@Qualifier("adminService") AdministrationService administrationService) {
+        this.administrationService = administrationService;
+    }
+
+    public Collection<BahmniObservation> get(String patientUuid, String query, Object[] arguments, Supplier<Collection<BahmniObservation>> loader) {
+        if (patientUuid == null || !isEnabled()) {
+            return loader.get();
+        }
+        //Mapped observations carry concept names in the locale of the user
+        String key = Context.getLocale() + "|" + query + normalize(arguments);
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            Map<String, Collection<BahmniObservation>> patientEntries = entriesByPatient.getIfPresent(patientUuid);
+            Collection<BahmniObservation> cached = patientEntries == null ? null : patientEntries.get(key);
+            if (cached != null) {
+                hits++;
+                return ObservationCopier.copyAll(cached);
+            }
+            misses++;
+            invalidationsBeforeLoad = entriesByPatient.getInvalidationCount();
+        }
+        Collection<BahmniObservation> observations = loader.get();
+        if (observations != null) {
+            put(patientUuid, key, ObservationCopier.copyAll(observations), invalidationsBeforeLoad);
+        }
+        return observations;
+    }
+
+    public void invalidate(String patientUuid) {
+        entriesByPatient.invalidate(patientUuid);
+    }
+
+    public void clear() {
+        entriesByPatient.clear();
+    }
+
+    public synchronized ObsReadCacheStatistics getStatistics() {
+        return new ObsReadCacheStatistics(isEnabled(), entriesByPatient.size(), entriesByPatient.getMaxPatients(), hits, misses,
+                entriesByPatient.getEvictions(), entriesByPatient.getInvalidationCount());
+    }
+
+    //An obs saved while the query was running must not leave the pre-save result behind
+    private synchronized void put(String patientUuid, String key, Collection<BahmniObservation> observations, long invalidationsBeforeLoad) {
+        Map<String, Collection<BahmniObservation>> patientEntries = entriesByPatient.getIfPresent(patientUuid);
+        if (patientEntries == null) {
+            patientEntries = new LinkedHashMap<String, Collection<BahmniObservation>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Collection<BahmniObservation>> eldest) {
+                    return size() > MAX_QUERIES_PER_PATIENT;
+                }
+            };
+            if (!entriesByPatient.put(patientUuid, patientEntries, invalidationsBeforeLoad)) {
+                return;
+            }
+        } else if (invalidationsBeforeLoad != entriesByPatient.getInvalidationCount()) {
+            return;
+        }
+        patientEntries.put(key, observations);
+    }
+
+    private synchronized boolean isEnabled() {
+        if (enabled == null) {
+            enabled = Boolean.valueOf(administrationService.getGlobalProperty(ENABLED_GLOBAL_PROPERTY, "false"));
+            entriesByPatient.setMaxPatients(NumberUtils.toInt(administrationService.getGlobalProperty(MAX_PATIENTS_GLOBAL_PROPERTY),
+                    PatientLruCache.MAX_PATIENTS));
+        }
+        return enabled;
+    }
+
+    private String normalize(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        if (argument instanceof Concept) {
+            return ((Concept) argument).getUuid();
+        }
+        if (argument instanceof Order) {
+            return ((Order) argument).getUuid();
+        }
+        if (argument instanceof Date) {
+            return String.valueOf(((Date) argument).getTime());
+        }
+        if (argument instanceof Object[]) {
+            return normalize(Arrays.asList((Object[]) argument));
+        }
+        if (argument instanceof Collection) {
+            StringBuilder normalized = new StringBuilder("[");
+            for (Object element : (Collection) argument) {
+                normalized.append(normalize(element)).append(",");
+            }
+            return normalized.append("]").toString();
+        }
+        return argument.toString();
+    }
+
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return ENABLED_GLOBAL_PROPERTY.equals(propertyName) || MAX_PATIENTS_GLOBAL_PROPERTY.equals(propertyName);
+    }
+
+    @Override
+    public synchronized void globalPropertyChanged(GlobalProperty newValue) {
+        logger.info("Resetting obs read cache after change to " + newValue.getProperty());
+        enabled = null;
+        clear();
+    }
+
+    @Override
+    public synchronized void globalPropertyDeleted(String propertyName) {
+        enabled = null;
+        clear();
+    }
+}
@@ -0,0 +1,54 @@
+package org.bahmni.module.bahmnicore.obs.cache;
+
+public class ObsReadCacheStatistics {
+    private final boolean enabled;
+    private final int size;
+    private final int maxPatients;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+
+    public ObsReadCacheStatistics(boolean enabled, int size, int maxPatients, long hits, long misses, long evictions, long invalidations) {
+        this.enabled = enabled;
+        this.size = size;
+        this.maxPatients = maxPatients;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxPatients() {
+        return maxPatients;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
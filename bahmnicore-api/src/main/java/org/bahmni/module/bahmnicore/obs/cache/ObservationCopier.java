@@ -0,0 +1,113 @@
+package org.bahmni.module.bahmnicore.obs.cache;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Deep copies cached observations so that callers pruning group members or scripts editing values do not change
+ * what later requests read. Bahmni and emrapi contract objects, collections, maps and dates are copied; strings,
+ * numbers, enums and other values are shared.
+ */
+class ObservationCopier {
+    private static final String[] CONTRACT_PACKAGES = {"org.openmrs.module.bahmniemrapi.", "org.openmrs.module.emrapi.encounter.domain."};
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    static <T> List<T> copyAll(Collection<T> observations) {
+        ObservationCopier copier = new ObservationCopier();
+        List<T> copy = new ArrayList<>(observations.size());
+        for (T observation : observations) {
+            copy.add(copier.copy(observation));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T copy(T value) {
+        if (value == null) {
+            return null;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return (T) copy;
+        }
+        if (value instanceof Date) {
+            copy = ((Date) value).clone();
+        } else if (value instanceof Collection) {
+            copy = copyCollection((Collection<Object>) value);
+        } else if (value instanceof Map) {
+            copy = copyMap((Map<Object, Object>) value);
+        } else if (isContract(value.getClass())) {
+            copy = copyContract(value);
+        } else {
+            return value;
+        }
+        return (T) copy;
+    }
+
+    private Collection<Object> copyCollection(Collection<Object> collection) {
+        Collection<Object> copy;
+        if (collection instanceof SortedSet) {
+            copy = new TreeSet<>(((SortedSet<Object>) collection).comparator());
+        } else if (collection instanceof Set) {
+            copy = new LinkedHashSet<>();
+        } else {
+            copy = new ArrayList<>(collection.size());
+        }
+        copies.put(collection, copy);
+        for (Object element : collection) {
+            copy.add(copy(element));
+        }
+        return copy;
+    }
+
+    private Map<Object, Object> copyMap(Map<Object, Object> map) {
+        Map<Object, Object> copy = new LinkedHashMap<>();
+        copies.put(map, copy);
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), copy(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private Object copyContract(final Object value) {
+        final Object copy;
+        try {
+            copy = BeanUtils.instantiateClass(value.getClass());
+        } catch (BeanInstantiationException e) {
+            return value;
+        }
+        copies.put(value, copy);
+        ReflectionUtils.doWithFields(value.getClass(), new ReflectionUtils.FieldCallback() {
+            @Override
+            public void doWith(Field field) throws IllegalAccessException {
+                ReflectionUtils.makeAccessible(field);
+                field.set(copy, copy(field.get(value)));
+            }
+        }, ReflectionUtils.COPYABLE_FIELDS);
+        return copy;
+    }
+
+    private boolean isContract(Class<?> type) {
+        for (String contractPackage : CONTRACT_PACKAGES) {
+            if (type.getName().startsWith(contractPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package org.bahmni.module.bahmnicore.obs.series;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Immutable, time ordered (time, value) points of one numeric concept for one patient.
+ */
+public class NumericObsSeries {
+    private final Integer conceptId;
+    private final long[] times;
+    private final double[] values;
+
+    NumericObsSeries(Integer conceptId, long[] times, double[] values) {
+        this.conceptId = conceptId;
+        this.times = times;
+        this.values = values;
+    }
+
+    public Integer getConceptId() {
+        return conceptId;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public Date getTime(int index) {
+        return new Date(times[index]);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param from inclusive lower bound, unbounded when null
+     * @param to   inclusive upper bound, unbounded when null
+     */
+    public NumericObsSeries between(Date from, Date to) {
+        int start = from == null ? 0 : firstIndexAtOrAfter(from.getTime());
+        int end = to == null ? times.length : firstIndexAtOrAfter(to.getTime() + 1);
+        if (start == 0 && end == times.length) {
+            return this;
+        }
+        end = Math.max(start, end);
+        return new NumericObsSeries(conceptId, Arrays.copyOfRange(times, start, end), Arrays.copyOfRange(values, start, end));
+    }
+
+    /**
+     * Reduces the series to at most maxPoints points by keeping the lowest and highest value of each of maxPoints / 2
+     * equally sized buckets, so that spikes stay visible on the graph.
+     */
+    public NumericObsSeries downsample(int maxPoints) {
+        if (maxPoints < 2 || times.length <= maxPoints) {
+            return this;
+        }
+        int buckets = maxPoints / 2;
+        long[] sampledTimes = new long[buckets * 2];
+        double[] sampledValues = new double[buckets * 2];
+        int sampled = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) ((long) bucket * times.length / buckets);
+            int end = (int) ((long) (bucket + 1) * times.length / buckets);
+            int min = start;
+            int max = start;
+            for (int index = start + 1; index < end; index++) {
+                if (values[index] < values[min]) {
+                    min = index;
+                }
+                if (values[index] > values[max]) {
+                    max = index;
+                }
+            }
+            int first = Math.min(min, max);
+            int second = Math.max(min, max);
+            sampledTimes[sampled] = times[first];
+            sampledValues[sampled++] = values[first];
+            if (second != first) {
+                sampledTimes[sampled] = times[second];
+                sampledValues[sampled++] = values[second];
+            }
+        }
+        return new NumericObsSeries(conceptId, Arrays.copyOf(sampledTimes, sampled), Arrays.copyOf(sampledValues, sampled));
+    }
+
+    private int firstIndexAtOrAfter(long time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
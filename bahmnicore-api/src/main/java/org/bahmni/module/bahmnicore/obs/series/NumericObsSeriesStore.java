@@ -0,0 +1,92 @@
+package org.bahmni.module.bahmnicore.obs.series;
+
+import org.apache.log4j.Logger;
+import org.bahmni.module.bahmnicore.cache.PatientLruCache;
+import org.bahmni.module.bahmnicore.dao.ObsDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Size bounded LRU store of the numeric observation series of recently viewed patients, loaded with one projection
+ * query per patient. A patient's series are dropped by
+ * {@link org.bahmni.module.bahmnicore.advice.NumericObsSeriesInvalidationAdvice} whenever an obs or encounter of that
+ * patient is saved, voided or purged, and reloaded on the next read.
+ */
+@Component
+public class NumericObsSeriesStore {
+    private static Logger logger = Logger.getLogger(NumericObsSeriesStore.class);
+
+    private ObsDao obsDao;
+
+    private final PatientLruCache<List<NumericObsSeries>> seriesByPatient = new PatientLruCache<>();
+
+    @Autowired
+    public NumericObsSeriesStore(ObsDao obsDao) {
+        this.obsDao = obsDao;
+    }
+
+    /**
+     * @param from      inclusive lower bound, unbounded when null
+     * @param to        inclusive upper bound, unbounded when null
+     * @param maxPoints maximum points per series, all points when null
+     * @return the non-empty series of the patient, ordered by concept id
+     */
+    public List<NumericObsSeries> getSeries(String patientUuid, Date from, Date to, Integer maxPoints) {
+        List<NumericObsSeries> result = new ArrayList<>();
+        for (NumericObsSeries series : getSeries(patientUuid)) {
+            NumericObsSeries selected = series.between(from, to);
+            if (maxPoints != null) {
+                selected = selected.downsample(maxPoints);
+            }
+            if (selected.size() > 0) {
+                result.add(selected);
+            }
+        }
+        return result;
+    }
+
+    public List<Integer> getConceptIds(String patientUuid) {
+        List<Integer> conceptIds = new ArrayList<>();
+        for (NumericObsSeries series : getSeries(patientUuid)) {
+            conceptIds.add(series.getConceptId());
+        }
+        return conceptIds;
+    }
+
+    public void invalidate(String patientUuid) {
+        seriesByPatient.invalidate(patientUuid);
+    }
+
+    private List<NumericObsSeries> getSeries(String patientUuid) {
+        return seriesByPatient.get(patientUuid, this::load);
+    }
+
+    private List<NumericObsSeries> load(String patientUuid) {
+        List<Object[]> points = obsDao.getNumericObsSeriesPoints(patientUuid);
+        logger.debug(String.format("Loaded %d numeric obs points for patient %s", points.size(), patientUuid));
+        List<NumericObsSeries> series = new ArrayList<>();
+        int start = 0;
+        while (start < points.size()) {
+            Integer conceptId = (Integer) points.get(start)[0];
+            int end = start;
+            while (end < points.size() && conceptId.equals(points.get(end)[0])) {
+                end++;
+            }
+            long[] times = new long[end - start];
+            double[] values = new double[end - start];
+            for (int index = start; index < end; index++) {
+                Object[] point = points.get(index);
+                times[index - start] = ((Date) point[1]).getTime();
+                values[index - start] = ((Number) point[2]).doubleValue();
+            }
+            series.add(new NumericObsSeries(conceptId, times, values));
+            start = end;
+        }
+        return Collections.unmodifiableList(series);
+    }
+}
@@ -0,0 +1,131 @@
+package org.bahmni.module.bahmnicore.orderset;
+
+import org.bahmni.module.bahmnicore.dao.BahmniOrderSetDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token index over the names and descriptions of non-retired order sets. Built lazily from a single
+ * projection query and dropped by {@link org.bahmni.module.bahmnicore.advice.OrderSetSearchIndexInvalidationAdvice}
+ * whenever an order set is saved, retired or purged. Searches return ranked order set ids so that callers hydrate
+ * only the page they need.
+ */
+@Component
+public class OrderSetSearchIndex {
+    private static final String WHITE_SPACE = "\\s+";
+    private static final Comparator<RankedEntry> RANKING = Comparator.<RankedEntry>comparingInt(entry -> entry.rank)
+            .thenComparing(entry -> entry.entry.name)
+            .thenComparing(entry -> entry.entry.orderSetId);
+
+    private BahmniOrderSetDao bahmniOrderSetDao;
+
+    private volatile List<IndexedOrderSet> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public OrderSetSearchIndex(BahmniOrderSetDao bahmniOrderSetDao) {
+        this.bahmniOrderSetDao = bahmniOrderSetDao;
+    }
+
+    /**
+     * @return ids of order sets having every token of the query in their name or description, name prefix matches
+     * first, then other name matches, then description only matches
+     */
+    public List<Integer> search(String query) {
+        List<String> tokens = tokenize(query);
+        List<RankedEntry> matches = new ArrayList<>();
+        for (IndexedOrderSet entry : getEntries()) {
+            int rank = entry.rank(tokens);
+            if (rank >= 0) {
+                matches.add(new RankedEntry(entry, rank));
+            }
+        }
+        matches.sort(RANKING);
+        List<Integer> orderSetIds = new ArrayList<>(matches.size());
+        for (RankedEntry match : matches) {
+            orderSetIds.add(match.entry.orderSetId);
+        }
+        return orderSetIds;
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        entries = null;
+    }
+
+    private List<IndexedOrderSet> getEntries() {
+        List<IndexedOrderSet> current = entries;
+        if (current != null) {
+            return current;
+        }
+        long generationBeforeBuild = generation.get();
+        List<IndexedOrderSet> built = new ArrayList<>();
+        for (Object[] row : bahmniOrderSetDao.getOrderSetSearchEntries()) {
+            built.add(new IndexedOrderSet((Integer) row[0], (String) row[1], (String) row[2]));
+        }
+        built = Collections.unmodifiableList(built);
+        //An order set saved while building may not be part of the rows just read
+        synchronized (this) {
+            if (generation.get() == generationBeforeBuild) {
+                entries = built;
+            }
+        }
+        return built;
+    }
+
+    private List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String token : query.toLowerCase().split(WHITE_SPACE)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class IndexedOrderSet {
+        private final Integer orderSetId;
+        private final String name;
+        private final String description;
+
+        IndexedOrderSet(Integer orderSetId, String name, String description) {
+            this.orderSetId = orderSetId;
+            this.name = name == null ? "" : name.toLowerCase();
+            this.description = description == null ? "" : description.toLowerCase();
+        }
+
+        int rank(List<String> tokens) {
+            boolean allInName = true;
+            for (String token : tokens) {
+                boolean inName = name.contains(token);
+                if (!inName && !description.contains(token)) {
+                    return -1;
+                }
+                allInName = allInName && inName;
+            }
+            if (!allInName) {
+                return 2;
+            }
+            return tokens.isEmpty() || name.startsWith(tokens.get(0)) ? 0 : 1;
+        }
+    }
+
+    private static class RankedEntry {
+        private final IndexedOrderSet entry;
+        private final int rank;
+
+        RankedEntry(IndexedOrderSet entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.bahmni.module.bahmnicore.person;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.bahmni.module.bahmnicore.dao.PersonAttributeDao;
+import org.bahmni.module.bahmnicore.dao.PersonNameDao;
+import org.bahmni.module.bahmnicore.model.ResultList;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Person;
+import org.openmrs.PersonAttribute;
+import org.openmrs.PersonAttributeType;
+import org.openmrs.PersonName;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.PersonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registration autocomplete over person names and person attributes. Keeps one prefix dictionary per name field and
+ * per attribute type, keyed by the case and accent folded value and ranked by how many people share it, so a
+ * keystroke is a sorted map range scan instead of a {@code lower(value) like} query over the whole table.
+ * Dictionaries are loaded with one grouped query on first use and reloaded from the database once they are older
+ * than {@link #MAX_AGE_MILLIS}. In between,
+ * {@link org.bahmni.module.bahmnicore.advice.DemographicAutocompleteIndexUpdateAdvice} adds the values of saved
+ * people that are not suggested yet; frequencies and voided values are only corrected by the reload.
+ * Only the existing attribute types listed in the {@value #ATTRIBUTE_TYPES_GLOBAL_PROPERTY} global property get a
+ * dictionary, other attributes are searched in the database. Each dictionary keeps at most {@link #MAX_VALUES} of the
+ * most common values.
+ */
+@Component
+public class DemographicAutocompleteIndex implements GlobalPropertyListener {
+    public static final String ATTRIBUTE_TYPES_GLOBAL_PROPERTY = "bahmni.registration.autocompleteAttributeTypes";
+    static final int MAX_RESULTS = 20;
+    static final int MAX_VALUES = 50000;
+    static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITE_SPACE = Pattern.compile("\\s+");
+    private static final Map<String, Function<PersonName, String>> NAME_FIELDS = new LinkedHashMap<>();
+
+    static {
+        NAME_FIELDS.put("prefix", PersonName::getPrefix);
+        NAME_FIELDS.put("givenName", PersonName::getGivenName);
+        NAME_FIELDS.put("middleName", PersonName::getMiddleName);
+        NAME_FIELDS.put("familyNamePrefix", PersonName::getFamilyNamePrefix);
+        NAME_FIELDS.put("familyName", PersonName::getFamilyName);
+        NAME_FIELDS.put("familyName2", PersonName::getFamilyName2);
+        NAME_FIELDS.put("familyNameSuffix", PersonName::getFamilyNameSuffix);
+        NAME_FIELDS.put("degree", PersonName::getDegree);
+    }
+
+    private static Logger logger = Logger.getLogger(DemographicAutocompleteIndex.class);
+
+    private PersonNameDao personNameDao;
+    private PersonAttributeDao personAttributeDao;
+    private PersonService personService;
+    private AdministrationService administrationService;
+
+    private final Map<String, Dictionary> nameDictionaries = new ConcurrentHashMap<>();
+    private final Map<String, Dictionary> attributeDictionaries = new ConcurrentHashMap<>();
+    private volatile Set<String> indexedAttributeTypes;
+
+    @Autowired
+    public DemographicAutocompleteIndex(PersonNameDao personNameDao, PersonAttributeDao personAttributeDao,
+                                        PersonService personService,
+                                        @Qualifier("adminService") AdministrationService administrationService) {
+        this.personNameDao = personNameDao;
+        this.personAttributeDao = personAttributeDao;
+        this.personService = personService;
+        this.administrationService = administrationService;
+    }
+
+    public ResultList getNames(String key, String query) {
+        if (!NAME_FIELDS.containsKey(key)) {
+            return personNameDao.getUnique(key, query);
+        }
+        return new ResultList(getDictionary(nameDictionaries, key, () -> personNameDao.getValueFrequencies(key))
+                .lookup(normalize(query)));
+    }
+
+    public ResultList getAttributeValues(String personAttribute, String query) {
+        if (!getIndexedAttributeTypes().contains(personAttribute)) {
+            return personAttributeDao.getUnique(personAttribute, query);
+        }
+        return new ResultList(getDictionary(attributeDictionaries, personAttribute,
+                () -> personAttributeDao.getValueFrequencies(personAttribute)).lookup(normalize(query)));
+    }
+
+    /**
+     * Adds the non voided names and attributes of the person to the dictionaries already loaded.
+     */
+    public void record(Person person) {
+        if (person.getNames() != null) {
+            for (PersonName personName : person.getNames()) {
+                if (personName.getVoided()) {
+                    continue;
+                }
+                for (Map.Entry<String, Function<PersonName, String>> nameField : NAME_FIELDS.entrySet()) {
+                    record(nameDictionaries.get(nameField.getKey()), nameField.getValue().apply(personName));
+                }
+            }
+        }
+        for (PersonAttribute personAttribute : person.getActiveAttributes()) {
+            if (personAttribute.getAttributeType() != null) {
+                record(attributeDictionaries.get(personAttribute.getAttributeType().getName()), personAttribute.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drops every dictionary, so each is reloaded from the database on its next lookup.
+     */
+    public void rebuild() {
+        indexedAttributeTypes = null;
+        nameDictionaries.clear();
+        attributeDictionaries.clear();
+    }
+
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return ATTRIBUTE_TYPES_GLOBAL_PROPERTY.equals(propertyName);
+    }
+
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        rebuild();
+    }
+
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        rebuild();
+    }
+
+    private Set<String> getIndexedAttributeTypes() {
+        if (indexedAttributeTypes == null) {
+            Set<String> attributeTypes = new HashSet<>();
+            String configured = administrationService.getGlobalProperty(ATTRIBUTE_TYPES_GLOBAL_PROPERTY, "");
+            for (String name : StringUtils.split(configured, ",")) {
+                PersonAttributeType attributeType = personService.getPersonAttributeTypeByName(name.trim());
+                if (attributeType != null && !attributeType.getRetired()) {
+                    attributeTypes.add(attributeType.getName());
+                }
+            }
+            indexedAttributeTypes = attributeTypes;
+        }
+        return indexedAttributeTypes;
+    }
+
+    private void record(Dictionary dictionary, String value) {
+        if (dictionary != null && value != null) {
+            dictionary.record(normalize(value), value.trim());
+        }
+    }
+
+    private Dictionary getDictionary(Map<String, Dictionary> dictionaries, String key, Supplier<List<Object[]>> loader) {
+        Dictionary dictionary = dictionaries.computeIfAbsent(key, k -> new Dictionary());
+        dictionary.ensureLoaded(key, loader);
+        return dictionary;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return WHITE_SPACE.matcher(folded).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Dictionary {
+        private static final Comparator<Suggestion> LEAST_FREQUENT_FIRST = Comparator
+                .comparingLong((Suggestion suggestion) -> suggestion.count)
+                .thenComparing((Suggestion suggestion) -> suggestion.value, Comparator.reverseOrder());
+
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile NavigableMap<String, Suggestion> suggestions;
+        private volatile long loadedAt;
+
+        void ensureLoaded(String key, Supplier<List<Object[]>> loader) {
+            if (suggestions != null && !isExpired()) {
+                return;
+            }
+            //An expired dictionary keeps answering while one request reloads it; an empty one makes everyone wait
+            if (suggestions != null) {
+                if (!loadLock.tryLock()) {
+                    return;
+                }
+            } else {
+                loadLock.lock();
+            }
+            try {
+                if (suggestions == null || isExpired()) {
+                    suggestions = load(loader.get());
+                    loadedAt = System.currentTimeMillis();
+                    logger.info(String.format("Loaded %d autocomplete values for %s", suggestions.size(), key));
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        List<String> lookup(String prefix) {
+            PriorityQueue<Suggestion> best = new PriorityQueue<>(MAX_RESULTS + 1, LEAST_FREQUENT_FIRST);
+            for (Suggestion suggestion : suggestions.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                best.add(suggestion);
+                if (best.size() > MAX_RESULTS) {
+                    best.poll();
+                }
+            }
+            List<Suggestion> ranked = new ArrayList<>(best);
+            ranked.sort(LEAST_FREQUENT_FIRST.reversed());
+            List<String> values = new ArrayList<>(ranked.size());
+            for (Suggestion suggestion : ranked) {
+                values.add(suggestion.value);
+            }
+            return values;
+        }
+
+        void record(String normalizedValue, String value) {
+            NavigableMap<String, Suggestion> loaded = suggestions;
+            if (loaded != null && !normalizedValue.isEmpty() && loaded.size() < MAX_VALUES) {
+                loaded.putIfAbsent(normalizedValue, new Suggestion(value, 1));
+            }
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > MAX_AGE_MILLIS;
+        }
+
+        /**
+         * Merges values differing only in case, accents or spacing, suggesting the most common spelling, and keeps
+         * the {@link #MAX_VALUES} most common of them.
+         */
+        private NavigableMap<String, Suggestion> load(List<Object[]> valueFrequencies) {
+            Map<String, Long> totals = new HashMap<>();
+            Map<String, Suggestion> commonestSpellings = new HashMap<>();
+            for (Object[] valueFrequency : valueFrequencies) {
+                String value = ((String) valueFrequency[0]).trim();
+                long count = ((Number) valueFrequency[1]).longValue();
+                String normalizedValue = normalize(value);
+                if (normalizedValue.isEmpty()) {
+                    continue;
+                }
+                totals.merge(normalizedValue, count, Long::sum);
+                Suggestion spelling = commonestSpellings.get(normalizedValue);
+                if (spelling == null || spelling.count < count) {
+                    commonestSpellings.put(normalizedValue, new Suggestion(value, count));
+                }
+            }
+            PriorityQueue<Map.Entry<String, Long>> mostCommon = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Long> total : totals.entrySet()) {
+                mostCommon.add(total);
+                if (mostCommon.size() > MAX_VALUES) {
+                    mostCommon.poll();
+                }
+            }
+            NavigableMap<String, Suggestion> loaded = new ConcurrentSkipListMap<>();
+            for (Map.Entry<String, Long> total : mostCommon) {
+                loaded.put(total.getKey(), new Suggestion(commonestSpellings.get(total.getKey()).value, total.getValue()));
+            }
+            return loaded;
+        }
+    }
+
+    private static class Suggestion {
+        private final String value;
+        private final long count;
+
+        Suggestion(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
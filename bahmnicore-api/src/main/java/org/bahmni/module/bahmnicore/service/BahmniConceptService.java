@@ -12,6 +12,7 @@ public interface BahmniConceptService {
     EncounterTransaction.Concept getConceptByName(String conceptName);
 
     Collection<ConceptAnswer> searchByQuestion(String questionConcept, String query);
+    List<ConceptAnswer> searchByQuestion(String questionConcept, String query, int startIndex, int limit);
     Collection<Drug> getDrugsByConceptSetName(String conceptSetName, String searchTerm);
 
     Concept getConceptByFullySpecifiedName(String drug);
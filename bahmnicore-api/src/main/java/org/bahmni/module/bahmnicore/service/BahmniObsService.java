@@ -1,5 +1,6 @@
 package org.bahmni.module.bahmnicore.service;
 
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeries;
 import org.openmrs.Concept;
 import org.openmrs.Obs;
 import org.openmrs.Order;
@@ -9,9 +10,11 @@ import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniObser
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface BahmniObsService {
     public List<Concept> getNumericConceptsForPerson(String personUUID);
+    public List<NumericObsSeries> getNumericObsSeries(String personUUID, Date startDate, Date endDate, Integer maxPoints);
     public List<Obs> getObsForPerson(String identifier);
 
     public Collection<BahmniObservation> getInitial(String patientUuid, Collection<Concept> conceptNames, Integer numberOfVisits, List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order);
@@ -26,6 +29,10 @@ public interface BahmniObsService {
     public Collection<BahmniObservation> observationsFor(String patientUuid, Concept rootConcept, Concept childConcept, Integer numberOfVisits, Date startDate, Date endDate, String patientProgramUuid);
 
     public Collection<BahmniObservation> getObservationForVisit(String visitUuid, List<String> conceptNames, Collection<Concept> obsIgnoreList, Boolean filterOutOrders, Order order);
+
+    /** Observations of all the given orders fetched in one query, grouped by order id. Orders without observations are absent. */
+    public Map<Integer, Collection<BahmniObservation>> observationsForOrders(String patientUuid, Collection<Concept> concepts, List<String> obsIgnoreList, Collection<Order> orders);
+    public Map<Integer, Collection<BahmniObservation>> getObservationsForVisitOrders(String visitUuid, List<String> conceptNames, Collection<Concept> obsIgnoreList, Collection<Order> orders);
     public Collection<BahmniObservation> getObservationsForEncounter(String encounterUuid, List<String> conceptNames);
     public Collection<BahmniObservation> getObservationsForPatientProgram(String patientProgramUuid, List<String> conceptNames, List<String> obsIgnoreList);
     public Collection<BahmniObservation> getLatestObservationsForPatientProgram(String patientProgramUuid, List<String> conceptNames, List<String> obsIgnoreList);
@@ -7,4 +7,6 @@ import java.util.List;
 
 public interface BahmniOrderSetService {
     List<OrderSet> getOrderSetByQuery(String searchTerm);
+
+    List<OrderSet> getOrderSetByQuery(String searchTerm, int startIndex, int limit);
 }
@@ -3,9 +3,11 @@ package org.bahmni.module.bahmnicore.service;
 import org.bahmni.module.bahmnicore.contract.patient.PatientSearchParameters;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientConfigResponse;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.openmrs.Patient;
 import org.openmrs.RelationshipType;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface BahmniPatientService {
@@ -13,8 +15,12 @@ public interface BahmniPatientService {
 
     public List<PatientResponse> search(PatientSearchParameters searchParameters);
 
+    void search(PatientSearchParameters searchParameters, PatientResponseWriter patientResponseWriter) throws IOException;
+
     List<PatientResponse> luceneSearch(PatientSearchParameters searchParameters);
 
+    void luceneSearch(PatientSearchParameters searchParameters, PatientResponseWriter patientResponseWriter) throws IOException;
+
     public List<Patient> get(String partialIdentifier, boolean shouldMatchExactPatientId);
 
     public List<RelationshipType> getByAIsToB(String aIsToB);
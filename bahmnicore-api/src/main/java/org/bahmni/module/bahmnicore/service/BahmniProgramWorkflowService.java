@@ -3,12 +3,16 @@ package org.bahmni.module.bahmnicore.service;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.BahmniPatientProgram;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.PatientProgramAttribute;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.ProgramAttributeType;
+import org.openmrs.Concept;
 import org.openmrs.Encounter;
+import org.openmrs.Obs;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.ProgramWorkflowService;
+import org.openmrs.util.PrivilegeConstants;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +44,22 @@ public interface BahmniProgramWorkflowService extends ProgramWorkflowService {
     @Authorized({"View Patient Programs"})
     Collection<Encounter> getEncountersByPatientProgramUuid(String patientProgramUuid);
 
+    @Transactional(readOnly = true)
+    @Authorized({"View Patient Programs"})
+    List<Encounter> getEncountersByPatientProgramUuid(String patientProgramUuid, Date startDate, Date endDate, String afterEncounterUuid, Integer limit);
+
+    @Transactional(readOnly = true)
+    @Authorized({"View Patient Programs"})
+    List<Integer> getEncounterIdsByPatientProgramUuid(String patientProgramUuid);
+
+    @Transactional(readOnly = true)
+    @Authorized({"View Patient Programs"})
+    List<String> getEncounterUuidsByPatientProgramUuid(String patientProgramUuid);
+
+    @Transactional(readOnly = true)
+    @Authorized(value = {"View Patient Programs", PrivilegeConstants.GET_OBS}, requireAll = true)
+    List<Obs> getObsByPatientProgramUuid(String patientProgramUuid, Collection<Concept> concepts, Date startDate, Date endDate, String afterObsUuid, Integer limit);
+
     Map<Object, Object> getPatientProgramAttributeByAttributeName(List<Integer> patients, String attributeName);
 
     @Transactional(readOnly = true)
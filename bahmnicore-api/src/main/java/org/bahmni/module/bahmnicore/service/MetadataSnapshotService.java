@@ -0,0 +1,12 @@
+package org.bahmni.module.bahmnicore.service;
+
+import org.bahmni.module.bahmnicore.contract.drugorder.DrugOrderConfigResponse;
+import org.bahmni.module.bahmnicore.contract.encounter.response.EncounterConfigResponse;
+
+public interface MetadataSnapshotService {
+    EncounterConfigResponse getEncounterConfig(String callerContext);
+
+    DrugOrderConfigResponse getDrugOrderConfig();
+
+    void invalidate();
+}
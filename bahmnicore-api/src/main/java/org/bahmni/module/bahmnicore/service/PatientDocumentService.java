@@ -1,11 +1,20 @@
 package org.bahmni.module.bahmnicore.service;
 
+import org.bahmni.module.bahmnicore.document.ThumbnailStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.File;
+
 public interface PatientDocumentService {
     public void saveImage(String patientIdentifier, String image);
     public String saveDocument(Integer patientId, String encounterTypeName, String content, String format, String fileType);
     public ResponseEntity<Object> retriveImage(String patientUuid);
 
+    File getPatientImage(String patientUuid);
+
+    File getDocument(String fileName);
+
     void delete(String fileName);
+
+    ThumbnailStatus getThumbnailStatus(String fileName);
 }
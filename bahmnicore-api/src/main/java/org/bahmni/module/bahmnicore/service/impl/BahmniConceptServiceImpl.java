@@ -1,11 +1,13 @@
 package org.bahmni.module.bahmnicore.service.impl;
 
+import org.bahmni.module.bahmnicore.concept.ConceptAnswerIndex;
 import org.bahmni.module.bahmnicore.dao.BahmniConceptDao;
 import org.bahmni.module.bahmnicore.service.BahmniConceptService;
 import org.openmrs.Concept;
 import org.openmrs.ConceptAnswer;
 import org.openmrs.Drug;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.ConceptMapper;
 import org.openmrs.module.emrapi.encounter.domain.EncounterTransaction;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
@@ -24,11 +26,13 @@ public class BahmniConceptServiceImpl implements BahmniConceptService{
     private ConceptService conceptService;
     private ConceptMapper conceptMapper;
     private BahmniConceptDao bahmniConceptDao;
+    private ConceptAnswerIndex conceptAnswerIndex;
 
     @Autowired
-    public BahmniConceptServiceImpl(ConceptService conceptService, BahmniConceptDao bahmniConceptDao) {
+    public BahmniConceptServiceImpl(ConceptService conceptService, BahmniConceptDao bahmniConceptDao, ConceptAnswerIndex conceptAnswerIndex) {
         this.conceptService = conceptService;
         this.bahmniConceptDao = bahmniConceptDao;
+        this.conceptAnswerIndex = conceptAnswerIndex;
         this.conceptMapper = new ConceptMapper();
     }
 
@@ -45,7 +49,13 @@ public class BahmniConceptServiceImpl implements BahmniConceptService{
     @Override
     @Transactional(readOnly = true)
     public Collection<ConceptAnswer> searchByQuestion(String questionConceptName, String query) {
-        return bahmniConceptDao.searchByQuestion(getConcept(questionConceptName), query);
+        return conceptAnswerIndex.search(getConcept(questionConceptName), query, Context.getLocale());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConceptAnswer> searchByQuestion(String questionConceptName, String query, int startIndex, int limit) {
+        return conceptAnswerIndex.search(getConcept(questionConceptName), query, Context.getLocale(), startIndex, limit);
     }
 
     @Override
@@ -95,33 +95,38 @@ public class BahmniDrugOrderServiceImpl implements BahmniDrugOrderService {
     @Override
     public List<DrugOrder> getInactiveDrugOrders(String patientUuid, Set<Concept> concepts, Set<Concept> drugConceptsToBeExcluded,
                                                  Collection<Encounter> encounters) {
+        return getInactiveDrugOrdersOfEncounters(patientUuid, concepts, drugConceptsToBeExcluded, encounterIds(encounters));
+    }
+
+    private List<DrugOrder> getInactiveDrugOrdersOfEncounters(String patientUuid, Set<Concept> concepts, Set<Concept> drugConceptsToBeExcluded,
+                                                              Collection<Integer> encounterIds) {
         Patient patient = openmrsPatientService.getPatientByUuid(patientUuid);
         CareSetting careSettingByName = orderService.getCareSettingByName(CareSetting.CareSettingType.OUTPATIENT.toString());
         Date asOfDate = new Date();
         List<Order> orders = orderDao.getInactiveOrders(patient, orderService.getOrderTypeByName("Drug order"),
-                careSettingByName, asOfDate, concepts, drugConceptsToBeExcluded, encounters);
+                careSettingByName, asOfDate, concepts, drugConceptsToBeExcluded, encounterIds);
         return mapOrderToDrugOrder(orders);
     }
 
     @Override
     public List<BahmniDrugOrder> getDrugOrders(String patientUuid, Boolean isActive, Set<Concept> drugConceptsToBeFiltered,
                                                Set<Concept> drugConceptsToBeExcluded, String patientProgramUuid) throws ParseException {
-        Collection<Encounter> programEncounters = null;
+        List<Integer> programEncounterIds = null;
         if (patientProgramUuid != null) {
-            programEncounters = bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
-            if(programEncounters.isEmpty()){
+            programEncounterIds = bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(patientProgramUuid);
+            if(programEncounterIds.isEmpty()){
                 return new ArrayList<>();
             }
         }
         List<DrugOrder> drugOrders;
 
         if (isActive == null) {
-            List<Order> orders = getAllDrugOrders(patientUuid, null, drugConceptsToBeFiltered, drugConceptsToBeExcluded, programEncounters);
+            List<Order> orders = getAllDrugOrdersOfEncounters(patientUuid, drugConceptsToBeFiltered, drugConceptsToBeExcluded, programEncounterIds);
             drugOrders = mapOrderToDrugOrder(orders);
         } else if (isActive) {
-            drugOrders = getActiveDrugOrders(patientUuid, new Date(), drugConceptsToBeFiltered, drugConceptsToBeExcluded, null, null, programEncounters);
+            drugOrders = getActiveDrugOrders(patientUuid, new Date(), drugConceptsToBeFiltered, drugConceptsToBeExcluded, null, null, programEncounterIds);
         } else {
-            drugOrders = getInactiveDrugOrders(patientUuid, drugConceptsToBeFiltered, drugConceptsToBeExcluded, programEncounters);
+            drugOrders = getInactiveDrugOrdersOfEncounters(patientUuid, drugConceptsToBeFiltered, drugConceptsToBeExcluded, programEncounterIds);
         }
 
         Map<String, DrugOrder> discontinuedDrugOrderMap = getDiscontinuedDrugOrders(drugOrders);
@@ -158,12 +163,29 @@ public class BahmniDrugOrderServiceImpl implements BahmniDrugOrderService {
     @Override
     public List<Order> getAllDrugOrders(String patientUuid, String patientProgramUuid, Set<Concept> conceptsForDrugs,
                                         Set<Concept> drugConceptsToBeExcluded, Collection<Encounter> encounters) throws ParseException {
-        Patient patientByUuid = openmrsPatientService.getPatientByUuid(patientUuid);
-        OrderType orderTypeByUuid = orderService.getOrderTypeByUuid(OrderType.DRUG_ORDER_TYPE_UUID);
         if (patientProgramUuid != null) {
+            OrderType orderTypeByUuid = orderService.getOrderTypeByUuid(OrderType.DRUG_ORDER_TYPE_UUID);
             return orderDao.getOrdersByPatientProgram(patientProgramUuid, orderTypeByUuid, conceptsForDrugs);
         }
-        return orderDao.getAllOrders(patientByUuid, orderTypeByUuid, conceptsForDrugs, drugConceptsToBeExcluded, encounters);
+        return getAllDrugOrdersOfEncounters(patientUuid, conceptsForDrugs, drugConceptsToBeExcluded, encounterIds(encounters));
+    }
+
+    private List<Order> getAllDrugOrdersOfEncounters(String patientUuid, Set<Concept> conceptsForDrugs,
+                                                     Set<Concept> drugConceptsToBeExcluded, Collection<Integer> encounterIds) {
+        Patient patientByUuid = openmrsPatientService.getPatientByUuid(patientUuid);
+        OrderType orderTypeByUuid = orderService.getOrderTypeByUuid(OrderType.DRUG_ORDER_TYPE_UUID);
+        return orderDao.getAllOrders(patientByUuid, orderTypeByUuid, conceptsForDrugs, drugConceptsToBeExcluded, encounterIds);
+    }
+
+    private List<Integer> encounterIds(Collection<Encounter> encounters) {
+        if (encounters == null) {
+            return null;
+        }
+        List<Integer> encounterIds = new ArrayList<>();
+        for (Encounter encounter : encounters) {
+            encounterIds.add(encounter.getEncounterId());
+        }
+        return encounterIds;
     }
 
     private List<EncounterTransaction.Concept> fetchOrderAttributeConcepts() {
@@ -201,11 +223,11 @@ public class BahmniDrugOrderServiceImpl implements BahmniDrugOrderService {
 
 
     private List<DrugOrder> getActiveDrugOrders(String patientUuid, Date asOfDate, Set<Concept> conceptsToFilter,
-                                                Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Encounter> encounters) {
+                                                Set<Concept> conceptsToExclude, Date startDate, Date endDate, Collection<Integer> encounterIds) {
         Patient patient = openmrsPatientService.getPatientByUuid(patientUuid);
         CareSetting careSettingByName = orderService.getCareSettingByName(CareSetting.CareSettingType.OUTPATIENT.toString());
         List<Order> orders = orderDao.getActiveOrders(patient, orderService.getOrderTypeByName("Drug order"),
-                careSettingByName, asOfDate, conceptsToFilter, conceptsToExclude, startDate, endDate, encounters);
+                careSettingByName, asOfDate, conceptsToFilter, conceptsToExclude, startDate, endDate, encounterIds);
         return mapOrderToDrugOrder(orders);
     }
 
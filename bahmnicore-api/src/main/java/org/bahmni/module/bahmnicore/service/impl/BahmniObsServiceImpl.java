@@ -6,11 +6,13 @@ import org.bahmni.module.bahmnicore.dao.ObsDao;
 import org.bahmni.module.bahmnicore.dao.VisitDao;
 import org.bahmni.module.bahmnicore.dao.impl.ObsDaoImpl;
 import org.bahmni.module.bahmnicore.dao.impl.ObsDaoImpl.OrderBy;
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCache;
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeries;
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeriesStore;
 import org.bahmni.module.bahmnicore.service.BahmniObsService;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.bahmni.module.bahmnicore.util.MiscUtils;
 import org.openmrs.Concept;
-import org.openmrs.Encounter;
 import org.openmrs.Obs;
 import org.openmrs.Order;
 import org.openmrs.Person;
@@ -35,9 +37,11 @@ public class BahmniObsServiceImpl implements BahmniObsService {
     private ConceptService conceptService;
     private BahmniProgramWorkflowService programWorkflowService;
     private ObsService obsService;
+    private ObsReadCache obsReadCache;
+    private NumericObsSeriesStore numericObsSeriesStore;
 
     @Autowired
-    public BahmniObsServiceImpl(ObsDao obsDao, OMRSObsToBahmniObsMapper omrsObsToBahmniObsMapper, VisitService visitService, ConceptService conceptService, VisitDao visitDao, BahmniProgramWorkflowService programWorkflowService, ObsService obsService) {
+    public BahmniObsServiceImpl(ObsDao obsDao, OMRSObsToBahmniObsMapper omrsObsToBahmniObsMapper, VisitService visitService, ConceptService conceptService, VisitDao visitDao, BahmniProgramWorkflowService programWorkflowService, ObsService obsService, ObsReadCache obsReadCache, NumericObsSeriesStore numericObsSeriesStore) {
         this.obsDao = obsDao;
         this.omrsObsToBahmniObsMapper = omrsObsToBahmniObsMapper;
         this.visitService = visitService;
@@ -45,6 +49,8 @@ public class BahmniObsServiceImpl implements BahmniObsService {
         this.visitDao = visitDao;
         this.programWorkflowService = programWorkflowService;
         this.obsService = obsService;
+        this.obsReadCache = obsReadCache;
+        this.numericObsSeriesStore = numericObsSeriesStore;
     }
 
     @Override
@@ -55,6 +61,13 @@ public class BahmniObsServiceImpl implements BahmniObsService {
     @Override
     public Collection<BahmniObservation> observationsFor(String patientUuid, Collection<Concept> concepts, Integer numberOfVisits,
                                                          List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order, Date startDate, Date endDate) {
+        return obsReadCache.get(patientUuid, "observationsFor",
+                new Object[]{concepts, numberOfVisits, obsIgnoreList, filterOutOrderObs, order, startDate, endDate},
+                () -> loadObservations(patientUuid, concepts, numberOfVisits, obsIgnoreList, filterOutOrderObs, order, startDate, endDate));
+    }
+
+    private Collection<BahmniObservation> loadObservations(String patientUuid, Collection<Concept> concepts, Integer numberOfVisits,
+                                                           List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order, Date startDate, Date endDate) {
         if (CollectionUtils.isNotEmpty(concepts)) {
             List<String> conceptNames = getConceptNames(concepts);
 
@@ -76,16 +89,23 @@ public class BahmniObsServiceImpl implements BahmniObsService {
 
     @Override
     public Collection<BahmniObservation> observationsFor(String patientUuid, Concept rootConcept, Concept childConcept, Integer numberOfVisits, Date startDate, Date endDate, String patientProgramUuid) {
-        Collection<Encounter> encounters = programWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
-        if (programDoesNotHaveEncounters(patientProgramUuid, encounters)) return Collections.EMPTY_LIST;
+        List<Integer> encounterIds = getProgramEncounterIds(patientProgramUuid);
+        if (programDoesNotHaveEncounters(patientProgramUuid, encounterIds)) return Collections.EMPTY_LIST;
 
-        List<Obs> observations = obsDao.getObsFor(patientUuid, rootConcept, childConcept, visitDao.getVisitIdsFor(patientUuid, numberOfVisits), encounters, startDate, endDate);
+        List<Obs> observations = obsDao.getObsFor(patientUuid, rootConcept, childConcept, visitDao.getVisitIdsFor(patientUuid, numberOfVisits), encounterIds, startDate, endDate);
 
         return convertToBahmniObservation(observations);
     }
 
-    private boolean programDoesNotHaveEncounters(String patientProgramUuid, Collection<Encounter> encounters) {
-        return StringUtils.isNotEmpty(patientProgramUuid) && encounters.size() == 0;
+    private List<Integer> getProgramEncounterIds(String patientProgramUuid) {
+        if (StringUtils.isEmpty(patientProgramUuid)) {
+            return new ArrayList<>();
+        }
+        return programWorkflowService.getEncounterIdsByPatientProgramUuid(patientProgramUuid);
+    }
+
+    private boolean programDoesNotHaveEncounters(String patientProgramUuid, List<Integer> encounterIds) {
+        return StringUtils.isNotEmpty(patientProgramUuid) && encounterIds.size() == 0;
     }
 
     private List<BahmniObservation> convertToBahmniObservation(List<Obs> observations) {
@@ -142,6 +162,13 @@ public class BahmniObsServiceImpl implements BahmniObsService {
     @Override
     public Collection<BahmniObservation> getLatest(String patientUuid, Collection<Concept> concepts, Integer numberOfVisits, List<String> obsIgnoreList,
                                                    Boolean filterOutOrderObs, Order order) {
+        return obsReadCache.get(patientUuid, "getLatest",
+                new Object[]{concepts, numberOfVisits, obsIgnoreList, filterOutOrderObs, order},
+                () -> loadLatest(patientUuid, concepts, numberOfVisits, obsIgnoreList, filterOutOrderObs, order));
+    }
+
+    private Collection<BahmniObservation> loadLatest(String patientUuid, Collection<Concept> concepts, Integer numberOfVisits, List<String> obsIgnoreList,
+                                                     Boolean filterOutOrderObs, Order order) {
         List<Obs> latestObs = new ArrayList<>();
         if (concepts == null)
             return new ArrayList<>();
@@ -170,6 +197,13 @@ public class BahmniObsServiceImpl implements BahmniObsService {
     @Override
     public Collection<BahmniObservation> getInitial(String patientUuid, Collection<Concept> conceptNames,
                                                     Integer numberOfVisits, List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order) {
+        return obsReadCache.get(patientUuid, "getInitial",
+                new Object[]{conceptNames, numberOfVisits, obsIgnoreList, filterOutOrderObs, order},
+                () -> loadInitial(patientUuid, conceptNames, numberOfVisits, obsIgnoreList, filterOutOrderObs, order));
+    }
+
+    private Collection<BahmniObservation> loadInitial(String patientUuid, Collection<Concept> conceptNames,
+                                                      Integer numberOfVisits, List<String> obsIgnoreList, Boolean filterOutOrderObs, Order order) {
         List<Obs> latestObs = new ArrayList<>();
         for (Concept concept : conceptNames) {
             latestObs.addAll(obsDao.getObsByPatientAndVisit(patientUuid, Arrays.asList(concept.getName().getName()),
@@ -193,7 +227,19 @@ public class BahmniObsServiceImpl implements BahmniObsService {
 
     @Override
     public List<Concept> getNumericConceptsForPerson(String personUUID) {
-        return obsDao.getNumericConceptsForPerson(personUUID);
+        List<Concept> concepts = new ArrayList<>();
+        for (Integer conceptId : numericObsSeriesStore.getConceptIds(personUUID)) {
+            Concept concept = conceptService.getConcept(conceptId);
+            if (concept != null) {
+                concepts.add(concept);
+            }
+        }
+        return concepts;
+    }
+
+    @Override
+    public List<NumericObsSeries> getNumericObsSeries(String personUUID, Date startDate, Date endDate, Integer maxPoints) {
+        return numericObsSeriesStore.getSeries(personUUID, startDate, endDate, maxPoints);
     }
 
     @Override
@@ -213,6 +259,50 @@ public class BahmniObsServiceImpl implements BahmniObsService {
         return omrsObsToBahmniObsMapper.map(observations, null);
     }
 
+    @Override
+    public Map<Integer, Collection<BahmniObservation>> observationsForOrders(String patientUuid, Collection<Concept> concepts, List<String> obsIgnoreList, Collection<Order> orders) {
+        Map<Integer, Collection<BahmniObservation>> observationsByOrder = new HashMap<>();
+        if (CollectionUtils.isEmpty(concepts) || CollectionUtils.isEmpty(orders)) {
+            return observationsByOrder;
+        }
+        List<Obs> observations = obsDao.getObsByPatientAndOrders(patientUuid, getConceptNames(concepts), obsIgnoreList, orders);
+        for (Map.Entry<Integer, List<Obs>> orderObservations : groupByOrder(observations).entrySet()) {
+            observationsByOrder.put(orderObservations.getKey(),
+                    omrsObsToBahmniObsMapper.map(filterIgnoredObs(obsIgnoreList, orderObservations.getValue()), concepts));
+        }
+        return observationsByOrder;
+    }
+
+    @Override
+    public Map<Integer, Collection<BahmniObservation>> getObservationsForVisitOrders(String visitUuid, List<String> conceptNames, Collection<Concept> obsIgnoreList, Collection<Order> orders) {
+        Map<Integer, Collection<BahmniObservation>> observationsByOrder = new HashMap<>();
+        if (CollectionUtils.isEmpty(orders)) {
+            return observationsByOrder;
+        }
+        Visit visit = visitService.getVisitByUuid(visitUuid);
+        List<Obs> observations = obsDao.getObsForVisitAndOrders(Collections.singletonList((Person) visit.getPatient()), new ArrayList<>(visit.getEncounters()),
+                MiscUtils.getConceptsForNames(conceptNames, conceptService), obsIgnoreList, orders);
+        for (Map.Entry<Integer, List<Obs>> orderObservations : groupByOrder(observations).entrySet()) {
+            List<Obs> topLevelObservations = getObsAtTopLevelAndApplyIgnoreList(orderObservations.getValue(), conceptNames, obsIgnoreList);
+            observationsByOrder.put(orderObservations.getKey(), omrsObsToBahmniObsMapper.map(topLevelObservations, null));
+        }
+        return observationsByOrder;
+    }
+
+    private Map<Integer, List<Obs>> groupByOrder(List<Obs> observations) {
+        Map<Integer, List<Obs>> observationsByOrder = new LinkedHashMap<>();
+        for (Obs observation : observations) {
+            Integer orderId = observation.getOrder().getOrderId();
+            List<Obs> orderObservations = observationsByOrder.get(orderId);
+            if (orderObservations == null) {
+                orderObservations = new ArrayList<>();
+                observationsByOrder.put(orderId, orderObservations);
+            }
+            orderObservations.add(observation);
+        }
+        return observationsByOrder;
+    }
+
     @Override
     public Collection<BahmniObservation> getObservationsForEncounter(String encounterUuid, List<String> conceptNames) {
         List<Obs> observations = obsDao.getObsForConceptsByEncounter(encounterUuid, conceptNames);
@@ -277,12 +367,19 @@ public class BahmniObsServiceImpl implements BahmniObsService {
     @Override
     public Collection<BahmniObservation> getObsForFormBuilderForms(String patientUuid, List<String> formNames,
                                                                    Integer numberOfVisits, Date startDate, Date endDate, String patientProgramUuid) {
-        Collection<Encounter> encounters = programWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
-        if (programDoesNotHaveEncounters(patientProgramUuid, encounters)) {
+        return obsReadCache.get(patientUuid, "getObsForFormBuilderForms",
+                new Object[]{formNames, numberOfVisits, startDate, endDate, patientProgramUuid},
+                () -> loadObsForFormBuilderForms(patientUuid, formNames, numberOfVisits, startDate, endDate, patientProgramUuid));
+    }
+
+    private Collection<BahmniObservation> loadObsForFormBuilderForms(String patientUuid, List<String> formNames,
+                                                                     Integer numberOfVisits, Date startDate, Date endDate, String patientProgramUuid) {
+        List<Integer> encounterIds = getProgramEncounterIds(patientProgramUuid);
+        if (programDoesNotHaveEncounters(patientProgramUuid, encounterIds)) {
             return Collections.EMPTY_LIST;
         }
         List<Obs> obsList = obsDao.getObsForFormBuilderForms(patientUuid, formNames,
-                visitDao.getVisitIdsFor(patientUuid, numberOfVisits), encounters, startDate, endDate);
+                visitDao.getVisitIdsFor(patientUuid, numberOfVisits), encounterIds, startDate, endDate);
         return convertToBahmniObservation(obsList);
     }
 
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 
 @Service
@@ -42,9 +43,9 @@ public class BahmniOrderServiceImpl implements BahmniOrderService {
             orders = orderService.getAllOrdersForVisits(patientUuid, orderTypeUuid, numberOfVisits);
         }
 
+        Map<Integer, Collection<BahmniObservation>> observationsByOrder = bahmniObsService.observationsForOrders(patientUuid, concepts, obsIgnoreList, orders);
         for (Order order : orders) {
-            Collection<BahmniObservation> obs = bahmniObsService.observationsFor(patientUuid, concepts, null, obsIgnoreList, false, order, null, null);
-            BahmniOrder bahmniOrder = createBahmniOrder(order, obs, includeObs);
+            BahmniOrder bahmniOrder = createBahmniOrder(order, observationsOf(order, observationsByOrder), includeObs);
 
             bahmniOrders.add(bahmniOrder);
         }
@@ -65,9 +66,9 @@ public class BahmniOrderServiceImpl implements BahmniOrderService {
     public List<BahmniOrder> ordersForVisit(String visitUuid, String orderTypeUuid, List<String> conceptNames, List<Concept> obsIgnoreList) {
         List<Order> orders = orderService.getAllOrdersForVisitUuid(visitUuid, orderTypeUuid);
         List<BahmniOrder> bahmniOrders = new ArrayList<>();
+        Map<Integer, Collection<BahmniObservation>> observationsByOrder = bahmniObsService.getObservationsForVisitOrders(visitUuid, conceptNames, obsIgnoreList, orders);
         for (Order order : orders) {
-            Collection<BahmniObservation> observations = bahmniObsService.getObservationForVisit(visitUuid, conceptNames, obsIgnoreList, false, order);
-            BahmniOrder bahmniOrder = createBahmniOrder(order, observations, true);
+            BahmniOrder bahmniOrder = createBahmniOrder(order, observationsOf(order, observationsByOrder), true);
             bahmniOrders.add(bahmniOrder);
         }
         return bahmniOrders;
@@ -78,6 +79,11 @@ public class BahmniOrderServiceImpl implements BahmniOrderService {
         return orderService.getChildOrder(order);
     }
 
+    private Collection<BahmniObservation> observationsOf(Order order, Map<Integer, Collection<BahmniObservation>> observationsByOrder) {
+        Collection<BahmniObservation> observations = observationsByOrder.get(order.getOrderId());
+        return observations == null ? new ArrayList<BahmniObservation>() : observations;
+    }
+
     private BahmniOrder createBahmniOrder(Order order, Collection<BahmniObservation> bahmniObservations, boolean includeObs){
         BahmniOrder bahmniOrder = new BahmniOrder();
 
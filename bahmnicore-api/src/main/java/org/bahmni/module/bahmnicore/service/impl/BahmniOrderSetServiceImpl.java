@@ -1,28 +1,58 @@
 package org.bahmni.module.bahmnicore.service.impl;
 
 import org.bahmni.module.bahmnicore.dao.BahmniOrderSetDao;
+import org.bahmni.module.bahmnicore.orderset.OrderSetSearchIndex;
 import org.bahmni.module.bahmnicore.service.BahmniOrderSetService;
 import org.openmrs.OrderSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @Transactional
 public class BahmniOrderSetServiceImpl implements BahmniOrderSetService {
 
     private  BahmniOrderSetDao bahmniOrderSetDao;
+    private OrderSetSearchIndex orderSetSearchIndex;
 
     @Autowired
-    public BahmniOrderSetServiceImpl(BahmniOrderSetDao bahmniOrderSetDao) {
+    public BahmniOrderSetServiceImpl(BahmniOrderSetDao bahmniOrderSetDao, OrderSetSearchIndex orderSetSearchIndex) {
         this.bahmniOrderSetDao = bahmniOrderSetDao;
+        this.orderSetSearchIndex = orderSetSearchIndex;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderSet> getOrderSetByQuery(String searchTerm) {
-        return bahmniOrderSetDao.getOrderSetByQuery(searchTerm);
+        return hydrate(orderSetSearchIndex.search(searchTerm));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSet> getOrderSetByQuery(String searchTerm, int startIndex, int limit) {
+        List<Integer> orderSetIds = orderSetSearchIndex.search(searchTerm);
+        int fromIndex = Math.min(Math.max(startIndex, 0), orderSetIds.size());
+        int toIndex = Math.min(fromIndex + Math.max(limit, 0), orderSetIds.size());
+        return hydrate(orderSetIds.subList(fromIndex, toIndex));
+    }
+
+    private List<OrderSet> hydrate(List<Integer> orderSetIds) {
+        Map<Integer, OrderSet> orderSetsById = new HashMap<>();
+        for (OrderSet orderSet : bahmniOrderSetDao.getOrderSetsByIds(orderSetIds)) {
+            orderSetsById.put(orderSet.getOrderSetId(), orderSet);
+        }
+        List<OrderSet> orderSets = new ArrayList<>(orderSetIds.size());
+        for (Integer orderSetId : orderSetIds) {
+            OrderSet orderSet = orderSetsById.get(orderSetId);
+            if (orderSet != null) {
+                orderSets.add(orderSet);
+            }
+        }
+        return orderSets;
     }
 }
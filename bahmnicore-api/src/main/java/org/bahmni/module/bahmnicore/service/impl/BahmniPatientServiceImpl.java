@@ -3,6 +3,7 @@ package org.bahmni.module.bahmnicore.service.impl;
 import org.bahmni.module.bahmnicore.contract.patient.PatientSearchParameters;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientConfigResponse;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.bahmni.module.bahmnicore.dao.PatientDao;
 import org.bahmni.module.bahmnicore.service.BahmniPatientService;
 import org.openmrs.Concept;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.List;
 
 @Service
@@ -65,6 +67,25 @@ public class BahmniPatientServiceImpl implements BahmniPatientService {
                 searchParameters.getFilterPatientsByLocation(), searchParameters.getFilterOnAllIdentifiers());
     }
 
+    @Override
+    public void search(PatientSearchParameters searchParameters, PatientResponseWriter patientResponseWriter) throws IOException {
+        patientDao.writePatients(searchParameters.getIdentifier(),
+                searchParameters.getName(),
+                searchParameters.getCustomAttribute(),
+                searchParameters.getAddressFieldName(),
+                searchParameters.getAddressFieldValue(),
+                searchParameters.getLength(),
+                searchParameters.getStart(),
+                searchParameters.getPatientAttributes(),
+                searchParameters.getProgramAttributeFieldValue(),
+                searchParameters.getProgramAttributeFieldName(),
+                searchParameters.getAddressSearchResultFields(),
+                searchParameters.getPatientSearchResultFields(),
+                searchParameters.getLoginLocationUuid(),
+                searchParameters.getFilterPatientsByLocation(), searchParameters.getFilterOnAllIdentifiers(),
+                patientResponseWriter);
+    }
+
     @Override
     public List<PatientResponse> luceneSearch(PatientSearchParameters searchParameters) {
         return patientDao.getPatientsUsingLuceneSearch(searchParameters.getIdentifier(),
@@ -83,6 +104,16 @@ public class BahmniPatientServiceImpl implements BahmniPatientService {
                 searchParameters.getFilterPatientsByLocation(), searchParameters.getFilterOnAllIdentifiers());
     }
 
+    @Override
+    public void luceneSearch(PatientSearchParameters searchParameters, PatientResponseWriter patientResponseWriter) throws IOException {
+        List<PatientResponse> patients = luceneSearch(searchParameters);
+        patientResponseWriter.writeStart();
+        for (PatientResponse patient : patients) {
+            patientResponseWriter.write(patient);
+        }
+        patientResponseWriter.writeEnd();
+    }
+
     @Override
     public List<Patient> get(String partialIdentifier, boolean shouldMatchExactPatientId) {
         return patientDao.getPatients(partialIdentifier, shouldMatchExactPatientId);
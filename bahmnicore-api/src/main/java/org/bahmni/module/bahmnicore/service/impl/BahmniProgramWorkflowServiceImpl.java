@@ -2,12 +2,15 @@ package org.bahmni.module.bahmnicore.service.impl;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.bahmni.module.bahmnicore.dao.BahmniProgramWorkflowDAO;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.BahmniPatientProgram;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.PatientProgramAttribute;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.ProgramAttributeType;
 import org.bahmni.module.bahmnicore.service.BahmniProgramServiceValidator;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
+import org.openmrs.Concept;
 import org.openmrs.Encounter;
+import org.openmrs.Obs;
 import org.openmrs.PatientProgram;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.ProgramWorkflowServiceImpl;
@@ -17,7 +20,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,8 @@ public class BahmniProgramWorkflowServiceImpl extends ProgramWorkflowServiceImpl
     @Autowired
     private EpisodeService episodeService;
     @Autowired
+    private EpisodeDao episodeDao;
+    @Autowired
     private List<BahmniProgramServiceValidator> bahmniProgramServiceValidators;
 
     public BahmniProgramWorkflowServiceImpl(BahmniProgramWorkflowDAO programWorkflowDAO, EpisodeService episodeService) {
@@ -35,6 +39,11 @@ public class BahmniProgramWorkflowServiceImpl extends ProgramWorkflowServiceImpl
         this.dao = programWorkflowDAO;
     }
 
+    public BahmniProgramWorkflowServiceImpl(BahmniProgramWorkflowDAO programWorkflowDAO, EpisodeService episodeService, EpisodeDao episodeDao) {
+        this(programWorkflowDAO, episodeService);
+        this.episodeDao = episodeDao;
+    }
+
     //Default constructor to satisfy Spring
     public BahmniProgramWorkflowServiceImpl() {
     }
@@ -71,9 +80,27 @@ public class BahmniProgramWorkflowServiceImpl extends ProgramWorkflowServiceImpl
 
     @Override
     public Collection<Encounter> getEncountersByPatientProgramUuid(String patientProgramUuid) {
-        PatientProgram patientProgram = dao.getPatientProgramByUuid(patientProgramUuid);
-        Episode episode = episodeService.getEpisodeForPatientProgram(patientProgram);
-        return episode == null ? Collections.EMPTY_LIST : episode.getEncounters();
+        return getEncountersByPatientProgramUuid(patientProgramUuid, null, null, null, null);
+    }
+
+    @Override
+    public List<Encounter> getEncountersByPatientProgramUuid(String patientProgramUuid, Date startDate, Date endDate, String afterEncounterUuid, Integer limit) {
+        return episodeDao.getEncountersInPatientProgram(patientProgramUuid, startDate, endDate, afterEncounterUuid, limit);
+    }
+
+    @Override
+    public List<Integer> getEncounterIdsByPatientProgramUuid(String patientProgramUuid) {
+        return episodeDao.getEncounterIdsInPatientProgram(patientProgramUuid);
+    }
+
+    @Override
+    public List<String> getEncounterUuidsByPatientProgramUuid(String patientProgramUuid) {
+        return episodeDao.getEncounterUuidsInPatientProgram(patientProgramUuid);
+    }
+
+    @Override
+    public List<Obs> getObsByPatientProgramUuid(String patientProgramUuid, Collection<Concept> concepts, Date startDate, Date endDate, String afterObsUuid, Integer limit) {
+        return episodeDao.getObsInPatientProgram(patientProgramUuid, concepts, startDate, endDate, afterObsUuid, limit);
     }
 
     @Override
@@ -0,0 +1,120 @@
+package org.bahmni.module.bahmnicore.service.impl;
+
+import org.apache.log4j.Logger;
+import org.bahmni.module.bahmnicore.contract.drugorder.DrugOrderConfigResponse;
+import org.bahmni.module.bahmnicore.contract.encounter.data.ConceptData;
+import org.bahmni.module.bahmnicore.contract.encounter.response.EncounterConfigResponse;
+import org.bahmni.module.bahmnicore.service.BahmniDrugOrderService;
+import org.bahmni.module.bahmnicore.service.MetadataSnapshotService;
+import org.openmrs.Concept;
+import org.openmrs.EncounterType;
+import org.openmrs.OrderType;
+import org.openmrs.VisitType;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.OrderService;
+import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the encounter and drug order configuration responses from memory. Both are built on first use per
+ * caller context and locale, and thrown away when {@link org.bahmni.module.bahmnicore.advice.MetadataSnapshotInvalidationAdvice}
+ * sees visit types, encounter types, order types, order frequencies, concepts or global properties change.
+ */
+@Service
+public class MetadataSnapshotServiceImpl implements MetadataSnapshotService {
+    private static Logger logger = Logger.getLogger(MetadataSnapshotServiceImpl.class);
+
+    private VisitService visitService;
+    private EncounterService encounterService;
+    private ConceptService conceptService;
+    private OrderService orderService;
+    private BahmniDrugOrderService drugOrderService;
+
+    private final Map<String, EncounterConfigResponse> encounterConfigs = new ConcurrentHashMap<>();
+    private final Map<Locale, DrugOrderConfigResponse> drugOrderConfigs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetadataSnapshotServiceImpl(VisitService visitService, EncounterService encounterService, ConceptService conceptService,
+                                       OrderService orderService, BahmniDrugOrderService drugOrderService) {
+        this.visitService = visitService;
+        this.encounterService = encounterService;
+        this.conceptService = conceptService;
+        this.orderService = orderService;
+        this.drugOrderService = drugOrderService;
+    }
+
+    @Override
+    public EncounterConfigResponse getEncounterConfig(String callerContext) {
+        String key = Context.getLocale() + "/" + callerContext;
+        EncounterConfigResponse encounterConfig = encounterConfigs.get(key);
+        if (encounterConfig == null) {
+            synchronized (this) {
+                encounterConfig = encounterConfigs.get(key);
+                if (encounterConfig == null) {
+                    logger.info("Building encounter config snapshot for " + key);
+                    encounterConfig = buildEncounterConfig(callerContext);
+                    encounterConfigs.put(key, encounterConfig);
+                }
+            }
+        }
+        return encounterConfig;
+    }
+
+    @Override
+    public DrugOrderConfigResponse getDrugOrderConfig() {
+        Locale locale = Context.getLocale();
+        DrugOrderConfigResponse drugOrderConfig = drugOrderConfigs.get(locale);
+        if (drugOrderConfig == null) {
+            synchronized (this) {
+                drugOrderConfig = drugOrderConfigs.get(locale);
+                if (drugOrderConfig == null) {
+                    logger.info("Building drug order config snapshot for " + locale);
+                    drugOrderConfig = drugOrderService.getConfig();
+                    drugOrderConfigs.put(locale, drugOrderConfig);
+                }
+            }
+        }
+        return drugOrderConfig;
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        encounterConfigs.clear();
+        drugOrderConfigs.clear();
+    }
+
+    private EncounterConfigResponse buildEncounterConfig(String callerContext) {
+        EncounterConfigResponse encounterConfigResponse = new EncounterConfigResponse();
+        List<VisitType> visitTypes = visitService.getAllVisitTypes();
+        for (VisitType visitType : visitTypes) {
+            if (!visitType.isRetired()) {
+                encounterConfigResponse.addVisitType(visitType.getName(), visitType.getUuid());
+            }
+        }
+        List<EncounterType> allEncounterTypes = encounterService.getAllEncounterTypes(false);
+        for (EncounterType encounterType : allEncounterTypes) {
+            encounterConfigResponse.addEncounterType(encounterType.getName(), encounterType.getUuid());
+        }
+        Concept conceptSetConcept = conceptService.getConcept(callerContext);
+        if (conceptSetConcept != null) {
+            List<Concept> conceptsByConceptSet = conceptService.getConceptsByConceptSet(conceptSetConcept);
+            for (Concept concept : conceptsByConceptSet) {
+                String conceptName = concept.getName().getName();
+                encounterConfigResponse.addConcept(conceptName, new ConceptData(concept.getUuid(), conceptName));
+            }
+        }
+        List<OrderType> orderTypes = orderService.getOrderTypes(true);
+        for (OrderType orderType : orderTypes) {
+            encounterConfigResponse.addOrderType(orderType.getName(), orderType.getUuid());
+        }
+        return encounterConfigResponse;
+    }
+}
@@ -2,18 +2,17 @@ package org.bahmni.module.bahmnicore.service.impl;
 
 import liquibase.util.file.FilenameUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.bahmni.module.bahmnicore.BahmniCoreException;
 import org.bahmni.module.bahmnicore.bahmniexceptions.FileTypeNotSupportedException;
 import org.bahmni.module.bahmnicore.bahmniexceptions.VideoFormatNotSupportedException;
+import org.bahmni.module.bahmnicore.document.ThumbnailStatus;
+import org.bahmni.module.bahmnicore.document.ThumbnailWorker;
 import org.bahmni.module.bahmnicore.model.VideoFormats;
 import org.bahmni.module.bahmnicore.properties.BahmniCoreProperties;
 import org.bahmni.module.bahmnicore.service.PatientDocumentService;
-import org.bahmni.module.bahmnicore.service.ThumbnailGenerator;
-import org.imgscalr.Scalr;
-import org.jcodec.common.model.Picture;
-import org.jcodec.scale.AWTUtil;
 import org.openmrs.module.webservices.rest.web.RestUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -22,12 +21,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
-import javax.xml.bind.DatatypeConverter;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -40,12 +44,12 @@ public class PatientDocumentServiceImpl implements PatientDocumentService {
     private final String VIDEO_FILE_TYPE = "video";
     private final String IMAGE_FILE_TYPE = "image";
 
-    protected void setThumbnailGenerators(List<ThumbnailGenerator> thumbnailGenerators) {
-        this.thumbnailGenerators = thumbnailGenerators;
+    protected void setThumbnailWorker(ThumbnailWorker thumbnailWorker) {
+        this.thumbnailWorker = thumbnailWorker;
     }
 
     @Autowired
-    List<ThumbnailGenerator> thumbnailGenerators;
+    ThumbnailWorker thumbnailWorker;
 
 
 
@@ -55,7 +59,7 @@ public class PatientDocumentServiceImpl implements PatientDocumentService {
             if (image == null || image.isEmpty()) return;
 
             File outputFile = new File(String.format("%s/%s.%s", BahmniCoreProperties.getProperty("bahmnicore.images.directory"), patientIdentifier, patientImagesFormat));
-            saveDocumentInFile(image, patientImagesFormat, outputFile, "image");
+            savePatientImageInFile(image, outputFile);
         } catch (IOException e) {
             throw new BahmniCoreException("[%s] : Could not save patient image", e);
         }
@@ -106,68 +110,107 @@ public class PatientDocumentServiceImpl implements PatientDocumentService {
 
     private void saveDocumentInFile(String content, String format, File outputFile, String fileType) throws IOException {
         log.info(String.format("Creating patient document of format %s at %s", format, outputFile));
-        byte[] decodedBytes = DatatypeConverter.parseBase64Binary(content);
         if (VIDEO_FILE_TYPE.equals(fileType)) {
             if (!isVideoFormatSupported(format)) {
                 throw new VideoFormatNotSupportedException(String.format("The video format '%s' is not supported. Supported formats are %s", format, Arrays.toString(VideoFormats.values())));
             }
 
-            FileUtils.writeByteArrayToFile(outputFile, decodedBytes);
-            createAndSaveThumbnailForVideo(outputFile, format);
+            writeDecodedContent(content, outputFile);
+            thumbnailWorker.enqueue(outputFile, fileType, format);
 
         } else if (PDF.equals(format)) {
-            FileUtils.writeByteArrayToFile(outputFile, decodedBytes);
+            writeDecodedContent(content, outputFile);
         } else if (IMAGE_FILE_TYPE.equals(fileType)){
-            try {
-                BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(decodedBytes));
-                boolean results = ImageIO.write(bufferedImage, format, outputFile);
-                if(!results) {
-                    throw new FileTypeNotSupportedException(String.format("The image format '%s' is not supported. Supported formats are %s", format, Arrays.toString(new String[]{"png", "jpeg", "gif"})));
-                }
-                saveThumbnail(bufferedImage, outputFile, null, 100);
-                bufferedImage.flush();
-                log.info(String.format("Successfully created patient image at %s", outputFile));
-            } catch (Exception exception) {
-                throw new FileTypeNotSupportedException(String.format("The image format '%s' is not supported. Supported formats are %s", format, Arrays.toString(new String[]{"png", "jpeg", "gif"})));
+            if (!isImageFormatSupported(format)) {
+                throw imageFormatNotSupported(format);
+            }
+            writeDecodedContent(content, outputFile);
+            if (!isReadableImage(outputFile, format)) {
+                FileUtils.deleteQuietly(outputFile);
+                throw imageFormatNotSupported(format);
             }
+            thumbnailWorker.enqueue(outputFile, fileType, format);
+            log.info(String.format("Successfully created patient image at %s", outputFile));
         } else {
             throw new FileTypeNotSupportedException(String.format("The file type is not supported. Supported types are %s/%s/%s", IMAGE_FILE_TYPE, VIDEO_FILE_TYPE, PDF));
         }
     }
 
-    private boolean isVideoFormatSupported(String format) {
-        return VideoFormats.isFormatSupported(format);
+    //Patient images are always served as patientImagesFormat, whatever format the client captured them in
+    private void savePatientImageInFile(String content, File outputFile) throws IOException {
+        log.info(String.format("Creating patient image at %s", outputFile));
+        BufferedImage image;
+        try (InputStream decodedContent = decode(content)) {
+            image = ImageIO.read(decodedContent);
+        }
+        if (image == null) {
+            throw imageFormatNotSupported(patientImagesFormat);
+        }
+        BufferedImage opaqueImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = opaqueImage.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        outputFile.getParentFile().mkdirs();
+        if (!ImageIO.write(opaqueImage, patientImagesFormat, outputFile)) {
+            throw imageFormatNotSupported(patientImagesFormat);
+        }
+        thumbnailWorker.enqueue(outputFile, IMAGE_FILE_TYPE, patientImagesFormat);
+        log.info(String.format("Successfully created patient image at %s", outputFile));
     }
 
-
-    private void createAndSaveThumbnailForVideo(File outputVideoFile, String format) throws IOException {
-        ThumbnailGenerator thumbnailGenerator = getSupportedThumbnailGenerator(format);
-        BufferedImage bufferedImage = null;
-        if(thumbnailGenerator != null) {
-            bufferedImage = thumbnailGenerator.generateThumbnail(outputVideoFile);
-            saveThumbnail(bufferedImage, outputVideoFile, "jpg", 300);
+    private void writeDecodedContent(String content, File outputFile) throws IOException {
+        try (InputStream decodedContent = decode(content)) {
+            FileUtils.copyInputStreamToFile(decodedContent, outputFile);
         }
     }
 
-    private ThumbnailGenerator getSupportedThumbnailGenerator(String format) throws IOException {
-        for(ThumbnailGenerator thumbnailGenerator: thumbnailGenerators) {
-            if (thumbnailGenerator.isFormatSupported(format)) {
-             return thumbnailGenerator;
+    private InputStream decode(String content) {
+        return Base64.getMimeDecoder().wrap(new ReaderInputStream(new StringReader(content), StandardCharsets.US_ASCII));
+    }
+
+    private boolean isImageFormatSupported(String format) {
+        Iterator<ImageWriter> imageWriters = ImageIO.getImageWritersByFormatName(format);
+        return imageWriters != null && imageWriters.hasNext();
+    }
+
+    //The stored extension is the declared format, so the content has to be an image of that format
+    private boolean isReadableImage(File file, String format) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(file)) {
+            if (imageInputStream == null) {
+                return false;
             }
+            Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+            while (imageReaders != null && imageReaders.hasNext()) {
+                ImageReader imageReader = imageReaders.next();
+                try {
+                    for (String formatName : imageReader.getOriginatingProvider().getFormatNames()) {
+                        if (formatName.equalsIgnoreCase(format)) {
+                            return true;
+                        }
+                    }
+                } finally {
+                    imageReader.dispose();
+                }
+            }
+            return false;
         }
-        return null;
     }
 
-    private void saveThumbnail(BufferedImage image, File outputFile, String imageFileType, int imageSize) throws IOException {
-        String nameWithoutExtension = FilenameUtils.removeExtension(outputFile.getAbsolutePath());
-        if(imageFileType == null){
-        imageFileType = FilenameUtils.getExtension(outputFile.getAbsolutePath());
-        }
-        File thumbnailFile = new File(String.format("%s_thumbnail.%s", nameWithoutExtension, imageFileType));
-        BufferedImage reSizedImage = Scalr.resize(image, imageSize);
-        ImageIO.write(reSizedImage, imageFileType, thumbnailFile);
-        image.flush();
-        reSizedImage.flush();
+    private FileTypeNotSupportedException imageFormatNotSupported(String format) {
+        return new FileTypeNotSupportedException(String.format("The image format '%s' is not supported. Supported formats are %s", format, Arrays.toString(new String[]{"png", "jpeg", "gif"})));
+    }
+
+    private boolean isVideoFormatSupported(String format) {
+        return VideoFormats.isFormatSupported(format);
+    }
+
+    @Override
+    public ThumbnailStatus getThumbnailStatus(String fileName) {
+        File document = getDocument(fileName);
+        return document == null ? ThumbnailStatus.NOT_AVAILABLE : thumbnailWorker.getStatus(document);
     }
 
     @Override
@@ -176,6 +219,29 @@ public class PatientDocumentServiceImpl implements PatientDocumentService {
         return readImage(file);
     }
 
+    @Override
+    public File getPatientImage(String patientUuid) {
+        return getPatientImageFile(patientUuid);
+    }
+
+    /**
+     * @return the stored document, or null when the file name points outside the documents directory
+     */
+    @Override
+    public File getDocument(String fileName) {
+        try {
+            File baseDirectory = new File(getBasePath()).getCanonicalFile();
+            File file = new File(baseDirectory, fileName).getCanonicalFile();
+            if (!file.toPath().startsWith(baseDirectory.toPath())) {
+                log.warn(String.format("Refusing to serve %s from outside the documents directory", fileName));
+                return null;
+            }
+            return file;
+        } catch (IOException e) {
+            throw new BahmniCoreException("[%s] : Could not resolve patient Document ", e);
+        }
+    }
+
     @Override
     public void delete(String fileName) {
         File file = new File(getBasePath() + "/" + fileName);
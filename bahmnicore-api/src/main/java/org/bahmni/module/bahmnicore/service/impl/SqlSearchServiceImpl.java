@@ -3,6 +3,7 @@ package org.bahmni.module.bahmnicore.service.impl;
 import org.bahmni.module.bahmnicore.service.RowMapper;
 import org.bahmni.module.bahmnicore.service.SqlSearchService;
 import org.bahmni.module.bahmnicore.util.SqlQueryHelper;
+import org.bahmni.module.bahmnicore.worklist.WorklistProjections;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationServiceImpl;
@@ -19,13 +20,25 @@ import java.util.Map;
 
 public class SqlSearchServiceImpl implements SqlSearchService {
     private AdministrationService administrationService;
+    private WorklistProjections worklistProjections;
 
     public void setAdministrationService(AdministrationService administrationService) {
         this.administrationService = administrationService;
     }
 
+    public void setWorklistProjections(WorklistProjections worklistProjections) {
+        this.worklistProjections = worklistProjections;
+    }
+
     @Override
     public List<SimpleObject>  search(String queryId, Map<String, String[]> params) {
+        if (worklistProjections != null && worklistProjections.isProjected(queryId)) {
+            return worklistProjections.get(queryId, params, () -> execute(queryId, params));
+        }
+        return execute(queryId, params);
+    }
+
+    private List<SimpleObject> execute(String queryId, Map<String, String[]> params) {
         Map<String, String[]> updatedParams = conditionallyAddVisitLocation(params);
         List<SimpleObject> results = new ArrayList<>();
         SqlQueryHelper sqlQueryHelper = new SqlQueryHelper();
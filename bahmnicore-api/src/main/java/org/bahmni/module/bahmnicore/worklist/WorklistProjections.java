@@ -0,0 +1,299 @@
+package org.bahmni.module.bahmnicore.worklist;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Worklist queues (active patients, admissions, discharges, pending orders, ward census) are polled by every
+ * clinician's browser but only change when a visit, encounter, obs, order or bed assignment is written. Each queue result is kept per parameter set and
+ * rebuilt at most once per refresh interval after a write to one of the tables its query reads, for all pollers at once.
+ * A projection older than the maximum age is rebuilt even without a write, which covers changes made outside the OpenMRS services.
+ * The ward census only lists patients holding a bed, so a write for a known patient marks stale just the wards
+ * listing that patient and the ward the patient is being assigned to.
+ */
+@Component
+public class WorklistProjections implements GlobalPropertyListener {
+    public static final String QUERIES_GLOBAL_PROPERTY = "bahmni.worklist.projectedQueries";
+    public static final String REFRESH_INTERVAL_GLOBAL_PROPERTY = "bahmni.worklist.refreshIntervalSeconds";
+    public static final String MAX_AGE_GLOBAL_PROPERTY = "bahmni.worklist.maxAgeSeconds";
+    public static final String WARD_CENSUS_QUERY = "bedManagement.sqlGet.patientListForAdmissionLocation";
+    public static final String DEFAULT_QUERIES = "emrapi.sqlSearch.activePatients,emrapi.sqlSearch.activePatientsByProvider," +
+            "emrapi.sqlSearch.activePatientsByLocation,emrapi.sqlSearch.admittedPatients,emrapi.sqlSearch.patientsToAdmit," +
+            "emrapi.sqlSearch.patientsToDischarge,emrapi.sqlSearch.patientsHasPendingOrders," +
+            WARD_CENSUS_QUERY;
+    public static final int DEFAULT_REFRESH_INTERVAL_SECONDS = 5;
+    public static final int DEFAULT_MAX_AGE_SECONDS = 60;
+    static final int MAX_PROJECTIONS = 500;
+    private static final int REBUILD_LOCK_STRIPES = 64;
+    //Added by browsers to defeat HTTP caching, it never reaches the query
+    private static final String CACHE_BUSTER_PARAM = "_";
+
+    private static Logger logger = Logger.getLogger(WorklistProjections.class);
+
+    private AdministrationService administrationService;
+
+    //Least recently polled parameter sets are dropped first, a dropped queue is rebuilt on its next poll
+    private final Map<String, Projection> projections = Collections.synchronizedMap(new LinkedHashMap<String, Projection>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Projection> eldest) {
+            return size() > MAX_PROJECTIONS;
+        }
+    });
+    private final Object[] rebuildLocks = new Object[REBUILD_LOCK_STRIPES];
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> queryWords = new ConcurrentHashMap<>();
+    private final AtomicLong wardChanges = new AtomicLong();
+    private volatile Set<String> projectedQueries;
+    private volatile Long refreshIntervalMillis;
+    private volatile Long maxAgeMillis;
+
+    @Autowired
+    public WorklistProjections(@Qualifier("adminService") AdministrationService administrationService) {
+        this.administrationService = administrationService;
+        for (int stripe = 0; stripe < REBUILD_LOCK_STRIPES; stripe++) {
+            rebuildLocks[stripe] = new Object();
+        }
+    }
+
+    public boolean isProjected(String queryId) {
+        return getProjectedQueries().contains(queryId);
+    }
+
+    public List<SimpleObject> get(String queryId, Map<String, String[]> params, Supplier<List<SimpleObject>> rebuild) {
+        String key = keyFor(queryId, params);
+        AtomicLong generation = generationOf(queryId);
+        long now = System.currentTimeMillis();
+        Projection projection = projections.get(key);
+        if (projection != null && isFresh(projection, generation, now)) {
+            return new ArrayList<>(projection.rows);
+        }
+        synchronized (lockFor(key)) {
+            projection = projections.get(key);
+            if (projection != null && isFresh(projection, generation, System.currentTimeMillis())) {
+                return new ArrayList<>(projection.rows);
+            }
+            long generationBeforeRebuild = generation.get();
+            long wardChangesBeforeRebuild = wardChanges.get();
+            long builtAt = System.currentTimeMillis();
+            List<SimpleObject> rows = rebuild.get();
+            Projection rebuilt = new Projection(queryId, new HashMap<>(params), new ArrayList<>(rows), builtAt, generationBeforeRebuild);
+            //Which wards a write running alongside the rebuild touched is unknown, so the result is only kept for the refresh interval
+            rebuilt.changed = wardChangesBeforeRebuild != wardChanges.get();
+            projections.put(key, rebuilt);
+            return rows;
+        }
+    }
+
+    /**
+     * Marks the queues whose query reads any of the written tables stale. Rebuilds still honour the refresh interval so
+     * that a burst of writes costs one query per queue.
+     */
+    public void markChanged(Collection<String> tables) {
+        markChanged(tables, null, null);
+    }
+
+    /**
+     * Like {@link #markChanged(Collection)}, for a write of the patients known by the given uuids and identifiers. Ward
+     * census projections are marked stale only when they list one of those patients or are for one of the given locations.
+     */
+    public void markChanged(Collection<String> tables, Collection<String> patientKeys, Collection<String> locationKeys) {
+        for (String queryId : getProjectedQueries()) {
+            if (!readsAny(queryId, tables)) {
+                continue;
+            }
+            if (WARD_CENSUS_QUERY.equals(queryId) && patientKeys != null) {
+                markWardsChanged(patientKeys, locationKeys == null ? Collections.<String>emptySet() : locationKeys);
+            } else {
+                generationOf(queryId).incrementAndGet();
+            }
+        }
+    }
+
+    /** Drops every projection so the next poll of each queue runs its query, used as the full rebuild for consistency checks. */
+    public void rebuildAll() {
+        for (AtomicLong generation : generations.values()) {
+            generation.incrementAndGet();
+        }
+        projections.clear();
+    }
+
+    private void markWardsChanged(Collection<String> patientKeys, Collection<String> locationKeys) {
+        wardChanges.incrementAndGet();
+        synchronized (projections) {
+            for (Projection projection : projections.values()) {
+                if (WARD_CENSUS_QUERY.equals(projection.queryId)
+                        && (projection.isFor(locationKeys) || projection.lists(patientKeys))) {
+                    projection.changed = true;
+                }
+            }
+        }
+    }
+
+    private AtomicLong generationOf(String queryId) {
+        return generations.computeIfAbsent(queryId, id -> new AtomicLong());
+    }
+
+    //A query that cannot be read is assumed to read every table
+    private boolean readsAny(String queryId, Collection<String> tables) {
+        Set<String> words = queryWords.computeIfAbsent(queryId, this::wordsOf);
+        if (words.isEmpty()) {
+            return true;
+        }
+        for (String table : tables) {
+            if (words.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<String> wordsOf(String queryId) {
+        String sql = administrationService.getGlobalProperty(queryId);
+        Set<String> words = new HashSet<>();
+        if (StringUtils.isNotBlank(sql)) {
+            words.addAll(Arrays.asList(sql.toLowerCase().split("[^a-z0-9_]+")));
+        }
+        return words;
+    }
+
+    private boolean isFresh(Projection projection, AtomicLong generation, long now) {
+        long age = now - projection.builtAt;
+        if (age >= getMaxAgeMillis()) {
+            return false;
+        }
+        return (projection.generation == generation.get() && !projection.changed) || age < getRefreshIntervalMillis();
+    }
+
+    private Object lockFor(String key) {
+        return rebuildLocks[(key.hashCode() & Integer.MAX_VALUE) % REBUILD_LOCK_STRIPES];
+    }
+
+    int size() {
+        return projections.size();
+    }
+
+    private String keyFor(String queryId, Map<String, String[]> params) {
+        StringBuilder key = new StringBuilder(queryId);
+        for (Map.Entry<String, String[]> param : new TreeMap<>(params).entrySet()) {
+            if (!CACHE_BUSTER_PARAM.equals(param.getKey())) {
+                key.append('&').append(param.getKey()).append('=').append(Arrays.toString(param.getValue()));
+            }
+        }
+        return key.toString();
+    }
+
+    private Set<String> getProjectedQueries() {
+        if (projectedQueries == null) {
+            Set<String> queries = new HashSet<>();
+            String configured = administrationService.getGlobalProperty(QUERIES_GLOBAL_PROPERTY, DEFAULT_QUERIES);
+            for (String queryId : StringUtils.split(configured, ",")) {
+                if (StringUtils.isNotBlank(queryId)) {
+                    queries.add(queryId.trim());
+                }
+            }
+            projectedQueries = queries;
+        }
+        return projectedQueries;
+    }
+
+    private long getRefreshIntervalMillis() {
+        if (refreshIntervalMillis == null) {
+            refreshIntervalMillis = NumberUtils.toLong(administrationService.getGlobalProperty(REFRESH_INTERVAL_GLOBAL_PROPERTY), DEFAULT_REFRESH_INTERVAL_SECONDS) * 1000;
+        }
+        return refreshIntervalMillis;
+    }
+
+    private long getMaxAgeMillis() {
+        if (maxAgeMillis == null) {
+            maxAgeMillis = NumberUtils.toLong(administrationService.getGlobalProperty(MAX_AGE_GLOBAL_PROPERTY), DEFAULT_MAX_AGE_SECONDS) * 1000;
+        }
+        return maxAgeMillis;
+    }
+
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return QUERIES_GLOBAL_PROPERTY.equals(propertyName) || REFRESH_INTERVAL_GLOBAL_PROPERTY.equals(propertyName)
+                || MAX_AGE_GLOBAL_PROPERTY.equals(propertyName) || getProjectedQueries().contains(propertyName);
+    }
+
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        logger.info("Rebuilding worklist projections after change to " + newValue.getProperty());
+        reset();
+    }
+
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        reset();
+    }
+
+    private void reset() {
+        projectedQueries = null;
+        queryWords.clear();
+        refreshIntervalMillis = null;
+        maxAgeMillis = null;
+        rebuildAll();
+    }
+
+    private static class Projection {
+        private final String queryId;
+        private final Map<String, String[]> params;
+        private final List<SimpleObject> rows;
+        private final long builtAt;
+        private final long generation;
+        private volatile boolean changed;
+
+        private Projection(String queryId, Map<String, String[]> params, List<SimpleObject> rows, long builtAt, long generation) {
+            this.queryId = queryId;
+            this.params = params;
+            this.rows = rows;
+            this.builtAt = builtAt;
+            this.generation = generation;
+        }
+
+        private boolean isFor(Collection<String> locationKeys) {
+            for (String[] values : params.values()) {
+                for (String value : values) {
+                    if (locationKeys.contains(value)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean lists(Collection<String> patientKeys) {
+            for (SimpleObject row : rows) {
+                for (Object value : row.values()) {
+                    if (value != null && patientKeys.contains(value.toString())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
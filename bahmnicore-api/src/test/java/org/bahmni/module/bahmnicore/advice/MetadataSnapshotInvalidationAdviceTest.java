@@ -0,0 +1,58 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.service.MetadataSnapshotService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.Concept;
+import org.openmrs.api.ConceptService;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class MetadataSnapshotInvalidationAdviceTest {
+
+    @Mock
+    private MetadataSnapshotService metadataSnapshotService;
+
+    private MetadataSnapshotInvalidationAdvice advice;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        advice = new MetadataSnapshotInvalidationAdvice(metadataSnapshotService);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void shouldInvalidateWhenTheWriteReturnsAndAgainAfterTheTransactionCompletes() throws Throwable {
+        Method saveConcept = ConceptService.class.getMethod("saveConcept", Concept.class);
+
+        advice.afterReturning(new Concept(), saveConcept, new Object[]{new Concept()}, null);
+        verify(metadataSnapshotService, times(1)).invalidate();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(metadataSnapshotService, times(2)).invalidate();
+    }
+
+    @Test
+    public void shouldAdviseUnretiringConcepts() throws NoSuchMethodException {
+        Method unretireConcept = ConceptService.class.getMethod("unretireConcept", Concept.class);
+
+        assertTrue(new MetadataSnapshotInvalidationAdvisor().matches(unretireConcept, ConceptService.class));
+    }
+}
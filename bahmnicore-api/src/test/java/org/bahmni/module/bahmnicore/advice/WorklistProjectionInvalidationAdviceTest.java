@@ -0,0 +1,101 @@
+package org.bahmni.module.bahmnicore.advice;
+
+import org.bahmni.module.bahmnicore.worklist.WorklistProjections;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.openmrs.Encounter;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.Person;
+import org.openmrs.api.ObsService;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class WorklistProjectionInvalidationAdviceTest {
+
+    @Mock
+    private WorklistProjections worklistProjections;
+
+    private WorklistProjectionInvalidationAdvice advice;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        advice = new WorklistProjectionInvalidationAdvice(worklistProjections);
+    }
+
+    @Test
+    public void shouldMarkOnlyObsChangedWhenAnObsIsSaved() throws Throwable {
+        Method saveObs = ObsService.class.getMethod("saveObs", Obs.class, String.class);
+
+        advice.afterReturning(new Obs(), saveObs, new Object[]{new Obs(), "reason"}, null);
+
+        assertEquals(new HashSet<>(Arrays.asList("obs")), changedTables());
+    }
+
+    @Test
+    public void shouldMarkTheRowsBelowAnEncounterChanged() throws Throwable {
+        advice.afterReturning(null, null, new Object[]{new Encounter()}, null);
+
+        assertEquals(new HashSet<>(Arrays.asList("encounter", "obs", "orders")), changedTables());
+    }
+
+    @Test
+    public void shouldMarkBedAssignmentsChangedForAPatient() throws Throwable {
+        advice.afterReturning(null, null, new Object[]{new Patient()}, null);
+
+        assertEquals(new HashSet<>(Arrays.asList("bed_patient_assignment_map", "bed")), changedTables());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldPassThePatientIdentifiersAndTheWardOfABedAssignment() throws Throwable {
+        Patient patient = new Patient();
+        patient.setUuid("patient-uuid");
+        patient.addIdentifier(new PatientIdentifier("GAN200000", null, null));
+        Location ward = new Location();
+        ward.setUuid("ward-uuid");
+        ward.setName("General Ward");
+
+        advice.afterReturning(null, null, new Object[]{patient, ward, "bed-1"}, null);
+
+        ArgumentCaptor<Collection> patientKeys = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection> locationKeys = ArgumentCaptor.forClass(Collection.class);
+        verify(worklistProjections).markChanged(anyCollection(), patientKeys.capture(), locationKeys.capture());
+        assertEquals(new HashSet<>(Arrays.asList("patient-uuid", "GAN200000")), new HashSet<>(patientKeys.getValue()));
+        assertEquals(new HashSet<>(Arrays.asList("ward-uuid", "General Ward")), new HashSet<>(locationKeys.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotNameThePatientsOfAnObsWithoutAKnownPatient() throws Throwable {
+        Obs obs = new Obs();
+        obs.setPerson(new Person());
+
+        advice.afterReturning(obs, null, new Object[]{obs}, null);
+
+        verify(worklistProjections).markChanged(eq(new HashSet<>(Arrays.asList("obs"))), (Collection<String>) isNull(), any(Collection.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashSet<String> changedTables() {
+        ArgumentCaptor<Collection> tables = ArgumentCaptor.forClass(Collection.class);
+        verify(worklistProjections).markChanged(tables.capture(), any(Collection.class), any(Collection.class));
+        return new HashSet<String>(tables.getValue());
+    }
+}
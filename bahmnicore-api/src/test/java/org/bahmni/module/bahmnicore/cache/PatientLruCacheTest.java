@@ -0,0 +1,77 @@
+package org.bahmni.module.bahmnicore.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class PatientLruCacheTest {
+    private PatientLruCache<String> cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        cache = new PatientLruCache<>(2);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void shouldLoadPatientOnceUntilInvalidated() {
+        cache.get("patient1", loader());
+        assertEquals("value of patient1", cache.get("patient1", loader()));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("patient1");
+        cache.get("patient1", loader());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void shouldNotKeepValueLoadedAcrossAnInvalidation() {
+        cache.get("patient1", patientUuid -> {
+            loads.incrementAndGet();
+            cache.invalidate("patient2");
+            return "stale value";
+        });
+
+        assertNull(cache.getIfPresent("patient1"));
+        assertFalse(cache.put("patient1", "stale value", cache.getInvalidationCount() - 1));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPatientBeyondMaxPatients() {
+        cache.get("patient1", loader());
+        cache.get("patient2", loader());
+        cache.get("patient1", loader());
+        cache.get("patient3", loader());
+
+        assertNull(cache.getIfPresent("patient2"));
+        assertEquals("value of patient1", cache.getIfPresent("patient1"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void shouldEvictWhenMaxPatientsIsLowered() {
+        cache.get("patient1", loader());
+        cache.get("patient2", loader());
+
+        cache.setMaxPatients(1);
+
+        assertNull(cache.getIfPresent("patient1"));
+        assertEquals(1, cache.size());
+    }
+
+    private Function<String, String> loader() {
+        return patientUuid -> {
+            loads.incrementAndGet();
+            return "value of " + patientUuid;
+        };
+    }
+}
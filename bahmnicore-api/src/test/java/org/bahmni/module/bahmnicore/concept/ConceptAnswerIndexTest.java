@@ -0,0 +1,129 @@
+package org.bahmni.module.bahmnicore.concept;
+
+import org.bahmni.module.bahmnicore.dao.BahmniConceptDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.Concept;
+import org.openmrs.ConceptAnswer;
+import org.openmrs.ConceptName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ConceptAnswerIndexTest {
+    @Mock
+    private BahmniConceptDao bahmniConceptDao;
+    private ConceptAnswerIndex conceptAnswerIndex;
+    private Concept question;
+    private ConceptAnswer aneurism;
+    private ConceptAnswer skinAbscess;
+    private ConceptAnswer tabes;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        conceptAnswerIndex = new ConceptAnswerIndex(bahmniConceptDao);
+        question = new Concept(90);
+        when(bahmniConceptDao.getConceptAnswers(anyCollectionOf(Integer.class))).thenAnswer(invocation -> {
+            Collection<Integer> conceptAnswerIds = (Collection<Integer>) invocation.getArguments()[0];
+            List<ConceptAnswer> conceptAnswers = new ArrayList<>();
+            for (ConceptAnswer conceptAnswer : question.getAnswers(true)) {
+                if (conceptAnswerIds.contains(conceptAnswer.getConceptAnswerId())) {
+                    conceptAnswers.add(conceptAnswer);
+                }
+            }
+            return conceptAnswers;
+        });
+        tabes = addAnswer(1, 901, "Tabes dorsalis");
+        aneurism = addAnswer(2, 902, "Aneurism");
+        skinAbscess = addAnswer(3, 903, "Abscess, Skin");
+    }
+
+    @Test
+    public void shouldMatchEveryTokenCaseInsensitivelyAnywhereInTheName() {
+        assertEquals(asList(skinAbscess), answers(" ab sk  "));
+        assertEquals(asList(aneurism), answers("aNeUrIsM"));
+        assertEquals(asList(skinAbscess), answers("in  ab"));
+        assertTrue(answers("in  and another term that is not present").isEmpty());
+    }
+
+    @Test
+    public void shouldReturnAllAnswersWhenQueryIsEmpty() {
+        assertEquals(3, answers(null).size());
+        assertEquals(3, answers("  ").size());
+    }
+
+    @Test
+    public void shouldRankWordPrefixMatchesBeforeSubstringMatches() {
+        assertEquals(asList(skinAbscess, tabes), answers("ab"));
+    }
+
+    @Test
+    public void shouldRankNamesInRequestedLocaleFirst() {
+        tabes.getAnswerConcept().addName(new ConceptName("Abcès tabétique", Locale.FRENCH));
+
+        assertEquals(asList(skinAbscess, tabes), new ArrayList<>(conceptAnswerIndex.search(question, "ab", Locale.ENGLISH)));
+        assertEquals(asList(tabes, skinAbscess), new ArrayList<>(conceptAnswerIndex.search(question, "ab", Locale.FRENCH)));
+    }
+
+    @Test
+    public void shouldNotMatchVoidedNames() {
+        ConceptName porphyria = new ConceptName("Porphyria", Locale.ENGLISH);
+        porphyria.setVoided(true);
+        aneurism.getAnswerConcept().addName(porphyria);
+
+        assertTrue(answers("Porphyria").isEmpty());
+    }
+
+    @Test
+    public void shouldKeepServingTheIndexUntilInvalidated() {
+        assertTrue(answers("Porphyria").isEmpty());
+        aneurism.getAnswerConcept().addName(new ConceptName("Porphyria", Locale.ENGLISH));
+
+        assertTrue(answers("Porphyria").isEmpty());
+
+        conceptAnswerIndex.invalidate();
+        assertEquals(asList(aneurism), answers("Porphyria"));
+    }
+
+    @Test
+    public void shouldLoadOnlyTheAnswersOfTheRequestedPage() {
+        assertEquals(asList(tabes), conceptAnswerIndex.search(question, "ab", Locale.ENGLISH, 1, 5));
+        assertTrue(conceptAnswerIndex.search(question, "ab", Locale.ENGLISH, 2, 5).isEmpty());
+
+        verify(bahmniConceptDao).getConceptAnswers(asList(1));
+    }
+
+    @Test
+    public void shouldNotReadTheQuestionsAnswersOnceIndexed() {
+        answers("ab");
+        Concept sameQuestion = new Concept(90);
+
+        assertEquals(asList(skinAbscess, tabes), new ArrayList<>(conceptAnswerIndex.search(sameQuestion, "ab", Locale.ENGLISH)));
+    }
+
+    private List<ConceptAnswer> answers(String query) {
+        Collection<ConceptAnswer> answers = conceptAnswerIndex.search(question, query, Locale.ENGLISH);
+        return new ArrayList<>(answers);
+    }
+
+    private ConceptAnswer addAnswer(int conceptAnswerId, int conceptId, String name) {
+        Concept answerConcept = new Concept(conceptId);
+        answerConcept.addName(new ConceptName(name, Locale.ENGLISH));
+        ConceptAnswer conceptAnswer = new ConceptAnswer(answerConcept);
+        conceptAnswer.setConceptAnswerId(conceptAnswerId);
+        question.addAnswer(conceptAnswer);
+        return conceptAnswer;
+    }
+}
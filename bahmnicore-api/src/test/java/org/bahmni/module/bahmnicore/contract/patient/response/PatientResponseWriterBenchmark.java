@@ -0,0 +1,95 @@
+package org.bahmni.module.bahmnicore.contract.patient.response;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.hibernate.transform.AliasToBeanResultTransformer;
+import org.hibernate.transform.ResultTransformer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compares the bytes allocated per patient search result by the bean path (alias to bean transformer, then the
+ * object mapper over the whole page) and by {@link PatientResponseWriter} streaming the query rows.
+ * Run the main method with the test classpath; it is not a unit test.
+ */
+public class PatientResponseWriterBenchmark {
+    private static final int RESULTS = 10000;
+    private static final int ROUNDS = 20;
+    private static final String[] ALIASES = {"uuid", "identifier", "givenName", "personId", "middleName", "familyName",
+            "gender", "birthDate", "deathDate", "dateCreated", "activeVisitUuid", "hasBeenAdmitted", "extraIdentifiers",
+            "addressFieldValue", "customAttribute", "patientProgramAttributeValue"};
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        List<Object[]> rows = rows();
+        ObjectMapper objectMapper = new ObjectMapper();
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long beanBytes = 0;
+        long streamingBytes = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            serializeBeans(objectMapper, rows);
+            long between = threadMXBean.getThreadAllocatedBytes(threadId);
+            streamRows(objectMapper, rows);
+            long after = threadMXBean.getThreadAllocatedBytes(threadId);
+            //The first half of the rounds warms up the JIT
+            if (round >= ROUNDS / 2) {
+                beanBytes += between - before;
+                streamingBytes += after - between;
+            }
+        }
+        long measuredResults = (long) RESULTS * (ROUNDS - ROUNDS / 2);
+        System.out.println(String.format("bean serialization: %d bytes allocated per result", beanBytes / measuredResults));
+        System.out.println(String.format("streaming writer:   %d bytes allocated per result", streamingBytes / measuredResults));
+    }
+
+    private static void serializeBeans(ObjectMapper objectMapper, List<Object[]> rows) throws IOException {
+        ResultTransformer transformer = new AliasToBeanResultTransformer(PatientResponse.class);
+        List<Object> patientResponses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            patientResponses.add(transformer.transformTuple(row, ALIASES));
+        }
+        objectMapper.writeValue(DISCARD, Collections.singletonMap("pageOfResults", patientResponses));
+    }
+
+    private static void streamRows(ObjectMapper objectMapper, List<Object[]> rows) throws IOException {
+        PatientResponseWriter writer = new PatientResponseWriter(
+                objectMapper.getJsonFactory().createJsonGenerator(DISCARD, JsonEncoding.UTF8));
+        PatientResponseWriter.Columns columns = writer.columns(Arrays.asList(ALIASES));
+        writer.writeStart();
+        for (Object[] row : rows) {
+            writer.writeRow(columns, row);
+        }
+        writer.writeEnd();
+    }
+
+    private static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>(RESULTS);
+        for (int patient = 0; patient < RESULTS; patient++) {
+            rows.add(new Object[]{"patient-uuid-" + patient, "GAN" + (200000 + patient), "Ram", patient, null, "Singh",
+                    "M", new Date(315532800000L + patient * 86400000L), null, new Date(), null, Boolean.FALSE,
+                    "{\"PAN\" : \"ABC" + patient + "\"}", "{\"city_village\" : \"Ganiyari\"}",
+                    "{\"caste\" : \"testCaste\",\"education\" : \"Uneducated\",\"occupation\" : \"Farmer\"}",
+                    null});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,87 @@
+package org.bahmni.module.bahmnicore.contract.patient.response;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Date;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class PatientResponseWriterTest {
+
+    private ObjectMapper objectMapper;
+    private StringWriter output;
+    private PatientResponseWriter writer;
+
+    @Before
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        output = new StringWriter();
+        writer = new PatientResponseWriter(objectMapper.getJsonFactory().createJsonGenerator(output));
+    }
+
+    @Test
+    public void shouldWritePatientResponsesAsTheBeanSerializerDoes() throws IOException {
+        PatientResponse patientResponse = patientResponse();
+        PatientResponse emptyPatientResponse = new PatientResponse();
+
+        writer.writeStart();
+        writer.write(patientResponse);
+        writer.write(emptyPatientResponse);
+        writer.writeEnd();
+
+        assertEquals(pageOf(patientResponse, emptyPatientResponse), objectMapper.readTree(output.toString()));
+    }
+
+    @Test
+    public void shouldWriteQueryRowsByColumnAlias() throws IOException {
+        PatientResponse patientResponse = patientResponse();
+        Object[] row = {"{\"caste\" : \"testCaste\"}", patientResponse.getBirthDate(), 7, "GAN200001", "Horatio",
+                patientResponse.getDateCreated(), "F", "patient-uuid", "{\"city_village\" : \"Ganiyari\"}",
+                "unmapped", "visit-uuid", Boolean.TRUE, "Sinha", "{\"PAN\" : \"ABC\"}", "Stage 1"};
+        PatientResponseWriter.Columns columns = writer.columns(asList("customAttribute", "birthDate", "personId",
+                "identifier", "givenName", "dateCreated", "gender", "uuid", "addressFieldValue", "unknownColumn",
+                "activeVisitUuid", "hasBeenAdmitted", "familyName", "extraIdentifiers", "patientProgramAttributeValue"));
+
+        writer.writeStart();
+        writer.writeRow(columns, row);
+        writer.writeEnd();
+
+        assertEquals(pageOf(patientResponse), objectMapper.readTree(output.toString()));
+    }
+
+    private JsonNode pageOf(PatientResponse... patientResponses) {
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode pageOfResults = page.putArray("pageOfResults");
+        for (PatientResponse patientResponse : patientResponses) {
+            pageOfResults.add(objectMapper.<JsonNode>valueToTree(patientResponse));
+        }
+        return page;
+    }
+
+    private PatientResponse patientResponse() {
+        PatientResponse patientResponse = new PatientResponse();
+        patientResponse.setUuid("patient-uuid");
+        patientResponse.setPersonId(7);
+        patientResponse.setBirthDate(new Date(315532800000L));
+        patientResponse.setDateCreated(new Date(1262304000000L));
+        patientResponse.setIdentifier("GAN200001");
+        patientResponse.setGivenName("Horatio");
+        patientResponse.setFamilyName("Sinha");
+        patientResponse.setGender("F");
+        patientResponse.setActiveVisitUuid("visit-uuid");
+        patientResponse.setHasBeenAdmitted(true);
+        patientResponse.setCustomAttribute("{\"caste\" : \"testCaste\"}");
+        patientResponse.setAddressFieldValue("{\"city_village\" : \"Ganiyari\"}");
+        patientResponse.setExtraIdentifiers("{\"PAN\" : \"ABC\"}");
+        patientResponse.setPatientProgramAttributeValue("Stage 1");
+        return patientResponse;
+    }
+}
@@ -10,6 +10,7 @@ import org.openmrs.api.ConceptService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -135,6 +136,19 @@ public class BahmniConceptDaoImplIT extends BaseIntegrationTest{
         assertEquals(4,result.size());
     }
 
+    @Test
+    public void shouldGetConceptAnswersById() throws Exception {
+        executeDataSet("sampleCodedConcept.xml");
+
+        List<ConceptAnswer> result = bahmniConceptDao.getConceptAnswers(Arrays.asList(1001, 1003));
+
+        List<Integer> answerConceptIds = new ArrayList<>();
+        for (ConceptAnswer conceptAnswer : result) {
+            answerConceptIds.add(conceptAnswer.getAnswerConcept().getId());
+        }
+        assertThat(answerConceptIds, containsInAnyOrder(901, 903));
+    }
+
     @Test
     public void getByConceptSetShouldRetrieveDrugsForSetMembersOfTheConceptSet() throws Exception {
         executeDataSet("drugsWithConcepts.xml");
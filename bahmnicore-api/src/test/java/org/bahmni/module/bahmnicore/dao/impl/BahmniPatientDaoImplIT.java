@@ -2,7 +2,12 @@ package org.bahmni.module.bahmnicore.dao.impl;
 
 import org.bahmni.module.bahmnicore.BaseIntegrationTest;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.bahmni.module.bahmnicore.dao.PatientDao;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -12,6 +17,8 @@ import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +34,8 @@ public class BahmniPatientDaoImplIT extends BaseIntegrationTest {
     @Rule
     public ExpectedException expectedEx = ExpectedException.none();
 
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Before
     public void setUp() throws Exception {
         executeDataSet("apiTestData.xml");
@@ -547,4 +556,59 @@ public class BahmniPatientDaoImplIT extends BaseIntegrationTest {
         patientDao.getPatients("", "someUnique", null, "city_village", "", 100, 0, null,"",null,null,null, null, false, false);
 
     }
+
+    @Test
+    public void shouldWriteAddressColumnOfSearchResultsAsTheBeanSearchReturnsIt() throws Exception {
+        String[] addressResultFields = {"city_village"};
+        List<PatientResponse> patients = patientDao.getPatients("GAN200001", "", null, "city_village", "", 100, 0, null, "", null, addressResultFields, null, "c36006e5-9fbb-4f20-866b-0ece245615a1", false, false);
+
+        JsonNode written = writePatients("GAN200001", "", null, "city_village", "", null, "", null, addressResultFields, null);
+
+        assertEquals(pageOf(patients), written);
+        assertEquals("{ \"city_village\" : \"Ramgarh\"}", written.get("pageOfResults").get(0).get("addressFieldValue").getTextValue());
+    }
+
+    @Test
+    public void shouldWriteCustomAttributeColumnOfSearchResultsAsTheBeanSearchReturnsIt() throws Exception {
+        String[] patientResultFields = {"thaluk"};
+        List<PatientResponse> patients = patientDao.getPatients("SEV500003", null, null, null, null, 100, 0, null, null, null, null, patientResultFields, "c36006e5-9fbb-4f20-866b-0ece245615a1", false, false);
+
+        JsonNode written = writePatients("SEV500003", null, null, null, null, null, null, null, null, patientResultFields);
+
+        assertEquals(pageOf(patients), written);
+        assertEquals("{\"thaluk\":\"Systolic Data\"}", written.get("pageOfResults").get(0).get("customAttribute").getTextValue());
+    }
+
+    @Test
+    public void shouldWriteProgramAttributeColumnOfSearchResultsAsTheBeanSearchReturnsIt() throws Exception {
+        List<PatientResponse> patients = patientDao.getPatients("", "", "", "city_village", null, 100, 0, null, "Stage1", "stage", null, null, "c36006e5-9fbb-4f20-866b-0ece245615a1", false, false);
+
+        JsonNode written = writePatients("", "", "", "city_village", null, null, "Stage1", "stage", null, null);
+
+        assertEquals(pageOf(patients), written);
+        JsonNode patient = written.get("pageOfResults").get(0);
+        assertEquals("GAN200002", patient.get("identifier").getTextValue());
+        assertEquals("{\"stage\":\"Stage1\"}", patient.get("patientProgramAttributeValue").getTextValue());
+    }
+
+    private JsonNode writePatients(String identifier, String name, String customAttribute, String addressFieldName,
+                                   String addressFieldValue, String[] customAttributeFields, String programAttributeFieldValue,
+                                   String programAttributeFieldName, String[] addressSearchResultFields,
+                                   String[] patientSearchResultFields) throws IOException {
+        StringWriter output = new StringWriter();
+        PatientResponseWriter writer = new PatientResponseWriter(objectMapper.getJsonFactory().createJsonGenerator(output));
+        patientDao.writePatients(identifier, name, customAttribute, addressFieldName, addressFieldValue, 100, 0,
+                customAttributeFields, programAttributeFieldValue, programAttributeFieldName, addressSearchResultFields,
+                patientSearchResultFields, "c36006e5-9fbb-4f20-866b-0ece245615a1", false, false, writer);
+        return objectMapper.readTree(output.toString());
+    }
+
+    private JsonNode pageOf(List<PatientResponse> patients) {
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode pageOfResults = page.putArray("pageOfResults");
+        for (PatientResponse patient : patients) {
+            pageOfResults.add(objectMapper.<JsonNode>valueToTree(patient));
+        }
+        return page;
+    }
 }
@@ -0,0 +1,138 @@
+package org.bahmni.module.bahmnicore.dao.impl;
+
+import org.bahmni.module.bahmnicore.BaseIntegrationTest;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.EncounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EpisodeDaoImplIT extends BaseIntegrationTest {
+    private static final String PATIENT_PROGRAM_UUID = "df0foif1-dkcd-475d-b939-6d82327f36a3";
+
+    @Autowired
+    private EpisodeDao episodeDao;
+
+    @Autowired
+    private EncounterService encounterService;
+
+    @Autowired
+    private ConceptService conceptService;
+
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet("observationsTestData.xml");
+    }
+
+    @Test
+    public void shouldReturnOnlyTheEncountersThatBelongToAnEpisode() {
+        List<Encounter> encounters = episodeDao.getEncountersInAnyEpisode(asList(encounter(40), encounter(41), encounter(42)));
+
+        assertEquals(asList(42), encounterIds(encounters));
+    }
+
+    @Test
+    public void shouldReturnOnlyTheEncountersOfTheGivenPatientProgram() {
+        List<Encounter> encounters = episodeDao.getEncountersInPatientProgram(PATIENT_PROGRAM_UUID,
+                asList(encounter(41), encounter(43), encounter(44)));
+
+        List<Integer> encounterIds = encounterIds(encounters);
+        assertEquals(2, encounterIds.size());
+        assertTrue(encounterIds.containsAll(asList(43, 44)));
+    }
+
+    @Test
+    public void shouldNotQueryEpisodesForNoEncounters() {
+        assertTrue(episodeDao.getEncountersInAnyEpisode(Collections.<Encounter>emptyList()).isEmpty());
+        assertTrue(episodeDao.getEncountersInPatientProgram(PATIENT_PROGRAM_UUID, Collections.<Encounter>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnTheProgramObsOfTheGivenConceptsNewestFirst() {
+        Concept systolic = conceptService.getConcept(9011);
+
+        List<Obs> observations = episodeDao.getObsInPatientProgram(PATIENT_PROGRAM_UUID, asList(systolic), null, null, null, null);
+
+        List<Integer> obsIds = new ArrayList<>();
+        for (Obs obs : observations) {
+            assertEquals(systolic, obs.getConcept());
+            obsIds.add(obs.getObsId());
+        }
+        assertEquals(asList(111116, 111115, 111114, 111113, 111112), obsIds);
+    }
+
+    @Test
+    public void shouldReturnNoObsForAnUnknownProgramOrNoConcepts() {
+        assertTrue(episodeDao.getObsInPatientProgram("unknown-patient-program-uuid", asList(conceptService.getConcept(9011)), null, null, null, null).isEmpty());
+        assertTrue(episodeDao.getObsInPatientProgram(PATIENT_PROGRAM_UUID, Collections.<Concept>emptyList(), null, null, null, null).isEmpty());
+    }
+
+    @Test
+    public void shouldPageTheProgramObsAfterTheGivenObs() {
+        Concept systolic = conceptService.getConcept(9011);
+
+        List<Obs> observations = episodeDao.getObsInPatientProgram(PATIENT_PROGRAM_UUID, asList(systolic), null, null,
+                "633dc071-1c8f-11e4-bb80-f18addmujir", 2);
+
+        assertEquals(2, observations.size());
+        assertEquals(111114, observations.get(0).getObsId().intValue());
+        assertEquals(111113, observations.get(1).getObsId().intValue());
+    }
+
+    @Test
+    public void shouldReturnTheProgramEncountersWithinTheDateRangeNewestFirst() throws Exception {
+        Date startDate = new SimpleDateFormat("yyyy-MM-dd").parse("2008-11-01");
+
+        List<Encounter> encounters = episodeDao.getEncountersInPatientProgram(PATIENT_PROGRAM_UUID, startDate, null, null, null);
+
+        assertEquals(asList(44, 43), encounterIds(encounters));
+    }
+
+    @Test
+    public void shouldPageTheProgramEncountersAfterTheGivenEncounter() {
+        List<Encounter> firstPage = episodeDao.getEncountersInPatientProgram(PATIENT_PROGRAM_UUID, null, null, null, 2);
+        List<Encounter> secondPage = episodeDao.getEncountersInPatientProgram(PATIENT_PROGRAM_UUID, null, null,
+                firstPage.get(1).getUuid(), 2);
+
+        assertEquals(asList(44, 43), encounterIds(firstPage));
+        assertEquals(asList(42), encounterIds(secondPage));
+    }
+
+    @Test
+    public void shouldReturnTheEncounterIdsAndUuidsOfTheProgram() {
+        List<Integer> encounterIds = episodeDao.getEncounterIdsInPatientProgram(PATIENT_PROGRAM_UUID);
+        List<String> encounterUuids = episodeDao.getEncounterUuidsInPatientProgram(PATIENT_PROGRAM_UUID);
+
+        assertEquals(3, encounterIds.size());
+        assertTrue(encounterIds.containsAll(asList(42, 43, 44)));
+        assertEquals(3, encounterUuids.size());
+        assertTrue(encounterUuids.contains("f8ee31f7-1c8e-11e4-bb80-f18add123456"));
+        assertTrue(episodeDao.getEncounterIdsInPatientProgram("unknown-patient-program-uuid").isEmpty());
+    }
+
+    private Encounter encounter(int encounterId) {
+        return encounterService.getEncounter(encounterId);
+    }
+
+    private List<Integer> encounterIds(List<Encounter> encounters) {
+        List<Integer> encounterIds = new ArrayList<>();
+        for (Encounter encounter : encounters) {
+            encounterIds.add(encounter.getEncounterId());
+        }
+        return encounterIds;
+    }
+}
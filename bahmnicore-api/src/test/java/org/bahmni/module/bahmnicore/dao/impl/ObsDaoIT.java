@@ -4,18 +4,28 @@ import org.bahmni.module.bahmnicore.BaseIntegrationTest;
 import org.bahmni.module.bahmnicore.dao.ObsDao;
 import org.junit.Before;
 import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
 import org.openmrs.Obs;
+import org.openmrs.Order;
+import org.openmrs.Person;
+import org.openmrs.api.context.Context;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 public class ObsDaoIT extends BaseIntegrationTest {
+    private static final String PATIENT_UUID = "4d3a9a52-6f0c-4a51-9c2e-38fd1c0e8801";
+    private static final String OTHER_PATIENT_UUID = "4d3a9a52-6f0c-4a51-9c2e-38fd1c0e8802";
+
 	@Autowired
     ObsDao obsDao;
 
@@ -69,6 +79,27 @@ public class ObsDaoIT extends BaseIntegrationTest {
         assertEquals(125.0, allObs.get(0).getValueNumeric());
     }
 
+    @Test
+    public void shouldRetrieveNumericObsSeriesPointsOrderedByConceptAndTime() throws Exception {
+        String personUuid = "86526ed5-3c11-11de-a0ba-001e378eb67a";
+        int numericObsWithValue = 0;
+        for (Obs obs : obsDao.getNumericObsByPerson(personUuid)) {
+            if (obs.getValueNumeric() != null) {
+                numericObsWithValue++;
+            }
+        }
+
+        List<Object[]> points = obsDao.getNumericObsSeriesPoints(personUuid);
+
+        assertEquals(numericObsWithValue, points.size());
+        for (int index = 1; index < points.size(); index++) {
+            Object[] previous = points.get(index - 1);
+            Object[] current = points.get(index);
+            int byConcept = ((Integer) previous[0]).compareTo((Integer) current[0]);
+            assertTrue(byConcept < 0 || (byConcept == 0 && !((Date) previous[1]).after((Date) current[1])));
+        }
+    }
+
     @Test
 	public void shouldRetrieveNumericalConceptsForPatient() throws Exception {
 		assertEquals(5, obsDao.getNumericConceptsForPerson("86526ed5-3c11-11de-a0ba-001e378eb67a").size());
@@ -157,4 +188,103 @@ public class ObsDaoIT extends BaseIntegrationTest {
         assertEquals("True", childGroupMembers2.get(1).getValueCoded().getName().getName());
 
     }
+
+    @Test
+    public void shouldRetrieveNonVoidedObsOfRequestedOrdersLatestFirst() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+
+        List<Obs> obs = obsDao.getObsByPatientAndOrders(PATIENT_UUID, Arrays.asList("Haemoglobin", "Platelet Count", "Lab Notes"),
+                null, Arrays.asList(order(8801), order(8802)));
+
+        assertObsIds(obs, 8805, 8802, 8803, 8801);
+    }
+
+    @Test
+    public void shouldLeaveOutIgnoredConceptsFromObsOfOrders() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+
+        List<Obs> obs = obsDao.getObsByPatientAndOrders(PATIENT_UUID, Arrays.asList("Haemoglobin", "Platelet Count", "Lab Notes"),
+                Arrays.asList("Lab Notes"), Arrays.asList(order(8801), order(8802)));
+
+        assertObsIds(obs, 8805, 8802, 8801);
+    }
+
+    @Test
+    public void shouldMatchObsOfOrdersOnlyByNonVoidedFullySpecifiedNameInContextLocale() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+        List<Order> orders = Arrays.asList(order(8801));
+
+        assertObsIds(obsDao.getObsByPatientAndOrders(PATIENT_UUID, Arrays.asList("Platelet Count"), null, orders), 8802);
+        assertObsIds(obsDao.getObsByPatientAndOrders(PATIENT_UUID, Arrays.asList("Hémoglobine", "PLT", "Hb"), null, orders));
+    }
+
+    @Test
+    public void shouldRetrieveObsOfOrdersOnlyForGivenPatient() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+
+        assertObsIds(obsDao.getObsByPatientAndOrders(OTHER_PATIENT_UUID, Arrays.asList("Haemoglobin"), null, Arrays.asList(order(8801))));
+        assertObsIds(obsDao.getObsByPatientAndOrders(OTHER_PATIENT_UUID, Arrays.asList("Haemoglobin"), null, Arrays.asList(order(8804))), 8808);
+    }
+
+    @Test
+    public void shouldNotQueryObsOfOrdersWhenNoOrdersOrConceptsAreGiven() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+
+        assertObsIds(obsDao.getObsByPatientAndOrders(PATIENT_UUID, Arrays.asList("Haemoglobin"), null, Collections.<Order>emptyList()));
+        assertObsIds(obsDao.getObsByPatientAndOrders(PATIENT_UUID, Collections.<String>emptyList(), null, Arrays.asList(order(8801))));
+    }
+
+    @Test
+    public void shouldRetrieveNonVoidedObsOfRequestedOrdersInGivenEncountersLatestFirst() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+
+        List<Obs> obs = obsDao.getObsForVisitAndOrders(null, Arrays.asList(encounter(8801)), null, null,
+                Arrays.asList(order(8801), order(8802), order(8803)));
+
+        assertObsIds(obs, 8806, 8802, 8803, 8801);
+    }
+
+    @Test
+    public void shouldFilterObsOfOrdersInEncountersByConceptsAndIgnoreList() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+        List<Encounter> encounters = Arrays.asList(encounter(8801), encounter(8802));
+        List<Order> orders = Arrays.asList(order(8801), order(8802));
+
+        assertObsIds(obsDao.getObsForVisitAndOrders(null, encounters, Arrays.asList(concept(8801)), null, orders), 8805, 8801);
+        assertObsIds(obsDao.getObsForVisitAndOrders(null, encounters, null, Arrays.asList(concept(8803)), orders), 8805, 8802, 8801);
+    }
+
+    @Test
+    public void shouldRetrieveObsOfOrdersInEncountersOnlyForGivenPersons() throws Exception {
+        executeDataSet("obsForOrdersTestData.xml");
+        List<Encounter> encounters = Arrays.asList(encounter(8801), encounter(8803));
+        List<Order> orders = Arrays.asList(order(8801), order(8804));
+
+        assertObsIds(obsDao.getObsForVisitAndOrders(Arrays.asList(person(OTHER_PATIENT_UUID)), encounters, null, null, orders), 8808);
+        assertObsIds(obsDao.getObsForVisitAndOrders(null, encounters, null, null, Collections.<Order>emptyList()));
+    }
+
+    private void assertObsIds(List<Obs> obs, Integer... expectedObsIds) {
+        List<Integer> obsIds = new ArrayList<>();
+        for (Obs observation : obs) {
+            obsIds.add(observation.getObsId());
+        }
+        assertEquals(Arrays.asList(expectedObsIds), obsIds);
+    }
+
+    private Order order(int orderId) {
+        return Context.getOrderService().getOrder(orderId);
+    }
+
+    private Encounter encounter(int encounterId) {
+        return Context.getEncounterService().getEncounter(encounterId);
+    }
+
+    private Concept concept(int conceptId) {
+        return Context.getConceptService().getConcept(conceptId);
+    }
+
+    private Person person(String uuid) {
+        return Context.getPersonService().getPersonByUuid(uuid);
+    }
 }
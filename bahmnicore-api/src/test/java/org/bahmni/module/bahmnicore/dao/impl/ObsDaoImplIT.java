@@ -6,9 +6,8 @@ import org.bahmni.module.bahmnicore.util.BahmniDateUtil;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.Concept;
-import org.openmrs.Encounter;
 import org.openmrs.Obs;
-import org.openmrs.api.EncounterService;
+import org.openmrs.PersonName;
 import org.openmrs.api.context.Context;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -21,15 +20,13 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ObsDaoImplIT extends BaseIntegrationTest {
     
     @Autowired
     ObsDao obsDao;
 
-    @Autowired
-    EncounterService encounterService;
-
     Map<Integer, Integer> conceptToObsMap = new HashMap<>();
 
     @Before
@@ -102,17 +99,13 @@ public class ObsDaoImplIT extends BaseIntegrationTest {
         List<Integer> listOfVisitIds = new ArrayList<Integer>();
         listOfVisitIds.add(902);
         rootConcept.getName().getName();
-        Encounter anEncounter = encounterService.getEncounter(40);
-        Encounter anotherEncounter = encounterService.getEncounter(41);
-        Encounter unrelatedEncounter = encounterService.getEncounter(3);
-
-        List<Obs> bahmniObservations = obsDao.getObsFor(patientUUid, rootConcept, childConcept,listOfVisitIds, Arrays.asList(anEncounter, anotherEncounter), startDate, null);
+        List<Obs> bahmniObservations = obsDao.getObsFor(patientUUid, rootConcept, childConcept,listOfVisitIds, Arrays.asList(40, 41), startDate, null);
 
         assertEquals(1, bahmniObservations.size());
         assertEquals(rootConceptName, bahmniObservations.get(0).getConcept().getName().getName());
         assertEquals(3, bahmniObservations.get(0).getGroupMembers(true).size());
 
-        assertEquals(0, obsDao.getObsFor(patientUUid, rootConcept, childConcept, listOfVisitIds, Arrays.asList(unrelatedEncounter), startDate, null).size());
+        assertEquals(0, obsDao.getObsFor(patientUUid, rootConcept, childConcept, listOfVisitIds, Arrays.asList(3), startDate, null).size());
     }
 
     @Test
@@ -178,4 +171,28 @@ public class ObsDaoImplIT extends BaseIntegrationTest {
         assertEquals("2015-08-18 15:09:05.0", observations.get(0).getObsDatetime().toString());
         assertEquals("2016-08-18 15:09:05.0", observations.get(1).getObsDatetime().toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldGetFormSubmissionsWithTheFormNameAndVersionAndTheCreatorsPreferredName() throws Exception {
+        executeDataSet("formSubmissionsTestData.xml");
+
+        List<Object[]> submissions = obsDao.getFormSubmissions("5a3b2314-e5a7-11e8-9f32-f2801f1b9fd1");
+
+        assertEquals(2, submissions.size());
+        Map<String, Object[]> submissionsByForm = new HashMap<>();
+        for (Object[] submission : submissions) {
+            submissionsByForm.put((String) submission[4], submission);
+        }
+        Object[] vitals = submissionsByForm.get("Vitals.1");
+        assertEquals("5a3b256c-e5a7-11e8-9f32-f2801f1b9fd1", vitals[0]);
+        assertEquals("2018-11-08 00:00:00.0", vitals[1].toString());
+        assertEquals("5a3b2440-e5a7-11e8-9f32-f2801f1b9fd1", vitals[2]);
+        assertEquals("2018-11-08 00:00:00.0", vitals[3].toString());
+        assertEquals("5a3b21e8-e5a7-11e8-9f32-f2801f1b9fd1", vitals[5]);
+        assertEquals("Nisha Rao", ((PersonName) vitals[6]).getFullName());
+        Object[] bloodSample = submissionsByForm.get("BloodSample.12");
+        assertEquals("5a3b2698-e5a7-11e8-9f32-f2801f1b9fd1", bloodSample[0]);
+        assertNull(bloodSample[2]);
+        assertNull(bloodSample[3]);
+    }
+}
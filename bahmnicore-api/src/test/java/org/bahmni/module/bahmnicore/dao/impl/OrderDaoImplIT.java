@@ -7,7 +7,6 @@ import org.bahmni.module.bahmnicore.util.BahmniDateUtil;
 import org.junit.Test;
 import org.openmrs.Concept;
 import org.openmrs.DrugOrder;
-import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.OrderType;
 import org.openmrs.Patient;
@@ -302,18 +301,16 @@ public class OrderDaoImplIT extends BaseIntegrationTest {
         executeDataSet("patientWithOrders.xml");
         Patient patient = Context.getPatientService().getPatient(1001);
         OrderType orderType = Context.getOrderService().getOrderType(1);
-        Encounter encounter1 = Context.getEncounterService().getEncounter(19);
-        Encounter encounter2 = Context.getEncounterService().getEncounter(20);
         Concept concept = Context.getConceptService().getConcept(16);
         HashSet<Concept> concepts = new HashSet<Concept>();
         concepts.add(concept);
 
-        List<Order> activeOrders = orderDao.getActiveOrders(patient, orderType, null, new Date(), null, null, null, null, Arrays.asList(encounter1, encounter2));
+        List<Order> activeOrders = orderDao.getActiveOrders(patient, orderType, null, new Date(), null, null, null, null, Arrays.asList(19, 20));
         assertEquals(activeOrders.size(), 2);
         assertEquals(activeOrders.get(0).getUuid(), "cba00378-0c03-11e4-bb80-f18addb6f836");
         assertEquals(activeOrders.get(1).getUuid(), "cba00378-0c03-11e4-bb80-f18addb6f841");
 
-        List<Order> activeOrdersOfConcept = orderDao.getActiveOrders(patient, orderType, null, new Date(), concepts, null, null, null, Arrays.asList(encounter1, encounter2));
+        List<Order> activeOrdersOfConcept = orderDao.getActiveOrders(patient, orderType, null, new Date(), concepts, null, null, null, Arrays.asList(19, 20));
         assertEquals(activeOrdersOfConcept.size(), 1);
         assertEquals(activeOrdersOfConcept.get(0).getUuid(), "cba00378-0c03-11e4-bb80-f18addb6f836");
 
@@ -352,9 +349,7 @@ public class OrderDaoImplIT extends BaseIntegrationTest {
         executeDataSet("patientWithOrders.xml");
         Patient patient = Context.getPatientService().getPatient(1001);
         OrderType orderType = Context.getOrderService().getOrderType(1);
-        Encounter encounter = Context.getEncounterService().getEncounter(19);
-
-        List<Order> activeOrders = orderDao.getInactiveOrders(patient, orderType, null, new Date(), null, null, Arrays.asList(encounter));
+        List<Order> activeOrders = orderDao.getInactiveOrders(patient, orderType, null, new Date(), null, null, Arrays.asList(19));
 
         assertEquals(activeOrders.size(), 1);
         assertEquals(activeOrders.get(0).getUuid(), "cba00378-0c03-11e4-bb80-f18addb6f839");
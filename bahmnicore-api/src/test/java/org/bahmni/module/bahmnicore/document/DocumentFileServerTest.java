@@ -0,0 +1,145 @@
+package org.bahmni.module.bahmnicore.document;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class DocumentFileServerTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private DocumentFileServer documentFileServer;
+    private File document;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        documentFileServer = new DocumentFileServer();
+        document = temporaryFolder.newFile("1-Consultation-abc.mp4");
+        Files.write(document.toPath(), CONTENT);
+        document.setLastModified(1500000000000L);
+        request = new MockHttpServletRequest("GET", "/document");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void shouldStreamWholeFileWithValidators() throws Exception {
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertEquals("10", response.getHeader("Content-Length"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("\"a-15d3ef79800\"", response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void shouldRespondNotFoundForMissingFile() throws Exception {
+        documentFileServer.serve(new File(temporaryFolder.getRoot(), "missing.jpeg"), request, response);
+
+        assertEquals(404, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void shouldRespondNotModifiedWhenETagMatches() throws Exception {
+        request.addHeader("If-None-Match", "\"other\", \"a-15d3ef79800\"");
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void shouldRespondNotModifiedWhenNotModifiedSince() throws Exception {
+        request.addHeader("If-Modified-Since", 1500000000000L);
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    public void shouldServeFileWhenModifiedSince() throws Exception {
+        request.addHeader("If-Modified-Since", 1400000000000L);
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void shouldServeRequestedByteRange() throws Exception {
+        request.addHeader("Range", "bytes=2-5");
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("4", response.getHeader("Content-Length"));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    public void shouldServeOpenEndedAndSuffixRanges() throws Exception {
+        request.addHeader("Range", "bytes=7-");
+        documentFileServer.serve(document, request, response);
+        assertEquals("789", response.getContentAsString());
+
+        MockHttpServletRequest suffixRequest = new MockHttpServletRequest("GET", "/document");
+        suffixRequest.addHeader("Range", "bytes=-4");
+        MockHttpServletResponse suffixResponse = new MockHttpServletResponse();
+        documentFileServer.serve(document, suffixRequest, suffixResponse);
+        assertEquals("bytes 6-9/10", suffixResponse.getHeader("Content-Range"));
+        assertEquals("6789", suffixResponse.getContentAsString());
+    }
+
+    @Test
+    public void shouldRespondRangeNotSatisfiableForRangeBeyondFile() throws Exception {
+        request.addHeader("Range", "bytes=10-20");
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void shouldServeWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"stale\"");
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void shouldServeWholeFileForMultipleRanges() throws Exception {
+        request.addHeader("Range", "bytes=0-1,4-5");
+
+        documentFileServer.serve(document, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+}
@@ -0,0 +1,106 @@
+package org.bahmni.module.bahmnicore.document;
+
+import org.bahmni.module.bahmnicore.service.ThumbnailGenerator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ThumbnailWorkerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private ThumbnailGenerator thumbnailGenerator;
+    private ThumbnailWorker thumbnailWorker;
+    private File queueDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        queueDirectory = new File(temporaryFolder.getRoot(), ThumbnailWorker.QUEUE_DIRECTORY);
+        thumbnailWorker = new ThumbnailWorker(asList(thumbnailGenerator)) {
+            @Override
+            protected File queueDirectory() {
+                return queueDirectory;
+            }
+        };
+    }
+
+    @Test
+    public void shouldPersistJobAndCreateImageThumbnailWhenProcessed() throws Exception {
+        File image = temporaryFolder.newFile("1-Consultation-abc.png");
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", image);
+
+        thumbnailWorker.enqueue(image, "image", "png");
+
+        File jobFile = new File(queueDirectory, image.getName() + ThumbnailWorker.JOB_EXTENSION);
+        assertTrue(jobFile.exists());
+        assertEquals(ThumbnailStatus.PENDING, thumbnailWorker.getStatus(image));
+
+        thumbnailWorker.process(jobFile);
+
+        File thumbnail = new File(temporaryFolder.getRoot(), "1-Consultation-abc_thumbnail.png");
+        assertEquals(100, ImageIO.read(thumbnail).getWidth());
+        assertFalse(jobFile.exists());
+        assertEquals(ThumbnailStatus.READY, thumbnailWorker.getStatus(image));
+    }
+
+    @Test
+    public void shouldCreateVideoThumbnailUsingSupportedGenerator() throws Exception {
+        File video = temporaryFolder.newFile("1-Consultation-abc.mov");
+        when(thumbnailGenerator.isFormatSupported("mov")).thenReturn(true);
+        when(thumbnailGenerator.generateThumbnail(video)).thenReturn(new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB));
+
+        thumbnailWorker.enqueue(video, "video", "mov");
+        thumbnailWorker.process(new File(queueDirectory, video.getName() + ThumbnailWorker.JOB_EXTENSION));
+
+        assertTrue(new File(temporaryFolder.getRoot(), "1-Consultation-abc_thumbnail.jpg").exists());
+        assertEquals(ThumbnailStatus.READY, thumbnailWorker.getStatus(video));
+    }
+
+    @Test
+    public void shouldNotQueueVideoWithoutSupportedGenerator() throws Exception {
+        File video = temporaryFolder.newFile("1-Consultation-abc.mkv");
+        when(thumbnailGenerator.isFormatSupported("mkv")).thenReturn(false);
+
+        thumbnailWorker.enqueue(video, "video", "mkv");
+
+        verify(thumbnailGenerator, never()).generateThumbnail(any(File.class));
+        assertEquals(ThumbnailStatus.NOT_AVAILABLE, thumbnailWorker.getStatus(video));
+    }
+
+    @Test
+    public void shouldRetryFailedJobsAndGiveUpAfterMaxAttempts() throws Exception {
+        File video = temporaryFolder.newFile("1-Consultation-abc.mov");
+        when(thumbnailGenerator.isFormatSupported("mov")).thenReturn(true);
+        when(thumbnailGenerator.generateThumbnail(video)).thenThrow(new IOException("corrupt video"));
+        thumbnailWorker.enqueue(video, "video", "mov");
+        File jobFile = new File(queueDirectory, video.getName() + ThumbnailWorker.JOB_EXTENSION);
+
+        for (int attempt = 1; attempt < ThumbnailWorker.MAX_ATTEMPTS; attempt++) {
+            thumbnailWorker.process(jobFile);
+            assertEquals(ThumbnailStatus.PENDING, thumbnailWorker.getStatus(video));
+        }
+        thumbnailWorker.process(jobFile);
+
+        assertFalse(jobFile.exists());
+        assertEquals(ThumbnailStatus.FAILED, thumbnailWorker.getStatus(video));
+    }
+}
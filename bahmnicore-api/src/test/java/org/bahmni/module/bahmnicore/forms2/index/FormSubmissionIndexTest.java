@@ -0,0 +1,81 @@
+package org.bahmni.module.bahmnicore.forms2.index;
+
+import org.bahmni.module.bahmnicore.cache.PatientLruCache;
+import org.bahmni.module.bahmnicore.dao.ObsDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.PersonName;
+
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class FormSubmissionIndexTest {
+    private static final String PATIENT_UUID = "patient-uuid";
+
+    @Mock
+    private ObsDao obsDao;
+
+    private FormSubmissionIndex index;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(obsDao.getFormSubmissions(PATIENT_UUID)).thenReturn(asList(
+                submission("encounter-uuid", "Vitals.2"),
+                submission("encounter-uuid", "History.1")));
+        index = new FormSubmissionIndex(obsDao);
+    }
+
+    @Test
+    public void shouldMapRowsToFormSubmissions() {
+        List<FormSubmission> submissions = index.getSubmissions(PATIENT_UUID);
+
+        assertEquals(2, submissions.size());
+        FormSubmission vitals = submissions.get(0);
+        assertEquals("Vitals", vitals.getFormName());
+        assertEquals(2, vitals.getFormVersion());
+        assertEquals("encounter-uuid", vitals.getEncounterUuid());
+        assertEquals(new Date(2000), vitals.getEncounterDateTime());
+        assertEquals("visit-uuid", vitals.getVisitUuid());
+        assertEquals(new Date(1000), vitals.getVisitStartDateTime());
+        assertEquals("Super Man", vitals.getProviderName());
+        assertEquals("creator-uuid", vitals.getProviderUuid());
+        assertEquals("History", submissions.get(1).getFormName());
+    }
+
+    @Test
+    public void shouldLoadPatientOnceUntilInvalidated() {
+        index.getSubmissions(PATIENT_UUID);
+        index.getSubmissions(PATIENT_UUID);
+        verify(obsDao, times(1)).getFormSubmissions(PATIENT_UUID);
+
+        index.invalidate(PATIENT_UUID);
+        index.getSubmissions(PATIENT_UUID);
+        verify(obsDao, times(2)).getFormSubmissions(PATIENT_UUID);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPatient() {
+        for (int patient = 0; patient <= PatientLruCache.MAX_PATIENTS; patient++) {
+            index.getSubmissions("patient-" + patient);
+        }
+        index.getSubmissions("patient-" + PatientLruCache.MAX_PATIENTS);
+        index.getSubmissions("patient-0");
+
+        verify(obsDao, times(1)).getFormSubmissions("patient-" + PatientLruCache.MAX_PATIENTS);
+        verify(obsDao, times(2)).getFormSubmissions("patient-0");
+    }
+
+    private Object[] submission(String encounterUuid, String formNameAndVersion) {
+        return new Object[]{encounterUuid, new Date(2000), "visit-uuid", new Date(1000), formNameAndVersion, "creator-uuid",
+                new PersonName("Super", null, "Man")};
+    }
+}
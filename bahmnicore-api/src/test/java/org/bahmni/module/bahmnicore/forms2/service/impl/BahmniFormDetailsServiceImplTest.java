@@ -2,332 +2,208 @@ package org.bahmni.module.bahmnicore.forms2.service.impl;
 
 import org.bahmni.module.bahmnicore.forms2.contract.FormType;
 import org.bahmni.module.bahmnicore.forms2.contract.FormDetails;
-import org.bahmni.module.bahmnicore.forms2.mapper.FormDetailsMapper;
-import org.bahmni.module.bahmnicore.forms2.util.FormUtil;
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmission;
+import org.bahmni.module.bahmnicore.forms2.index.FormSubmissionIndex;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.bahmni.module.bahmnicore.service.BahmniVisitService;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
-import org.junit.runner.RunWith;
-import org.mockito.internal.verification.VerificationModeFactory;
 import org.openmrs.Encounter;
-import org.openmrs.Obs;
 import org.openmrs.Patient;
-import org.openmrs.Person;
 import org.openmrs.Visit;
-import org.openmrs.api.EncounterService;
-import org.openmrs.api.ObsService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.VisitService;
-import org.openmrs.parameter.EncounterSearchCriteria;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.security.InvalidParameterException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.Date;
+import java.util.HashSet;
 
 import static java.util.Collections.singletonList;
-import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.powermock.api.mockito.PowerMockito.mockStatic;
-import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 
-@PrepareForTest({FormType.class, FormUtil.class, FormDetailsMapper.class})
-@RunWith(PowerMockRunner.class)
 public class BahmniFormDetailsServiceImplTest {
 
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
     private BahmniVisitService bahmniVisitService = mock(BahmniVisitService.class);
-    private FormDetails formDetails = mock(FormDetails.class);
-    private FormDetails anotherFormDetails = mock(FormDetails.class);
     private VisitService visitService = mock(VisitService.class);
     private BahmniProgramWorkflowService bahmniProgramWorkflowService = mock(BahmniProgramWorkflowService.class);
     private PatientService patientService = mock(PatientService.class);
-    private EncounterService encounterService = mock(EncounterService.class);
-    private ObsService obsService = mock(ObsService.class);
+    private FormSubmissionIndex formSubmissionIndex = mock(FormSubmissionIndex.class);
     private Patient patient = mock(Patient.class);
-    private Person person = mock(Person.class);
     private Visit visit = mock(Visit.class);
+    private Visit anotherVisit = mock(Visit.class);
     private Encounter encounter = mock(Encounter.class);
-    private Obs height = mock(Obs.class);
-    private Obs weight = mock(Obs.class);
-    private List<Obs> obs = Arrays.asList(height, weight);
     private BahmniFormDetailsServiceImpl bahmniFormDetailsService;
     private String patientUuid = "patient-uuid";
     private String patientProgramUuid = "patient-program-uuid";
     private String visitUuid = "visit-uuid";
+    private FormSubmission vitals = new FormSubmission("Vitals", 2, "encounter-uuid", new Date(), visitUuid,
+            new Date(), "Super Man", "provider-uuid");
+    private FormSubmission history = new FormSubmission("History", 1, "another-encounter-uuid", new Date(),
+            visitUuid, new Date(), "Super Man", "provider-uuid");
+    private FormSubmission olderVitals = new FormSubmission("Vitals", 1, "older-encounter-uuid", new Date(),
+            "another-visit-uuid", new Date(), "Bat Man", "another-provider-uuid");
 
     @Before
     public void setUp() {
         bahmniFormDetailsService = new BahmniFormDetailsServiceImpl(patientService, visitService,
-                encounterService, obsService, bahmniVisitService, bahmniProgramWorkflowService);
+                bahmniVisitService, bahmniProgramWorkflowService, formSubmissionIndex);
 
         when(patientService.getPatientByUuid(patientUuid)).thenReturn(patient);
-        when(visitService.getVisitsByPatient(patient)).thenReturn(singletonList(visit));
-        List<Encounter> encounters = singletonList(encounter);
-        when(encounterService.getEncounters(any(EncounterSearchCriteria.class))).thenReturn(encounters);
-        when(patient.getPerson()).thenReturn(person);
-        when(obsService.getObservations(anyListOf(Person.class), anyListOf(Encounter.class), any(), any(), any(), any(),
-                any(), any(), any(), any(), any(), any(Boolean.class))).thenReturn(obs);
+        when(patient.getUuid()).thenReturn(patientUuid);
+        when(visit.getUuid()).thenReturn(visitUuid);
+        when(visit.getNonVoidedEncounters()).thenReturn(singletonList(encounter));
+        when(anotherVisit.getUuid()).thenReturn("another-visit-uuid");
+        when(encounter.getUuid()).thenReturn("encounter-uuid");
+        when(visitService.getVisitsByPatient(patient)).thenReturn(Arrays.asList(visit, anotherVisit));
+        when(formSubmissionIndex.getSubmissions(patientUuid)).thenReturn(Arrays.asList(vitals, history, olderVitals));
     }
 
     @Test
     public void shouldReturnInvalidParameterExceptionIfPatientDoesNotFound() {
-
-        when(patientService.getPatientByUuid("patient-uuid")).thenReturn(null);
+        when(patientService.getPatientByUuid("patient uuid")).thenReturn(null);
         expectedException.expect(InvalidParameterException.class);
         expectedException.expectMessage("Patient does not exist");
 
-        Collection<FormDetails> formDetailsCollection = bahmniFormDetailsService.getFormDetails("patient uuid", FormType.FORMS1, -1);
-
-        assertEquals(0, formDetailsCollection.size());
-
+        bahmniFormDetailsService.getFormDetails("patient uuid", FormType.FORMS1, -1);
     }
 
     @Test
     public void shouldReturnFormDetailsForGivenPatientUuidAndFormTypeIsV2() {
-        mockFilterFormBuilderObs();
-        mockStatic(FormDetailsMapper.class);
-        List<FormDetails> expectedFormDetails = Arrays.asList(formDetails, anotherFormDetails);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(expectedFormDetails);
-        Collection<FormDetails> formBuilderFormDetails = bahmniFormDetailsService.getFormDetails("patient-uuid", FormType.FORMS2, -1);
-
-        assertEquals(2, formBuilderFormDetails.size());
-        containsInAnyOrder(expectedFormDetails, formBuilderFormDetails.toArray());
-
-        verifyCommonMockCalls();
-        verifyFilterFormBuilderObsMockCall(1);
-        verifyCreateFormDetailsMockCall(1);
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, -1);
+
+        assertEquals(3, formDetails.size());
+        verify(formSubmissionIndex, times(1)).getSubmissions(patientUuid);
     }
 
     @Test
     public void shouldReturnFormDetailsOfTypeV2ForGivenPatientUuidAndNoFormTypeIsProvided() {
-        mockFilterFormBuilderObs();
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, null, -1);
 
-        mockStatic(FormDetailsMapper.class);
-        List<FormDetails> expectedFormDetails = Arrays.asList(formDetails, anotherFormDetails);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(expectedFormDetails);
-        Collection<FormDetails> formBuilderFormDetails = bahmniFormDetailsService.getFormDetails("patient-uuid", null, -1);
-
-        assertEquals(2, formBuilderFormDetails.size());
-        containsInAnyOrder(expectedFormDetails, formBuilderFormDetails.toArray());
-
-        verifyCommonMockCalls();
-        verifyFilterFormBuilderObsMockCall(1);
-        verifyCreateFormDetailsMockCall(1);
+        assertEquals(3, formDetails.size());
+        assertEquals(FormType.FORMS2.getType(), formDetails.iterator().next().getFormType());
     }
 
     @Test
     public void shouldReturnEmptyCollectionOfFormDetailsIfFormTypeIsAvailableButNotV2() {
-        Collection<FormDetails> formBuilderFormDetails = bahmniFormDetailsService.getFormDetails("patient-uuid", FormType.FORMS1, -1);
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS1, -1);
 
-        assertEquals(0, formBuilderFormDetails.size());
+        assertEquals(0, formDetails.size());
+        verify(formSubmissionIndex, never()).getSubmissions(anyString());
     }
 
     @Test
     public void shouldReturnFormDetailsGivenPatientUuidFormTypeAsV2AndNumberOfVisitsAreOne() {
-        Visit anotherVisit = mock(Visit.class);
-        when(visitService.getVisitsByPatient(patient)).thenReturn(Arrays.asList(anotherVisit, visit));
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, 1);
 
-        mockFilterFormBuilderObs();
+        assertEquals(2, formDetails.size());
+        assertEquals(new HashSet<>(Arrays.asList("Vitals", "History")), formNames(formDetails));
+        for (FormDetails formDetail : formDetails) {
+            assertEquals(visitUuid, formDetail.getVisitUuid());
+        }
+    }
 
-        mockStatic(FormDetailsMapper.class);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(singletonList(formDetails));
-        Collection<FormDetails> formBuilderFormDetails = bahmniFormDetailsService.getFormDetails("patient-uuid", FormType.FORMS2, 1);
+    @Test
+    public void shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveVisits() {
+        when(visitService.getVisitsByPatient(patient)).thenReturn(Collections.emptyList());
 
-        assertEquals(1, formBuilderFormDetails.size());
-        assertEquals(formDetails, formBuilderFormDetails.iterator().next());
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, -1);
 
-        verifyCommonMockCalls();
+        assertEquals(0, formDetails.size());
+        verify(formSubmissionIndex, never()).getSubmissions(anyString());
+    }
 
-        verifyFilterFormBuilderObsMockCall(1);
+    @Test
+    public void shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveFormSubmissions() {
+        when(formSubmissionIndex.getSubmissions(patientUuid)).thenReturn(Collections.emptyList());
 
-        verifyCreateFormDetailsMockCall(1);
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, -1);
 
+        assertEquals(0, formDetails.size());
     }
 
     @Test
-    public void shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveVisits() {
-        when(visitService.getVisitsByPatient(patient)).thenReturn(Collections.emptyList());
-        shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveVisitsOrEncounters();
+    public void shouldMergeProvidersOfSameFormInSameEncounter() {
+        FormSubmission vitalsByAnotherProvider = new FormSubmission("Vitals", 2, "encounter-uuid", new Date(),
+                visitUuid, new Date(), "Bat Man", "another-provider-uuid");
+        when(formSubmissionIndex.getSubmissions(patientUuid)).thenReturn(Arrays.asList(vitals, vitalsByAnotherProvider));
 
-    }
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, -1);
 
-    @Test
-    public void shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveEncounters() {
-        when(encounterService.getEncounters(any(EncounterSearchCriteria.class))).thenReturn(Collections.emptyList());
-        shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveVisitsOrEncounters();
+        assertEquals(1, formDetails.size());
+        assertEquals(2, formDetails.iterator().next().getProviders().size());
     }
 
     @Test
     public void shouldReturnFormDetailsGivenPatientUuidFormTypeAsV2AndVisitUuid() {
         when(bahmniVisitService.getVisitSummary(visitUuid)).thenReturn(visit);
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(any(String.class)))
-                .thenReturn(Collections.emptyList());
-
-        mockFilterFormBuilderObs();
-
-        mockStatic(FormDetailsMapper.class);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(singletonList(formDetails));
-
-        Collection<FormDetails> actualFormDetailsCollection = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, visitUuid, null);
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, visitUuid, null);
 
-        assertEquals(1, actualFormDetailsCollection.size());
-        assertEquals(formDetails, actualFormDetailsCollection.iterator().next());
-
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-        verify(patient, times(1)).getPerson();
-        verify(obsService, times(1)).getObservations(anyListOf(Person.class),
-                anyListOf(Encounter.class), any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any(Boolean.class));
+        assertEquals(new HashSet<>(Arrays.asList("Vitals", "History")), formNames(formDetails));
         verify(bahmniVisitService, times(1)).getVisitSummary(visitUuid);
-        verify(bahmniProgramWorkflowService, times(1)).getEncountersByPatientProgramUuid(null);
-
-        verifyFilterFormBuilderObsMockCall(1);
-
-        verifyCreateFormDetailsMockCall(1);
+        verify(bahmniProgramWorkflowService, never()).getEncounterUuidsByPatientProgramUuid(anyString());
     }
 
     @Test
     public void shouldReturnFormDetailsGivenPatientUuidFormTypeAsV2AndPatientProgramUuid() {
         when(bahmniVisitService.getVisitSummary(null)).thenReturn(null);
-        when(encounterService.getEncounters(any(EncounterSearchCriteria.class))).thenReturn(null);
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid))
-                .thenReturn(singletonList(encounter));
-
-        mockFilterFormBuilderObs();
-
-        mockStatic(FormDetailsMapper.class);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(singletonList(formDetails));
-
-        Collection<FormDetails> actualFormDetailsCollection = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, null, patientProgramUuid);
+        when(bahmniProgramWorkflowService.getEncounterUuidsByPatientProgramUuid(patientProgramUuid))
+                .thenReturn(singletonList("older-encounter-uuid"));
 
-        assertEquals(1, actualFormDetailsCollection.size());
-        assertEquals(formDetails, actualFormDetailsCollection.iterator().next());
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, null, patientProgramUuid);
 
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-        verify(patient, times(1)).getPerson();
-        verify(obsService, times(1)).getObservations(anyListOf(Person.class),
-                anyListOf(Encounter.class), any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any(Boolean.class));
+        assertEquals(1, formDetails.size());
+        assertEquals("older-encounter-uuid", formDetails.iterator().next().getEncounterUuid());
         verify(bahmniVisitService, times(1)).getVisitSummary(null);
-        verify(bahmniProgramWorkflowService, times(1)).getEncountersByPatientProgramUuid(patientProgramUuid);
-
-        verifyFilterFormBuilderObsMockCall(1);
-
-        verifyCreateFormDetailsMockCall(1);
+        verify(bahmniProgramWorkflowService, times(1)).getEncounterUuidsByPatientProgramUuid(patientProgramUuid);
+        verify(bahmniProgramWorkflowService, never()).getEncountersByPatientProgramUuid(anyString());
     }
 
     @Test
     public void shouldReturnFormDetailsGivenPatientUuidFormTypeAsV2VisitUuidAndPatientProgramUuid() {
         when(bahmniVisitService.getVisitSummary(visitUuid)).thenReturn(visit);
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid))
-                .thenReturn(singletonList(encounter));
-        when(encounter.getVisit()).thenReturn(visit);
-
-        mockFilterFormBuilderObs();
-
-        mockStatic(FormDetailsMapper.class);
-        when(FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class)))
-                .thenReturn(singletonList(formDetails));
+        when(bahmniProgramWorkflowService.getEncounterUuidsByPatientProgramUuid(patientProgramUuid))
+                .thenReturn(singletonList("encounter-uuid"));
 
-        Collection<FormDetails> actualFormDetailsCollection = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, visitUuid, patientProgramUuid);
-
-        assertEquals(1, actualFormDetailsCollection.size());
-        assertEquals(formDetails, actualFormDetailsCollection.iterator().next());
-
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-        verify(patient, times(1)).getPerson();
-        verify(obsService, times(1)).getObservations(anyListOf(Person.class),
-                anyListOf(Encounter.class), any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any(Boolean.class));
-        verify(bahmniVisitService, times(1)).getVisitSummary(visitUuid);
-        verify(bahmniProgramWorkflowService, times(1)).getEncountersByPatientProgramUuid(patientProgramUuid);
+        Collection<FormDetails> formDetails = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, visitUuid, patientProgramUuid);
 
-        verifyFilterFormBuilderObsMockCall(1);
-
-        verifyCreateFormDetailsMockCall(1);
+        assertEquals(1, formDetails.size());
+        FormDetails formDetail = formDetails.iterator().next();
+        assertEquals("Vitals", formDetail.getFormName());
+        assertEquals("encounter-uuid", formDetail.getEncounterUuid());
     }
 
     @Test
     public void shouldReturnEmptyCollectionOfFormDetailsGivenPatientUuidFormTypeAsV2InvalidVisitUuidAndInvalidPatientProgramUuid() {
         when(bahmniVisitService.getVisitSummary(visitUuid)).thenReturn(null);
-        when(encounterService.getEncounters(any(EncounterSearchCriteria.class))).thenReturn(null);
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid))
-                .thenReturn(null);
+        when(bahmniProgramWorkflowService.getEncounterUuidsByPatientProgramUuid(patientProgramUuid))
+                .thenReturn(Collections.emptyList());
 
-        Collection<FormDetails> actualFormDetailsCollection = bahmniFormDetailsService
+        Collection<FormDetails> formDetails = bahmniFormDetailsService
                 .getFormDetails(patientUuid, FormType.FORMS2, visitUuid, patientProgramUuid);
 
-        assertEquals(0, actualFormDetailsCollection.size());
-
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-        verify(bahmniVisitService, times(1)).getVisitSummary(visitUuid);
-        verify(bahmniProgramWorkflowService, times(1)).getEncountersByPatientProgramUuid(patientProgramUuid);
-    }
-
-    private void verifyCreateFormDetailsMockCall(int wantedNumberOfInvocations) {
-        verifyStatic(VerificationModeFactory.times(wantedNumberOfInvocations));
-        FormDetailsMapper.createFormDetails(anyListOf(Obs.class), any(FormType.class));
+        assertEquals(0, formDetails.size());
+        verify(formSubmissionIndex, never()).getSubmissions(anyString());
     }
 
-    private void verifyFilterFormBuilderObsMockCall(int wantedNumberOfInvocations) {
-        verifyStatic(VerificationModeFactory.times(wantedNumberOfInvocations));
-        FormUtil.filterFormBuilderObs(obs);
+    private HashSet<String> formNames(Collection<FormDetails> formDetails) {
+        HashSet<String> formNames = new HashSet<>();
+        for (FormDetails formDetail : formDetails) {
+            formNames.add(formDetail.getFormName());
+        }
+        return formNames;
     }
-
-    private void mockFilterFormBuilderObs() {
-        mockStatic(FormUtil.class);
-        when(FormUtil.filterFormBuilderObs(obs)).thenReturn(obs);
-    }
-
-    private void verifyCommonMockCalls() {
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(visitService, times(1)).getVisitsByPatient(patient);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-        verify(patient, times(1)).getPerson();
-        verify(obsService, times(1)).getObservations(anyListOf(Person.class),
-                anyListOf(Encounter.class), any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any(Boolean.class));
-    }
-
-    private void shouldReturnEmptyCollectionsOfFormDetailsIfPatientDoesNotHaveVisitsOrEncounters() {
-
-        Collection<FormDetails> formDetailsCollection = bahmniFormDetailsService.getFormDetails(patientUuid, FormType.FORMS2, -1);
-
-        assertEquals(0, formDetailsCollection.size());
-
-        verify(patientService, times(1)).getPatientByUuid(patientUuid);
-        verify(visitService, times(1)).getVisitsByPatient(patient);
-        verify(encounterService, times(1)).getEncounters(any(EncounterSearchCriteria.class));
-
-        verify(patient, times(0)).getPerson();
-        verify(obsService, times(0)).getObservations(anyListOf(Person.class),
-                anyListOf(Encounter.class), any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any(Boolean.class));
-
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package org.bahmni.module.bahmnicore.location;
+
+import org.bahmni.module.bahmnicore.location.LocationTagIndex.TaggedLocations;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.Location;
+import org.openmrs.LocationTag;
+import org.openmrs.api.LocationService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class LocationTagIndexTest {
+    @Mock
+    private LocationService locationService;
+    private LocationTagIndex locationTagIndex;
+    private LocationTag loginLocation;
+    private LocationTag visitLocation;
+    private LocationTag admissionLocation;
+    private Location hospital;
+    private Location opd;
+    private Location ward;
+    private List<Location> locations;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        loginLocation = new LocationTag("Login Location", null);
+        visitLocation = new LocationTag("Visit Location", null);
+        admissionLocation = new LocationTag("Admission Location", null);
+        hospital = location(1, visitLocation);
+        opd = location(2, loginLocation);
+        ward = location(3, loginLocation, visitLocation);
+        locations = new ArrayList<>(asList(hospital, opd, ward));
+        when(locationService.getAllLocationTags(true)).thenReturn(asList(loginLocation, visitLocation, admissionLocation));
+        when(locationService.getAllLocations(false)).thenReturn(locations);
+        locationTagIndex = new LocationTagIndex(locationService);
+    }
+
+    @Test
+    public void shouldReturnLocationsHavingAllTags() {
+        assertEquals(asList(opd, ward), locationTagIndex.getLocationsHavingAllTags(asList("Login Location")).getLocations());
+        assertEquals(asList(ward), locationTagIndex.getLocationsHavingAllTags(asList("login location", "Visit Location")).getLocations());
+        assertTrue(locationTagIndex.getLocationsHavingAllTags(asList("Login Location", "Admission Location")).getLocations().isEmpty());
+    }
+
+    @Test
+    public void shouldReturnLocationsHavingAnyTag() {
+        assertEquals(asList(hospital, opd, ward), locationTagIndex.getLocationsHavingAnyTag(asList("Login Location", "Visit Location")).getLocations());
+        assertTrue(locationTagIndex.getLocationsHavingAnyTag(asList("Admission Location")).getLocations().isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreTagsThatDoNotExist() {
+        assertEquals(asList(opd, ward), locationTagIndex.getLocationsHavingAllTags(asList("Login Location", "Unknown")).getLocations());
+        assertTrue(locationTagIndex.getLocationsHavingAnyTag(asList("Unknown")).getLocations().isEmpty());
+    }
+
+    @Test
+    public void shouldBuildIndexOnceAndChangeVersionAfterInvalidation() {
+        TaggedLocations before = locationTagIndex.getLocationsHavingAllTags(asList("Visit Location"));
+        locations.add(location(4, visitLocation));
+
+        assertEquals(before.getVersion(), locationTagIndex.getLocationsHavingAllTags(asList("Visit Location")).getVersion());
+        assertEquals(2, locationTagIndex.getLocationsHavingAllTags(asList("Visit Location")).getLocations().size());
+
+        locationTagIndex.invalidate();
+        TaggedLocations after = locationTagIndex.getLocationsHavingAllTags(asList("Visit Location"));
+
+        assertNotEquals(before.getVersion(), after.getVersion());
+        assertEquals(3, after.getLocations().size());
+        verify(locationService, times(2)).getAllLocations(false);
+    }
+
+    private Location location(int id, LocationTag... tags) {
+        Location location = new Location(id);
+        for (LocationTag tag : tags) {
+            location.addTag(tag);
+        }
+        when(locationService.getLocation(id)).thenReturn(location);
+        return location;
+    }
+}
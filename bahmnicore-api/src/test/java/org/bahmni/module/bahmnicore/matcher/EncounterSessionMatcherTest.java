@@ -1,7 +1,7 @@
 package org.bahmni.module.bahmnicore.matcher;
 
 import org.apache.commons.lang3.time.DateUtils;
-import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -11,6 +11,7 @@ import org.mockito.Mock;
 import org.openmrs.Encounter;
 import org.openmrs.EncounterProvider;
 import org.openmrs.EncounterType;
+import org.openmrs.GlobalProperty;
 import org.openmrs.Location;
 import org.openmrs.Patient;
 import org.openmrs.Person;
@@ -24,8 +25,6 @@ import org.openmrs.api.impl.EncounterServiceImpl;
 import org.openmrs.module.bahmniemrapi.encountertransaction.mapper.EncounterTypeIdentifier;
 import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
 import org.openmrs.module.emrapi.encounter.EncounterParameters;
-import org.openmrs.module.episodes.Episode;
-import org.openmrs.module.episodes.service.EpisodeService;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -83,18 +82,15 @@ public class EncounterSessionMatcherTest {
     private EncounterSessionMatcher encounterSessionMatcher;
     private Location location;
     @Mock
-    private BahmniProgramWorkflowService bahmniProgramWorkflowService;
+    private EpisodeDao episodeDao;
 
     @Mock
     private BahmniVisitLocationService bahmniVisitLocationService;
 
-    @Mock
-    private EpisodeService episodeService;
-
     @Before
     public void setUp(){
         initMocks(this);
-        encounterSessionMatcher = new EncounterSessionMatcher(administrationService, encounterTypeIdentifier, encounterService, bahmniProgramWorkflowService, episodeService, bahmniVisitLocationService);
+        encounterSessionMatcher = new EncounterSessionMatcher(administrationService, encounterTypeIdentifier, encounterService, episodeDao, bahmniVisitLocationService);
         visit = new Visit();
         visit.setId(3);
 
@@ -150,7 +146,7 @@ public class EncounterSessionMatcherTest {
                 any(Date.class), any(Date.class), any(Collection.class),
                 any(Collection.class), any(Collection.class), any(Collection.class),
                 any(Collection.class), eq(false))).thenReturn(Arrays.asList(encounterOne));
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(null)).thenReturn(Collections.<Encounter>emptyList());
+        when(episodeDao.getEncountersInAnyEpisode(any(Collection.class))).thenReturn(Collections.<Encounter>emptyList());
     }
 
     @Test
@@ -287,7 +283,7 @@ public class EncounterSessionMatcherTest {
         when(userContext.getAuthenticatedUser()).thenReturn(creator1);
         when(encounterService.getEncounters(any(Patient.class), any(Location.class), any(Date.class), any(Date.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), eq(false)))
                 .thenReturn(Arrays.asList(e1));
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid)).thenReturn(Collections.<Encounter>emptyList());
+        when(episodeDao.getEncountersInPatientProgram(eq(patientProgramUuid), any(Collection.class))).thenReturn(Collections.<Encounter>emptyList());
 
         Encounter encounterReturned = encounterSessionMatcher.findEncounter(null, encounterParameters);
         assertNull(encounterReturned);
@@ -337,11 +333,11 @@ public class EncounterSessionMatcherTest {
         when(userContext.getAuthenticatedUser()).thenReturn(creator1);
         when(encounterService.getEncounters(any(Patient.class), any(Location.class), any(Date.class), any(Date.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), eq(false)))
                 .thenReturn(encounters);
-        when(episodeService.getEpisodeForEncounter(e1)).thenReturn(new Episode());
+        when(episodeDao.getEncountersInAnyEpisode(encounters)).thenReturn(Arrays.asList(e1));
 
         Encounter encounterReturned = encounterSessionMatcher.findEncounter(null, encounterParameters);
 
-        verify(episodeService, times(1)).getEpisodeForEncounter(e1);
+        verify(episodeDao, times(1)).getEncountersInAnyEpisode(encounters);
         assertThat(encounterReturned, is(nullValue()));
     }
 
@@ -369,12 +365,11 @@ public class EncounterSessionMatcherTest {
         when(userContext.getAuthenticatedUser()).thenReturn(creator1);
         when(encounterService.getEncounters(any(Patient.class), any(Location.class), any(Date.class), any(Date.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), eq(false)))
                 .thenReturn(encounters);
-        when(episodeService.getEpisodeForEncounter(e1)).thenReturn(new Episode());
+        when(episodeDao.getEncountersInAnyEpisode(encounters)).thenReturn(Arrays.asList(e1));
 
         Encounter encounterReturned = encounterSessionMatcher.findEncounter(null, encounterParameters);
 
-        verify(episodeService, times(1)).getEpisodeForEncounter(e1);
-        verify(episodeService, times(1)).getEpisodeForEncounter(e2);
+        verify(episodeDao, times(1)).getEncountersInAnyEpisode(encounters);
         assertThat(encounterReturned, is(equalTo(e2)));
     }
 
@@ -469,6 +464,51 @@ public class EncounterSessionMatcherTest {
         assertNull(encounterReturned);
     }
 
+    @Test
+    public void shouldReturnEncounterBelongingToTheGivenPatientProgram() {
+        EncounterParameters encounterParameters = getEncounterParameters(null, location);
+        HashMap<String, Object> context = new HashMap<>();
+        String patientProgramUuid = "94393942-dc4d-11e5-b5d2-0a1d41d68578";
+        context.put("patientProgramUuid", patientProgramUuid);
+        encounterParameters.setContext(context);
+        encounterParameters.setEncounterDateTime(DateUtils.truncate(new Date(), Calendar.DATE));
+
+        User creator1 = new User(1);
+        Encounter e1 = new Encounter();
+        e1.setCreator(creator1);
+        e1.setLocation(location);
+        Encounter e2 = new Encounter();
+        e2.setCreator(creator1);
+        e2.setLocation(location);
+        List<Encounter> encounters = Arrays.asList(e1, e2);
+
+        when(userContext.getAuthenticatedUser()).thenReturn(creator1);
+        when(bahmniVisitLocationService.getVisitLocation(any(String.class))).thenReturn(location);
+        when(encounterService.getEncounters(any(Patient.class), any(Location.class), any(Date.class), any(Date.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), any(Collection.class), eq(false)))
+                .thenReturn(encounters);
+        when(episodeDao.getEncountersInPatientProgram(patientProgramUuid, encounters)).thenReturn(Arrays.asList(e2));
+
+        Encounter encounterReturned = encounterSessionMatcher.findEncounter(null, encounterParameters);
+
+        assertThat(encounterReturned, is(equalTo(e2)));
+        verify(bahmniVisitLocationService, times(1)).getVisitLocation(location.getUuid());
+    }
+
+    @Test
+    public void shouldReadSessionDurationOnlyUntilTheGlobalPropertyChanges() {
+        EncounterParameters encounterParameters = getEncounterParameters(providers, location);
+        when(bahmniVisitLocationService.getVisitLocation(any(String.class))).thenReturn(location);
+
+        encounterSessionMatcher.findEncounter(visit, encounterParameters);
+        encounterSessionMatcher.findEncounter(visit, encounterParameters);
+        verify(administrationService, times(1)).getGlobalProperty("bahmni.encountersession.duration");
+
+        assertTrue(encounterSessionMatcher.supportsPropertyName("bahmni.encountersession.duration"));
+        encounterSessionMatcher.globalPropertyChanged(new GlobalProperty("bahmni.encountersession.duration", "30"));
+        encounterSessionMatcher.findEncounter(visit, encounterParameters);
+        verify(administrationService, times(2)).getGlobalProperty("bahmni.encountersession.duration");
+    }
+
     private EncounterParameters getEncounterParameters(Set<Provider> providers, Location location) {
         return getEncounterParameters(providers, location, this.encounterType);
     }
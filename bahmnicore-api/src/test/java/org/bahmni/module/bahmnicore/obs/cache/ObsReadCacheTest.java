@@ -0,0 +1,163 @@
+package org.bahmni.module.bahmnicore.obs.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniObservation;
+import org.openmrs.module.emrapi.encounter.domain.EncounterTransaction;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class ObsReadCacheTest {
+    @Mock
+    private AdministrationService administrationService;
+
+    private ObsReadCache obsReadCache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        PowerMockito.mockStatic(Context.class);
+        PowerMockito.when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+        when(administrationService.getGlobalProperty(ObsReadCache.ENABLED_GLOBAL_PROPERTY, "false")).thenReturn("true");
+        when(administrationService.getGlobalProperty(ObsReadCache.MAX_PATIENTS_GLOBAL_PROPERTY)).thenReturn("2");
+        obsReadCache = new ObsReadCache(administrationService);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void shouldLoadOnlyOnceForSameQuery() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight", 1}, loader());
+        Collection<BahmniObservation> observations = obsReadCache.get("patient1", "getLatest", new Object[]{"Weight", 1}, loader());
+
+        assertEquals(1, observations.size());
+        assertEquals(1, loads.get());
+        assertEquals(1, obsReadCache.getStatistics().getHits());
+        assertEquals(1, obsReadCache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void shouldLoadAgainForDifferentArguments() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight", 1}, loader());
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight", 2}, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldLoadAgainAfterPatientIsInvalidated() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+        obsReadCache.get("patient2", "getLatest", new Object[]{"Weight"}, loader());
+        obsReadCache.invalidate("patient1");
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+        obsReadCache.get("patient2", "getLatest", new Object[]{"Weight"}, loader());
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void shouldNotCacheResultLoadedAcrossAnInvalidation() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, () -> {
+            loads.incrementAndGet();
+            obsReadCache.invalidate("patient1");
+            return singletonList(new BahmniObservation());
+        });
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPatientBeyondMaxPatients() {
+        obsReadCache.get("patient1", "getLatest", null, loader());
+        obsReadCache.get("patient2", "getLatest", null, loader());
+        obsReadCache.get("patient1", "getLatest", null, loader());
+        obsReadCache.get("patient3", "getLatest", null, loader());
+        obsReadCache.get("patient1", "getLatest", null, loader());
+
+        assertEquals(3, loads.get());
+        assertEquals(2, obsReadCache.getStatistics().getSize());
+        assertEquals(1, obsReadCache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void shouldKeepSeveralQueriesOfAPatientAsOneCachedPatient() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Height"}, loader());
+        obsReadCache.get("patient1", "getInitial", new Object[]{"Weight"}, loader());
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+
+        assertEquals(3, loads.get());
+        assertEquals(1, obsReadCache.getStatistics().getSize());
+        assertEquals(2, obsReadCache.getStatistics().getMaxPatients());
+    }
+
+    @Test
+    public void shouldAlwaysLoadWhenDisabled() {
+        when(administrationService.getGlobalProperty(ObsReadCache.ENABLED_GLOBAL_PROPERTY, "false")).thenReturn("false");
+        obsReadCache.globalPropertyChanged(new GlobalProperty(ObsReadCache.ENABLED_GLOBAL_PROPERTY, "false"));
+
+        obsReadCache.get("patient1", "getLatest", null, loader());
+        obsReadCache.get("patient1", "getLatest", null, loader());
+
+        assertEquals(2, loads.get());
+        assertEquals(0, obsReadCache.getStatistics().getSize());
+    }
+
+    @Test
+    public void shouldLoadAgainForAnotherLocale() {
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+        PowerMockito.when(Context.getLocale()).thenReturn(Locale.FRENCH);
+        obsReadCache.get("patient1", "getLatest", new Object[]{"Weight"}, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotLetCallersChangeCachedObservations() {
+        BahmniObservation member = new BahmniObservation().setConcept(new EncounterTransaction.Concept("weight-uuid", "Weight"));
+        member.setUuid("member-uuid");
+        BahmniObservation group = new BahmniObservation().setConcept(new EncounterTransaction.Concept("vitals-uuid", "Vitals"));
+        group.setUuid("group-uuid");
+        group.addGroupMember(member);
+        Supplier<Collection<BahmniObservation>> loader = () -> singletonList(group);
+
+        BahmniObservation loaded = obsReadCache.get("patient1", "getLatest", null, loader).iterator().next();
+        loaded.removeGroupMembers(loaded.getGroupMembers());
+        loaded.setValue("changed by a script");
+        BahmniObservation first = obsReadCache.get("patient1", "getLatest", null, loader).iterator().next();
+        first.getGroupMembers().iterator().next().getConcept().setName("Changed");
+        BahmniObservation second = obsReadCache.get("patient1", "getLatest", null, loader).iterator().next();
+
+        assertNotSame(first, second);
+        assertEquals(null, second.getValue());
+        assertEquals(1, second.getGroupMembers().size());
+        assertEquals("Weight", second.getGroupMembers().iterator().next().getConcept().getName());
+    }
+
+    private Supplier<Collection<BahmniObservation>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return singletonList(new BahmniObservation());
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package org.bahmni.module.bahmnicore.obs.series;
+
+import org.bahmni.module.bahmnicore.cache.PatientLruCache;
+import org.bahmni.module.bahmnicore.dao.ObsDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class NumericObsSeriesStoreTest {
+    private static final String PATIENT_UUID = "patient-uuid";
+    private static final int PULSE = 5;
+    private static final int WEIGHT = 9;
+
+    @Mock
+    private ObsDao obsDao;
+
+    private NumericObsSeriesStore store;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(obsDao.getNumericObsSeriesPoints(PATIENT_UUID)).thenReturn(asList(
+                point(PULSE, 1000, 72),
+                point(PULSE, 2000, 80),
+                point(PULSE, 3000, 76),
+                point(WEIGHT, 1500, 61.5)));
+        store = new NumericObsSeriesStore(obsDao);
+    }
+
+    @Test
+    public void shouldGroupPointsIntoOneSeriesPerConcept() {
+        List<NumericObsSeries> series = store.getSeries(PATIENT_UUID, null, null, null);
+
+        assertEquals(2, series.size());
+        assertEquals(Integer.valueOf(PULSE), series.get(0).getConceptId());
+        assertEquals(3, series.get(0).size());
+        assertEquals(new Date(2000), series.get(0).getTime(1));
+        assertEquals(80, series.get(0).getValue(1), 0);
+        assertEquals(Integer.valueOf(WEIGHT), series.get(1).getConceptId());
+        assertEquals(61.5, series.get(1).getValue(0), 0);
+        assertEquals(asList(PULSE, WEIGHT), store.getConceptIds(PATIENT_UUID));
+    }
+
+    @Test
+    public void shouldReturnOnlySeriesWithPointsInRange() {
+        List<NumericObsSeries> series = store.getSeries(PATIENT_UUID, new Date(2000), new Date(3000), null);
+
+        assertEquals(1, series.size());
+        assertEquals(2, series.get(0).size());
+        assertEquals(new Date(2000), series.get(0).getTime(0));
+        assertEquals(new Date(3000), series.get(0).getTime(1));
+    }
+
+    @Test
+    public void shouldLoadPatientOnceUntilInvalidated() {
+        store.getSeries(PATIENT_UUID, null, null, null);
+        store.getConceptIds(PATIENT_UUID);
+        verify(obsDao, times(1)).getNumericObsSeriesPoints(PATIENT_UUID);
+
+        store.invalidate(PATIENT_UUID);
+        store.getConceptIds(PATIENT_UUID);
+        verify(obsDao, times(2)).getNumericObsSeriesPoints(PATIENT_UUID);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPatient() {
+        for (int patient = 0; patient <= PatientLruCache.MAX_PATIENTS; patient++) {
+            store.getConceptIds("patient-" + patient);
+        }
+        store.getConceptIds("patient-" + PatientLruCache.MAX_PATIENTS);
+        store.getConceptIds("patient-0");
+
+        verify(obsDao, times(1)).getNumericObsSeriesPoints("patient-" + PatientLruCache.MAX_PATIENTS);
+        verify(obsDao, times(2)).getNumericObsSeriesPoints("patient-0");
+    }
+
+    @Test
+    public void shouldKeepExtremesWhenDownsampling() {
+        List<Object[]> points = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            points.add(point(PULSE, index * 1000L, index == 37 ? 180 : 70));
+        }
+        when(obsDao.getNumericObsSeriesPoints("icu-patient")).thenReturn(points);
+
+        NumericObsSeries series = store.getSeries("icu-patient", null, null, 10).get(0);
+
+        assertEquals(true, series.size() <= 10);
+        boolean spikeKept = false;
+        for (int index = 0; index < series.size(); index++) {
+            spikeKept = spikeKept || series.getValue(index) == 180;
+            if (index > 0) {
+                assertEquals(true, series.getTime(index - 1).before(series.getTime(index)));
+            }
+        }
+        assertEquals(true, spikeKept);
+    }
+
+    @Test
+    public void shouldNotCopySeriesThatNeedNoReduction() {
+        NumericObsSeries series = store.getSeries(PATIENT_UUID, null, null, null).get(0);
+
+        assertSame(series, series.between(null, null));
+        assertSame(series, series.downsample(10));
+    }
+
+    private Object[] point(int conceptId, long time, double value) {
+        return new Object[]{conceptId, new Date(time), value};
+    }
+}
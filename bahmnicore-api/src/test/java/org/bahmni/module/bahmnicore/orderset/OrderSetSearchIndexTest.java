@@ -0,0 +1,64 @@
+package org.bahmni.module.bahmnicore.orderset;
+
+import org.bahmni.module.bahmnicore.dao.BahmniOrderSetDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class OrderSetSearchIndexTest {
+    @Mock
+    private BahmniOrderSetDao bahmniOrderSetDao;
+    private OrderSetSearchIndex orderSetSearchIndex;
+    private List<Object[]> entries;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        entries = new ArrayList<>();
+        entries.add(new Object[]{1, "Order_set_3", "New_Order_Set_desc"});
+        entries.add(new Object[]{2, "Malaria protocol", "First line treatment"});
+        entries.add(new Object[]{3, "Order_Set_1", "Order_Set_1_desc"});
+        entries.add(new Object[]{4, "Pneumonia", "Antibiotic order set for adults"});
+        when(bahmniOrderSetDao.getOrderSetSearchEntries()).thenReturn(entries);
+        orderSetSearchIndex = new OrderSetSearchIndex(bahmniOrderSetDao);
+    }
+
+    @Test
+    public void shouldMatchNameOrDescriptionIgnoringCase() {
+        assertEquals(asList(3, 1, 4), orderSetSearchIndex.search("ORDER"));
+        assertEquals(asList(2), orderSetSearchIndex.search("line"));
+        assertTrue(orderSetSearchIndex.search("Random").isEmpty());
+    }
+
+    @Test
+    public void shouldRequireEveryTokenAndRankNamePrefixMatchesFirst() {
+        assertEquals(asList(2), orderSetSearchIndex.search("protocol mal"));
+        assertEquals(asList(3, 1, 4), orderSetSearchIndex.search("set order"));
+        assertEquals(asList(1), orderSetSearchIndex.search("order 3"));
+        assertEquals(asList(4), orderSetSearchIndex.search("adults set"));
+    }
+
+    @Test
+    public void shouldBuildIndexOnceUntilInvalidated() {
+        orderSetSearchIndex.search("order");
+        entries.add(new Object[]{5, "Order for dengue", null});
+
+        assertEquals(3, orderSetSearchIndex.search("order").size());
+        verify(bahmniOrderSetDao, times(1)).getOrderSetSearchEntries();
+
+        orderSetSearchIndex.invalidate();
+        assertEquals(4, orderSetSearchIndex.search("order").size());
+        verify(bahmniOrderSetDao, times(2)).getOrderSetSearchEntries();
+    }
+}
@@ -0,0 +1,185 @@
+package org.bahmni.module.bahmnicore.person;
+
+import org.bahmni.module.bahmnicore.dao.PersonAttributeDao;
+import org.bahmni.module.bahmnicore.dao.PersonNameDao;
+import org.bahmni.module.bahmnicore.model.ResultList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Person;
+import org.openmrs.PersonAttribute;
+import org.openmrs.PersonAttributeType;
+import org.openmrs.PersonName;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.PersonService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class DemographicAutocompleteIndexTest {
+
+    @Mock
+    private PersonNameDao personNameDao;
+
+    @Mock
+    private PersonAttributeDao personAttributeDao;
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private AdministrationService administrationService;
+
+    private DemographicAutocompleteIndex index;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(personNameDao.getValueFrequencies("familyName")).thenReturn(asList(
+                row("Singh", 40L),
+                row("singh", 2L),
+                row("Sinha", 12L),
+                row("Sahu", 30L),
+                row("Banka", 5L)));
+        when(personAttributeDao.getValueFrequencies("caste")).thenReturn(asList(
+                row("Brâhmin", 3L),
+                row("Baniya", 8L)));
+        when(administrationService.getGlobalProperty(DemographicAutocompleteIndex.ATTRIBUTE_TYPES_GLOBAL_PROPERTY, ""))
+                .thenReturn("caste, retired,missing");
+        when(personService.getPersonAttributeTypeByName("caste")).thenReturn(attributeType("caste", false));
+        when(personService.getPersonAttributeTypeByName("retired")).thenReturn(attributeType("retired", true));
+        index = new DemographicAutocompleteIndex(personNameDao, personAttributeDao, personService, administrationService);
+    }
+
+    @Test
+    public void shouldRankPrefixMatchesByFrequency() {
+        ResultList names = index.getNames("familyName", "S");
+
+        assertEquals(asList("Singh", "Sahu", "Sinha"), names.getResults());
+        assertEquals(asList("Singh", "Sinha"), index.getNames("familyName", " sin").getResults());
+    }
+
+    @Test
+    public void shouldIgnoreAccentsWhenMatching() {
+        assertEquals(asList("Brâhmin"), index.getAttributeValues("caste", "brah").getResults());
+        assertEquals(asList("Baniya", "Brâhmin"), index.getAttributeValues("caste", "b").getResults());
+    }
+
+    @Test
+    public void shouldLoadEachDictionaryOnceUntilRebuilt() {
+        index.getNames("familyName", "s");
+        index.getNames("familyName", "b");
+        verify(personNameDao, times(1)).getValueFrequencies("familyName");
+
+        index.rebuild();
+        index.getNames("familyName", "s");
+        verify(personNameDao, times(2)).getValueFrequencies("familyName");
+    }
+
+    @Test
+    public void shouldReturnAtMostTwentySuggestions() {
+        List<Object[]> givenNames = new ArrayList<>();
+        for (int name = 0; name < 50; name++) {
+            givenNames.add(row("Ram" + name, (long) name));
+        }
+        when(personNameDao.getValueFrequencies("givenName")).thenReturn(givenNames);
+
+        List<String> results = index.getNames("givenName", "ram").getResults();
+
+        assertEquals(DemographicAutocompleteIndex.MAX_RESULTS, results.size());
+        assertEquals("Ram49", results.get(0));
+    }
+
+    @Test
+    public void shouldSearchDatabaseForFieldsThatAreNotIndexed() {
+        ResultList expected = new ResultList(asList("Dr"));
+        when(personNameDao.getUnique("title", "d")).thenReturn(expected);
+
+        assertEquals(expected, index.getNames("title", "d"));
+    }
+
+    @Test
+    public void shouldSuggestValuesOfSavedPersonInLoadedDictionaries() {
+        index.getNames("familyName", "s");
+        index.getAttributeValues("caste", "b");
+        Person person = new Person();
+        person.addName(new PersonName("Ravi", null, "Sharma"));
+        PersonAttributeType caste = new PersonAttributeType();
+        caste.setName("caste");
+        person.addAttribute(new PersonAttribute(caste, "Bhil"));
+
+        index.record(person);
+
+        assertEquals(asList("Sharma"), index.getNames("familyName", "sha").getResults());
+        assertEquals(asList("Bhil"), index.getAttributeValues("caste", "bh").getResults());
+        verify(personNameDao, times(0)).getValueFrequencies("givenName");
+    }
+
+    @Test
+    public void shouldSearchDatabaseForAttributesThatAreNotConfiguredOrDoNotExist() {
+        ResultList expected = new ResultList(asList("Teacher"));
+        when(personAttributeDao.getUnique("occupation", "t")).thenReturn(expected);
+
+        assertEquals(expected, index.getAttributeValues("occupation", "t"));
+        index.getAttributeValues("retired", "t");
+        index.getAttributeValues("missing", "t");
+
+        verify(personAttributeDao, never()).getValueFrequencies(anyString());
+        verify(personAttributeDao).getUnique("retired", "t");
+        verify(personAttributeDao).getUnique("missing", "t");
+    }
+
+    @Test
+    public void shouldReadConfiguredAttributesAgainAfterTheGlobalPropertyChanges() {
+        index.getAttributeValues("occupation", "t");
+        when(administrationService.getGlobalProperty(DemographicAutocompleteIndex.ATTRIBUTE_TYPES_GLOBAL_PROPERTY, ""))
+                .thenReturn("occupation");
+        when(personService.getPersonAttributeTypeByName("occupation")).thenReturn(attributeType("occupation", false));
+
+        index.globalPropertyChanged(new GlobalProperty(DemographicAutocompleteIndex.ATTRIBUTE_TYPES_GLOBAL_PROPERTY, "occupation"));
+        index.getAttributeValues("occupation", "t");
+
+        verify(personAttributeDao, times(1)).getUnique("occupation", "t");
+        verify(personAttributeDao, times(1)).getValueFrequencies("occupation");
+    }
+
+    @Test
+    public void shouldKeepOnlyTheMostCommonValuesOfADictionary() {
+        List<Object[]> givenNames = new ArrayList<>();
+        for (int name = 0; name <= DemographicAutocompleteIndex.MAX_VALUES; name++) {
+            givenNames.add(row("Ram" + name, name + 1L));
+        }
+        when(personNameDao.getValueFrequencies("givenName")).thenReturn(givenNames);
+
+        assertTrue(index.getNames("givenName", "ram0").getResults().isEmpty());
+        String mostCommon = "Ram" + DemographicAutocompleteIndex.MAX_VALUES;
+        assertEquals(asList(mostCommon), index.getNames("givenName", mostCommon).getResults());
+
+        Person person = new Person();
+        person.addName(new PersonName("Ramesh", null, "Singh"));
+        index.record(person);
+        assertTrue(index.getNames("givenName", "rames").getResults().isEmpty());
+    }
+
+    private PersonAttributeType attributeType(String name, boolean retired) {
+        PersonAttributeType attributeType = new PersonAttributeType();
+        attributeType.setName(name);
+        attributeType.setRetired(retired);
+        return attributeType;
+    }
+
+    private Object[] row(String value, long count) {
+        return new Object[]{value, count};
+    }
+}
@@ -1,30 +1,40 @@
 package org.bahmni.module.bahmnicore.service.impl;
 
+import org.bahmni.module.bahmnicore.concept.ConceptAnswerIndex;
 import org.bahmni.module.bahmnicore.dao.BahmniConceptDao;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.openmrs.Concept;
 import org.openmrs.ConceptAnswer;
 import org.openmrs.Drug;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
 public class BahmniConceptServiceImplTest {
 
     public static final String QUESTION = "question";
@@ -33,24 +43,29 @@ public class BahmniConceptServiceImplTest {
     private BahmniConceptDao bahmniConceptDao;
     @Mock
     private ConceptService conceptService;
+    @Mock
+    private ConceptAnswerIndex conceptAnswerIndex;
     private BahmniConceptServiceImpl bahmniConceptService;
 
     @Before
     public void setUp() {
         initMocks(this);
-        bahmniConceptService = new BahmniConceptServiceImpl(conceptService, bahmniConceptDao);
+        PowerMockito.mockStatic(Context.class);
+        when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+        bahmniConceptService = new BahmniConceptServiceImpl(conceptService, bahmniConceptDao, conceptAnswerIndex);
     }
 
     @Test
-    public void searchByQuestionShouldUseBahmniConceptDaoToSearchConcepts() {
+    public void searchByQuestionShouldUseConceptAnswerIndexToSearchConcepts() {
         Concept questionConcept = new Concept();
         when(bahmniConceptDao.getConceptByFullySpecifiedName(QUESTION)).thenReturn(questionConcept);
         ConceptAnswer resultConceptAnswer = new ConceptAnswer();
-        when(bahmniConceptDao.searchByQuestion(questionConcept, SEARCH_QUERY)).thenReturn(Arrays.asList(resultConceptAnswer));
+        when(conceptAnswerIndex.search(questionConcept, SEARCH_QUERY, Locale.ENGLISH)).thenReturn(Arrays.asList(resultConceptAnswer));
 
         Collection<ConceptAnswer> conceptAnswers = bahmniConceptService.searchByQuestion(QUESTION, SEARCH_QUERY);
         assertThat(conceptAnswers.size(), is(equalTo(1)));
         assertThat(conceptAnswers.iterator().next().getUuid(), is(equalTo(resultConceptAnswer.getUuid())));
+        verify(bahmniConceptDao, never()).searchByQuestion(questionConcept, SEARCH_QUERY);
     }
 
     @Test(expected = ConceptNotFoundException.class)
@@ -9,7 +9,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openmrs.CareSetting;
 import org.openmrs.Concept;
-import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.OrderType;
 import org.openmrs.Patient;
@@ -55,15 +54,15 @@ public class BahmniDrugOrderServiceImplTest {
     private final OrderType mockOrderType = mock(OrderType.class);
     private HashSet<Concept> conceptsToFilter;
     private final ArgumentCaptor<Date> dateArgumentCaptor = ArgumentCaptor.forClass(Date.class);
-    private final List<Encounter> encounters = new ArrayList<>();
+    private final List<Integer> encounterIds = new ArrayList<>();
 
 
     @Before
     public void setUp() throws Exception {
         initMocks(this);
-        encounters.add(new Encounter());
+        encounterIds.add(1);
 
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(PATIENT_PROGRAM_UUID)).thenReturn(encounters);
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(PATIENT_PROGRAM_UUID)).thenReturn(encounterIds);
         when(patientService.getPatientByUuid(PATIENT_UUID)).thenReturn(mockPatient);
         when(orderService.getCareSettingByName(anyString())).thenReturn(mockCareSetting);
         when(orderService.getOrderTypeByName("Drug order")).thenReturn(mockOrderType);
@@ -84,12 +83,12 @@ public class BahmniDrugOrderServiceImplTest {
        bahmniDrugOrderService.getDrugOrders(PATIENT_UUID, true, conceptsToFilter, null, PATIENT_PROGRAM_UUID);
 
         final Date value = dateArgumentCaptor.getValue();
-        verify(orderDao).getActiveOrders(mockPatient, mockOrderType, mockCareSetting, value, conceptsToFilter, null, null, null, encounters);
+        verify(orderDao).getActiveOrders(mockPatient, mockOrderType, mockCareSetting, value, conceptsToFilter, null, null, null, encounterIds);
     }
 
     @Test
     public void shouldReturnEmptyListWhenNoEncountersAssociatedWithPatientProgram() throws ParseException {
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(PATIENT_PROGRAM_UUID)).thenReturn(new HashSet<Encounter>());
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(PATIENT_PROGRAM_UUID)).thenReturn(new ArrayList<Integer>());
 
         final List<BahmniDrugOrder> drugOrders = bahmniDrugOrderService.getDrugOrders(PATIENT_UUID, true, null, null, PATIENT_PROGRAM_UUID);
 
@@ -101,15 +100,15 @@ public class BahmniDrugOrderServiceImplTest {
     public void shouldGetAllDrugOrdersOfAPatientProgram() throws ParseException {
         bahmniDrugOrderService.getDrugOrders(PATIENT_UUID, null, conceptsToFilter, null, PATIENT_PROGRAM_UUID);
 
-        verify(orderDao).getAllOrders(mockPatient, mockOrderType, conceptsToFilter, null, encounters);
+        verify(orderDao).getAllOrders(mockPatient, mockOrderType, conceptsToFilter, null, encounterIds);
     }
 
     @Test
     public void shouldNotConsiderEncountersToFetchDrugOrdersIfPatientProgramUuidIsNull() throws Exception {
         bahmniDrugOrderService.getDrugOrders(PATIENT_UUID, null, conceptsToFilter, null, null);
-        List<Encounter> encounters = null ;
+        List<Integer> encounterIds = null ;
 
-        verify(orderDao).getAllOrders(mockPatient, mockOrderType,conceptsToFilter, null, encounters);
+        verify(orderDao).getAllOrders(mockPatient, mockOrderType,conceptsToFilter, null, encounterIds);
         verifyNoMoreInteractions(bahmniProgramWorkflowService);
     }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package org.bahmni.module.bahmnicore.service.impl;
 import org.bahmni.module.bahmnicore.dao.ObsDao;
 import org.bahmni.module.bahmnicore.dao.VisitDao;
 import org.bahmni.module.bahmnicore.dao.impl.ObsDaoImpl;
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCache;
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeriesStore;
 import org.bahmni.module.bahmnicore.service.BahmniObsService;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.bahmni.test.builder.ConceptBuilder;
@@ -14,8 +16,10 @@ import org.mockito.Mock;
 import org.openmrs.Concept;
 import org.openmrs.Encounter;
 import org.openmrs.Obs;
+import org.openmrs.Order;
 import org.openmrs.Person;
 import org.openmrs.Visit;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.ObsService;
 import org.openmrs.api.VisitService;
@@ -33,6 +37,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.EMPTY_LIST;
@@ -45,6 +50,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -75,6 +81,8 @@ public class BahmniObsServiceImplTest {
     private ObsService obsService;
     @Mock
     private OMRSObsToBahmniObsMapper omrsObsToBahmniObsMapper;
+    @Mock
+    private AdministrationService administrationService;
 
     @Before
     public void setUp() {
@@ -83,7 +91,8 @@ public class BahmniObsServiceImplTest {
         mockStatic(LocaleUtility.class);
         when(LocaleUtility.getDefaultLocale()).thenReturn(Locale.ENGLISH);
         when(observationTypeMatcher.getObservationType(any(Obs.class))).thenReturn(ObservationTypeMatcher.ObservationType.OBSERVATION);
-        bahmniObsService = new BahmniObsServiceImpl(obsDao, omrsObsToBahmniObsMapper, visitService, conceptService, visitDao, bahmniProgramWorkflowService, obsService);
+        bahmniObsService = new BahmniObsServiceImpl(obsDao, omrsObsToBahmniObsMapper, visitService, conceptService, visitDao, bahmniProgramWorkflowService, obsService,
+                new ObsReadCache(administrationService), new NumericObsSeriesStore(obsDao));
     }
 
     @Test
@@ -93,9 +102,15 @@ public class BahmniObsServiceImplTest {
     }
 
     @Test
-    public void shouldGetNumericConcepts() throws Exception {
-        bahmniObsService.getNumericConceptsForPerson(personUUID);
-        verify(obsDao).getNumericConceptsForPerson(personUUID);
+    public void shouldGetDistinctNumericConceptsFromSeries() throws Exception {
+        Concept pulse = new ConceptBuilder().withName("Pulse").build();
+        when(obsDao.getNumericObsSeriesPoints(personUUID)).thenReturn(asList(
+                new Object[]{7, new Date(1000), 72.0},
+                new Object[]{7, new Date(2000), 80.0}));
+        when(conceptService.getConcept(7)).thenReturn(pulse);
+
+        assertEquals(singletonList(pulse), bahmniObsService.getNumericConceptsForPerson(personUUID));
+        verify(obsDao).getNumericObsSeriesPoints(personUUID);
     }
 
     @Test
@@ -119,6 +134,30 @@ public class BahmniObsServiceImplTest {
                 asList(visit.getVisitId()), limit, ObsDaoImpl.OrderBy.ASC, obsIgnoreList, true, null, null, null);
     }
 
+    @Test
+    public void shouldFetchObservationsOfAllOrdersInOneQueryAndGroupThemByOrder() throws Exception {
+        Concept radiologyConcept = new ConceptBuilder().withName("X-Ray").build();
+        Order firstOrder = createOrder(1);
+        Order secondOrder = createOrder(2);
+        Obs firstOrderObs = createObs(firstOrder);
+        Obs secondOrderObs = createObs(secondOrder);
+        Obs anotherSecondOrderObs = createObs(secondOrder);
+        List<Order> orders = asList(firstOrder, secondOrder, createOrder(3));
+        when(obsDao.getObsByPatientAndOrders(personUUID, asList("X-Ray"), null, orders))
+                .thenReturn(asList(secondOrderObs, firstOrderObs, anotherSecondOrderObs));
+        List<BahmniObservation> firstOrderObservations = singletonList(new BahmniObservation());
+        List<BahmniObservation> secondOrderObservations = asList(new BahmniObservation(), new BahmniObservation());
+        when(omrsObsToBahmniObsMapper.map(singletonList(firstOrderObs), asList(radiologyConcept))).thenReturn(firstOrderObservations);
+        when(omrsObsToBahmniObsMapper.map(asList(secondOrderObs, anotherSecondOrderObs), asList(radiologyConcept))).thenReturn(secondOrderObservations);
+
+        Map<Integer, Collection<BahmniObservation>> observationsByOrder = bahmniObsService.observationsForOrders(personUUID, asList(radiologyConcept), null, orders);
+
+        verify(obsDao, times(1)).getObsByPatientAndOrders(personUUID, asList("X-Ray"), null, orders);
+        assertEquals(2, observationsByOrder.size());
+        assertEquals(firstOrderObservations, observationsByOrder.get(1));
+        assertEquals(secondOrderObservations, observationsByOrder.get(2));
+    }
+
     @Test
     public void shouldGetAllObsForOrder() throws Exception {
         bahmniObsService.getObservationsForOrder("orderUuid");
@@ -127,14 +166,15 @@ public class BahmniObsServiceImplTest {
 
     @Test
     public void shouldGetObsForPatientProgram() {
-        Collection<Encounter> encounters = asList(new Encounter(), new Encounter());
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(any(String.class))).thenReturn(encounters);
+        List<Integer> encounterIds = asList(1, 2);
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(any(String.class))).thenReturn(encounterIds);
         Concept bloodPressureConcept = new ConceptBuilder().withName("Blood Pressure").build();
         Integer numberOfVisits = 3;
 
         bahmniObsService.observationsFor(personUUID, bloodPressureConcept, bloodPressureConcept, numberOfVisits, null, null, "patientProgramUuid");
-        verify(obsDao).getObsFor(personUUID, bloodPressureConcept, bloodPressureConcept, visitDao.getVisitIdsFor(personUUID, numberOfVisits), encounters, null, null);
-        verify(bahmniProgramWorkflowService).getEncountersByPatientProgramUuid("patientProgramUuid");
+        verify(obsDao).getObsFor(personUUID, bloodPressureConcept, bloodPressureConcept, visitDao.getVisitIdsFor(personUUID, numberOfVisits), encounterIds, null, null);
+        verify(bahmniProgramWorkflowService).getEncounterIdsByPatientProgramUuid("patientProgramUuid");
+        verify(bahmniProgramWorkflowService, never()).getEncountersByPatientProgramUuid(any(String.class));
     }
 
     @Test
@@ -149,7 +189,7 @@ public class BahmniObsServiceImplTest {
 
     @Test
     public void shouldReturnEmptyObservationListIfProgramDoesNotHaveEncounters() {
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(any(String.class))).thenReturn(EMPTY_LIST);
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(any(String.class))).thenReturn(EMPTY_LIST);
         Concept bloodPressureConcept = new ConceptBuilder().withName("Blood Pressure").build();
 
         Collection<BahmniObservation> observations = bahmniObsService.observationsFor(personUUID, bloodPressureConcept, bloodPressureConcept, 3, null, null, "patientProgramUuid");
@@ -165,7 +205,8 @@ public class BahmniObsServiceImplTest {
         int numberOfVisits = 3;
         bahmniObsService.observationsFor(personUUID, bloodPressureConcept, bloodPressureConcept, numberOfVisits, null, null, null);
 
-        verify(obsDao).getObsFor(personUUID, bloodPressureConcept, bloodPressureConcept, visitDao.getVisitIdsFor(personUUID, numberOfVisits), new ArrayList<Encounter>(), null, null);
+        verify(obsDao).getObsFor(personUUID, bloodPressureConcept, bloodPressureConcept, visitDao.getVisitIdsFor(personUUID, numberOfVisits), new ArrayList<Integer>(), null, null);
+        verify(bahmniProgramWorkflowService, never()).getEncounterIdsByPatientProgramUuid(any(String.class));
     }
 
     @Test
@@ -233,19 +274,19 @@ public class BahmniObsServiceImplTest {
         int numberOfVisits = 2;
         List<Integer> visitIds = asList(100, 101);
         List<String> formNames = singletonList("First Aid Form");
-        List<Encounter> encounters = singletonList(mock(Encounter.class));
+        List<Integer> encounterIds = singletonList(10);
 
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid))
-                .thenReturn(encounters);
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(patientProgramUuid))
+                .thenReturn(encounterIds);
         when(visitDao.getVisitIdsFor(patientUuid, numberOfVisits)).thenReturn(visitIds);
-        when(obsDao.getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounters, null, null))
+        when(obsDao.getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounterIds, null, null))
                 .thenReturn(EMPTY_LIST);
 
         bahmniObsService.getObsForFormBuilderForms(patientUuid, formNames, numberOfVisits, null, null, patientProgramUuid);
 
-        verify(bahmniProgramWorkflowService).getEncountersByPatientProgramUuid(patientProgramUuid);
+        verify(bahmniProgramWorkflowService).getEncounterIdsByPatientProgramUuid(patientProgramUuid);
         verify(visitDao).getVisitIdsFor(patientUuid, numberOfVisits);
-        verify(obsDao).getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounters, null, null);
+        verify(obsDao).getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounterIds, null, null);
     }
 
     @Test
@@ -255,14 +296,14 @@ public class BahmniObsServiceImplTest {
         int numberOfVisits = 2;
         List<Integer> visitIds = asList(100, 101);
         List<String> formNames = singletonList("First Aid Form");
-        List<Encounter> encounters = singletonList(mock(Encounter.class));
+        List<Integer> encounterIds = singletonList(10);
         Obs observation = mock(Obs.class);
         BahmniObservation bahmniObservation = mock(BahmniObservation.class);
 
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid))
-                .thenReturn(encounters);
+        when(bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid(patientProgramUuid))
+                .thenReturn(encounterIds);
         when(visitDao.getVisitIdsFor(patientUuid, numberOfVisits)).thenReturn(visitIds);
-        when(obsDao.getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounters, null, null))
+        when(obsDao.getObsForFormBuilderForms(patientUuid, formNames, visitIds, encounterIds, null, null))
                 .thenReturn(singletonList(observation));
         when(omrsObsToBahmniObsMapper.map(observation)).thenReturn(bahmniObservation);
 
@@ -272,4 +313,16 @@ public class BahmniObsServiceImplTest {
         assertEquals(1, bahmniObservations.size());
         assertEquals(bahmniObservation, bahmniObservations.iterator().next());
     }
+
+    private Order createOrder(int orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    private Obs createObs(Order order) {
+        Obs obs = new Obs();
+        obs.setOrder(order);
+        return obs;
+    }
 }
@@ -14,6 +14,7 @@ import org.openmrs.Order;
 import org.openmrs.OrderType;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.module.bahmniemrapi.encountertransaction.contract.BahmniObservation;
 import org.openmrs.module.bahmniemrapi.order.contract.BahmniOrder;
 import org.openmrs.module.emrapi.encounter.ConceptMapper;
 import org.openmrs.module.emrapi.encounter.domain.EncounterTransaction;
@@ -21,13 +22,19 @@ import org.openmrs.util.LocaleUtility;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -105,13 +112,38 @@ public class BahmniOrderServiceImplTest {
 
     @Test
     public void shouldGetBahmniOrdersForVisit() throws Exception {
-        when(orderService.getAllOrdersForVisitUuid(visitUUID, "someOrderTypeUuid")).thenReturn(Arrays.asList(createOrder(), createOrder()));
+        List<Order> orders = Arrays.asList(createOrder(), createOrder());
+        when(orderService.getAllOrdersForVisitUuid(visitUUID, "someOrderTypeUuid")).thenReturn(orders);
         List<BahmniOrder> bahmniOrders = bahmniOrderService.ordersForVisit(visitUUID, "someOrderTypeUuid", null, Arrays.asList(concept));
-        verify(bahmniObsService).getObservationForVisit(visitUUID, null, Arrays.asList(concept), false, order);
+        verify(bahmniObsService).getObservationsForVisitOrders(visitUUID, null, Arrays.asList(concept), orders);
         verify(orderService).getAllOrdersForVisitUuid(visitUUID, "someOrderTypeUuid");
         Assert.assertEquals(2, bahmniOrders.size());
     }
 
+    @Test
+    public void shouldFetchObservationsOfAllOrdersInOneCallIrrespectiveOfNumberOfOrders() throws Exception {
+        for (int numberOfOrders : new int[]{1, 10, 200}) {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < numberOfOrders; i++) {
+                orders.add(createOrder(i));
+            }
+            BahmniObsService obsService = mock(BahmniObsService.class);
+            Map<Integer, Collection<BahmniObservation>> observationsByOrder = new HashMap<>();
+            observationsByOrder.put(0, Arrays.asList(new BahmniObservation()));
+            when(obsService.observationsForOrders(personUUID, Arrays.asList(concept), null, orders)).thenReturn(observationsByOrder);
+            when(orderService.getAllOrders(personUUID, "someOrderTypeUuid", null, null, null)).thenReturn(orders);
+
+            List<BahmniOrder> bahmniOrders = new BahmniOrderServiceImpl(orderService, obsService, conceptMapper)
+                    .ordersForOrderType(personUUID, Arrays.asList(concept), null, null, "someOrderTypeUuid", true, null);
+
+            verify(obsService, times(1)).observationsForOrders(personUUID, Arrays.asList(concept), null, orders);
+            verifyNoMoreInteractions(obsService);
+            Assert.assertEquals(numberOfOrders, bahmniOrders.size());
+            Assert.assertTrue(bahmniOrders.get(0).getHasObservations());
+            Assert.assertEquals(1, bahmniOrders.get(0).getBahmniObservations().size());
+        }
+    }
+
 
     @Test
     public void shouldGetChildOrder() throws Exception {
@@ -121,6 +153,10 @@ public class BahmniOrderServiceImplTest {
     }
 
     private Order createOrder() {
+        return createOrder(1);
+    }
+
+    private Order createOrder(int orderId) {
         order = new Order();
         patient = new Patient();
         patient.setId(1);
@@ -134,7 +170,7 @@ public class BahmniOrderServiceImplTest {
         provider.setName("Superman");
         order.setOrderer(provider);
         order.setConcept(concept);
-        order.setId(1);
+        order.setId(orderId);
         order.setPatient(patient);
         CareSetting careSetting = new CareSetting();
         careSetting.setId(1);
@@ -1,6 +1,7 @@
 package org.bahmni.module.bahmnicore.service.impl;
 
 import org.bahmni.module.bahmnicore.dao.BahmniProgramWorkflowDAO;
+import org.bahmni.module.bahmnicore.dao.EpisodeDao;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.BahmniPatientProgram;
 import org.bahmni.module.bahmnicore.model.bahmniPatientProgram.ProgramAttributeType;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
@@ -17,7 +18,10 @@ import org.openmrs.module.episodes.Episode;
 import org.openmrs.module.episodes.service.EpisodeService;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -38,6 +42,9 @@ public class BahmniProgramWorkflowServiceImplTest {
     @Mock
     private EpisodeService episodeService;
 
+    @Mock
+    private EpisodeDao episodeDao;
+
     @Mock
     private BahmniPatientProgram patientProgram;
 
@@ -46,7 +53,7 @@ public class BahmniProgramWorkflowServiceImplTest {
 
     @Before
     public void before() {
-        bahmniProgramWorkflowService = new BahmniProgramWorkflowServiceImpl(bahmniProgramWorkflowDAO, episodeService);
+        bahmniProgramWorkflowService = new BahmniProgramWorkflowServiceImpl(bahmniProgramWorkflowDAO, episodeService, episodeDao);
     }
 
     @Test
@@ -119,38 +126,41 @@ public class BahmniProgramWorkflowServiceImplTest {
     }
 
     @Test
-    public void testGetEncountersByPatientProgram() {
-        Episode episode = new Episode();
-        String patientProgramUuid = "patientProgramUuid";
-        BahmniPatientProgram patientProgram = new BahmniPatientProgram();
-        patientProgram.setUuid(patientProgramUuid);
-        patientProgram.setPatient(new Patient());
-        patientProgram.setProgram(new Program());
+    public void shouldQueryProgramEncountersWithoutLoadingTheEpisode() {
+        bahmniProgramWorkflowService.getEncountersByPatientProgramUuid("patientProgramUuid");
 
-        when(bahmniProgramWorkflowDAO.getPatientProgramByUuid(patientProgramUuid)).thenReturn(patientProgram);
-        when(episodeService.getEpisodeForPatientProgram(patientProgram)).thenReturn(episode);
+        verify(episodeDao).getEncountersInPatientProgram("patientProgramUuid", null, null, null, null);
+        verify(episodeService, times(0)).getEpisodeForPatientProgram(any(PatientProgram.class));
+    }
 
-        bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
+    @Test
+    public void shouldQueryPagedProgramEncountersWithoutLoadingTheEpisode() {
+        Date startDate = new Date();
 
-        verify(bahmniProgramWorkflowDAO).getPatientProgramByUuid(patientProgramUuid);
-        verify(episodeService).getEpisodeForPatientProgram(patientProgram);
+        bahmniProgramWorkflowService.getEncountersByPatientProgramUuid("patientProgramUuid", startDate, null, "lastEncounterUuid", 10);
+
+        verify(episodeDao).getEncountersInPatientProgram("patientProgramUuid", startDate, null, "lastEncounterUuid", 10);
+        verify(episodeService, times(0)).getEpisodeForPatientProgram(any(PatientProgram.class));
     }
 
     @Test
-    public void testNullEncountersByPatientProgramIfEpisodeCannotBeFound() {
-        String patientProgramUuid = "patientProgramUuid";
-        BahmniPatientProgram patientProgram = new BahmniPatientProgram();
-        patientProgram.setUuid(patientProgramUuid);
-        patientProgram.setPatient(new Patient());
-        patientProgram.setProgram(new Program());
+    public void shouldQueryProgramEncounterIdsWithoutLoadingTheEpisode() {
+        when(episodeDao.getEncounterIdsInPatientProgram("patientProgramUuid")).thenReturn(Arrays.asList(1, 2));
 
-        when(bahmniProgramWorkflowDAO.getPatientProgramByUuid(patientProgramUuid)).thenReturn(patientProgram);
-        when(episodeService.getEpisodeForPatientProgram(patientProgram)).thenReturn(null);
+        List<Integer> encounterIds = bahmniProgramWorkflowService.getEncounterIdsByPatientProgramUuid("patientProgramUuid");
+
+        assertThat(encounterIds, is(equalTo(Arrays.asList(1, 2))));
+        verify(episodeService, times(0)).getEpisodeForPatientProgram(any(PatientProgram.class));
+    }
+
+    @Test
+    public void shouldQueryProgramObsOfGivenConcepts() {
+        List<Concept> concepts = Collections.singletonList(new Concept());
 
-        bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
+        bahmniProgramWorkflowService.getObsByPatientProgramUuid("patientProgramUuid", concepts, null, null, null, 20);
 
-        verify(bahmniProgramWorkflowDAO).getPatientProgramByUuid(patientProgramUuid);
-        verify(episodeService).getEpisodeForPatientProgram(patientProgram);
+        verify(episodeDao).getObsInPatientProgram("patientProgramUuid", concepts, null, null, null, 20);
+        verify(episodeService, times(0)).getEpisodeForPatientProgram(any(PatientProgram.class));
     }
 
     @Test
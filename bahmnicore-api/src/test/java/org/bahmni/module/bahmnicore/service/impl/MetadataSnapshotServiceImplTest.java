@@ -0,0 +1,107 @@
+package org.bahmni.module.bahmnicore.service.impl;
+
+import org.bahmni.module.bahmnicore.contract.drugorder.DrugOrderConfigResponse;
+import org.bahmni.module.bahmnicore.contract.encounter.response.EncounterConfigResponse;
+import org.bahmni.module.bahmnicore.service.BahmniDrugOrderService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.EncounterType;
+import org.openmrs.OrderType;
+import org.openmrs.VisitType;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.OrderService;
+import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class MetadataSnapshotServiceImplTest {
+    @Mock
+    private VisitService visitService;
+    @Mock
+    private EncounterService encounterService;
+    @Mock
+    private ConceptService conceptService;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private BahmniDrugOrderService drugOrderService;
+
+    private MetadataSnapshotServiceImpl metadataSnapshotService;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        PowerMockito.mockStatic(Context.class);
+        when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+
+        VisitType opd = new VisitType("OPD", "Out patient");
+        opd.setUuid("opd-uuid");
+        VisitType retired = new VisitType("Old", "Retired visit type");
+        retired.setRetired(true);
+        EncounterType consultation = new EncounterType("Consultation", "Consultation");
+        consultation.setUuid("consultation-uuid");
+        OrderType labOrder = new OrderType("Lab Order", "Lab Order", "org.openmrs.TestOrder");
+        labOrder.setUuid("lab-order-uuid");
+
+        when(visitService.getAllVisitTypes()).thenReturn(asList(opd, retired));
+        when(encounterService.getAllEncounterTypes(false)).thenReturn(asList(consultation));
+        when(orderService.getOrderTypes(true)).thenReturn(asList(labOrder));
+        when(conceptService.getConcept("Consultation Note")).thenReturn(null);
+        when(drugOrderService.getConfig()).thenReturn(new DrugOrderConfigResponse());
+
+        metadataSnapshotService = new MetadataSnapshotServiceImpl(visitService, encounterService, conceptService, orderService, drugOrderService);
+    }
+
+    @Test
+    public void shouldBuildEncounterConfigOncePerCallerContext() {
+        EncounterConfigResponse encounterConfig = metadataSnapshotService.getEncounterConfig("Consultation Note");
+        EncounterConfigResponse cachedEncounterConfig = metadataSnapshotService.getEncounterConfig("Consultation Note");
+
+        assertSame(encounterConfig, cachedEncounterConfig);
+        assertEquals(Collections.singletonMap("OPD", "opd-uuid"), encounterConfig.getVisitTypes());
+        assertEquals("consultation-uuid", encounterConfig.getEncounterTypes().get("Consultation"));
+        assertEquals("lab-order-uuid", encounterConfig.getOrderTypes().get("Lab Order"));
+        verify(visitService, times(1)).getAllVisitTypes();
+    }
+
+    @Test
+    public void shouldRebuildSnapshotsAfterInvalidation() {
+        EncounterConfigResponse encounterConfig = metadataSnapshotService.getEncounterConfig("Consultation Note");
+        metadataSnapshotService.getDrugOrderConfig();
+
+        metadataSnapshotService.invalidate();
+
+        assertNotSame(encounterConfig, metadataSnapshotService.getEncounterConfig("Consultation Note"));
+        metadataSnapshotService.getDrugOrderConfig();
+        verify(visitService, times(2)).getAllVisitTypes();
+        verify(drugOrderService, times(2)).getConfig();
+    }
+
+    @Test
+    public void shouldNotShareDosingRulesAcrossDrugOrderConfigResponses() {
+        DrugOrderConfigResponse drugOrderConfig = metadataSnapshotService.getDrugOrderConfig().withDosingRules(new String[]{"mg/kg"});
+
+        assertEquals("mg/kg", drugOrderConfig.getDosingRules()[0]);
+        assertEquals(null, metadataSnapshotService.getDrugOrderConfig().getDosingRules());
+        verify(drugOrderService, times(1)).getConfig();
+    }
+}
@@ -4,9 +4,10 @@ import org.apache.commons.io.FileUtils;
 import org.apache.xerces.impl.dv.util.Base64;
 import org.bahmni.module.bahmnicore.bahmniexceptions.FileTypeNotSupportedException;
 import org.bahmni.module.bahmnicore.bahmniexceptions.VideoFormatNotSupportedException;
+import org.bahmni.module.bahmnicore.document.ThumbnailStatus;
+import org.bahmni.module.bahmnicore.document.ThumbnailWorker;
 import org.bahmni.module.bahmnicore.model.VideoFormats;
 import org.bahmni.module.bahmnicore.properties.BahmniCoreProperties;
-import org.bahmni.module.bahmnicore.service.ThumbnailGenerator;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -21,8 +22,10 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.http.ResponseEntity;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Files;
@@ -52,7 +55,7 @@ public class PatientDocumentServiceImplTest {
     TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Mock
-    ThumbnailGenerator thumbnailGenerator;
+    ThumbnailWorker thumbnailWorker;
 
 
     @Test
@@ -121,22 +124,67 @@ public class PatientDocumentServiceImplTest {
     }
 
     @Test
-    public void shouldSaveImage() throws Exception {
+    public void shouldSaveImageAndQueueItsThumbnail() throws Exception {
         PowerMockito.mockStatic(BahmniCoreProperties.class);
-        PowerMockito.mockStatic(ImageIO.class);
-        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn("");
-        BufferedImage bufferedImage = new BufferedImage(1,2, 2);
-        when(ImageIO.read(Matchers.any(ByteArrayInputStream.class))).thenReturn(bufferedImage);
-        when(ImageIO.write(eq(bufferedImage),eq("jpg"), Matchers.any(File.class))).thenReturn(true);
-
-        Patient patient = new Patient();
-        patient.setId(1);
-        patient.setUuid("patient-uuid");
+        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 2, BufferedImage.TYPE_INT_RGB), "jpg", image);
 
         patientDocumentService = new PatientDocumentServiceImpl();
-        String url = patientDocumentService.saveDocument(1, "Consultation", "imageContent", "jpg", "image");
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+        String url = patientDocumentService.saveDocument(1, "Consultation", Base64.encode(image.toByteArray()), "jpg", "image");
 
         assertTrue(url.matches(".*1-Consultation-.*.jpg"));
+        File savedImage = new File(temporaryFolder.getRoot(), url);
+        assertArrayEquals(image.toByteArray(), Files.readAllBytes(savedImage.toPath()));
+        verify(thumbnailWorker).enqueue(savedImage, "image", "jpg");
+    }
+
+    @Test
+    public void shouldNotSaveImageWhenContentIsNotAnImage() throws Exception {
+        PowerMockito.mockStatic(BahmniCoreProperties.class);
+        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+
+        expectedException.expect(FileTypeNotSupportedException.class);
+        expectedException.expectMessage("The image format 'png' is not supported. Supported formats are [png, jpeg, gif]");
+
+        patientDocumentService = new PatientDocumentServiceImpl();
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+        patientDocumentService.saveDocument(1, "Consultation", Base64.encode("not an image".getBytes()), "png", "image");
+    }
+
+    @Test
+    public void shouldNotSaveImageWhenContentIsNotOfTheDeclaredFormat() throws Exception {
+        PowerMockito.mockStatic(BahmniCoreProperties.class);
+        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 2, BufferedImage.TYPE_INT_RGB), "jpg", image);
+
+        expectedException.expect(FileTypeNotSupportedException.class);
+        expectedException.expectMessage("The image format 'png' is not supported. Supported formats are [png, jpeg, gif]");
+
+        patientDocumentService = new PatientDocumentServiceImpl();
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+        patientDocumentService.saveDocument(1, "Consultation", Base64.encode(image.toByteArray()), "png", "image");
+    }
+
+    @Test
+    public void shouldSavePatientImageAsJpegWhateverFormatItWasCapturedIn() throws Exception {
+        PowerMockito.mockStatic(BahmniCoreProperties.class);
+        when(BahmniCoreProperties.getProperty("bahmnicore.images.directory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB), "png", image);
+
+        patientDocumentService = new PatientDocumentServiceImpl();
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+        patientDocumentService.saveImage("GAN200000", Base64.encode(image.toByteArray()));
+
+        File savedImage = new File(temporaryFolder.getRoot(), "GAN200000.jpeg");
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(savedImage)) {
+            assertEquals("jpeg", ImageIO.getImageReaders(imageInputStream).next().getFormatName().toLowerCase());
+        }
+        assertEquals(3, ImageIO.read(savedImage).getWidth());
+        verify(thumbnailWorker).enqueue(savedImage, "image", "jpeg");
     }
 
     @Test
@@ -178,7 +226,7 @@ public class PatientDocumentServiceImplTest {
     }
     
     @Test
-    public void shouldCreateThumbnailForVideo() throws Exception {
+    public void shouldQueueThumbnailForVideo() throws Exception {
         PowerMockito.mockStatic(BahmniCoreProperties.class);
         when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
 
@@ -188,38 +236,49 @@ public class PatientDocumentServiceImplTest {
 
         byte[] allBytes = Files.readAllBytes(Paths.get("src/test/resources/SampleVideo.mov"));
         String content = Base64.encode(allBytes);
-        List<ThumbnailGenerator> thumbnailGenerators = new ArrayList<>();
-        thumbnailGenerators.add(thumbnailGenerator);
 
         patientDocumentService = new PatientDocumentServiceImpl();
-        patientDocumentService.setThumbnailGenerators(thumbnailGenerators);
-        when(thumbnailGenerator.isFormatSupported("mov")).thenReturn(true);
-        when(thumbnailGenerator.generateThumbnail(any(File.class))).thenReturn(new BufferedImage(20,20, 1));
-        patientDocumentService.saveDocument(1, "Consultation", content, "mov", "video");
-        verify(thumbnailGenerator,times(1)).isFormatSupported("mov");
-        verify(thumbnailGenerator,times(1)).generateThumbnail(any(File.class));
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+        String url = patientDocumentService.saveDocument(1, "Consultation", content, "mov", "video");
+
+        File savedVideo = new File(temporaryFolder.getRoot(), url);
+        assertArrayEquals(allBytes, Files.readAllBytes(savedVideo.toPath()));
+        verify(thumbnailWorker, times(1)).enqueue(savedVideo, "video", "mov");
+    }
+
+    @Test
+    public void shouldGetThumbnailStatusOfDocumentFromWorker() throws Exception {
+        PowerMockito.mockStatic(BahmniCoreProperties.class);
+        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn("/documents");
+        when(thumbnailWorker.getStatus(new File("/documents/100/1-Consultation-abc.mov"))).thenReturn(ThumbnailStatus.READY);
+
+        patientDocumentService = new PatientDocumentServiceImpl();
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
+
+        assertEquals(ThumbnailStatus.READY, patientDocumentService.getThumbnailStatus("100/1-Consultation-abc.mov"));
     }
 
     @Test
-    public void shouldNotCreateThumbnailForVideo() throws Exception {
+    public void shouldNotAskTheWorkerForDocumentsOutsideDocumentsDirectory() throws Exception {
         PowerMockito.mockStatic(BahmniCoreProperties.class);
         when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
 
-        Patient patient = new Patient();
-        patient.setId(1);
-        patient.setUuid("patient-uuid");
+        patientDocumentService = new PatientDocumentServiceImpl();
+        patientDocumentService.setThumbnailWorker(thumbnailWorker);
 
-        byte[] allBytes = Files.readAllBytes(Paths.get("src/test/resources/SampleVideo.mov"));
-        String content = Base64.encode(allBytes);
-        List<ThumbnailGenerator> thumbnailGenerators = new ArrayList<>();
-        thumbnailGenerators.add(thumbnailGenerator);
+        assertEquals(ThumbnailStatus.NOT_AVAILABLE, patientDocumentService.getThumbnailStatus("../../etc/passwd"));
+        verify(thumbnailWorker, times(0)).getStatus(any(File.class));
+    }
+
+    @Test
+    public void shouldResolveDocumentInsideDocumentsDirectory() throws Exception {
+        PowerMockito.mockStatic(BahmniCoreProperties.class);
+        when(BahmniCoreProperties.getProperty("bahmnicore.documents.baseDirectory")).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
 
         patientDocumentService = new PatientDocumentServiceImpl();
-        patientDocumentService.setThumbnailGenerators(thumbnailGenerators);
-        when(thumbnailGenerator.isFormatSupported("mkv")).thenReturn(false);
-        when(thumbnailGenerator.generateThumbnail(any(File.class))).thenReturn(new BufferedImage(20,20, 1));
-        patientDocumentService.saveDocument(1, "Consultation", content, "mkv", "video");
-        verify(thumbnailGenerator,times(1)).isFormatSupported("mkv");
-        verify(thumbnailGenerator,times(0)).generateThumbnail(any(File.class));
+
+        assertEquals(new File(temporaryFolder.getRoot().getCanonicalFile(), "100/1-Consultation-abc.mov"),
+                patientDocumentService.getDocument("100/1-Consultation-abc.mov"));
+        assertNull(patientDocumentService.getDocument("../../etc/passwd"));
     }
 }
@@ -0,0 +1,203 @@
+package org.bahmni.module.bahmnicore.worklist;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.module.webservices.rest.SimpleObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class WorklistProjectionsTest {
+    private static final String ACTIVE_PATIENTS = "emrapi.sqlSearch.activePatients";
+    private static final String PENDING_ORDERS = "emrapi.sqlSearch.patientsHasPendingOrders";
+
+    @Mock
+    private AdministrationService administrationService;
+
+    private WorklistProjections worklistProjections;
+    private AtomicInteger rebuilds;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(administrationService.getGlobalProperty(WorklistProjections.QUERIES_GLOBAL_PROPERTY, WorklistProjections.DEFAULT_QUERIES))
+                .thenReturn(WorklistProjections.DEFAULT_QUERIES);
+        when(administrationService.getGlobalProperty(WorklistProjections.REFRESH_INTERVAL_GLOBAL_PROPERTY)).thenReturn("0");
+        when(administrationService.getGlobalProperty(ACTIVE_PATIENTS)).thenReturn(
+                "select pi.identifier from visit v join patient_identifier pi on v.patient_id = pi.patient_id where v.date_stopped is null");
+        when(administrationService.getGlobalProperty(PENDING_ORDERS)).thenReturn(
+                "select pi.identifier from visit v join orders o on o.patient_id = v.patient_id join patient_identifier pi on v.patient_id = pi.patient_id");
+        worklistProjections = new WorklistProjections(administrationService);
+        rebuilds = new AtomicInteger();
+    }
+
+    @Test
+    public void shouldProjectOnlyConfiguredQueries() {
+        assertTrue(worklistProjections.isProjected(ACTIVE_PATIENTS));
+        assertTrue(worklistProjections.isProjected("bedManagement.sqlGet.patientListForAdmissionLocation"));
+        assertFalse(worklistProjections.isProjected("emrapi.sqlSearch.highRiskPatients"));
+    }
+
+    @Test
+    public void shouldServeRepeatedPollsFromProjectionUntilAChange() {
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        List<SimpleObject> rows = worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(1, rows.size());
+        assertEquals(1, rebuilds.get());
+
+        worklistProjections.markChanged(singletonList("visit"));
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(2, rebuilds.get());
+    }
+
+    @Test
+    public void shouldOnlyMarkQueuesReadingTheWrittenTablesStale() {
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.get(PENDING_ORDERS, params("location_uuid", "ward"), rebuild());
+
+        worklistProjections.markChanged(singletonList("orders"));
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.get(PENDING_ORDERS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(3, rebuilds.get());
+    }
+
+    @Test
+    public void shouldRebuildOnlyTheWardListingThePatientOrReceivingTheBed() {
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("General Ward"), wardRebuild("GAN200001"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Cardiac Ward"), wardRebuild("GAN200002"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Labour Ward"), wardRebuild("GAN200003"));
+
+        worklistProjections.markChanged(singletonList("obs"), asList("patient-uuid", "GAN200001"), Collections.<String>emptySet());
+        worklistProjections.markChanged(singletonList("bed"), asList("patient-uuid-4", "GAN200004"), singletonList("Cardiac Ward"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("General Ward"), wardRebuild("GAN200001"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Cardiac Ward"), wardRebuild("GAN200002"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Labour Ward"), wardRebuild("GAN200003"));
+
+        assertEquals(5, rebuilds.get());
+    }
+
+    @Test
+    public void shouldRebuildEveryWardWhenThePatientIsNotKnown() {
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("General Ward"), wardRebuild("GAN200001"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Labour Ward"), wardRebuild("GAN200003"));
+
+        worklistProjections.markChanged(singletonList("obs"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("General Ward"), wardRebuild("GAN200001"));
+        worklistProjections.get(WorklistProjections.WARD_CENSUS_QUERY, wardParams("Labour Ward"), wardRebuild("GAN200003"));
+
+        assertEquals(4, rebuilds.get());
+    }
+
+    @Test
+    public void shouldMarkQueuesWithoutAReadableQueryStaleOnAnyWrite() {
+        String admittedPatients = "emrapi.sqlSearch.admittedPatients";
+        worklistProjections.get(admittedPatients, params("location_uuid", "ward"), rebuild());
+
+        worklistProjections.markChanged(singletonList("obs"));
+        worklistProjections.get(admittedPatients, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(2, rebuilds.get());
+    }
+
+    @Test
+    public void shouldKeepSeparateProjectionsPerParameterButIgnoreCacheBuster() {
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "opd"), rebuild());
+        Map<String, String[]> pollWithCacheBuster = params("location_uuid", "ward");
+        pollWithCacheBuster.put("_", new String[]{"1518172349"});
+        worklistProjections.get(ACTIVE_PATIENTS, pollWithCacheBuster, rebuild());
+
+        assertEquals(2, rebuilds.get());
+    }
+
+    @Test
+    public void shouldNotRebuildWithinRefreshIntervalEvenAfterAChange() {
+        when(administrationService.getGlobalProperty(WorklistProjections.REFRESH_INTERVAL_GLOBAL_PROPERTY)).thenReturn("300");
+        worklistProjections.globalPropertyDeleted(WorklistProjections.REFRESH_INTERVAL_GLOBAL_PROPERTY);
+
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.markChanged(singletonList("visit"));
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(1, rebuilds.get());
+    }
+
+    @Test
+    public void shouldRebuildEveryProjectionOnFullRebuild() {
+        when(administrationService.getGlobalProperty(WorklistProjections.REFRESH_INTERVAL_GLOBAL_PROPERTY)).thenReturn("300");
+        worklistProjections.globalPropertyDeleted(WorklistProjections.REFRESH_INTERVAL_GLOBAL_PROPERTY);
+
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.rebuildAll();
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(2, rebuilds.get());
+    }
+
+    @Test
+    public void shouldRebuildProjectionOlderThanMaxAgeWithoutAChange() {
+        when(administrationService.getGlobalProperty(WorklistProjections.MAX_AGE_GLOBAL_PROPERTY)).thenReturn("0");
+        worklistProjections.globalPropertyDeleted(WorklistProjections.MAX_AGE_GLOBAL_PROPERTY);
+
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+        worklistProjections.get(ACTIVE_PATIENTS, params("location_uuid", "ward"), rebuild());
+
+        assertEquals(2, rebuilds.get());
+    }
+
+    @Test
+    public void shouldDropLeastRecentlyPolledProjectionBeyondMaxProjections() {
+        for (int provider = 0; provider <= WorklistProjections.MAX_PROJECTIONS; provider++) {
+            worklistProjections.get(ACTIVE_PATIENTS, params("provider_uuid", "provider-" + provider), rebuild());
+        }
+        worklistProjections.get(ACTIVE_PATIENTS, params("provider_uuid", "provider-" + WorklistProjections.MAX_PROJECTIONS), rebuild());
+        worklistProjections.get(ACTIVE_PATIENTS, params("provider_uuid", "provider-0"), rebuild());
+
+        assertEquals(WorklistProjections.MAX_PROJECTIONS, worklistProjections.size());
+        assertEquals(WorklistProjections.MAX_PROJECTIONS + 2, rebuilds.get());
+    }
+
+    private Supplier<List<SimpleObject>> rebuild() {
+        return () -> {
+            rebuilds.incrementAndGet();
+            return singletonList(new SimpleObject().add("identifier", "GAN200000"));
+        };
+    }
+
+    private Supplier<List<SimpleObject>> wardRebuild(String identifier) {
+        return () -> {
+            rebuilds.incrementAndGet();
+            return singletonList(new SimpleObject().add("Bed", "101").add("Id", identifier));
+        };
+    }
+
+    private Map<String, String[]> wardParams(String wardName) {
+        Map<String, String[]> params = new HashMap<>();
+        params.put("location_name", new String[]{wardName});
+        return params;
+    }
+
+    private Map<String, String[]> params(String name, String value) {
+        Map<String, String[]> params = new HashMap<>();
+        params.put("q", new String[]{ACTIVE_PATIENTS});
+        params.put(name, new String[]{value});
+        return params;
+    }
+}
@@ -12,6 +12,7 @@ import org.bahmni.fileimport.FileImporter;
 import org.bahmni.fileimport.ImportStatus;
 import org.bahmni.fileimport.dao.ImportStatusDao;
 import org.bahmni.module.admin.csv.models.ConceptRow;
+import org.bahmni.module.admin.csv.models.ConceptRowDiff;
 import org.bahmni.module.admin.csv.models.ConceptSetRow;
 import org.bahmni.module.admin.csv.models.DrugRow;
 import org.bahmni.module.admin.csv.models.LabResultsRow;
@@ -25,6 +26,7 @@ import org.bahmni.module.admin.csv.persister.ConceptPersister;
 import org.bahmni.module.admin.csv.persister.ConceptReferenceTermPersister;
 import org.bahmni.module.admin.csv.persister.ConceptSetPersister;
 import org.bahmni.module.admin.csv.persister.DatabasePersister;
+import org.bahmni.module.admin.csv.persister.DependencyOrderedPersister;
 import org.bahmni.module.admin.csv.persister.DrugPersister;
 import org.bahmni.module.admin.csv.persister.EncounterPersister;
 import org.bahmni.module.admin.csv.persister.LabResultPersister;
@@ -32,6 +34,7 @@ import org.bahmni.module.admin.csv.persister.PatientPersister;
 import org.bahmni.module.admin.csv.persister.PatientProgramPersister;
 import org.bahmni.module.admin.csv.persister.ReferenceTermPersister;
 import org.bahmni.module.admin.csv.persister.RelationshipPersister;
+import org.bahmni.module.admin.csv.service.ConceptImportDiffService;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.engine.spi.SessionImplementor;
@@ -81,6 +84,7 @@ public class AdminImportController extends BaseRestController {
     private static final String PATIENT_FILES_DIRECTORY = "patient/";
     private static final String REFERENCETERM_FILES_DIRECTORY = "referenceterms/";
     private static final String RELATIONSHIP_FILES_DIRECTORY = "relationship/";
+    private static final int DICTIONARY_IMPORT_THREADS = 5;
 
     @Autowired
     private EncounterPersister encounterPersister;
@@ -112,6 +116,9 @@ public class AdminImportController extends BaseRestController {
     @Autowired
     private ConceptReferenceTermPersister conceptReferenceTermPersister;
 
+    @Autowired
+    private ConceptImportDiffService conceptImportDiffService;
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -124,7 +131,7 @@ public class AdminImportController extends BaseRestController {
     public boolean upload(@RequestParam(value = "file") MultipartFile file) throws IOException {
         try {
             patientPersister.init(Context.getUserContext());
-            return importCsv(PATIENT_FILES_DIRECTORY, file, patientPersister, 1, true, PatientRow.class);
+            return importCsv(PATIENT_FILES_DIRECTORY, file, patientPersister, 5, true, PatientRow.class);
         } catch (Throwable e) {
             logger.error("Could not upload file", e);
             throw e;
@@ -196,6 +203,7 @@ public class AdminImportController extends BaseRestController {
     @ResponseBody
     public boolean uploadDrug(@RequestParam(value = "file") MultipartFile file) throws IOException {
         try {
+            //A drug is looked up before it is inserted, parallel rows for the same drug would both insert it
             return importCsv(DRUG_FILES_DIRECTORY, file, new DatabasePersister<>(drugPersister), 1, false, DrugRow.class);
         } catch (Throwable e) {
             logger.error("Could not upload file", e);
@@ -207,13 +215,21 @@ public class AdminImportController extends BaseRestController {
     @ResponseBody
     public boolean uploadConcept(@RequestParam(value = "file") MultipartFile file) throws IOException {
         try {
-            return importCsv(CONCEPT_FILES_DIRECTORY, file, new DatabasePersister<>(conceptPersister), 1, false, ConceptRow.class);
+            DependencyOrderedPersister<ConceptRow> persister = new DependencyOrderedPersister<>(new DatabasePersister<>(conceptPersister),
+                    DependencyOrderedPersister.indexRows(file.getInputStream(), "name"), row -> row.name, ConceptRow::getAnswers);
+            return importCsv(CONCEPT_FILES_DIRECTORY, file, persister, DICTIONARY_IMPORT_THREADS, false, ConceptRow.class);
         } catch (Throwable e) {
             logger.error("Could not upload file", e);
             throw e;
         }
     }
 
+    @RequestMapping(value = baseUrl + "/concept/dryrun", method = RequestMethod.POST)
+    @ResponseBody
+    public List<ConceptRowDiff> dryRunConcept(@RequestParam(value = "file") MultipartFile file) throws IOException {
+        return conceptImportDiffService.diff(file.getInputStream());
+    }
+
     @RequestMapping(value = baseUrl + "/labResults", method = RequestMethod.POST)
     @ResponseBody
     public boolean uploadLabResults(@CookieValue(value="bahmni.user.location", required=true) String loginCookie, @RequestParam(value = "file") MultipartFile file, @RequestParam(value = "patientMatchingAlgorithm", required = false) String patientMatchingAlgorithm) throws IOException {
@@ -233,7 +249,9 @@ public class AdminImportController extends BaseRestController {
     @ResponseBody
     public boolean uploadConceptSet(@RequestParam(value = "file") MultipartFile file) throws IOException {
         try {
-            return importCsv(CONCEPT_SET_FILES_DIRECTORY, file, new DatabasePersister<>(conceptSetPersister), 1, false, ConceptSetRow.class);
+            DependencyOrderedPersister<ConceptSetRow> persister = new DependencyOrderedPersister<>(new DatabasePersister<>(conceptSetPersister),
+                    DependencyOrderedPersister.indexRows(file.getInputStream(), "name"), ConceptSetRow::getName, ConceptSetRow::getChildren);
+            return importCsv(CONCEPT_SET_FILES_DIRECTORY, file, persister, DICTIONARY_IMPORT_THREADS, false, ConceptSetRow.class);
         } catch (Throwable e) {
             logger.error("Could not upload file", e);
             throw e;
@@ -1,22 +1,13 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.bahmni.module.admin.config.model.BahmniConfig;
+import org.bahmni.module.admin.config.model.BahmniConfigContent;
 import org.bahmni.module.admin.config.service.BahmniConfigService;
 import org.bahmni.module.bahmnicore.contract.drugorder.DrugOrderConfigResponse;
-import org.bahmni.module.bahmnicore.contract.encounter.data.ConceptData;
 import org.bahmni.module.bahmnicore.contract.encounter.response.EncounterConfigResponse;
 import org.bahmni.module.bahmnicore.contract.patient.response.PatientConfigResponse;
-import org.bahmni.module.bahmnicore.service.BahmniDrugOrderService;
 import org.bahmni.module.bahmnicore.service.BahmniPatientService;
-import org.openmrs.Concept;
-import org.openmrs.EncounterType;
-import org.openmrs.OrderType;
-import org.openmrs.VisitType;
-import org.openmrs.api.ConceptService;
-import org.openmrs.api.EncounterService;
-import org.openmrs.api.OrderService;
-import org.openmrs.api.VisitService;
+import org.bahmni.module.bahmnicore.service.MetadataSnapshotService;
 import org.openmrs.module.rulesengine.engine.RulesEngine;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
@@ -28,7 +19,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @Controller
@@ -40,15 +33,7 @@ public class BahmniConfigController extends BaseRestController {
     @Autowired
     private BahmniPatientService bahmniPatientService;
     @Autowired
-    private BahmniDrugOrderService drugOrderService;
-    @Autowired
-    private VisitService visitService;
-    @Autowired
-    private EncounterService encounterService;
-    @Autowired
-    private ConceptService conceptService;
-    @Autowired
-    private OrderService orderService;
+    private MetadataSnapshotService metadataSnapshotService;
 
     @Autowired
     private RulesEngine rulesEngine;
@@ -61,8 +46,16 @@ public class BahmniConfigController extends BaseRestController {
 
     @RequestMapping(method = RequestMethod.GET, value = "/{appName}/{configName:.+}")
     @ResponseBody
-    public String getConfig(@PathVariable("appName") String appName, @PathVariable(value = "configName") String configName) {
-        return StringEscapeUtils.unescapeJava(bahmniConfigService.get(appName, configName).getConfig());
+    public String getConfig(@PathVariable("appName") String appName, @PathVariable(value = "configName") String configName,
+                            WebRequest webRequest, HttpServletResponse response) {
+        BahmniConfigContent configContent = bahmniConfigService.getContent(appName, configName);
+        if (configContent.getLastModified() != null) {
+            response.setDateHeader("Last-Modified", configContent.getLastModified().getTime());
+        }
+        if (webRequest.checkNotModified(configContent.getETag())) {
+            return null;
+        }
+        return configContent.getContent();
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "all")
@@ -98,39 +91,14 @@ public class BahmniConfigController extends BaseRestController {
     @RequestMapping(method = RequestMethod.GET, value = "/drugOrders")
     @ResponseBody
     public DrugOrderConfigResponse getDrugOrderConfig() throws Exception {
-        String[] ruleNames=rulesEngine.getRuleNames();
-        DrugOrderConfigResponse configResponse=drugOrderService.getConfig();
-        configResponse.setDosingRules(ruleNames);
-        return configResponse;
+        String[] ruleNames = rulesEngine.getRuleNames();
+        return metadataSnapshotService.getDrugOrderConfig().withDosingRules(ruleNames);
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "/bahmniencounter")
     @ResponseBody
     public EncounterConfigResponse getConfig(@RequestParam("callerContext")String callerContext) {
-        EncounterConfigResponse encounterConfigResponse = new EncounterConfigResponse();
-        List<VisitType> visitTypes = visitService.getAllVisitTypes();
-        for (VisitType visitType : visitTypes) {
-            if (!visitType.isRetired()) {
-                encounterConfigResponse.addVisitType(visitType.getName(), visitType.getUuid());
-            }
-        }
-        List<EncounterType> allEncounterTypes = encounterService.getAllEncounterTypes(false);
-        for (EncounterType encounterType : allEncounterTypes) {
-            encounterConfigResponse.addEncounterType(encounterType.getName(), encounterType.getUuid());
-        }
-        Concept conceptSetConcept = conceptService.getConcept(callerContext);
-        if (conceptSetConcept != null) {
-            List<Concept> conceptsByConceptSet = conceptService.getConceptsByConceptSet(conceptSetConcept);
-            for (Concept concept : conceptsByConceptSet) {
-                ConceptData conceptData = new ConceptData(concept.getUuid(), concept.getName().getName());
-                encounterConfigResponse.addConcept(concept.getName().getName(), conceptData);
-            }
-        }
-        List<OrderType> orderTypes = orderService.getOrderTypes(true);
-        for (OrderType orderType : orderTypes) {
-            encounterConfigResponse.addOrderType(orderType.getName(), orderType.getUuid());
-        }
-        return encounterConfigResponse;
+        return metadataSnapshotService.getEncounterConfig(callerContext);
     }
 
 
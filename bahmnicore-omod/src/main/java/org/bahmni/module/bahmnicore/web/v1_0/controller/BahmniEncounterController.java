@@ -89,9 +89,10 @@ public class BahmniEncounterController extends BaseRestController {
     @RequestMapping(method = RequestMethod.POST)
     @ResponseBody
     @Transactional
-    public BahmniEncounterTransaction update(@RequestBody BahmniEncounterTransaction bahmniEncounterTransaction) {
+    public BahmniEncounterTransaction update(@RequestBody BahmniEncounterTransaction bahmniEncounterTransaction,
+                                             @RequestParam(value = "acknowledgeOnly", required = false, defaultValue = "false") boolean acknowledgeOnly) {
         setUuidsForObservations(bahmniEncounterTransaction.getObservations());
-        return bahmniEncounterTransactionService.save(bahmniEncounterTransaction);
+        return bahmniEncounterTransactionService.save(bahmniEncounterTransaction, acknowledgeOnly);
     }
 
     public BahmniEncounterTransaction get(String encounterUuid) {
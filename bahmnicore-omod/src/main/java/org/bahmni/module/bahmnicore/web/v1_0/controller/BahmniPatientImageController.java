@@ -1,39 +1,46 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
+import org.bahmni.module.bahmnicore.document.DocumentFileServer;
 import org.bahmni.module.bahmnicore.service.PatientDocumentService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.UserContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 
 @Controller
 @RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/patientImage")
 public class BahmniPatientImageController extends BaseRestController {
 
     private PatientDocumentService patientDocumentService;
+    private DocumentFileServer documentFileServer;
 
     @Autowired
-    public BahmniPatientImageController(PatientDocumentService patientDocumentService) {
+    public BahmniPatientImageController(PatientDocumentService patientDocumentService, DocumentFileServer documentFileServer) {
         this.patientDocumentService = patientDocumentService;
+        this.documentFileServer = documentFileServer;
     }
 
-    @RequestMapping(method = RequestMethod.GET)
+    @RequestMapping(method = {RequestMethod.GET, RequestMethod.HEAD})
     @ResponseBody
-    public ResponseEntity<Object> getImage(@RequestParam(value = "patientUuid", required = true) String patientUuid) {
+    public void getImage(@RequestParam(value = "patientUuid", required = true) String patientUuid,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
         UserContext userContext = Context.getUserContext();
-            if (userContext.isAuthenticated()) {
-            return patientDocumentService.retriveImage(patientUuid);
+        if (userContext.isAuthenticated()) {
+            documentFileServer.serve(patientDocumentService.getPatientImage(patientUuid), request, response);
+            return;
         }
-        return new ResponseEntity<Object>(new Object(), HttpStatus.UNAUTHORIZED);
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
     }
 }
 
@@ -2,10 +2,12 @@ package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
 import org.bahmni.module.bahmnicore.contract.encounter.data.ConceptData;
 import org.bahmni.module.bahmnicore.contract.encounter.data.PersonObservationData;
+import org.bahmni.module.bahmnicore.obs.series.NumericObsSeries;
 import org.bahmni.module.bahmnicore.service.BahmniObsService;
+import org.bahmni.module.bahmnicore.util.BahmniDateUtil;
 import org.openmrs.Concept;
 import org.openmrs.ConceptNumeric;
-import org.openmrs.Obs;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,9 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Controller
@@ -35,16 +39,26 @@ public class BahmniTrendsController extends BaseRestController {
 
     @RequestMapping(method = RequestMethod.GET)
     @ResponseBody
-    public List<PersonObservationData> get(@RequestParam(value = "patientUUID", required = true) String patientUUID) {
-        List<Obs> obsForPerson = personObsService.getObsForPerson(patientUUID);
+    public List<PersonObservationData> get(@RequestParam(value = "patientUUID", required = true) String patientUUID,
+                                           @RequestParam(value = "startDate", required = false) String startDateStr,
+                                           @RequestParam(value = "endDate", required = false) String endDateStr,
+                                           @RequestParam(value = "maxPoints", required = false) Integer maxPoints) throws ParseException {
+        Date startDate = BahmniDateUtil.convertToDate(startDateStr, BahmniDateUtil.DateFormatType.UTC);
+        Date endDate = BahmniDateUtil.convertToDate(endDateStr, BahmniDateUtil.DateFormatType.UTC);
         List<PersonObservationData> observationDataList = new ArrayList<>();
-        for (Obs obs : obsForPerson) {
-            Concept concept = obs.getConcept();
+        for (NumericObsSeries series : personObsService.getNumericObsSeries(patientUUID, startDate, endDate, maxPoints)) {
+            Concept concept = Context.getConceptService().getConcept(series.getConceptId());
+            if (concept == null) {
+                continue;
+            }
             String units = null;
-            if(concept.isNumeric()){
+            if(concept instanceof ConceptNumeric){
                 units = ((ConceptNumeric)concept).getUnits();
             }
-            observationDataList.add(new PersonObservationData(concept.getName().getName(), obs.getValueNumeric(), obs.getDateCreated(),concept.isNumeric(),units));
+            String conceptName = concept.getName().getName();
+            for (int index = 0; index < series.size(); index++) {
+                observationDataList.add(new PersonObservationData(conceptName, series.getValue(index), series.getTime(index), concept.isNumeric(), units));
+            }
         }
         return observationDataList;
     }
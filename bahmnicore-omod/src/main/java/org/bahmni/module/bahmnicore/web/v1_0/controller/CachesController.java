@@ -0,0 +1,53 @@
+package org.bahmni.module.bahmnicore.web.v1_0.controller;
+
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCache;
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCacheStatistics;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
+import org.bahmni.module.bahmnicore.worklist.WorklistProjections;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Admin operations on the in-memory read models, for when the data behind them was changed outside this module.
+ */
+@Controller
+@RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/bahmnicore/caches")
+public class CachesController extends BaseRestController {
+
+    private DemographicAutocompleteIndex demographicAutocompleteIndex;
+    private ObsReadCache obsReadCache;
+    private WorklistProjections worklistProjections;
+
+    @Autowired
+    public CachesController(DemographicAutocompleteIndex demographicAutocompleteIndex, ObsReadCache obsReadCache,
+                            WorklistProjections worklistProjections) {
+        this.demographicAutocompleteIndex = demographicAutocompleteIndex;
+        this.obsReadCache = obsReadCache;
+        this.worklistProjections = worklistProjections;
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "demographicAutocomplete/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildDemographicAutocomplete() {
+        demographicAutocompleteIndex.rebuild();
+    }
+
+    @RequestMapping(method = RequestMethod.GET, value = "obsRead/statistics")
+    @ResponseBody
+    public ObsReadCacheStatistics getObsReadCacheStatistics() {
+        return obsReadCache.getStatistics();
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "worklist/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildWorklistProjections() {
+        worklistProjections.rebuildAll();
+    }
+}
@@ -1,6 +1,8 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
 import org.apache.commons.lang.StringUtils;
+import org.bahmni.module.bahmnicore.document.DocumentFileServer;
+import org.bahmni.module.bahmnicore.document.ThumbnailStatus;
 import org.bahmni.module.bahmnicore.model.Document;
 import org.bahmni.module.bahmnicore.service.PatientDocumentService;
 import org.openmrs.Encounter;
@@ -21,6 +23,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.HashMap;
 
 @Controller
@@ -32,6 +37,9 @@ public class VisitDocumentController extends BaseRestController {
     @Autowired
     private PatientDocumentService patientDocumentService;
 
+    @Autowired
+    private DocumentFileServer documentFileServer;
+
     @Autowired
     private BahmniVisitLocationService bahmniVisitLocationService;
 
@@ -64,6 +72,26 @@ public class VisitDocumentController extends BaseRestController {
         return savedDocument;
     }
 
+    @RequestMapping(method = RequestMethod.GET, value = baseVisitDocumentUrl + "/thumbnailStatus")
+    @ResponseBody
+    public ThumbnailStatus getThumbnailStatus(@RequestParam(value = "filename") String fileName) {
+        return patientDocumentService.getThumbnailStatus(fileName);
+    }
+
+    @RequestMapping(method = {RequestMethod.GET, RequestMethod.HEAD}, value = baseVisitDocumentUrl + "/file")
+    @ResponseBody
+    public void getDocument(@RequestParam(value = "filename") String fileName,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Context.getUserContext().isAuthenticated()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (StringUtils.isEmpty(fileName)) {
+            throw new APIException("[Required String parameter 'filename' is empty]");
+        }
+        documentFileServer.serve(patientDocumentService.getDocument(fileName), request, response);
+    }
+
     @RequestMapping(method = RequestMethod.DELETE, value = baseVisitDocumentUrl)
     @ResponseBody
     public void deleteDocument(@RequestParam(value = "filename") String fileName) {
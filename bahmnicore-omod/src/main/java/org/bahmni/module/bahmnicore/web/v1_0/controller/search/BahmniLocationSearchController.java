@@ -0,0 +1,64 @@
+package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
+
+import org.bahmni.module.bahmnicore.location.LocationTagIndex.TaggedLocations;
+import org.bahmni.module.bahmnicore.web.v1_0.search.BahmniLocationSearchHandler;
+import org.openmrs.Location;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.RestUtil;
+import org.openmrs.module.webservices.rest.web.api.RestService;
+import org.openmrs.module.webservices.rest.web.resource.api.Converter;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers the byTags location search ahead of the generic resource controller, so that a client already holding the
+ * current result gets a 304 without a body. The result changes only with the version of the location tag index.
+ */
+@Controller
+@RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/location")
+public class BahmniLocationSearchController extends BaseRestController {
+
+    private BahmniLocationSearchHandler bahmniLocationSearchHandler;
+
+    @Autowired
+    public BahmniLocationSearchController(BahmniLocationSearchHandler bahmniLocationSearchHandler) {
+        this.bahmniLocationSearchHandler = bahmniLocationSearchHandler;
+    }
+
+    @RequestMapping(method = RequestMethod.GET, params = {"s=byTags", "tags"})
+    @ResponseBody
+    public SimpleObject search(WebRequest webRequest, HttpServletRequest request, HttpServletResponse response) throws ResponseException {
+        TaggedLocations taggedLocations = bahmniLocationSearchHandler.getTaggedLocations(request);
+        List<Location> locations = new ArrayList<>();
+        if (taggedLocations != null) {
+            if (webRequest.checkNotModified(eTag(taggedLocations.getVersion(), request))) {
+                return null;
+            }
+            locations = taggedLocations.getLocations();
+        }
+        return new AlreadyPaged<>(RestUtil.getRequestContext(request, response), locations, false).toSimpleObject(locationConverter());
+    }
+
+    private String eTag(String indexVersion, HttpServletRequest request) {
+        return String.format("\"%s-%x\"", indexVersion, String.valueOf(request.getQueryString()).hashCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Converter<Location> locationConverter() {
+        return (Converter<Location>) Context.getService(RestService.class).getResourceBySupportedClass(Location.class);
+    }
+}
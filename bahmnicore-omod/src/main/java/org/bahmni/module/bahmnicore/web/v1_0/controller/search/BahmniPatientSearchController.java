@@ -1,25 +1,24 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
 
 import org.bahmni.module.bahmnicore.contract.patient.PatientSearchParameters;
-import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
 import org.bahmni.module.bahmnicore.service.BahmniPatientService;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.RestUtil;
-import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.List;
+import java.io.IOException;
 
 /**
  * Controller for REST web service access to
@@ -29,8 +28,10 @@ import java.util.List;
 @RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/bahmnicore/search/patient")
 public class BahmniPatientSearchController extends BaseRestController {
 
-    private BahmniPatientService bahmniPatientService;
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BahmniPatientService bahmniPatientService;
 
     @Autowired
     public BahmniPatientSearchController(BahmniPatientService bahmniPatientService) {
@@ -38,32 +39,38 @@ public class BahmniPatientSearchController extends BaseRestController {
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    @ResponseBody
-    public ResponseEntity<AlreadyPaged<PatientResponse>> search(HttpServletRequest request,
-                                                  HttpServletResponse response) throws ResponseException{
+    public void search(HttpServletRequest request, HttpServletResponse response) throws ResponseException, IOException {
         RequestContext requestContext = RestUtil.getRequestContext(request, response);
         PatientSearchParameters searchParameters = new PatientSearchParameters(requestContext);
         try {
-            List<PatientResponse> patients = bahmniPatientService.search(searchParameters);
-            AlreadyPaged alreadyPaged = new AlreadyPaged(requestContext, patients, false);
-            return new ResponseEntity(alreadyPaged,HttpStatus.OK);
-        }catch (IllegalArgumentException e){
-            return new ResponseEntity(RestUtil.wrapErrorResponse(e, e.getMessage()), HttpStatus.BAD_REQUEST);
+            bahmniPatientService.search(searchParameters, createWriter(response));
+        } catch (IllegalArgumentException e) {
+            writeBadRequest(response, e);
         }
     }
 
     @RequestMapping(value="lucene", method = RequestMethod.GET)
-    @ResponseBody
-    public ResponseEntity<AlreadyPaged<PatientResponse>> luceneSearch(HttpServletRequest request,
-                                                  HttpServletResponse response) throws ResponseException{
+    public void luceneSearch(HttpServletRequest request, HttpServletResponse response) throws ResponseException, IOException {
         RequestContext requestContext = RestUtil.getRequestContext(request, response);
         PatientSearchParameters searchParameters = new PatientSearchParameters(requestContext);
         try {
-            List<PatientResponse> patients = bahmniPatientService.luceneSearch(searchParameters);
-            AlreadyPaged alreadyPaged = new AlreadyPaged(requestContext, patients, false);
-            return new ResponseEntity(alreadyPaged,HttpStatus.OK);
-        }catch (IllegalArgumentException e){
-            return new ResponseEntity(RestUtil.wrapErrorResponse(e, e.getMessage()), HttpStatus.BAD_REQUEST);
+            bahmniPatientService.luceneSearch(searchParameters, createWriter(response));
+        } catch (IllegalArgumentException e) {
+            writeBadRequest(response, e);
         }
     }
+
+    private PatientResponseWriter createWriter(HttpServletResponse response) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        return new PatientResponseWriter(objectMapper.getJsonFactory()
+                .createJsonGenerator(response.getOutputStream(), JsonEncoding.UTF8));
+    }
+
+    //Search parameters are validated before the first result is written, so the response is not committed yet
+    private void writeBadRequest(HttpServletResponse response, IllegalArgumentException e) throws IOException {
+        response.resetBuffer();
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(CONTENT_TYPE);
+        objectMapper.writeValue(response.getOutputStream(), RestUtil.wrapErrorResponse(e, e.getMessage()));
+    }
 }
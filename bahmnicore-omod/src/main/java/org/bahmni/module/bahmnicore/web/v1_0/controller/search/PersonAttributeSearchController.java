@@ -1,7 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
 
-import org.bahmni.module.bahmnicore.dao.PersonAttributeDao;
 import org.bahmni.module.bahmnicore.model.ResultList;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.annotation.WSDoc;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
@@ -15,16 +15,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/bahmnicore/search/personattribute")
 public class PersonAttributeSearchController extends BaseRestController {
 	
-	private PersonAttributeDao personAttributeDao;
+	private DemographicAutocompleteIndex demographicAutocompleteIndex;
 	
 	@Autowired
-	public PersonAttributeSearchController(PersonAttributeDao personAttributeDao) {
-		this.personAttributeDao = personAttributeDao;
+	public PersonAttributeSearchController(DemographicAutocompleteIndex demographicAutocompleteIndex) {
+		this.demographicAutocompleteIndex = demographicAutocompleteIndex;
 	}
 	
 	@RequestMapping(method = RequestMethod.GET, params = { "q", "key" })
 	@WSDoc("Get unique values for a person attribute")
 	public ResultList search(@RequestParam String key, @RequestParam String q) {
-		return personAttributeDao.getUnique(key, q);
+		return demographicAutocompleteIndex.getAttributeValues(key, q);
 	}
 }
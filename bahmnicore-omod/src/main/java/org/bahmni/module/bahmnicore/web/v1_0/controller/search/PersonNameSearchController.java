@@ -1,7 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
 
-import org.bahmni.module.bahmnicore.dao.PersonNameDao;
 import org.bahmni.module.bahmnicore.model.ResultList;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.annotation.WSDoc;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
@@ -15,16 +15,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping(value = "/rest/" + RestConstants.VERSION_1 + "/bahmnicore/search/personname")
 public class PersonNameSearchController extends BaseRestController {
 	
-	private PersonNameDao namesDao;
+	private DemographicAutocompleteIndex demographicAutocompleteIndex;
 	
 	@Autowired
-	public PersonNameSearchController(PersonNameDao namesDao) {
-		this.namesDao = namesDao;
+	public PersonNameSearchController(DemographicAutocompleteIndex demographicAutocompleteIndex) {
+		this.demographicAutocompleteIndex = demographicAutocompleteIndex;
 	}
 	
 	@RequestMapping(method = RequestMethod.GET, params = { "q", "key" })
 	@WSDoc("Returns unique patient attributes for the given key that match the query term")
 	public ResultList searchFor(@RequestParam String q, @RequestParam String key) {
-		return namesDao.getUnique(key, q);
+		return demographicAutocompleteIndex.getNames(key, q);
 	}
 }
\ No newline at end of file
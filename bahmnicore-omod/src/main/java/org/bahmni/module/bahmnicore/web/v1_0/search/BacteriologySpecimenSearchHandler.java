@@ -3,10 +3,8 @@ package org.bahmni.module.bahmnicore.web.v1_0.search;
 import org.apache.commons.collections.CollectionUtils;
 import org.bahmni.module.bahmnicore.service.BahmniProgramWorkflowService;
 import org.openmrs.Concept;
-import org.openmrs.Encounter;
 import org.openmrs.Obs;
 import org.openmrs.api.ConceptService;
-import org.openmrs.api.ObsService;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.bacteriology.api.BacteriologyService;
 import org.openmrs.module.bacteriology.api.encounter.domain.Specimen;
@@ -24,9 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 
 import static java.util.Arrays.asList;
@@ -39,16 +35,13 @@ public class BacteriologySpecimenSearchHandler implements SearchHandler {
 
     private BahmniProgramWorkflowService bahmniProgramWorkflowService;
     private ConceptService conceptService;
-    private ObsService obsService;
 
     @Autowired
     public BacteriologySpecimenSearchHandler(@Qualifier("bahmniProgramWorkflowService")
                                                      BahmniProgramWorkflowService bahmniProgramWorkflowService,
-                                             ConceptService conceptService,
-                                             ObsService obsService) {
+                                             ConceptService conceptService) {
         this.bahmniProgramWorkflowService = bahmniProgramWorkflowService;
         this.conceptService = conceptService;
-        this.obsService = obsService;
     }
 
     @Override
@@ -62,15 +55,12 @@ public class BacteriologySpecimenSearchHandler implements SearchHandler {
 
         BacteriologyService bacteriologyService = Context.getService(BacteriologyService.class);
         String patientProgramUuid = requestContext.getParameter("patientProgramUuid");
-        Collection<Encounter> encounters = bahmniProgramWorkflowService.getEncountersByPatientProgramUuid(patientProgramUuid);
-        if (CollectionUtils.isEmpty(encounters)) {
-            return new EmptySearchResult();
-        }
-        List<Encounter> encountersAsList = new ArrayList<>(encounters);
-
         Concept bacteriologyConceptSet = conceptService.getConceptByName(BACTERIOLOGY_CONCEPT_SET);
         List<Concept> concepts = Arrays.asList(bacteriologyConceptSet);
-        List<Obs> observations = obsService.getObservations(null, encountersAsList, concepts, null, null, null, null, null, null, null, null, false);
+        List<Obs> observations = bahmniProgramWorkflowService.getObsByPatientProgramUuid(patientProgramUuid, concepts, null, null, null, null);
+        if (CollectionUtils.isEmpty(observations)) {
+            return new EmptySearchResult();
+        }
 
         Specimens sortedSpecimens = bacteriologyService.getSpecimens(observations).sortByDateCollected();
 
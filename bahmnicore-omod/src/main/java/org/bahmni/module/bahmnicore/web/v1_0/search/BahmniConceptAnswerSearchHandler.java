@@ -9,14 +9,14 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.List;
 
 @Component
 public class BahmniConceptAnswerSearchHandler implements SearchHandler {
@@ -40,13 +40,17 @@ public class BahmniConceptAnswerSearchHandler implements SearchHandler {
     public PageableResult search(RequestContext requestContext) throws ResponseException {
         String questionConceptName = requestContext.getParameter(QUESTION_KEY);
         String query = requestContext.getParameter(QUERY);
-        Collection<ConceptAnswer> conceptAnswers = bahmniConceptService.searchByQuestion(questionConceptName, query);
+        Integer limit = requestContext.getLimit();
+        //One answer beyond the page tells whether there are more
+        List<ConceptAnswer> conceptAnswers = bahmniConceptService.searchByQuestion(questionConceptName, query,
+                requestContext.getStartIndex(), limit + 1);
+        boolean hasMoreResults = conceptAnswers.size() > limit;
 
         ArrayList<BahmniConceptAnswer> bahmniConceptAnswers = new ArrayList<>();
-        for (ConceptAnswer answer : conceptAnswers) {
+        for (ConceptAnswer answer : hasMoreResults ? conceptAnswers.subList(0, limit) : conceptAnswers) {
             bahmniConceptAnswers.add(BahmniConceptAnswer.create(answer));
         }
 
-        return new NeedsPaging<>(bahmniConceptAnswers, requestContext);
+        return new AlreadyPaged<>(requestContext, bahmniConceptAnswers, hasMoreResults);
     }
 }
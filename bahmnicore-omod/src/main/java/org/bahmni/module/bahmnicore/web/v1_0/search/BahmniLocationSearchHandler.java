@@ -1,8 +1,8 @@
 package org.bahmni.module.bahmnicore.web.v1_0.search;
 
+import org.bahmni.module.bahmnicore.location.LocationTagIndex;
+import org.bahmni.module.bahmnicore.location.LocationTagIndex.TaggedLocations;
 import org.openmrs.Location;
-import org.openmrs.LocationTag;
-import org.openmrs.api.LocationService;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
@@ -14,18 +14,17 @@ import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import javax.servlet.http.HttpServletRequest;
 import java.util.Arrays;
-import java.util.List;
 
 @Component
 public class BahmniLocationSearchHandler implements SearchHandler{
 
-    private LocationService locationService;
+    private LocationTagIndex locationTagIndex;
 
     @Autowired
-    public BahmniLocationSearchHandler(LocationService locationService) {
-        this.locationService = locationService;
+    public BahmniLocationSearchHandler(LocationTagIndex locationTagIndex) {
+        this.locationTagIndex = locationTagIndex;
     }
 
     @Override
@@ -37,19 +36,22 @@ public class BahmniLocationSearchHandler implements SearchHandler{
 
     @Override
     public PageableResult search(RequestContext requestContext) throws ResponseException {
-        String[] tagNames = requestContext.getRequest().getParameterMap().get("tags");
-        String operator = requestContext.getParameter("operator");
-        List<LocationTag> tags = new ArrayList<>();
-        List<Location> locations = null;
-        for (String tagName : tagNames) {
-            tags.add(locationService.getLocationTagByName(tagName));
-        }
+        TaggedLocations taggedLocations = getTaggedLocations(requestContext.getRequest());
+        return new AlreadyPaged<Location>(requestContext, taggedLocations == null ? null : taggedLocations.getLocations(), false);
+    }
+
+    /**
+     * @return the locations having the tags of the request, or null when the operator is neither ALL nor ANY
+     */
+    public TaggedLocations getTaggedLocations(HttpServletRequest request) {
+        String[] tagNames = request.getParameterValues("tags");
+        String operator = request.getParameter("operator");
         if(null == operator || "ALL".equals(operator)){
-            locations = locationService.getLocationsHavingAllTags(tags);
+            return locationTagIndex.getLocationsHavingAllTags(Arrays.asList(tagNames));
         }
         if("ANY".equals(operator)){
-            locations = locationService.getLocationsHavingAnyTag(tags);
+            return locationTagIndex.getLocationsHavingAnyTag(Arrays.asList(tagNames));
         }
-        return new AlreadyPaged<>(requestContext, locations, false);
+        return null;
     }
 }
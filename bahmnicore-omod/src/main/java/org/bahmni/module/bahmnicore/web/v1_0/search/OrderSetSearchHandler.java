@@ -8,7 +8,7 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -36,9 +36,12 @@ public class OrderSetSearchHandler implements SearchHandler {
     @Override
     public PageableResult search(RequestContext requestContext) throws ResponseException {
         String query = requestContext.getParameter(QUERY);
-        List<OrderSet> orderSets = bahmniOrderSetService.getOrderSetByQuery(query);
-
-
-        return new NeedsPaging<>(orderSets, requestContext);
+        int limit = requestContext.getLimit();
+        List<OrderSet> orderSets = bahmniOrderSetService.getOrderSetByQuery(query, requestContext.getStartIndex(), limit + 1);
+        boolean hasMoreResults = orderSets.size() > limit;
+        if (hasMoreResults) {
+            orderSets = orderSets.subList(0, limit);
+        }
+        return new AlreadyPaged<>(requestContext, orderSets, hasMoreResults);
     }
 }
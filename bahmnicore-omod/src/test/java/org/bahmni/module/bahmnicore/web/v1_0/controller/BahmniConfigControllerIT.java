@@ -5,6 +5,7 @@ import org.bahmni.module.bahmnicore.web.v1_0.BaseIntegrationTest;
 import org.codehaus.jackson.type.TypeReference;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.util.HashMap;
 import java.util.List;
@@ -38,6 +39,19 @@ public class BahmniConfigControllerIT extends BaseIntegrationTest {
         assertTrue(bahmniConfig.contains("bahmni.registration"));
     }
 
+    @Test
+    public void returnNotModifiedWhenConfigMatchesETag() throws Exception {
+        MockHttpServletResponse response = handle(newGetRequest("/rest/v1/bahmnicore/config/clinical/app.json"));
+        String eTag = response.getHeader("ETag");
+        assertNotNull(eTag);
+
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", eTag);
+        MockHttpServletResponse conditionalResponse = handle(newGetRequest("/rest/v1/bahmnicore/config/clinical/app.json", headers));
+        assertEquals(304, conditionalResponse.getStatus());
+        assertTrue(conditionalResponse.getContentAsString().isEmpty());
+    }
+
     @Test
     public void strippedDownJsonOfAllConfigsUnderAnApp() throws Exception {
         HashMap<String, String> headers = new HashMap<>();
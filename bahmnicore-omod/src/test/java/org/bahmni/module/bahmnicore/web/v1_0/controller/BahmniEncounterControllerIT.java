@@ -61,7 +61,7 @@ public class BahmniEncounterControllerIT extends BaseIntegrationTest {
             //this.add(new org.openmrs.module.bahmniemrapi.builder.BahmniObservationBuilder().withConcept(weightConcept).withValue("71").withObsDateTime(new Date()).build());
             this.add(new org.openmrs.module.bahmniemrapi.builder.BahmniObservationBuilder().withConcept(locationConcept).withValue("12").withObsDateTime(new Date()).build());
         }});
-        BahmniEncounterTransaction encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction);
+        BahmniEncounterTransaction encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction, false);
         Collection<BahmniObservation> bahmniObservations = encounterTransaction.getObservations();
         Assert.assertEquals(1, bahmniObservations.size());
         BahmniObservation observation = bahmniObservations.iterator().next();
@@ -94,7 +94,7 @@ public class BahmniEncounterControllerIT extends BaseIntegrationTest {
             }
         });
 
-        BahmniEncounterTransaction encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction);
+        BahmniEncounterTransaction encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction, false);
         assertEquals("1e5d5d48-6b78-11e0-93c3-18a905e044dc", encounterTransaction.getVisitUuid());
         assertEquals(1, encounterTransaction.getBahmniDiagnoses().size());
         final BahmniDiagnosis bahmniDiagnosisAfterFirstSave = encounterTransaction.getBahmniDiagnoses().get(0);
@@ -112,7 +112,7 @@ public class BahmniEncounterControllerIT extends BaseIntegrationTest {
                 }});
             }
         });
-        encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction);
+        encounterTransaction = bahmniEncounterController.update(bahmniEncounterTransaction, false);
         final BahmniDiagnosis bahmniDiagnosisAfterSecondSave = encounterTransaction.getBahmniDiagnoses().get(0);
         assertDiagnosis(bahmniDiagnosisAfterSecondSave, Diagnosis.Certainty.PRESUMED, Diagnosis.Order.SECONDARY, null, false, null);
         assertDiagnosis(bahmniDiagnosisAfterSecondSave.getFirstDiagnosis(), Diagnosis.Certainty.PRESUMED, Diagnosis.Order.SECONDARY, null, false, null);
@@ -133,7 +133,7 @@ public class BahmniEncounterControllerIT extends BaseIntegrationTest {
                 }});
             }
         });
-        BahmniEncounterTransaction firstEncounterTransaction = bahmniEncounterController.update(encounterTransactionForFirstVisit);
+        BahmniEncounterTransaction firstEncounterTransaction = bahmniEncounterController.update(encounterTransactionForFirstVisit, false);
         closeVisit(firstEncounterTransaction.getVisitUuid());
 
         final BahmniDiagnosis bahmniDiagnosisAfterFirstSave = firstEncounterTransaction.getBahmniDiagnoses().get(0);
@@ -153,7 +153,7 @@ public class BahmniEncounterControllerIT extends BaseIntegrationTest {
                 }});
             }
         });
-        BahmniEncounterTransaction secondEncounterTransaction = bahmniEncounterController.update(encounterTransactionForSecondVisit);
+        BahmniEncounterTransaction secondEncounterTransaction = bahmniEncounterController.update(encounterTransactionForSecondVisit, false);
         assertThat(firstEncounterTransaction.getEncounterUuid(), is(not(equalTo(secondEncounterTransaction.getEncounterUuid()))));
 
         final BahmniDiagnosis bahmniDiagnosisAfterSecondSave = secondEncounterTransaction.getBahmniDiagnoses().get(0);
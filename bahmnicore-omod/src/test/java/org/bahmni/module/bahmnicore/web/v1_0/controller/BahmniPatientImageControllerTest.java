@@ -1,5 +1,6 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
+import org.bahmni.module.bahmnicore.document.DocumentFileServer;
 import org.bahmni.module.bahmnicore.service.PatientDocumentService;
 import org.junit.Before;
 import org.junit.Test;
@@ -11,12 +12,14 @@ import org.openmrs.api.context.UserContext;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.File;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -32,6 +35,9 @@ public class BahmniPatientImageControllerTest {
     @Mock
     private PatientDocumentService patientDocumentService;
 
+    @Mock
+    private DocumentFileServer documentFileServer;
+
     @Mock
     private UserContext userContext;
 
@@ -39,30 +45,35 @@ public class BahmniPatientImageControllerTest {
     public void setUp() throws IOException {
         PowerMockito.mockStatic(Context.class);
         PowerMockito.when(Context.getUserContext()).thenReturn(userContext);
-        bahmniPatientImageController = new BahmniPatientImageController(patientDocumentService);
+        bahmniPatientImageController = new BahmniPatientImageController(patientDocumentService, documentFileServer);
     }
 
     @Test
-    public void shouldRespondWithFileNotFoundStatusCodeIfTheImageIsNotFound() throws Exception {
+    public void shouldServePatientImageFileWhenAuthenticated() throws Exception {
         Mockito.when(userContext.isAuthenticated()).thenReturn(true);
-        when(patientDocumentService.retriveImage(anyString())).thenReturn(new ResponseEntity<Object>(new Object(), HttpStatus.OK));
+        File image = new File("/patient_images/patientUuid.jpeg");
+        when(patientDocumentService.getPatientImage(anyString())).thenReturn(image);
         String patientUuid = "patientUuid";
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        ResponseEntity<Object> responseEntity = bahmniPatientImageController.getImage(patientUuid);
+        bahmniPatientImageController.getImage(patientUuid, request, response);
 
-        verify(patientDocumentService).retriveImage(patientUuid);
-        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(patientDocumentService).getPatientImage(patientUuid);
+        verify(documentFileServer).serve(image, request, response);
+        assertEquals(200, response.getStatus());
     }
 
     @Test
     public void shouldRespondWithNotAuthorizeStatusCodeIfTheImageIsNotFound() throws Exception {
         Mockito.when(userContext.isAuthenticated()).thenReturn(false);
-        when(patientDocumentService.retriveImage(anyString())).thenReturn(new ResponseEntity<Object>(new Object(), HttpStatus.OK));
         String patientUuid = "patientUuid";
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        ResponseEntity<Object> responseEntity = bahmniPatientImageController.getImage(patientUuid);
+        bahmniPatientImageController.getImage(patientUuid, new MockHttpServletRequest(), response);
 
-        verify(patientDocumentService, never()).retriveImage(patientUuid);
-        assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
+        verify(patientDocumentService, never()).getPatientImage(patientUuid);
+        verify(documentFileServer, never()).serve(any(File.class), any(MockHttpServletRequest.class), any(MockHttpServletResponse.class));
+        assertEquals(401, response.getStatus());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package org.bahmni.module.bahmnicore.web.v1_0.controller;
+
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCache;
+import org.bahmni.module.bahmnicore.obs.cache.ObsReadCacheStatistics;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
+import org.bahmni.module.bahmnicore.worklist.WorklistProjections;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class CachesControllerTest {
+
+    @Mock
+    private DemographicAutocompleteIndex demographicAutocompleteIndex;
+
+    @Mock
+    private ObsReadCache obsReadCache;
+
+    @Mock
+    private WorklistProjections worklistProjections;
+
+    private CachesController controller;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        controller = new CachesController(demographicAutocompleteIndex, obsReadCache, worklistProjections);
+    }
+
+    @Test
+    public void shouldRebuildTheDemographicAutocompleteIndex() {
+        controller.rebuildDemographicAutocomplete();
+
+        verify(demographicAutocompleteIndex).rebuild();
+    }
+
+    @Test
+    public void shouldReturnTheObsReadCacheStatistics() {
+        ObsReadCacheStatistics statistics = new ObsReadCacheStatistics(true, 2, 200, 5, 2, 0, 1);
+        when(obsReadCache.getStatistics()).thenReturn(statistics);
+
+        assertSame(statistics, controller.getObsReadCacheStatistics());
+    }
+
+    @Test
+    public void shouldRebuildEveryWorklistProjection() {
+        controller.rebuildWorklistProjections();
+
+        verify(worklistProjections).rebuildAll();
+    }
+}
@@ -1,5 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller;
 
+import org.bahmni.module.bahmnicore.document.DocumentFileServer;
+import org.bahmni.module.bahmnicore.document.ThumbnailStatus;
 import org.bahmni.module.bahmnicore.model.Document;
 import org.bahmni.module.bahmnicore.service.PatientDocumentService;
 import org.junit.Before;
@@ -24,7 +26,12 @@ import org.openmrs.module.bahmniemrapi.visitlocation.BahmniVisitLocationService;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 @PrepareForTest(Context.class)
@@ -44,6 +51,8 @@ public class VisitDocumentControllerTest {
     BahmniVisitLocationService bahmniVisitLocationService;
     @Mock
     UserContext userContext;
+    @Mock
+    DocumentFileServer documentFileServer;
 
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
@@ -146,4 +155,26 @@ public class VisitDocumentControllerTest {
         visitDocumentController.deleteDocument("");
         verifyZeroInteractions(patientDocumentService);
     }
+
+    @Test
+    public void shouldGetThumbnailStatusOfGivenFileName() throws Exception {
+        when(patientDocumentService.getThumbnailStatus("100/1-Radiology-abc.mp4")).thenReturn(ThumbnailStatus.PENDING);
+
+        assertEquals(ThumbnailStatus.PENDING, visitDocumentController.getThumbnailStatus("100/1-Radiology-abc.mp4"));
+    }
+
+    @Test
+    public void shouldServeDocumentOfGivenFileName() throws Exception {
+        PowerMockito.mockStatic(Context.class);
+        PowerMockito.when(Context.getUserContext()).thenReturn(userContext);
+        when(userContext.isAuthenticated()).thenReturn(true);
+        File video = new File("/documents/100/1-Radiology-abc.mp4");
+        when(patientDocumentService.getDocument("100/1-Radiology-abc.mp4")).thenReturn(video);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        visitDocumentController.getDocument("100/1-Radiology-abc.mp4", request, response);
+
+        verify(documentFileServer).serve(video, request, response);
+    }
 }
@@ -0,0 +1,54 @@
+package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
+
+import org.bahmni.module.bahmnicore.location.LocationTagIndex.TaggedLocations;
+import org.bahmni.module.bahmnicore.web.v1_0.search.BahmniLocationSearchHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BahmniLocationSearchControllerTest {
+    private static final String QUERY_STRING = "s=byTags&tags=Login+Location";
+
+    @Mock
+    private BahmniLocationSearchHandler bahmniLocationSearchHandler;
+
+    private BahmniLocationSearchController controller;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        controller = new BahmniLocationSearchController(bahmniLocationSearchHandler);
+        request = new MockHttpServletRequest("GET", "/rest/v1/location");
+        request.setQueryString(QUERY_STRING);
+        request.addParameter("s", "byTags");
+        request.addParameter("tags", "Login Location");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void shouldRespondNotModifiedWithoutABodyWhenClientHasCurrentVersion() throws Exception {
+        TaggedLocations taggedLocations = mock(TaggedLocations.class);
+        when(taggedLocations.getVersion()).thenReturn("v1");
+        when(bahmniLocationSearchHandler.getTaggedLocations(request)).thenReturn(taggedLocations);
+        String eTag = String.format("\"v1-%x\"", QUERY_STRING.hashCode());
+        request.addHeader("If-None-Match", eTag);
+
+        Object result = controller.search(new ServletWebRequest(request, response), request, response);
+
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        assertEquals(eTag, response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,92 @@
+package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
+
+import org.bahmni.module.bahmnicore.contract.patient.PatientSearchParameters;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponse;
+import org.bahmni.module.bahmnicore.contract.patient.response.PatientResponseWriter;
+import org.bahmni.module.bahmnicore.service.BahmniPatientService;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class BahmniPatientSearchControllerTest {
+
+    @Mock
+    private BahmniPatientService bahmniPatientService;
+
+    @Mock
+    private AdministrationService administrationService;
+
+    private BahmniPatientSearchController controller;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        mockStatic(Context.class);
+        when(Context.getAdministrationService()).thenReturn(administrationService);
+        controller = new BahmniPatientSearchController(bahmniPatientService);
+        request = new MockHttpServletRequest();
+        request.setParameter("q", "GAN200001");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void shouldStreamSearchResultsAsJson() throws Exception {
+        final PatientResponse patientResponse = new PatientResponse();
+        patientResponse.setUuid("patient-uuid");
+        doAnswer(invocation -> {
+            PatientResponseWriter writer = (PatientResponseWriter) invocation.getArguments()[1];
+            writer.writeStart();
+            writer.write(patientResponse);
+            writer.writeEnd();
+            return null;
+        }).when(bahmniPatientService).search(any(PatientSearchParameters.class), any(PatientResponseWriter.class));
+
+        controller.search(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        JsonNode page = objectMapper.readTree(response.getContentAsString());
+        assertEquals("patient-uuid", page.get("pageOfResults").get(0).get("uuid").getTextValue());
+    }
+
+    @Test
+    public void shouldDiscardBufferedOutputAndAnswerBadRequestForInvalidSearchParameters() throws Exception {
+        doAnswer(invocation -> {
+            response.getOutputStream().write("{\"pageOfResults\":[".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalArgumentException("Invalid Program Attribute stage");
+        }).when(bahmniPatientService).search(any(PatientSearchParameters.class), any(PatientResponseWriter.class));
+
+        controller.search(request, response);
+
+        assertEquals(400, response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertFalse(body.has("pageOfResults"));
+        assertTrue(body.get("error").get("message").getTextValue().contains("Invalid Program Attribute stage"));
+    }
+}
@@ -1,7 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
 
-import org.bahmni.module.bahmnicore.dao.PersonAttributeDao;
 import org.bahmni.module.bahmnicore.model.ResultList;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -17,24 +17,24 @@ public class PersonAttributeSearchControllerTest {
 	private PersonAttributeSearchController controller;
 	
 	@Mock
-	PersonAttributeDao personAttributeDao;
+	DemographicAutocompleteIndex demographicAutocompleteIndex;
 	
 	@Before
 	public void init() {
 		initMocks(this);
-		controller = new PersonAttributeSearchController(personAttributeDao);
+		controller = new PersonAttributeSearchController(demographicAutocompleteIndex);
 	}
 	
 	@Test
-	public void shouldCallDaoToSearchForPatientAttributeValuesForCaste() {
+	public void shouldCallIndexToSearchForPatientAttributeValuesForCaste() {
 		String query = "someCaste";
 		String personAttribute = "caste";
-		when(personAttributeDao.getUnique(personAttribute, query)).thenReturn(
+		when(demographicAutocompleteIndex.getAttributeValues(personAttribute, query)).thenReturn(
 		    new ResultList(Arrays.asList("blah1", "blah2", "blah3")));
 		
 		controller.search(personAttribute, query);
 		
-		verify(personAttributeDao).getUnique(personAttribute, query);
+		verify(demographicAutocompleteIndex).getAttributeValues(personAttribute, query);
 	}
 	
 }
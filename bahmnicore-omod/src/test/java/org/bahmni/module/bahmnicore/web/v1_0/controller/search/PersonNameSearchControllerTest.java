@@ -1,7 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.controller.search;
 
-import org.bahmni.module.bahmnicore.dao.PersonNameDao;
 import org.bahmni.module.bahmnicore.model.ResultList;
+import org.bahmni.module.bahmnicore.person.DemographicAutocompleteIndex;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -18,7 +18,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 public class PersonNameSearchControllerTest {
 	
 	@Mock
-	PersonNameDao lastNameList;
+	DemographicAutocompleteIndex lastNameList;
 	
 	@Before
 	public void setup() {
@@ -26,16 +26,16 @@ public class PersonNameSearchControllerTest {
 	}
 	
 	@Test
-	public void shouldCallDaoToSearchForPatientLastNames() {
+	public void shouldCallIndexToSearchForPatientLastNames() {
 		String query = "family";
 		String key = "familyName";
 		List<String> requiredResult = Arrays.asList("familyName1", "familyName2", "familyName3");
-		when(lastNameList.getUnique(key, query)).thenReturn(new ResultList(requiredResult));
+		when(lastNameList.getNames(key, query)).thenReturn(new ResultList(requiredResult));
 		PersonNameSearchController controller = new PersonNameSearchController(lastNameList);
 		
 		ResultList resultList = controller.searchFor(query, key);
 		
-		verify(lastNameList).getUnique(key, query);
+		verify(lastNameList).getNames(key, query);
 		assertEquals(requiredResult.size(), resultList.size());
 		for (String name : requiredResult) {
 			assertTrue(resultList.getResults().contains(name));
@@ -6,10 +6,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.openmrs.Concept;
-import org.openmrs.Encounter;
 import org.openmrs.Obs;
 import org.openmrs.api.ConceptService;
-import org.openmrs.api.ObsService;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.bacteriology.api.BacteriologyService;
 import org.openmrs.module.bacteriology.api.encounter.domain.Specimen;
@@ -33,7 +31,6 @@ public class BacteriologySpecimenSearchHandlerTest {
 
     @Mock private ConceptService conceptService;
     @Mock private BahmniProgramWorkflowService bahmniProgramWorkflowService;
-    @Mock private ObsService obsService;
     @Mock private RequestContext requestContext;
     @Mock private BacteriologyService bacteriologyService;
 
@@ -48,25 +45,22 @@ public class BacteriologySpecimenSearchHandlerTest {
         when(Context.getService(BacteriologyService.class)).thenReturn(bacteriologyService);
 
         bacteriologySpecimenSearchHandler = new BacteriologySpecimenSearchHandler(bahmniProgramWorkflowService,
-            conceptService, obsService);
+            conceptService);
     }
 
     @Test
     public void shouldSearchByPatientProgramUuid() {
         Concept bacteriologyConceptSet = new Concept();
-        Encounter encounter = new Encounter();
         Obs observation = new Obs();
         Specimen specimen = new Specimen();
         Specimens specimens = new Specimens(Arrays.asList(specimen));
 
-        List<Encounter> encounters = Arrays.asList(encounter);
         List<Concept> concepts = Arrays.asList(bacteriologyConceptSet);
 
         when(requestContext.getParameter("patientProgramUuid")).thenReturn("sample-patientProgramUuid");
-        when(bahmniProgramWorkflowService.getEncountersByPatientProgramUuid("sample-patientProgramUuid")).thenReturn(encounters);
         when(conceptService.getConceptByName(BACTERIOLOGY_CONCEPT_SET)).thenReturn(bacteriologyConceptSet);
         List<Obs> observations = Arrays.asList(observation);
-        when(obsService.getObservations(null, encounters, concepts, null, null, null, null, null, null, null, null, false))
+        when(bahmniProgramWorkflowService.getObsByPatientProgramUuid("sample-patientProgramUuid", concepts, null, null, null, null))
                 .thenReturn(observations);
         when(bacteriologyService.getSpecimens(observations)).thenReturn(specimens);
 
@@ -1,6 +1,7 @@
 package org.bahmni.module.bahmnicore.web.v1_0.search;
 
 import org.bahmni.module.bahmnicore.service.BahmniConceptService;
+import org.bahmni.module.bahmnicore.web.v1_0.contract.BahmniConceptAnswer;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -8,11 +9,12 @@ import org.openmrs.Concept;
 import org.openmrs.ConceptAnswer;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -52,13 +54,31 @@ public class BahmniConceptAnswerSearchHandlerTest {
 
     @Test
     public void shouldDelegateSearchOfConceptsToBahmniConceptService() {
-        Collection<ConceptAnswer> conceptServiceResult = new ArrayList<>();
-        when(bahmniConceptService.searchByQuestion(QUESTION_CONCEPT, QUERY)).thenReturn(conceptServiceResult);
+        List<ConceptAnswer> conceptServiceResult = new ArrayList<>();
+        when(bahmniConceptService.searchByQuestion(QUESTION_CONCEPT, QUERY, 0, 51)).thenReturn(conceptServiceResult);
         when(requestContext.getParameter("question")).thenReturn(QUESTION_CONCEPT);
         when(requestContext.getParameter("q")).thenReturn(QUERY);
+        when(requestContext.getStartIndex()).thenReturn(0);
+        when(requestContext.getLimit()).thenReturn(50);
 
-        NeedsPaging<Concept> searchResults = (NeedsPaging<Concept>) bahmniConceptAnswerSearchHandler.search(requestContext);
+        AlreadyPaged<Concept> searchResults = (AlreadyPaged<Concept>) bahmniConceptAnswerSearchHandler.search(requestContext);
 
         assertThat(searchResults.getPageOfResults().size(), is(equalTo(0)));
     }
+
+    @Test
+    public void shouldAskForOneAnswerBeyondThePageToTellWhetherThereAreMore() {
+        ConceptAnswer first = new ConceptAnswer(new Concept(1));
+        ConceptAnswer second = new ConceptAnswer(new Concept(2));
+        when(bahmniConceptService.searchByQuestion(QUESTION_CONCEPT, QUERY, 10, 2)).thenReturn(asList(first, second));
+        when(requestContext.getParameter("question")).thenReturn(QUESTION_CONCEPT);
+        when(requestContext.getParameter("q")).thenReturn(QUERY);
+        when(requestContext.getStartIndex()).thenReturn(10);
+        when(requestContext.getLimit()).thenReturn(1);
+
+        AlreadyPaged<BahmniConceptAnswer> searchResults = (AlreadyPaged<BahmniConceptAnswer>) bahmniConceptAnswerSearchHandler.search(requestContext);
+
+        assertThat(searchResults.getPageOfResults().size(), is(equalTo(1)));
+        assertTrue(searchResults.hasMoreResults());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.bahmni.module.bahmnicore.web.v1_0.search;
+
+import org.bahmni.module.bahmnicore.location.LocationTagIndex;
+import org.bahmni.module.bahmnicore.location.LocationTagIndex.TaggedLocations;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openmrs.Location;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BahmniLocationSearchHandlerTest {
+    @Mock
+    private LocationTagIndex locationTagIndex;
+    private BahmniLocationSearchHandler bahmniLocationSearchHandler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private RequestContext requestContext;
+    private List<Location> locations;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        bahmniLocationSearchHandler = new BahmniLocationSearchHandler(locationTagIndex);
+        request = new MockHttpServletRequest("GET", "/rest/v1/location");
+        request.setQueryString("s=byTags&tags=Login+Location&tags=Visit+Location");
+        request.addParameter("tags", "Login Location", "Visit Location");
+        response = new MockHttpServletResponse();
+        requestContext = new RequestContext();
+        requestContext.setRequest(request);
+        requestContext.setResponse(response);
+        locations = asList(new Location(1), new Location(2));
+    }
+
+    @Test
+    public void shouldSearchLocationsHavingAllTagsByDefault() {
+        TaggedLocations taggedLocations = taggedLocations("v1");
+        when(locationTagIndex.getLocationsHavingAllTags(asList("Login Location", "Visit Location"))).thenReturn(taggedLocations);
+
+        AlreadyPaged<Location> result = (AlreadyPaged<Location>) bahmniLocationSearchHandler.search(requestContext);
+
+        assertEquals(locations, result.getPageOfResults());
+    }
+
+    @Test
+    public void shouldSearchLocationsHavingAnyTagWhenOperatorIsAny() {
+        request.addParameter("operator", "ANY");
+        TaggedLocations taggedLocations = taggedLocations("v1");
+        when(locationTagIndex.getLocationsHavingAnyTag(asList("Login Location", "Visit Location"))).thenReturn(taggedLocations);
+
+        AlreadyPaged<Location> result = (AlreadyPaged<Location>) bahmniLocationSearchHandler.search(requestContext);
+
+        assertEquals(locations, result.getPageOfResults());
+    }
+
+    @Test
+    public void shouldFindNoLocationsForAnUnknownOperator() {
+        request.addParameter("operator", "NONE");
+
+        AlreadyPaged<Location> result = (AlreadyPaged<Location>) bahmniLocationSearchHandler.search(requestContext);
+
+        assertNull(bahmniLocationSearchHandler.getTaggedLocations(request));
+        assertNotNull(result);
+    }
+
+    private TaggedLocations taggedLocations(String version) {
+        TaggedLocations taggedLocations = mock(TaggedLocations.class);
+        when(taggedLocations.getLocations()).thenReturn(locations);
+        when(taggedLocations.getVersion()).thenReturn(version);
+        return taggedLocations;
+    }
+}
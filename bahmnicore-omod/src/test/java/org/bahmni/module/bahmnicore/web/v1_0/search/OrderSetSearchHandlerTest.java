@@ -4,17 +4,18 @@ import org.bahmni.module.bahmnicore.service.BahmniOrderSetService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
-import org.openmrs.Concept;
 import org.openmrs.OrderSet;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -52,11 +53,28 @@ public class OrderSetSearchHandlerTest {
     @Test
     public void shouldDelegateSearchOfOrdersetToBahmniOrderSetService() {
         List<OrderSet> resultOrderSets = new ArrayList<>();
-        when(bahmniOrderSetService.getOrderSetByQuery(QUERY)).thenReturn(resultOrderSets);
+        when(bahmniOrderSetService.getOrderSetByQuery(QUERY, 0, 51)).thenReturn(resultOrderSets);
         when(requestContext.getParameter("q")).thenReturn(QUERY);
+        when(requestContext.getStartIndex()).thenReturn(0);
+        when(requestContext.getLimit()).thenReturn(50);
 
-        NeedsPaging<Concept> searchResults = (NeedsPaging<Concept>) orderSetSearchHandler.search(requestContext);
+        AlreadyPaged<OrderSet> searchResults = (AlreadyPaged<OrderSet>) orderSetSearchHandler.search(requestContext);
 
         assertThat(searchResults.getPageOfResults().size(), is(equalTo(0)));
+        assertFalse(searchResults.hasMoreResults());
+    }
+
+    @Test
+    public void shouldFetchOnlyTheRequestedPageOfOrderSets() {
+        List<OrderSet> resultOrderSets = Arrays.asList(new OrderSet(), new OrderSet(), new OrderSet());
+        when(bahmniOrderSetService.getOrderSetByQuery(QUERY, 4, 3)).thenReturn(resultOrderSets);
+        when(requestContext.getParameter("q")).thenReturn(QUERY);
+        when(requestContext.getStartIndex()).thenReturn(4);
+        when(requestContext.getLimit()).thenReturn(2);
+
+        AlreadyPaged<OrderSet> searchResults = (AlreadyPaged<OrderSet>) orderSetSearchHandler.search(requestContext);
+
+        assertThat(searchResults.getPageOfResults().size(), is(equalTo(2)));
+        assertTrue(searchResults.hasMoreResults());
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.bahmni.module.obsrelationship.model.ObsRelationshipType;
 import org.openmrs.Obs;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ObsRelationService {
     ObsRelationship saveOrUpdate(ObsRelationship obsRelationship);
@@ -19,4 +20,6 @@ public interface ObsRelationService {
     ObsRelationshipType getRelationshipTypeByName(String name);
 
     List<ObsRelationship> getObsRelationshipsByTargetObsUuid(String targetObsUuid);
+
+    void retargetRelations(Map<Obs, Obs> newTargetByPreviousTarget);
 }
@@ -8,7 +8,9 @@ import org.openmrs.Obs;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ObsRelationServiceImpl implements ObsRelationService {
@@ -63,4 +65,22 @@ public class ObsRelationServiceImpl implements ObsRelationService {
     public List<ObsRelationship> getObsRelationshipsByTargetObsUuid(String targetObsUuid) {
         return obsRelationshipDao.getObsRelationshipsByTargetObsUuid(targetObsUuid);
     }
+
+    @Override
+    public void retargetRelations(Map<Obs, Obs> newTargetByPreviousTarget) {
+        if (newTargetByPreviousTarget.isEmpty()) {
+            return;
+        }
+        Map<Integer, Obs> newTargetByPreviousTargetId = new HashMap<>();
+        for (Map.Entry<Obs, Obs> entry : newTargetByPreviousTarget.entrySet()) {
+            newTargetByPreviousTargetId.put(entry.getKey().getId(), entry.getValue());
+        }
+        for (ObsRelationship obsRelationship : obsRelationshipDao.getRelationsByTargetObs(newTargetByPreviousTarget.keySet())) {
+            Obs newTarget = newTargetByPreviousTargetId.get(obsRelationship.getTargetObs().getId());
+            if (newTarget != null) {
+                obsRelationship.setTargetObs(newTarget);
+                obsRelationshipDao.saveOrUpdate(obsRelationship);
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.bahmni.module.obsrelationship.model.ObsRelationship;
 import org.bahmni.module.obsrelationship.model.ObsRelationshipType;
 import org.openmrs.Obs;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ObsRelationshipDao {
@@ -17,4 +18,6 @@ public interface ObsRelationshipDao {
     List<ObsRelationship> getRelationsWhereSourceObsInEncounter(String encounterUuid);
 
     List<ObsRelationship> getObsRelationshipsByTargetObsUuid(String targetObsUuid);
+
+    List<ObsRelationship> getRelationsByTargetObs(Collection<Obs> targetObs);
 }
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -98,6 +99,14 @@ public class ObsRelationshipDaoImpl implements ObsRelationshipDao {
         return query.list();
     }
 
+    @Override
+    @Transactional
+    public List<ObsRelationship> getRelationsByTargetObs(Collection<Obs> targetObs) {
+        Query query = sessionFactory.getCurrentSession().createQuery("from ObsRelationship obsRel where obsRel.targetObs in (:targetObs)");
+        query.setParameterList("targetObs", targetObs);
+        return query.list();
+    }
+
     private Query createGetRelationsQueryFor(Obs sourceObs, Obs targetObs) {
         Query query = null;
         if(sourceObs == null && targetObs == null){
@@ -10,6 +10,7 @@ import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.core.Is.is;
@@ -119,6 +120,15 @@ public class ObsRelationshipDaoImplIT extends BaseModuleContextSensitiveTest {
         assertThat(obsRelationships.size(),is(0));
     }
 
+    @Test
+    public void shouldGetRelationsHavingAnyOfTheTargetObs(){
+        List<ObsRelationship> obsRelationships = obsRelationshipDao.getRelationsByTargetObs(Arrays.asList(obsService.getObs(7), obsService.getObs(11)));
+        assertThat(obsRelationships.size(), is(3));
+
+        obsRelationships = obsRelationshipDao.getRelationsByTargetObs(Arrays.asList(obsService.getObs(16)));
+        assertThat(obsRelationships.size(), is(0));
+    }
+
     @Test
     public void shouldGetAllRelationshipTypes(){
         List<ObsRelationshipType> relationshipTypes = obsRelationshipDao.getAllRelationshipTypes();
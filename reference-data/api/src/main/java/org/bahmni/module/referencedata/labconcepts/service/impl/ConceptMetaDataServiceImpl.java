@@ -17,6 +17,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ConceptMetaDataServiceImpl implements ConceptMetaDataService {
@@ -24,15 +26,48 @@ public class ConceptMetaDataServiceImpl implements ConceptMetaDataService {
     @Autowired
     private ConceptService conceptService;
 
+    //Ids by name, so that the entities come from the session or second level cache instead of a by-name query per row
+    private final Map<String, Integer> conceptClassIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> conceptDatatypeIds = new ConcurrentHashMap<>();
 
     @Override
     public ConceptMetaData getConceptMetaData(ConceptCommon conceptCommon) {
-        ConceptClass conceptClass = conceptService.getConceptClassByName(conceptCommon.getClassName());
+        ConceptClass conceptClass = getConceptClass(conceptCommon.getClassName());
         org.openmrs.Concept existingConcept = getExistingConcept(conceptCommon.getUniqueName(), conceptCommon.getUuid());
-        ConceptDatatype conceptDatatype = conceptService.getConceptDatatypeByName(conceptCommon.getDataType());
+        ConceptDatatype conceptDatatype = getConceptDatatype(conceptCommon.getDataType());
         return new ConceptMetaData(existingConcept, conceptDatatype, conceptClass, getLocale(conceptCommon.getLocale()));
     }
 
+    private ConceptClass getConceptClass(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = conceptClassIds.get(name);
+        ConceptClass conceptClass = id == null ? null : conceptService.getConceptClass(id);
+        if (conceptClass == null || !name.equalsIgnoreCase(conceptClass.getName())) {
+            conceptClass = conceptService.getConceptClassByName(name);
+            if (conceptClass != null) {
+                conceptClassIds.put(name, conceptClass.getConceptClassId());
+            }
+        }
+        return conceptClass;
+    }
+
+    private ConceptDatatype getConceptDatatype(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = conceptDatatypeIds.get(name);
+        ConceptDatatype conceptDatatype = id == null ? null : conceptService.getConceptDatatype(id);
+        if (conceptDatatype == null || !name.equalsIgnoreCase(conceptDatatype.getName())) {
+            conceptDatatype = conceptService.getConceptDatatypeByName(name);
+            if (conceptDatatype != null) {
+                conceptDatatypeIds.put(name, conceptDatatype.getConceptDatatypeId());
+            }
+        }
+        return conceptDatatype;
+    }
+
     private org.openmrs.Concept getExistingConcept(String uniqueName, String uuid) {
         if (uuid != null) {
             return conceptService.getConceptByUuid(uuid);
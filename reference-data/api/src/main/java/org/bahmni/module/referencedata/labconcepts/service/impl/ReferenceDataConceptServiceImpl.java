@@ -30,7 +30,6 @@ public class ReferenceDataConceptServiceImpl implements ReferenceDataConceptServ
     private ConceptMapper conceptMapper;
     private ConceptSetMapper conceptSetMapper;
     private final ConceptValidator conceptValidator;
-    private List<String> notFound;
 
     @Autowired
     public ReferenceDataConceptServiceImpl(ConceptService conceptService, ReferenceDataConceptReferenceTermService referenceDataConceptReferenceTermService, ConceptMetaDataService conceptMetaDataService) {
@@ -70,7 +69,8 @@ public class ReferenceDataConceptServiceImpl implements ReferenceDataConceptServ
     }
 
     private org.openmrs.Concept getConceptSet(ConceptSet conceptSet, ConceptMetaData conceptMetaData) {
-        List<org.openmrs.Concept> setMembers = getSetMembers(conceptSet.getChildren());
+        List<String> notFound = new ArrayList<>();
+        List<org.openmrs.Concept> setMembers = getSetMembers(conceptSet.getChildren(), notFound);
         conceptValidator.validate(conceptSet, conceptMetaData.getConceptClass(), conceptMetaData.getConceptDatatype(), notFound);
         org.openmrs.Concept mappedConceptSet = conceptSetMapper.map(conceptSet, setMembers,conceptMetaData);
         clearAndAddConceptMappings(conceptSet, mappedConceptSet);
@@ -78,7 +78,8 @@ public class ReferenceDataConceptServiceImpl implements ReferenceDataConceptServ
     }
 
     private org.openmrs.Concept getConcept(Concept conceptData, ConceptMetaData conceptMetaData) {
-        List<ConceptAnswer> conceptAnswers = getConceptAnswers(conceptData.getAnswers());
+        List<String> notFound = new ArrayList<>();
+        List<ConceptAnswer> conceptAnswers = getConceptAnswers(conceptData.getAnswers(), notFound);
         conceptValidator.validate(conceptData, conceptMetaData.getConceptClass(), conceptMetaData.getConceptDatatype(), notFound);
         org.openmrs.Concept mappedConcept = conceptMapper.map(conceptData, conceptMetaData, conceptAnswers);
         clearAndAddConceptMappings(conceptData, mappedConcept);
@@ -95,9 +96,8 @@ public class ReferenceDataConceptServiceImpl implements ReferenceDataConceptServ
         }
     }
 
-    private List<ConceptAnswer> getConceptAnswers(List<String> answers) {
+    private List<ConceptAnswer> getConceptAnswers(List<String> answers, List<String> notFound) {
         List<ConceptAnswer> conceptAnswers = new ArrayList<>();
-        notFound = new ArrayList<>();
         if (answers == null) return conceptAnswers;
         for (String answer : answers) {
             org.openmrs.Concept answerConcept = conceptService.getConceptByName(answer);
@@ -109,9 +109,8 @@ public class ReferenceDataConceptServiceImpl implements ReferenceDataConceptServ
         return conceptAnswers;
     }
 
-    private List<org.openmrs.Concept> getSetMembers(List<String> children) {
+    private List<org.openmrs.Concept> getSetMembers(List<String> children, List<String> notFound) {
         List<org.openmrs.Concept> setMembers = new ArrayList<>();
-        notFound = new ArrayList<>();
         if (children == null) return setMembers;
         for (String child : children) {
             org.openmrs.Concept childConcept = conceptService.getConceptByName(child);
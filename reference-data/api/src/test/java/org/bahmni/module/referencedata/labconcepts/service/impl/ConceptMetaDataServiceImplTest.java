@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -182,4 +184,31 @@ public class ConceptMetaDataServiceImplTest {
 
         Assert.assertEquals(concept, conceptMetadata.getExistingConcept());
     }
+
+    @Test
+    public void shouldResolveClassAndDatatypeByNameOnlyOnce() throws Exception {
+        ConceptCommon conceptCommon = new ConceptCommon();
+        conceptCommon.setClassName("Misc");
+        conceptCommon.setDataType("Text");
+        conceptCommon.setUniqueName("ConceptA");
+        conceptCommon.setUuid("123");
+        org.openmrs.ConceptClass misc = new org.openmrs.ConceptClass(7);
+        misc.setName("Misc");
+        org.openmrs.ConceptDatatype text = new org.openmrs.ConceptDatatype(3);
+        text.setName("Text");
+        when(conceptService.getConceptClassByName("Misc")).thenReturn(misc);
+        when(conceptService.getConceptDatatypeByName("Text")).thenReturn(text);
+        when(conceptService.getConceptClass(7)).thenReturn(misc);
+        when(conceptService.getConceptDatatype(3)).thenReturn(text);
+        when(conceptService.getConceptByUuid("123")).thenReturn(concept);
+        when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+
+        conceptMetaDataService.getConceptMetaData(conceptCommon);
+        ConceptMetaData conceptMetadata = conceptMetaDataService.getConceptMetaData(conceptCommon);
+
+        Assert.assertEquals(misc, conceptMetadata.getConceptClass());
+        Assert.assertEquals(text, conceptMetadata.getConceptDatatype());
+        verify(conceptService, times(1)).getConceptClassByName("Misc");
+        verify(conceptService, times(1)).getConceptDatatypeByName("Text");
+    }
 }
@@ -1,5 +1,6 @@
 package org.bahmni.module.referencedata.labconcepts.advice;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
 import org.bahmni.module.referencedata.labconcepts.model.Operation;
 import org.ict4h.atomfeed.server.repository.AllEventRecordsQueue;
 import org.ict4h.atomfeed.server.repository.jdbc.AllEventRecordsQueueJdbcImpl;
@@ -11,15 +12,19 @@ import org.openmrs.api.context.Context;
 import org.openmrs.module.atomfeed.transaction.support.AtomFeedSpringTransactionManager;
 import org.springframework.aop.AfterReturningAdvice;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Method;
 import java.util.List;
 
+import static org.apache.commons.collections.CollectionUtils.isEmpty;
 import static org.apache.commons.collections.CollectionUtils.isNotEmpty;
 
 public class ConceptServiceEventInterceptor implements AfterReturningAdvice {
     private AtomFeedSpringTransactionManager atomFeedSpringTransactionManager;
     private EventService eventService;
+    private LabCatalogueCache labCatalogueCache;
 
     public ConceptServiceEventInterceptor() {
         atomFeedSpringTransactionManager = createTransactionManager();
@@ -31,6 +36,11 @@ public class ConceptServiceEventInterceptor implements AfterReturningAdvice {
         this.eventService = eventService;
     }
 
+    public ConceptServiceEventInterceptor(AtomFeedSpringTransactionManager atomFeedSpringTransactionManager, EventService eventService, LabCatalogueCache labCatalogueCache) {
+        this(atomFeedSpringTransactionManager, eventService);
+        this.labCatalogueCache = labCatalogueCache;
+    }
+
     private AtomFeedSpringTransactionManager createTransactionManager() {
         PlatformTransactionManager platformTransactionManager = getSpringPlatformTransactionManager();
         return new AtomFeedSpringTransactionManager(platformTransactionManager);
@@ -46,6 +56,7 @@ public class ConceptServiceEventInterceptor implements AfterReturningAdvice {
         Operation operation = new Operation(method);
         final List<Event> events = operation.apply(arguments);
         if (isNotEmpty(events)) {
+            invalidateLabCatalogue();
             atomFeedSpringTransactionManager.executeWithTransaction(
                     new AFTransactionWorkWithoutResult() {
                         @Override
@@ -64,6 +75,27 @@ public class ConceptServiceEventInterceptor implements AfterReturningAdvice {
         }
     }
 
+    private void invalidateLabCatalogue() {
+        if (labCatalogueCache == null) {
+            List<LabCatalogueCache> caches = Context.getRegisteredComponents(LabCatalogueCache.class);
+            if (isEmpty(caches)) {
+                return;
+            }
+            labCatalogueCache = caches.get(0);
+        }
+        final LabCatalogueCache cache = labCatalogueCache;
+        cache.invalidate();
+        //A request between the concept change and its commit would cache the old catalogue under the new version
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate();
+                }
+            });
+        }
+    }
+
     private PlatformTransactionManager getSpringPlatformTransactionManager() {
         List<PlatformTransactionManager> platformTransactionManagers = Context.getRegisteredComponents(PlatformTransactionManager.class);
         return platformTransactionManagers.get(0);
@@ -0,0 +1,55 @@
+package org.bahmni.module.referencedata.labconcepts.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds mapped lab catalogue resources (all tests and panels, samples, departments, panels) keyed by
+ * resource type, concept uuid and locale, since mapped resources carry localized names. The whole catalogue shares
+ * one version which is bumped whenever
+ * {@link org.bahmni.module.referencedata.labconcepts.advice.ConceptServiceEventInterceptor} publishes a
+ * reference data event, so a snapshot is rebuilt on the first request after a relevant concept change.
+ * Defined in moduleApplicationContext.xml so that the interceptor finds it among the registered components.
+ */
+public class LabCatalogueCache {
+    private static final Log log = LogFactory.getLog(LabCatalogueCache.class);
+
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+    private final Map<String, LabCatalogueSnapshot<?>> snapshots = new ConcurrentHashMap<>();
+    private long version = 0;
+
+    @SuppressWarnings("unchecked")
+    public <T> LabCatalogueSnapshot<T> get(String resourceType, String uuid, Locale locale, Supplier<T> loader) {
+        String key = resourceType + "/" + uuid + "/" + locale;
+        LabCatalogueSnapshot<T> snapshot = (LabCatalogueSnapshot<T>) snapshots.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = (LabCatalogueSnapshot<T>) snapshots.get(key);
+            if (snapshot == null) {
+                log.debug(String.format("Building lab catalogue snapshot %s at version %d", key, version));
+                snapshot = new LabCatalogueSnapshot<>(loader.get(), version, eTag(key, version));
+                snapshots.put(key, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    public synchronized void invalidate() {
+        version++;
+        snapshots.clear();
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    private String eTag(String key, long version) {
+        return String.format("\"%s-%x-%d\"", instanceId, key.hashCode(), version);
+    }
+}
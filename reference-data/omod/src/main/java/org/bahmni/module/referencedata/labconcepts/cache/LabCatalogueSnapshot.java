@@ -0,0 +1,25 @@
+package org.bahmni.module.referencedata.labconcepts.cache;
+
+public class LabCatalogueSnapshot<T> {
+    private final T resource;
+    private final long version;
+    private final String eTag;
+
+    public LabCatalogueSnapshot(T resource, long version, String eTag) {
+        this.resource = resource;
+        this.version = version;
+        this.eTag = eTag;
+    }
+
+    public T getResource() {
+        return resource;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
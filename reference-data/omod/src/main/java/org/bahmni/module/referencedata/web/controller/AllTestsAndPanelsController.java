@@ -1,9 +1,12 @@
 package org.bahmni.module.referencedata.web.controller;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueSnapshot;
 import org.bahmni.module.referencedata.labconcepts.contract.AllTestsAndPanels;
 import org.bahmni.module.referencedata.labconcepts.mapper.AllTestsAndPanelsMapper;
 import org.openmrs.Concept;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.bahmni.module.referencedata.labconcepts.model.event.ConceptServiceEventFactory.TESTS_AND_PANEL;
 
 
 @Controller
@@ -19,21 +25,29 @@ import org.springframework.web.bind.annotation.ResponseBody;
 public class AllTestsAndPanelsController extends BaseRestController {
 
     private ConceptService conceptService;
+    private final LabCatalogueCache labCatalogueCache;
     private final AllTestsAndPanelsMapper allTestsAndPanelsMapper;
 
     @Autowired
-    public AllTestsAndPanelsController(ConceptService conceptService) {
+    public AllTestsAndPanelsController(ConceptService conceptService, LabCatalogueCache labCatalogueCache) {
+        this.labCatalogueCache = labCatalogueCache;
         this.conceptService = conceptService;
         this.allTestsAndPanelsMapper = new AllTestsAndPanelsMapper();
     }
 
     @RequestMapping(value = "/{uuid}", method = RequestMethod.GET)
     @ResponseBody
-    public AllTestsAndPanels getAllTestsAndPanels(@PathVariable("uuid") String uuid) {
-        final Concept allTestsAndPanelsConceptSet = conceptService.getConceptByUuid(uuid);
-        if (allTestsAndPanelsConceptSet == null) {
-            throw new ConceptNotFoundException("All tests and panels concept set not found with uuid " + uuid);
+    public AllTestsAndPanels getAllTestsAndPanels(@PathVariable("uuid") String uuid, WebRequest webRequest) {
+        LabCatalogueSnapshot<AllTestsAndPanels> snapshot = labCatalogueCache.get(TESTS_AND_PANEL, uuid, Context.getLocale(), () -> {
+            final Concept allTestsAndPanelsConceptSet = conceptService.getConceptByUuid(uuid);
+            if (allTestsAndPanelsConceptSet == null) {
+                throw new ConceptNotFoundException("All tests and panels concept set not found with uuid " + uuid);
+            }
+            return allTestsAndPanelsMapper.map(allTestsAndPanelsConceptSet);
+        });
+        if (webRequest.checkNotModified(snapshot.getETag())) {
+            return null;
         }
-        return allTestsAndPanelsMapper.map(allTestsAndPanelsConceptSet);
+        return snapshot.getResource();
     }
 }
\ No newline at end of file
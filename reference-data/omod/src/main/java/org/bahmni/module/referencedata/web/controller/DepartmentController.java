@@ -1,9 +1,12 @@
 package org.bahmni.module.referencedata.web.controller;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueSnapshot;
 import org.bahmni.module.referencedata.labconcepts.contract.Department;
 import org.bahmni.module.referencedata.labconcepts.mapper.DepartmentMapper;
 import org.openmrs.Concept;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,26 +15,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.bahmni.module.referencedata.labconcepts.model.event.ConceptServiceEventFactory.DEPARTMENT;
 
 @Controller
 @RequestMapping(value = "/rest/v1/reference-data/department")
 public class DepartmentController extends BaseRestController {
     private ConceptService conceptService;
+    private final LabCatalogueCache labCatalogueCache;
     private final DepartmentMapper departmentMapper;
 
     @Autowired
-    public DepartmentController(ConceptService conceptService) {
+    public DepartmentController(ConceptService conceptService, LabCatalogueCache labCatalogueCache) {
+        this.labCatalogueCache = labCatalogueCache;
         departmentMapper = new DepartmentMapper();
         this.conceptService = conceptService;
     }
 
     @RequestMapping(value = "/{uuid}", method = RequestMethod.GET)
     @ResponseBody
-    public Department getDepartment(@PathVariable("uuid") String uuid) {
-        final Concept department = conceptService.getConceptByUuid(uuid);
-        if (department == null) {
-            throw new ConceptNotFoundException("No department concept found with uuid " + uuid);
+    public Department getDepartment(@PathVariable("uuid") String uuid, WebRequest webRequest) {
+        LabCatalogueSnapshot<Department> snapshot = labCatalogueCache.get(DEPARTMENT, uuid, Context.getLocale(), () -> {
+            final Concept department = conceptService.getConceptByUuid(uuid);
+            if (department == null) {
+                throw new ConceptNotFoundException("No department concept found with uuid " + uuid);
+            }
+            return departmentMapper.map(department);
+        });
+        if (webRequest.checkNotModified(snapshot.getETag())) {
+            return null;
         }
-        return departmentMapper.map(department);
+        return snapshot.getResource();
     }
 }
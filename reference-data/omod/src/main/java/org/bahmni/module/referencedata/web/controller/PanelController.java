@@ -1,9 +1,12 @@
 package org.bahmni.module.referencedata.web.controller;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueSnapshot;
 import org.bahmni.module.referencedata.labconcepts.contract.Panel;
 import org.bahmni.module.referencedata.labconcepts.mapper.PanelMapper;
 import org.openmrs.Concept;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,26 +15,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.bahmni.module.referencedata.labconcepts.model.event.ConceptServiceEventFactory.PANEL;
 
 @Controller
 @RequestMapping(value = "/rest/v1/reference-data/panel")
 public class PanelController extends BaseRestController {
     private ConceptService conceptService;
+    private final LabCatalogueCache labCatalogueCache;
     private final PanelMapper panelMapper;
 
     @Autowired
-    public PanelController(ConceptService conceptService) {
+    public PanelController(ConceptService conceptService, LabCatalogueCache labCatalogueCache) {
+        this.labCatalogueCache = labCatalogueCache;
         panelMapper = new PanelMapper();
         this.conceptService = conceptService;
     }
 
     @RequestMapping(value = "/{uuid}", method = RequestMethod.GET)
     @ResponseBody
-    public Panel getPanel(@PathVariable("uuid") String uuid) {
-        final Concept panel = conceptService.getConceptByUuid(uuid);
-        if (panel == null) {
-            throw new ConceptNotFoundException("No panel concept found with uuid " + uuid);
+    public Panel getPanel(@PathVariable("uuid") String uuid, WebRequest webRequest) {
+        LabCatalogueSnapshot<Panel> snapshot = labCatalogueCache.get(PANEL, uuid, Context.getLocale(), () -> {
+            final Concept panel = conceptService.getConceptByUuid(uuid);
+            if (panel == null) {
+                throw new ConceptNotFoundException("No panel concept found with uuid " + uuid);
+            }
+            return panelMapper.map(panel);
+        });
+        if (webRequest.checkNotModified(snapshot.getETag())) {
+            return null;
         }
-        return panelMapper.map(panel);
+        return snapshot.getResource();
     }
 }
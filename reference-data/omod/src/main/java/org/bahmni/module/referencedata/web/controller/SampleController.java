@@ -1,9 +1,12 @@
 package org.bahmni.module.referencedata.web.controller;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueSnapshot;
 import org.bahmni.module.referencedata.labconcepts.contract.Sample;
 import org.bahmni.module.referencedata.labconcepts.mapper.SampleMapper;
 import org.openmrs.Concept;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,26 +15,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.bahmni.module.referencedata.labconcepts.model.event.ConceptServiceEventFactory.SAMPLE;
 
 @Controller
 @RequestMapping(value = "/rest/v1/reference-data/sample")
 public class SampleController extends BaseRestController {
     private ConceptService conceptService;
+    private final LabCatalogueCache labCatalogueCache;
     private final SampleMapper sampleMapper;
 
     @Autowired
-    public SampleController(ConceptService conceptService) {
+    public SampleController(ConceptService conceptService, LabCatalogueCache labCatalogueCache) {
+        this.labCatalogueCache = labCatalogueCache;
         sampleMapper = new SampleMapper();
         this.conceptService = conceptService;
     }
 
     @RequestMapping(value = "/{uuid}", method = RequestMethod.GET)
     @ResponseBody
-    public Sample getSample(@PathVariable("uuid") String uuid) {
-        final Concept sample = conceptService.getConceptByUuid(uuid);
-        if (sample == null) {
-            throw new ConceptNotFoundException("No sample concept found with uuid " + uuid);
+    public Sample getSample(@PathVariable("uuid") String uuid, WebRequest webRequest) {
+        LabCatalogueSnapshot<Sample> snapshot = labCatalogueCache.get(SAMPLE, uuid, Context.getLocale(), () -> {
+            final Concept sample = conceptService.getConceptByUuid(uuid);
+            if (sample == null) {
+                throw new ConceptNotFoundException("No sample concept found with uuid " + uuid);
+            }
+            return sampleMapper.map(sample);
+        });
+        if (webRequest.checkNotModified(snapshot.getETag())) {
+            return null;
         }
-        return sampleMapper.map(sample);
+        return snapshot.getResource();
     }
 }
@@ -1,5 +1,6 @@
 package org.bahmni.module.referencedata.labconcepts.advice;
 
+import org.bahmni.module.referencedata.labconcepts.cache.LabCatalogueCache;
 import org.bahmni.module.referencedata.labconcepts.contract.AllSamples;
 import org.bahmni.module.referencedata.labconcepts.contract.Sample;
 import org.bahmni.module.referencedata.labconcepts.model.event.SampleEventTest;
@@ -21,6 +22,8 @@ import org.openmrs.module.atomfeed.transaction.support.AtomFeedSpringTransaction
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -29,6 +32,7 @@ import java.util.Locale;
 
 import static junit.framework.TestCase.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -143,4 +147,23 @@ public class ConceptServiceEventInterceptorTest {
         assertEquals(AFTransactionWork.PropagationDefinition.PROPAGATION_REQUIRED, captor.getValue().getTxPropagationDefinition());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldInvalidateLabCatalogueAgainAfterTheTransactionCompletes() throws Throwable {
+        LabCatalogueCache labCatalogueCache = mock(LabCatalogueCache.class);
+        publishedFeed = new ConceptServiceEventInterceptor(atomFeedSpringTransactionManager, eventService, labCatalogueCache);
+        Method method = ConceptService.class.getMethod("saveConcept", Concept.class);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publishedFeed.afterReturning(null, method, new Object[]{concept}, null);
+            verify(labCatalogueCache, times(1)).invalidate();
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(labCatalogueCache, times(2)).invalidate();
+    }
+}
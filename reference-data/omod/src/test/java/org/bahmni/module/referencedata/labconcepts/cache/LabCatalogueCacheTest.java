@@ -0,0 +1,86 @@
+package org.bahmni.module.referencedata.labconcepts.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.emrapi.encounter.exception.ConceptNotFoundException;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class LabCatalogueCacheTest {
+    private LabCatalogueCache labCatalogueCache;
+    private AtomicInteger loadCount;
+
+    @Before
+    public void setUp() {
+        labCatalogueCache = new LabCatalogueCache();
+        loadCount = new AtomicInteger();
+    }
+
+    @Test
+    public void shouldBuildSnapshotOnlyOnceUntilInvalidated() {
+        LabCatalogueSnapshot<String> first = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood"));
+        LabCatalogueSnapshot<String> second = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood"));
+
+        assertSame(first, second);
+        assertEquals("Blood", second.getResource());
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void shouldRebuildSnapshotWithNewETagAfterInvalidation() {
+        LabCatalogueSnapshot<String> before = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood"));
+        labCatalogueCache.invalidate();
+        LabCatalogueSnapshot<String> after = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Urine"));
+
+        assertEquals("Urine", after.getResource());
+        assertEquals(2, loadCount.get());
+        assertEquals(1, after.getVersion());
+        assertNotEquals(before.getETag(), after.getETag());
+    }
+
+    @Test
+    public void shouldKeepSeparateSnapshotsPerResourceType() {
+        LabCatalogueSnapshot<String> sample = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood"));
+        LabCatalogueSnapshot<String> panel = labCatalogueCache.get("panel", "uuid", Locale.ENGLISH, loader("Routine Blood"));
+
+        assertEquals("Blood", sample.getResource());
+        assertEquals("Routine Blood", panel.getResource());
+        assertNotEquals(sample.getETag(), panel.getETag());
+    }
+
+    @Test
+    public void shouldKeepSeparateSnapshotsPerLocale() {
+        LabCatalogueSnapshot<String> english = labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood"));
+        LabCatalogueSnapshot<String> french = labCatalogueCache.get("sample", "uuid", Locale.FRENCH, loader("Sang"));
+
+        assertEquals("Blood", english.getResource());
+        assertEquals("Sang", french.getResource());
+        assertEquals(2, loadCount.get());
+        assertNotEquals(english.getETag(), french.getETag());
+    }
+
+    @Test
+    public void shouldNotCacheFailedLoads() {
+        try {
+            labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, () -> {
+                throw new ConceptNotFoundException("No sample concept found with uuid uuid");
+            });
+        } catch (ConceptNotFoundException ignored) {
+        }
+
+        assertEquals("Blood", labCatalogueCache.get("sample", "uuid", Locale.ENGLISH, loader("Blood")).getResource());
+    }
+
+    private Supplier<String> loader(final String resource) {
+        return () -> {
+            loadCount.incrementAndGet();
+            return resource;
+        };
+    }
+}